@@ -0,0 +1,98 @@
+package edu.cinema.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passage à l'échelle du calcul en masse de 1 à N threads.
+ * Le score est exprimé en lots par seconde ; multiplier par batchSize
+ * pour obtenir des commandes par seconde.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchPricingEngineBenchmark {
+
+    @Param({"1000000"})
+    public int batchSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private PricingEngine engine;
+    private ForkJoinPool pool;
+    private BatchPricingEngine batchEngine;
+    private OrderBatch batch;
+    private BreakdownColumns out;
+    private int[] counts;
+
+    @Setup
+    public void setUp() {
+        engine = new PricingEngine();
+        pool = new ForkJoinPool(threads);
+        batchEngine = new BatchPricingEngine(engine, pool, 16_384);
+        batch = randomBatch(batchSize);
+        out = new BreakdownColumns(batchSize);
+        counts = new int[TicketType.values().length];
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    static OrderBatch randomBatch(int size) {
+        Random random = new Random(42L);
+        int types = TicketType.values().length;
+        int[][] counts = new int[types][size];
+        BitSet is3D = new BitSet(size);
+        byte[] days = new byte[size];
+        for (int i = 0; i < size; i++) {
+            for (int t = 0; t < types; t++) {
+                counts[t][i] = random.nextInt(3);
+            }
+            is3D.set(i, random.nextBoolean());
+            days[i] = (byte) (1 + random.nextInt(7));
+        }
+        return new OrderBatch(counts, is3D, days, size);
+    }
+
+    @Benchmark
+    public BreakdownColumns batch() {
+        batchEngine.computeTotals(batch, out);
+        return out;
+    }
+
+    /**
+     * Référence : une commande et un PriceBreakdown à la fois (ignore le paramètre threads).
+     */
+    @Benchmark
+    public double scalarLoop() {
+        double sum = 0.0;
+        for (int i = 0; i < batch.size(); i++) {
+            for (TicketType type : TicketType.values()) {
+                counts[type.ordinal()] = batch.count(type, i);
+            }
+            sum += engine.computeTotal(counts, batch.is3D(i), batch.day(i)).getTotal();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,79 @@
+package edu.cinema.pricing;
+
+import edu.cinema.pricing.io.OrderRequestCodec;
+import edu.cinema.pricing.io.PriceBreakdownCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation d'un détail de calcul et lecture d'une demande : codecs écrits à la main
+ * contre le formatage par {@code String.format} (référence de {@link PriceBreakdown#toString()}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private PriceBreakdown breakdown;
+    private PriceBreakdownCodec breakdownCodec;
+    private OrderRequestCodec requestCodec;
+    private ByteBuffer out;
+    private ByteBuffer request;
+
+    @Setup
+    public void setUp() {
+        breakdown = new PricingEngine().computeTotal(
+            List.of(TicketType.ADULT, TicketType.CHILD, TicketType.STUDENT, TicketType.ADULT), true, DayOfWeek.WEDNESDAY);
+        breakdownCodec = new PriceBreakdownCodec();
+        requestCodec = new OrderRequestCodec();
+        out = ByteBuffer.allocate(PriceBreakdownCodec.MAX_JSON_BYTES);
+        request = ByteBuffer.allocate(OrderRequestCodec.maxJsonBytes(4));
+        requestCodec.writeJson(List.of(TicketType.ADULT, TicketType.CHILD, TicketType.STUDENT, TicketType.ADULT),
+            true, DayOfWeek.WEDNESDAY, request);
+    }
+
+    @Benchmark
+    public ByteBuffer writeJson() {
+        out.clear();
+        breakdownCodec.writeJson(breakdown, out);
+        return out;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBinary() {
+        out.clear();
+        breakdownCodec.writeBinary(breakdown, out);
+        return out;
+    }
+
+    /**
+     * Référence : texte formaté puis encodé.
+     */
+    @Benchmark
+    public byte[] formatToString() {
+        return breakdown.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int[] readJson() {
+        requestCodec.readJson(request, 0, request.position());
+        return requestCodec.counts();
+    }
+}
@@ -0,0 +1,107 @@
+package edu.cinema.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarif compilé contre le calcul codé en dur qu'il remplace (constantes et règles
+ * Mercredi → 3D → Groupe écrites dans le moteur) : mêmes commandes, même validation,
+ * même résultat. L'écart restant vient des taux lus dans les tables du tarif, là où
+ * l'ancien calcul les avait en constantes repliées par le JIT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompiledTariffBenchmark {
+
+    private static final int ORDERS = 1024;
+
+    // Tarif standard codé en dur, tel qu'avant les tarifs en données
+    private static final double ADULT_PRICE = 10.00;
+    private static final double CHILD_PRICE = 6.00;
+    private static final double SENIOR_PRICE = 7.50;
+    private static final double STUDENT_PRICE = 8.00;
+    private static final double WEDNESDAY_DISCOUNT_RATE = 0.20;
+    private static final double THREE_D_SURCHARGE_PER_TICKET = 2.00;
+    private static final double GROUP_DISCOUNT_RATE = 0.10;
+    private static final int GROUP_THRESHOLD = 4;
+
+    private PricingEngine engine;
+    private int[][] counts;
+    private boolean[] is3D;
+    private DayOfWeek[] days;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        engine = new PricingEngine();
+        SplittableRandom random = new SplittableRandom(42L);
+        counts = new int[ORDERS][TicketType.values().length];
+        is3D = new boolean[ORDERS];
+        days = new DayOfWeek[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            for (int t = 0; t < counts[i].length; t++) {
+                counts[i][t] = random.nextInt(3);
+            }
+            is3D[i] = random.nextInt(3) == 0;
+            days[i] = DayOfWeek.of(1 + random.nextInt(7));
+        }
+    }
+
+    @Benchmark
+    public PriceBreakdown compiled() {
+        int i = next++ & (ORDERS - 1);
+        return engine.computeTotal(counts[i], is3D[i], days[i]);
+    }
+
+    @Benchmark
+    public PriceBreakdown hardCoded() {
+        int i = next++ & (ORDERS - 1);
+        return hardCodedTotal(counts[i], is3D[i], days[i]);
+    }
+
+    private static PriceBreakdown hardCodedTotal(int[] counts, boolean is3D, DayOfWeek day) {
+        int ticketCount = PricingEngine.validateCounts(counts);
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        double subtotal = counts[TicketType.ADULT.ordinal()] * ADULT_PRICE
+            + counts[TicketType.CHILD.ordinal()] * CHILD_PRICE
+            + counts[TicketType.SENIOR.ordinal()] * SENIOR_PRICE
+            + counts[TicketType.STUDENT.ordinal()] * STUDENT_PRICE;
+
+        double wednesdayDiscount = 0.0;
+        double threeDSurcharge = 0.0;
+        double groupDiscount = 0.0;
+        double currentAmount = subtotal;
+        if (day == DayOfWeek.WEDNESDAY) {
+            wednesdayDiscount = currentAmount * WEDNESDAY_DISCOUNT_RATE;
+            currentAmount -= wednesdayDiscount;
+        }
+        if (is3D) {
+            threeDSurcharge = THREE_D_SURCHARGE_PER_TICKET * ticketCount;
+            currentAmount += threeDSurcharge;
+        }
+        if (ticketCount >= GROUP_THRESHOLD) {
+            groupDiscount = currentAmount * GROUP_DISCOUNT_RATE;
+            currentAmount -= groupDiscount;
+        }
+        double total = CompiledTariff.roundToCents(currentAmount);
+        return new PriceBreakdown(subtotal, wednesdayDiscount, threeDSurcharge, groupDiscount, total);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.cinema.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu d'une ligne d'écran (un billet de chaque type, paniers famille et groupe) pour
+ * une séance du programme : lecture de la grille précalculée contre six calculs du moteur.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceGridBenchmark {
+
+    private static final int SHOWINGS = 1024;
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    private static final int[][] CARTS = {{2, 2, 0, 0}, {10, 0, 0, 0}};
+    private static final int[][] SINGLE_TICKETS = {{1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 1, 0}, {0, 0, 0, 1}};
+
+    private PricingEngine engine;
+    private PriceGrid grid;
+    private DayOfWeek[] days;
+    private boolean[] is3D;
+    private long[] row;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        engine = new PricingEngine();
+        grid = new PriceGrid(engine);
+        SplittableRandom random = new SplittableRandom(42L);
+        days = new DayOfWeek[SHOWINGS];
+        is3D = new boolean[SHOWINGS];
+        for (int s = 0; s < SHOWINGS; s++) {
+            days[s] = DayOfWeek.of(1 + random.nextInt(7));
+            is3D[s] = random.nextInt(3) == 0;
+        }
+        grid.setSchedule(days, is3D);
+        row = new long[grid.rowWidth()];
+    }
+
+    @Benchmark
+    public long[] grid() {
+        return grid.rowCents(next++ & (SHOWINGS - 1), row);
+    }
+
+    /**
+     * Référence : la même ligne calculée par le moteur à chaque rendu.
+     */
+    @Benchmark
+    public long[] engine() {
+        int showing = next++ & (SHOWINGS - 1);
+        for (int t = 0; t < TICKET_TYPES.length; t++) {
+            row[t] = engine.computeTotalCents(SINGLE_TICKETS[t], is3D[showing], days[showing]);
+        }
+        for (int c = 0; c < CARTS.length; c++) {
+            row[TICKET_TYPES.length + c] = engine.computeTotalCents(CARTS[c], is3D[showing], days[showing]);
+        }
+        return row;
+    }
+}
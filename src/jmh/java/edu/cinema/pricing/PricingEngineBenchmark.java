@@ -0,0 +1,144 @@
+package edu.cinema.pricing;
+
+import edu.cinema.pricing.metrics.PricingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de référence pour {@link PricingEngine}.
+ * Mesure le débit (ops/s) selon la taille du panier, le jour, la 3D
+ * et l'implémentation de la liste. Lancer avec {@code -prof gc}
+ * pour obtenir les allocations par opération.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    /**
+     * Panier paramétré : taille, jour, 3D et implémentation de la liste.
+     */
+    @State(Scope.Benchmark)
+    public static class CartState {
+        @Param({"1", "4", "50", "10000"})
+        public int cartSize;
+
+        @Param({"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"})
+        public DayOfWeek day;
+
+        @Param({"false", "true"})
+        public boolean is3D;
+
+        @Param({"ARRAY_LIST", "LIST_OF"})
+        public String listKind;
+
+        PricingEngine engine;
+        List<TicketType> tickets;
+        int[] counts;
+        QuoteCache cache;
+        PricingEngine instrumented;
+
+        @Setup
+        public void setUp() {
+            engine = new PricingEngine();
+            instrumented = new PricingEngine(Tariff.standard(), new PricingMetrics());
+            tickets = buildCart(cartSize, listKind);
+            counts = PricingEngine.countByType(tickets);
+            cache = new QuoteCache(engine, 1024);
+        }
+    }
+
+    /**
+     * Détenteur de résultat propre à chaque thread de mesure.
+     */
+    @State(Scope.Thread)
+    public static class HolderState {
+        final MutablePriceBreakdown out = new MutablePriceBreakdown();
+    }
+
+    /**
+     * Type de billet paramétré pour {@link PricingEngine#basePrice}.
+     */
+    @State(Scope.Benchmark)
+    public static class TypeState {
+        @Param({"ADULT", "CHILD", "SENIOR", "STUDENT"})
+        public TicketType type;
+
+        PricingEngine engine;
+
+        @Setup
+        public void setUp() {
+            engine = new PricingEngine();
+        }
+    }
+
+    /**
+     * Construit un panier déterministe qui alterne tous les types de billets.
+     */
+    static List<TicketType> buildCart(int size, String listKind) {
+        TicketType[] types = TicketType.values();
+        List<TicketType> cart = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cart.add(types[i % types.length]);
+        }
+        switch (listKind) {
+            case "ARRAY_LIST":
+                return cart;
+            case "LIST_OF":
+                return List.copyOf(cart);
+            default:
+                throw new IllegalArgumentException("Unknown list kind: " + listKind);
+        }
+    }
+
+    @Benchmark
+    public PriceBreakdown computeTotal(CartState state) {
+        return state.engine.computeTotal(state.tickets, state.is3D, state.day);
+    }
+
+    @Benchmark
+    public PriceBreakdown computeTotalCounts(CartState state) {
+        return state.engine.computeTotal(state.counts, state.is3D, state.day);
+    }
+
+    @Benchmark
+    public MutablePriceBreakdown computeTotalCountsIntoHolder(CartState state, HolderState holder) {
+        return state.engine.computeTotal(state.counts, state.is3D, state.day, holder.out);
+    }
+
+    @Benchmark
+    public long computeTotalCents(CartState state) {
+        return state.engine.computeTotalCents(state.counts, state.is3D, state.day);
+    }
+
+    @Benchmark
+    public PriceBreakdown cachedComputeTotalCounts(CartState state) {
+        return state.cache.computeTotal(state.counts, state.is3D, state.day);
+    }
+
+    @Benchmark
+    public PriceBreakdown instrumentedComputeTotalCounts(CartState state) {
+        return state.instrumented.computeTotal(state.counts, state.is3D, state.day);
+    }
+
+    @Benchmark
+    public double basePrice(TypeState state) {
+        return state.engine.basePrice(state.type);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.cinema.pricing;
+
+import edu.cinema.pricing.inventory.SeatMap;
+import edu.cinema.pricing.inventory.SeatReservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réservation tarifée puis abandon sur une même salle, par de nombreux acheteurs à la fois.
+ * Comparer le score par thread de {@code -t 1} et {@code -t 8} (ou plus) : il doit rester
+ * du même ordre quand le nombre d'acheteurs augmente.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SeatMapBenchmark {
+
+    private static final TicketType[] COUPLE = {TicketType.ADULT, TicketType.STUDENT};
+
+    private SeatMap auditorium;
+
+    @Setup
+    public void setUp() {
+        // 20 rangs de 30 places, à moitié vendus d'avance
+        auditorium = new SeatMap(new PricingEngine(), 20, 30, true, DayOfWeek.SATURDAY, Duration.ofMinutes(10));
+        for (int i = 0; i < 150; i++) {
+            auditorium.confirm(auditorium.reserve(COUPLE));
+        }
+    }
+
+    @Benchmark
+    public SeatReservation reserveAndRelease() {
+        SeatReservation reservation = auditorium.reserve(COUPLE);
+        if (reservation != null) {
+            auditorium.release(reservation);
+        }
+        return reservation;
+    }
+}
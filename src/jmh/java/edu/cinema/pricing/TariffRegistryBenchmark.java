@@ -0,0 +1,85 @@
+package edu.cinema.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul au tarif d'une salle selon le nombre de salles enregistrées : le coût
+ * de la recherche doit rester plat. Référence : le même calcul sur un moteur seul.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TariffRegistryBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10", "10000", "1000000"})
+    public int venues;
+
+    private final int[] counts = {2, 1, 0, 1};
+    private final MutablePriceBreakdown holder = new MutablePriceBreakdown();
+    private TariffRegistry registry;
+    private PricingEngine engine;
+    private int[] lookups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<TicketType, Double> prices = new EnumMap<>(TicketType.class);
+        prices.put(TicketType.ADULT, 9.00);
+        prices.put(TicketType.CHILD, 5.00);
+        prices.put(TicketType.SENIOR, 6.50);
+        prices.put(TicketType.STUDENT, 7.00);
+        Tariff other = new Tariff(prices, List.of(
+            TariffRule.dayDiscount(0.30, DayOfWeek.MONDAY),
+            TariffRule.quantityDiscount(6, 0.15)));
+        SplittableRandom random = new SplittableRandom(42L);
+        int[] ids = new int[venues];
+        Tariff[] tariffs = new Tariff[venues];
+        for (int i = 0; i < venues; i++) {
+            ids[i] = random.nextInt();
+            tariffs[i] = i % 4 == 0 ? other : Tariff.standard();
+        }
+        registry = new TariffRegistry();
+        registry.registerAll(ids, tariffs);
+        engine = new PricingEngine();
+        lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = ids[random.nextInt(venues)];
+        }
+    }
+
+    @Benchmark
+    public MutablePriceBreakdown registry() {
+        int venueId = lookups[next++ & (LOOKUPS - 1)];
+        return registry.computeTotal(venueId, counts, true, DayOfWeek.FRIDAY, holder);
+    }
+
+    /**
+     * Référence : même calcul sans recherche de salle.
+     */
+    @Benchmark
+    public MutablePriceBreakdown singleEngine() {
+        return engine.computeTotal(counts, true, DayOfWeek.FRIDAY, holder);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.cinema.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation de plusieurs tarifs candidats : une lecture de l'historique puis une évaluation
+ * par forme de commande distincte, contre un recalcul complet de l'historique par tarif.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TariffSimulatorBenchmark {
+
+    @Param({"1000000"})
+    public int batchSize;
+
+    @Param({"8"})
+    public int candidates;
+
+    private OrderBatch batch;
+    private Tariff baseline;
+    private List<Tariff> tariffs;
+    private TariffSimulator simulator;
+    private BatchPricingEngine[] engines;
+    private BreakdownColumns out;
+
+    @Setup
+    public void setUp() {
+        batch = BatchPricingEngineBenchmark.randomBatch(batchSize);
+        baseline = Tariff.standard();
+        Map<TicketType, Double> prices = new EnumMap<>(TicketType.class);
+        for (TicketType type : TicketType.values()) {
+            prices.put(type, baseline.basePrice(type));
+        }
+        tariffs = new ArrayList<>();
+        for (int c = 0; c < candidates; c++) {
+            tariffs.add(new Tariff(prices, List.of(
+                TariffRule.dayDiscount(0.10 + 0.05 * c, DayOfWeek.of(1 + c % 7)),
+                TariffRule.quantityDiscount(4, 0.10))));
+        }
+        simulator = new TariffSimulator();
+        engines = new BatchPricingEngine[candidates + 1];
+        engines[0] = new BatchPricingEngine();
+        for (int c = 0; c < candidates; c++) {
+            engines[c + 1] = new BatchPricingEngine(new PricingEngine(tariffs.get(c)),
+                ForkJoinPool.commonPool(), 16_384);
+        }
+        out = new BreakdownColumns(batchSize);
+    }
+
+    @Benchmark
+    public SimulationReport fused() {
+        return simulator.simulate(batch, baseline, tariffs);
+    }
+
+    /**
+     * Référence : une passe complète par tarif, puis somme des totaux.
+     */
+    @Benchmark
+    public long perTariff() {
+        long sum = 0;
+        for (BatchPricingEngine engine : engines) {
+            engine.computeTotals(batch, out);
+            for (double total : out.getTotal()) {
+                sum += Math.round(total * 100);
+            }
+        }
+        return sum;
+    }
+}
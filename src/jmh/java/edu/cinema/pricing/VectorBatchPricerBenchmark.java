@@ -0,0 +1,64 @@
+package edu.cinema.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul en masse sur un seul cœur : boucle vectorisée contre boucle scalaire.
+ * Le score est exprimé en lots par seconde ; multiplier par batchSize
+ * pour obtenir des commandes par seconde.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class VectorBatchPricerBenchmark {
+
+    @Param({"4096", "1000000"})
+    public int batchSize;
+
+    private CompiledTariff tariff;
+    private VectorBatchPricer vectorPricer;
+    private OrderBatch batch;
+    private BreakdownColumns out;
+
+    @Setup
+    public void setUp() {
+        PricingEngine engine = new PricingEngine();
+        tariff = engine.snapshot();
+        vectorPricer = new VectorBatchPricer(engine);
+        if (!VectorBatchPricer.isVectorized()) {
+            throw new IllegalStateException("jdk.incubator.vector is not available in the benchmark JVM");
+        }
+        batch = BatchPricingEngineBenchmark.randomBatch(batchSize);
+        out = new BreakdownColumns(batchSize);
+    }
+
+    @Benchmark
+    public BreakdownColumns vector() {
+        vectorPricer.computeTotals(batch, out);
+        return out;
+    }
+
+    /**
+     * Référence : la boucle scalaire de BatchPricingEngine, sur un seul thread.
+     */
+    @Benchmark
+    public BreakdownColumns scalar() {
+        tariff.evaluateRange(batch, out, 0, batch.size());
+        return out;
+    }
+}
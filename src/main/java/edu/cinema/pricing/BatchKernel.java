@@ -0,0 +1,17 @@
+package edu.cinema.pricing;
+
+/**
+ * Boucle de calcul d'une tranche de lot sur un tarif compilé.
+ */
+interface BatchKernel {
+
+    /**
+     * Boucle scalaire de {@link CompiledTariff#evaluateRange}, disponible partout.
+     */
+    BatchKernel SCALAR = CompiledTariff::evaluateRange;
+
+    /**
+     * Calcule les commandes [from, to) du lot et écrit les résultats dans les colonnes.
+     */
+    void evaluate(CompiledTariff tariff, OrderBatch batch, BreakdownColumns out, int from, int to);
+}
@@ -0,0 +1,103 @@
+package edu.cinema.pricing;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Calcul en masse au-dessus de {@link PricingEngine}.
+ * Les gros lots sont découpés en tranches réparties sur un {@link ForkJoinPool}.
+ * Les résultats sont identiques au bit près au calcul commande par commande.
+ * Tout le lot est calculé sur un seul instantané du tarif, même en cas de rechargement.
+ */
+public class BatchPricingEngine {
+
+    // Taille de tranche par défaut en dessous de laquelle on ne découpe plus
+    private static final int DEFAULT_SPLIT_THRESHOLD = 4096;
+
+    private final PricingEngine engine;
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    /**
+     * Moteur par défaut sur le pool commun.
+     */
+    public BatchPricingEngine() {
+        this(new PricingEngine(), ForkJoinPool.commonPool(), DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Constructeur complet.
+     *
+     * @param engine         Moteur de tarification scalaire
+     * @param pool           Pool utilisé pour les lots plus grands que splitThreshold
+     * @param splitThreshold Taille de tranche minimale (≥ 1)
+     * @throws IllegalArgumentException si engine ou pool est null, ou splitThreshold < 1
+     */
+    public BatchPricingEngine(PricingEngine engine, ForkJoinPool pool, int splitThreshold) {
+        if (engine == null || pool == null) {
+            throw new IllegalArgumentException("Engine and pool cannot be null");
+        }
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("Split threshold must be positive: " + splitThreshold);
+        }
+        this.engine = engine;
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    /**
+     * Calcule toutes les commandes du lot et écrit les résultats dans les colonnes.
+     *
+     * @param batch Lot de commandes
+     * @param out   Colonnes de sortie (capacité ≥ taille du lot)
+     * @return Version du tarif utilisé pour tout le lot
+     * @throws IllegalArgumentException si batch ou out est null, ou si out est trop petit
+     */
+    public long computeTotals(OrderBatch batch, BreakdownColumns out) {
+        if (batch == null || out == null) {
+            throw new IllegalArgumentException("Batch and result columns cannot be null");
+        }
+        if (out.capacity() < batch.size()) {
+            throw new IllegalArgumentException("Result columns too small for batch of " + batch.size());
+        }
+        CompiledTariff tariff = engine.snapshot();
+        if (batch.size() <= splitThreshold) {
+            tariff.evaluateRange(batch, out, 0, batch.size());
+        } else {
+            pool.invoke(new RangeTask(tariff, batch, out, 0, batch.size()));
+        }
+        return tariff.getVersion();
+    }
+
+    /**
+     * Tranche [from, to) du lot, découpée en deux tant qu'elle dépasse le seuil.
+     * Sérialisable par héritage de ForkJoinTask seulement : elle ne quitte jamais le pool.
+     */
+    @SuppressWarnings("serial") // tarif, lot et colonnes non sérialisables ; tâche jamais sérialisée
+    private final class RangeTask extends RecursiveAction {
+        private final CompiledTariff tariff;
+        private final OrderBatch batch;
+        private final BreakdownColumns out;
+        private final int from;
+        private final int to;
+
+        RangeTask(CompiledTariff tariff, OrderBatch batch, BreakdownColumns out, int from, int to) {
+            this.tariff = tariff;
+            this.batch = batch;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= splitThreshold) {
+                tariff.evaluateRange(batch, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(tariff, batch, out, from, mid),
+                      new RangeTask(tariff, batch, out, mid, to));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package edu.cinema.pricing;
+
+/**
+ * Résultats d'un lot au format colonnes : un tableau par champ de {@link PriceBreakdown}.
+ * Les tableaux sont fournis par l'appelant et réutilisables d'un lot à l'autre.
+ */
+public final class BreakdownColumns {
+    private final double[] subtotal;
+    private final double[] wednesdayDiscount;
+    private final double[] threeDSurcharge;
+    private final double[] groupDiscount;
+    private final double[] total;
+
+    /**
+     * Alloue des colonnes de la capacité donnée.
+     *
+     * @param capacity Nombre maximal de commandes
+     */
+    public BreakdownColumns(int capacity) {
+        this(new double[capacity], new double[capacity], new double[capacity],
+             new double[capacity], new double[capacity]);
+    }
+
+    /**
+     * Utilise les tableaux fournis par l'appelant.
+     *
+     * @throws IllegalArgumentException si un tableau est null ou si les longueurs diffèrent
+     */
+    public BreakdownColumns(double[] subtotal, double[] wednesdayDiscount,
+                            double[] threeDSurcharge, double[] groupDiscount,
+                            double[] total) {
+        if (subtotal == null || wednesdayDiscount == null || threeDSurcharge == null
+                || groupDiscount == null || total == null) {
+            throw new IllegalArgumentException("Result columns cannot be null");
+        }
+        int capacity = subtotal.length;
+        if (wednesdayDiscount.length != capacity || threeDSurcharge.length != capacity
+                || groupDiscount.length != capacity || total.length != capacity) {
+            throw new IllegalArgumentException("Result columns must have the same length");
+        }
+        this.subtotal = subtotal;
+        this.wednesdayDiscount = wednesdayDiscount;
+        this.threeDSurcharge = threeDSurcharge;
+        this.groupDiscount = groupDiscount;
+        this.total = total;
+    }
+
+    public int capacity() {
+        return subtotal.length;
+    }
+
+    public double[] getSubtotal() {
+        return subtotal;
+    }
+
+    public double[] getWednesdayDiscount() {
+        return wednesdayDiscount;
+    }
+
+    public double[] getThreeDSurcharge() {
+        return threeDSurcharge;
+    }
+
+    public double[] getGroupDiscount() {
+        return groupDiscount;
+    }
+
+    public double[] getTotal() {
+        return total;
+    }
+
+    /**
+     * Reconstruit le détail d'une commande (alloue un {@link PriceBreakdown}).
+     */
+    public PriceBreakdown get(int order) {
+        return new PriceBreakdown(subtotal[order], wednesdayDiscount[order],
+                                  threeDSurcharge[order], groupDiscount[order], total[order]);
+    }
+}
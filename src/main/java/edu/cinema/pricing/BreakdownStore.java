@@ -0,0 +1,309 @@
+package edu.cinema.pricing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Stockage en colonnes, hors du tas, d'un grand nombre de détails de calcul.
+ * <p>
+ * Chaque champ de {@link PriceBreakdown} est une colonne ; les colonnes sont découpées
+ * en blocs de {@value #CHUNK_SIZE} commandes, chacun dans un {@link ByteBuffer} direct.
+ * Le tas ne contient qu'un objet par bloc : la pression sur le ramasse-miettes ne dépend
+ * pas du nombre de commandes stockées. La mémoire d'un bloc est rendue quand le stockage
+ * devient inaccessible ; {@link #clear()} permet de réutiliser les blocs déjà alloués.
+ * <p>
+ * La lecture se fait sans allocation : par champ ({@link #get(Column, long)}), par
+ * parcours d'une colonne ({@link #forEach(Column, DoubleConsumer)}, {@link #sum(Column)}),
+ * ou par une vue réutilisable ({@link #view()}).
+ * <p>
+ * Non thread-safe : un seul écrivain, et pas de lecture concurrente d'un ajout.
+ */
+public final class BreakdownStore {
+
+    /**
+     * Colonnes du stockage (champs de {@link PriceBreakdown}).
+     */
+    public enum Column {
+        SUBTOTAL, WEDNESDAY_DISCOUNT, THREE_D_SURCHARGE, GROUP_DISCOUNT, TOTAL, TARIFF_VERSION
+    }
+
+    /** Nombre de commandes par bloc. */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int COLUMN_COUNT = Column.values().length;
+    // Dans un bloc, colonne c à l'octet c * COLUMN_BYTES (valeurs de 8 octets)
+    private static final int COLUMN_BYTES = CHUNK_SIZE * Double.BYTES;
+
+    private static final int SUBTOTAL = Column.SUBTOTAL.ordinal() * COLUMN_BYTES;
+    private static final int WEDNESDAY = Column.WEDNESDAY_DISCOUNT.ordinal() * COLUMN_BYTES;
+    private static final int THREE_D = Column.THREE_D_SURCHARGE.ordinal() * COLUMN_BYTES;
+    private static final int GROUP = Column.GROUP_DISCOUNT.ordinal() * COLUMN_BYTES;
+    private static final int TOTAL = Column.TOTAL.ordinal() * COLUMN_BYTES;
+    private static final int VERSION = Column.TARIFF_VERSION.ordinal() * COLUMN_BYTES;
+
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int allocatedChunks;
+    private long size;
+
+    /**
+     * @return Nombre de commandes stockées
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Mémoire hors tas allouée, en octets
+     */
+    public long offHeapBytes() {
+        return (long) allocatedChunks * COLUMN_COUNT * COLUMN_BYTES;
+    }
+
+    /**
+     * Vide le stockage en conservant les blocs alloués.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // ==================== AJOUT ====================
+
+    /**
+     * Ajoute un détail de calcul.
+     *
+     * @return Indice de la commande ajoutée
+     * @throws IllegalArgumentException si breakdown est null
+     */
+    public long append(PriceBreakdown breakdown) {
+        if (breakdown == null) {
+            throw new IllegalArgumentException("Breakdown cannot be null");
+        }
+        return append(breakdown.getSubtotal(), breakdown.getWednesdayDiscount(),
+                      breakdown.getThreeDSurcharge(), breakdown.getGroupDiscount(),
+                      breakdown.getTotal(), breakdown.getTariffVersion());
+    }
+
+    /**
+     * Ajoute un détail de calcul champ par champ (sans objet intermédiaire).
+     *
+     * @return Indice de la commande ajoutée
+     */
+    public long append(double subtotal, double wednesdayDiscount, double threeDSurcharge,
+                       double groupDiscount, double total, long tariffVersion) {
+        long index = size;
+        ByteBuffer chunk = writableChunk(index);
+        int offset = (int) (index & CHUNK_MASK) * Double.BYTES;
+        chunk.putDouble(SUBTOTAL + offset, subtotal);
+        chunk.putDouble(WEDNESDAY + offset, wednesdayDiscount);
+        chunk.putDouble(THREE_D + offset, threeDSurcharge);
+        chunk.putDouble(GROUP + offset, groupDiscount);
+        chunk.putDouble(TOTAL + offset, total);
+        chunk.putLong(VERSION + offset, tariffVersion);
+        size = index + 1;
+        return index;
+    }
+
+    /**
+     * Ajoute les n premiers résultats d'un lot calculé par {@link BatchPricingEngine}.
+     *
+     * @param columns       Résultats du lot
+     * @param n             Nombre de commandes à ajouter
+     * @param tariffVersion Version du tarif renvoyée par le calcul du lot
+     * @throws IllegalArgumentException si columns est null ou n hors de [0, capacité]
+     */
+    public void appendAll(BreakdownColumns columns, int n, long tariffVersion) {
+        if (columns == null) {
+            throw new IllegalArgumentException("Columns cannot be null");
+        }
+        if (n < 0 || n > columns.capacity()) {
+            throw new IllegalArgumentException("Invalid number of results: " + n);
+        }
+        double[] subtotal = columns.getSubtotal();
+        double[] wednesday = columns.getWednesdayDiscount();
+        double[] threeD = columns.getThreeDSurcharge();
+        double[] group = columns.getGroupDiscount();
+        double[] total = columns.getTotal();
+        for (int i = 0; i < n; i++) {
+            append(subtotal[i], wednesday[i], threeD[i], group[i], total[i], tariffVersion);
+        }
+    }
+
+    private ByteBuffer writableChunk(long index) {
+        int c = (int) (index >>> CHUNK_SHIFT);
+        if (c == allocatedChunks) {
+            if (c == chunks.length) {
+                chunks = Arrays.copyOf(chunks, c * 2);
+            }
+            chunks[c] = ByteBuffer.allocateDirect(COLUMN_COUNT * COLUMN_BYTES).order(ByteOrder.nativeOrder());
+            allocatedChunks++;
+        }
+        return chunks[c];
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * Lit un champ d'une commande. La version du tarif est rendue comme un double.
+     *
+     * @throws IndexOutOfBoundsException si index est hors de [0, size)
+     */
+    public double get(Column column, long index) {
+        checkIndex(index);
+        if (column == Column.TARIFF_VERSION) {
+            return longAt(VERSION, index);
+        }
+        return doubleAt(column.ordinal() * COLUMN_BYTES, index);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException si index est hors de [0, size)
+     */
+    public double getTotal(long index) {
+        checkIndex(index);
+        return doubleAt(TOTAL, index);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException si index est hors de [0, size)
+     */
+    public long getTariffVersion(long index) {
+        checkIndex(index);
+        return longAt(VERSION, index);
+    }
+
+    /**
+     * Reconstruit le détail d'une commande (alloue un {@link PriceBreakdown}).
+     *
+     * @throws IndexOutOfBoundsException si index est hors de [0, size)
+     */
+    public PriceBreakdown toBreakdown(long index) {
+        checkIndex(index);
+        return new PriceBreakdown(doubleAt(SUBTOTAL, index), doubleAt(WEDNESDAY, index),
+                                  doubleAt(THREE_D, index), doubleAt(GROUP, index),
+                                  doubleAt(TOTAL, index), longAt(VERSION, index));
+    }
+
+    /**
+     * Parcourt une colonne dans l'ordre d'ajout, bloc par bloc.
+     */
+    public void forEach(Column column, DoubleConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        int base = column.ordinal() * COLUMN_BYTES;
+        boolean version = column == Column.TARIFF_VERSION;
+        long remaining = size;
+        for (int c = 0; remaining > 0; c++) {
+            ByteBuffer chunk = chunks[c];
+            int n = (int) Math.min(remaining, CHUNK_SIZE);
+            for (int i = 0; i < n; i++) {
+                int offset = base + i * Double.BYTES;
+                action.accept(version ? chunk.getLong(offset) : chunk.getDouble(offset));
+            }
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Somme d'une colonne de montants, parcourue bloc par bloc.
+     *
+     * @throws IllegalArgumentException pour la colonne des versions
+     */
+    public double sum(Column column) {
+        if (column == Column.TARIFF_VERSION) {
+            throw new IllegalArgumentException("Tariff versions cannot be summed");
+        }
+        int base = column.ordinal() * COLUMN_BYTES;
+        double sum = 0.0;
+        long remaining = size;
+        for (int c = 0; remaining > 0; c++) {
+            ByteBuffer chunk = chunks[c];
+            int n = (int) Math.min(remaining, CHUNK_SIZE);
+            for (int i = 0; i < n; i++) {
+                sum += chunk.getDouble(base + i * Double.BYTES);
+            }
+            remaining -= n;
+        }
+        return sum;
+    }
+
+    /**
+     * @return Nouvelle vue, à positionner avec {@link View#moveTo(long)}
+     */
+    public View view() {
+        return new View();
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private double doubleAt(int column, long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].getDouble(column + (int) (index & CHUNK_MASK) * Double.BYTES);
+    }
+
+    private long longAt(int column, long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].getLong(column + (int) (index & CHUNK_MASK) * Double.BYTES);
+    }
+
+    /**
+     * Vue réutilisable sur une commande du stockage : les accesseurs lisent en place.
+     * Une même vue sert à parcourir toutes les commandes sans allocation.
+     */
+    public final class View {
+        private ByteBuffer chunk;
+        private int offset;
+        private long index = -1;
+
+        private View() {
+        }
+
+        /**
+         * Positionne la vue sur une commande.
+         *
+         * @return Cette vue
+         * @throws IndexOutOfBoundsException si index est hors de [0, size)
+         */
+        public View moveTo(long index) {
+            checkIndex(index);
+            this.chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+            this.offset = (int) (index & CHUNK_MASK) * Double.BYTES;
+            this.index = index;
+            return this;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        public double getSubtotal() {
+            return chunk.getDouble(SUBTOTAL + offset);
+        }
+
+        public double getWednesdayDiscount() {
+            return chunk.getDouble(WEDNESDAY + offset);
+        }
+
+        public double getThreeDSurcharge() {
+            return chunk.getDouble(THREE_D + offset);
+        }
+
+        public double getGroupDiscount() {
+            return chunk.getDouble(GROUP + offset);
+        }
+
+        public double getTotal() {
+            return chunk.getDouble(TOTAL + offset);
+        }
+
+        public long getTariffVersion() {
+            return chunk.getLong(VERSION + offset);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package edu.cinema.pricing;
+
+/**
+ * Récapitulatif d'une commande en centimes (arithmétique entière exacte).
+ * Classe immuable (final + fields final).
+ */
+public final class CentsBreakdown {
+    private final long subtotal;          // Somme des prix de base
+    private final long wednesdayDiscount; // Remise -20% si mercredi, arrondie au centime
+    private final long threeDSurcharge;   // Supplément +2€ par billet si 3D
+    private final long groupDiscount;     // Remise -10% si ≥4 billets, arrondie au centime
+    private final long total;             // Total final
+    private final long tariffVersion;     // Version du tarif ayant produit ce calcul (0 = inconnue)
+
+    /**
+     * Constructeur complet (montants en centimes).
+     *
+     * @param subtotal          Sous-total avant remises/suppléments
+     * @param wednesdayDiscount Montant de la remise mercredi (positif)
+     * @param threeDSurcharge   Montant du supplément 3D (positif)
+     * @param groupDiscount     Montant de la remise groupe (positif)
+     * @param total             Total final après toutes les règles
+     */
+    public CentsBreakdown(long subtotal, long wednesdayDiscount,
+                          long threeDSurcharge, long groupDiscount,
+                          long total) {
+        this(subtotal, wednesdayDiscount, threeDSurcharge, groupDiscount, total, 0L);
+    }
+
+    /**
+     * Constructeur complet avec version du tarif (montants en centimes).
+     *
+     * @param subtotal          Sous-total avant remises/suppléments
+     * @param wednesdayDiscount Montant de la remise mercredi (positif)
+     * @param threeDSurcharge   Montant du supplément 3D (positif)
+     * @param groupDiscount     Montant de la remise groupe (positif)
+     * @param total             Total final après toutes les règles
+     * @param tariffVersion     Version du tarif utilisé (0 = inconnue)
+     */
+    public CentsBreakdown(long subtotal, long wednesdayDiscount,
+                          long threeDSurcharge, long groupDiscount,
+                          long total, long tariffVersion) {
+        this.subtotal = subtotal;
+        this.wednesdayDiscount = wednesdayDiscount;
+        this.threeDSurcharge = threeDSurcharge;
+        this.groupDiscount = groupDiscount;
+        this.total = total;
+        this.tariffVersion = tariffVersion;
+    }
+
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    public long getWednesdayDiscount() {
+        return wednesdayDiscount;
+    }
+
+    public long getThreeDSurcharge() {
+        return threeDSurcharge;
+    }
+
+    public long getGroupDiscount() {
+        return groupDiscount;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
+    /**
+     * Convertit en euros (chaque montant est exactement au centime).
+     */
+    public PriceBreakdown toPriceBreakdown() {
+        return new PriceBreakdown(subtotal / 100.0, wednesdayDiscount / 100.0,
+                                  threeDSurcharge / 100.0, groupDiscount / 100.0,
+                                  total / 100.0, tariffVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "CentsBreakdown{subtotal=" + subtotal
+            + ", wednesdayDiscount=" + wednesdayDiscount
+            + ", threeDSurcharge=" + threeDSurcharge
+            + ", groupDiscount=" + groupDiscount
+            + ", total=" + total + "}";
+    }
+}
@@ -0,0 +1,339 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Forme compilée d'un {@link Tariff} : tables à plat, évaluées en ligne droite,
+ * sans collection, sans appel virtuel et sans boxing.
+ * <p>
+ * Les prix de base sont rangés par ordinal. La suite de règles est découpée à la
+ * compilation en étapes de forme fixe : une remise jour (table de 7 taux, 0 les jours
+ * non concernés, donc une multiplication sans test du jour), un supplément 3D, puis une
+ * remise quantité, chacune neutre si l'étape n'en a pas. L'évaluation enchaîne les étapes
+ * sans tester la nature des règles ; un tarif usuel (au plus une règle de chaque nature,
+ * dans cet ordre) tient en une seule étape et se calcule comme l'ancien calcul codé en dur,
+ * à ceci près que les taux sont lus dans les tables au lieu d'être des constantes
+ * ({@code CompiledTariffBenchmark} mesure l'écart). {@link VectorKernel} lit la suite de
+ * règles telle quelle ({@link #ops()}).
+ * <p>
+ * Quand une règle ne s'applique pas, son montant vaut 0.0 et ne modifie pas le
+ * montant courant : les résultats sont identiques au bit près à une évaluation
+ * conditionnelle des mêmes règles dans le même ordre.
+ */
+public final class CompiledTariff {
+
+    static final byte DAY_DISCOUNT = 0;
+    static final byte THREE_D_SURCHARGE = 1;
+    static final byte QUANTITY_DISCOUNT = 2;
+    static final int DAYS = 7;
+
+    private final Tariff tariff;
+    private final long version;            // version publiée par le moteur (≥ 1)
+    private final double[] basePrices;     // indexé par TicketType.ordinal()
+    private final long[] basePricesCents;
+    private final byte[] ops;              // nature de chaque règle, dans l'ordre
+    private final double[] dayRates;       // règle r, jour d (lundi = 0) → [r * 7 + d]
+    private final double[] values;         // supplément par billet ou taux de remise quantité
+    private final int[] thresholds;        // seuil des remises quantité
+
+    // Étapes : remise jour, supplément 3D, remise quantité ; valeurs neutres si absentes
+    private final int stages;
+    private final double[] stageDayRates;      // étape s, jour d → [s * 7 + d]
+    private final long[] stageDayRatesBps;     // idem en points de base (10000 = 100%)
+    private final double[] stageSurcharges;
+    private final long[] stageSurchargesCents;
+    private final int[] stageThresholds;       // Integer.MAX_VALUE : pas de remise quantité
+    private final double[] stageQuantityRates;
+    private final long[] stageQuantityBps;
+
+    CompiledTariff(Tariff tariff, long version, double[] basePrices, List<TariffRule> rules) {
+        this.tariff = tariff;
+        this.version = version;
+        this.basePrices = basePrices;
+        this.basePricesCents = new long[basePrices.length];
+        for (int t = 0; t < basePrices.length; t++) {
+            basePricesCents[t] = Math.round(basePrices[t] * 100);
+        }
+        int count = rules.size();
+        this.ops = new byte[count];
+        this.dayRates = new double[count * DAYS];
+        this.values = new double[count];
+        this.thresholds = new int[count];
+        for (int r = 0; r < count; r++) {
+            TariffRule rule = rules.get(r);
+            switch (rule.getKind()) {
+                case DAY_DISCOUNT:
+                    ops[r] = DAY_DISCOUNT;
+                    for (DayOfWeek day : rule.getDays()) {
+                        dayRates[r * DAYS + day.ordinal()] = rule.getRate();
+                    }
+                    break;
+                case THREE_D_SURCHARGE:
+                    ops[r] = THREE_D_SURCHARGE;
+                    values[r] = rule.getAmount();
+                    break;
+                case QUANTITY_DISCOUNT:
+                    ops[r] = QUANTITY_DISCOUNT;
+                    values[r] = rule.getRate();
+                    thresholds[r] = rule.getThreshold();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown rule kind: " + rule.getKind());
+            }
+        }
+
+        // Une étape par suite de règles de nature strictement croissante
+        int stageCount = 0;
+        for (int r = 0; r < count; r++) {
+            if (r == 0 || ops[r] <= ops[r - 1]) {
+                stageCount++;
+            }
+        }
+        this.stages = stageCount;
+        this.stageDayRates = new double[stageCount * DAYS];
+        this.stageDayRatesBps = new long[stageCount * DAYS];
+        this.stageSurcharges = new double[stageCount];
+        this.stageSurchargesCents = new long[stageCount];
+        this.stageThresholds = new int[stageCount];
+        this.stageQuantityRates = new double[stageCount];
+        this.stageQuantityBps = new long[stageCount];
+        Arrays.fill(stageThresholds, Integer.MAX_VALUE);
+        int stage = -1;
+        for (int r = 0; r < count; r++) {
+            if (r == 0 || ops[r] <= ops[r - 1]) {
+                stage++;
+            }
+            switch (ops[r]) {
+                case DAY_DISCOUNT:
+                    for (int d = 0; d < DAYS; d++) {
+                        stageDayRates[stage * DAYS + d] = dayRates[r * DAYS + d];
+                        stageDayRatesBps[stage * DAYS + d] = Math.round(dayRates[r * DAYS + d] * 10_000);
+                    }
+                    break;
+                case THREE_D_SURCHARGE:
+                    stageSurcharges[stage] = values[r];
+                    stageSurchargesCents[stage] = Math.round(values[r] * 100);
+                    break;
+                default:
+                    stageThresholds[stage] = thresholds[r];
+                    stageQuantityRates[stage] = values[r];
+                    stageQuantityBps[stage] = Math.round(values[r] * 10_000);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return Tarif déclaratif dont est issue cette forme compilée
+     */
+    public Tariff getTariff() {
+        return tariff;
+    }
+
+    /**
+     * @return Version de ce tarif, reportée dans chaque {@link PriceBreakdown} produit
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    double basePrice(TicketType type) {
+        return basePrices[type.ordinal()];
+    }
+
+    long basePriceCents(TicketType type) {
+        return basePricesCents[type.ordinal()];
+    }
+
+    /**
+     * Somme des prix de base pour des quantités déjà validées.
+     */
+    double subtotal(int[] counts) {
+        double subtotal = 0.0;
+        for (int t = 0; t < basePrices.length; t++) {
+            subtotal += counts[t] * basePrices[t];
+        }
+        return subtotal;
+    }
+
+    /**
+     * Applique les règles au sous-total et arrondit le total au centime.
+     * Une règle absente d'une étape compte pour 0.0 et ne modifie pas le montant : mêmes
+     * bits qu'une évaluation conditionnelle des règles dans l'ordre du tarif.
+     */
+    PriceBreakdown evaluate(double subtotal, int ticketCount, boolean is3D, DayOfWeek day) {
+        // Montants en variables locales : seul le résultat est alloué
+        int dayIndex = day.ordinal();
+        double currentAmount = subtotal;
+        double dayDiscount = 0.0;
+        double threeDSurcharge = 0.0;
+        double quantityDiscount = 0.0;
+        for (int s = 0; s < stages; s++) {
+            double discount = currentAmount * stageDayRates[s * DAYS + dayIndex];
+            dayDiscount += discount;
+            currentAmount -= discount;
+            double surcharge = is3D ? stageSurcharges[s] * ticketCount : 0.0;
+            threeDSurcharge += surcharge;
+            currentAmount += surcharge;
+            double groupDiscount = ticketCount >= stageThresholds[s] ? currentAmount * stageQuantityRates[s] : 0.0;
+            quantityDiscount += groupDiscount;
+            currentAmount -= groupDiscount;
+        }
+        return new PriceBreakdown(subtotal, dayDiscount, threeDSurcharge,
+                                  quantityDiscount, roundToCents(currentAmount), version);
+    }
+
+    /**
+     * Comme {@link #evaluate(double, int, boolean, DayOfWeek)}, dans un détenteur réutilisé.
+     */
+    void evaluate(double subtotal, int ticketCount, boolean is3D, DayOfWeek day, MutablePriceBreakdown out) {
+        applyRules(subtotal, ticketCount, is3D, day.ordinal(), out);
+    }
+
+    /**
+     * Étapes de {@link #evaluate(double, int, boolean, DayOfWeek)}, détail écrit dans un
+     * détenteur fourni par l'appelant.
+     */
+    private void applyRules(double subtotal, int ticketCount, boolean is3D, int dayIndex, MutablePriceBreakdown out) {
+        double currentAmount = subtotal;
+        double dayDiscount = 0.0;
+        double threeDSurcharge = 0.0;
+        double quantityDiscount = 0.0;
+        for (int s = 0; s < stages; s++) {
+            double discount = currentAmount * stageDayRates[s * DAYS + dayIndex];
+            dayDiscount += discount;
+            currentAmount -= discount;
+            double surcharge = is3D ? stageSurcharges[s] * ticketCount : 0.0;
+            threeDSurcharge += surcharge;
+            currentAmount += surcharge;
+            double groupDiscount = ticketCount >= stageThresholds[s] ? currentAmount * stageQuantityRates[s] : 0.0;
+            quantityDiscount += groupDiscount;
+            currentAmount -= groupDiscount;
+        }
+        out.set(subtotal, dayDiscount, threeDSurcharge, quantityDiscount, roundToCents(currentAmount), version);
+    }
+
+    // Tables compilées, lues par VectorKernel (non copiées : ne pas les modifier)
+
+    double[] basePrices() {
+        return basePrices;
+    }
+
+    long[] basePricesCents() {
+        return basePricesCents;
+    }
+
+    byte[] ops() {
+        return ops;
+    }
+
+    double[] dayRates() {
+        return dayRates;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    int[] thresholds() {
+        return thresholds;
+    }
+
+    /**
+     * Calcule les commandes [from, to) d'un lot et écrit les résultats dans les colonnes.
+     */
+    void evaluateRange(OrderBatch batch, BreakdownColumns out, int from, int to) {
+        int[][] counts = batch.countColumns();
+        BitSet is3DColumn = batch.threeDColumn();
+        byte[] days = batch.dayColumn();
+        double[] subtotals = out.getSubtotal();
+        double[] dayDiscounts = out.getWednesdayDiscount();
+        double[] threeDSurcharges = out.getThreeDSurcharge();
+        double[] quantityDiscounts = out.getGroupDiscount();
+        double[] totals = out.getTotal();
+        MutablePriceBreakdown amounts = new MutablePriceBreakdown();
+
+        for (int i = from; i < to; i++) {
+            double subtotal = 0.0;
+            int ticketCount = 0;
+            for (int t = 0; t < basePrices.length; t++) {
+                int count = counts[t][i];
+                subtotal += count * basePrices[t];
+                ticketCount += count;
+            }
+            applyRules(subtotal, ticketCount, is3DColumn.get(i), days[i] - 1, amounts);
+
+            subtotals[i] = subtotal;
+            dayDiscounts[i] = amounts.getWednesdayDiscount();
+            threeDSurcharges[i] = amounts.getThreeDSurcharge();
+            quantityDiscounts[i] = amounts.getGroupDiscount();
+            totals[i] = amounts.getTotal();
+        }
+    }
+
+    /**
+     * Total en centimes pour des quantités déjà validées, sans allocation.
+     */
+    long totalCents(int[] counts, int ticketCount, boolean is3D, DayOfWeek day) {
+        return applyRulesCents(subtotalCents(counts), ticketCount, is3D, day.ordinal(), null);
+    }
+
+    /**
+     * Détail en centimes pour des quantités déjà validées.
+     */
+    CentsBreakdown breakdownCents(int[] counts, int ticketCount, boolean is3D, DayOfWeek day) {
+        long subtotal = subtotalCents(counts);
+        long[] parts = new long[3];
+        long total = applyRulesCents(subtotal, ticketCount, is3D, day.ordinal(), parts);
+        return new CentsBreakdown(subtotal, parts[0], parts[1], parts[2], total, version);
+    }
+
+    private long subtotalCents(int[] counts) {
+        long subtotal = 0;
+        for (int t = 0; t < basePricesCents.length; t++) {
+            subtotal += counts[t] * basePricesCents[t];
+        }
+        return subtotal;
+    }
+
+    /**
+     * Applique les règles en centimes ; chaque remise est arrondie au centime
+     * le plus proche (demi vers le haut). Les montants par nature de règle sont
+     * cumulés dans parts (remise jour, supplément 3D, remise quantité) si non null.
+     */
+    private long applyRulesCents(long subtotal, int ticketCount, boolean is3D, int dayIndex, long[] parts) {
+        long amount = subtotal;
+        for (int s = 0; s < stages; s++) {
+            long dayDiscount = percentOfCents(amount, stageDayRatesBps[s * DAYS + dayIndex]);
+            amount -= dayDiscount;
+            long surcharge = is3D ? stageSurchargesCents[s] * ticketCount : 0;
+            amount += surcharge;
+            long groupDiscount = ticketCount >= stageThresholds[s] ? percentOfCents(amount, stageQuantityBps[s]) : 0;
+            amount -= groupDiscount;
+            if (parts != null) {
+                parts[DAY_DISCOUNT] += dayDiscount;
+                parts[THREE_D_SURCHARGE] += surcharge;
+                parts[QUANTITY_DISCOUNT] += groupDiscount;
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Applique un taux en points de base à un montant positif en centimes,
+     * arrondi au centime le plus proche (demi vers le haut).
+     */
+    private static long percentOfCents(long amount, long basisPoints) {
+        return (amount * basisPoints + 5_000) / 10_000;
+    }
+
+    /**
+     * Arrondit un montant au centime (2 décimales).
+     */
+    static double roundToCents(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+}
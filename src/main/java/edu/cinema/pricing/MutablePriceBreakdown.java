@@ -0,0 +1,64 @@
+package edu.cinema.pricing;
+
+/**
+ * Détail de calcul modifiable, réutilisé d'un appel à l'autre par son propriétaire.
+ * <p>
+ * Rempli par {@link PricingEngine#computeTotal(int[], boolean, java.time.DayOfWeek, MutablePriceBreakdown)}
+ * pour calculer sans allocation ; mêmes champs et mêmes valeurs que {@link PriceBreakdown}.
+ * Non thread-safe : un détenteur par thread.
+ */
+public final class MutablePriceBreakdown {
+    private double subtotal;
+    private double wednesdayDiscount;
+    private double threeDSurcharge;
+    private double groupDiscount;
+    private double total;
+    private long tariffVersion;
+
+    void set(double subtotal, double wednesdayDiscount, double threeDSurcharge,
+             double groupDiscount, double total, long tariffVersion) {
+        this.subtotal = subtotal;
+        this.wednesdayDiscount = wednesdayDiscount;
+        this.threeDSurcharge = threeDSurcharge;
+        this.groupDiscount = groupDiscount;
+        this.total = total;
+        this.tariffVersion = tariffVersion;
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    public double getWednesdayDiscount() {
+        return wednesdayDiscount;
+    }
+
+    public double getThreeDSurcharge() {
+        return threeDSurcharge;
+    }
+
+    public double getGroupDiscount() {
+        return groupDiscount;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
+    /**
+     * @return Copie immuable du détail courant (alloue un {@link PriceBreakdown})
+     */
+    public PriceBreakdown toPriceBreakdown() {
+        return new PriceBreakdown(subtotal, wednesdayDiscount, threeDSurcharge,
+                                  groupDiscount, total, tariffVersion);
+    }
+
+    @Override
+    public String toString() {
+        return toPriceBreakdown().toString();
+    }
+}
@@ -0,0 +1,105 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.BitSet;
+
+/**
+ * Lot de commandes au format colonnes, pour le calcul en masse.
+ * <p>
+ * Les tableaux sont fournis par l'appelant et ne sont pas copiés : les appelants du chemin
+ * chaud ({@code QuoteBatcher}, {@code PricingProcessor}) réutilisent les mêmes colonnes d'un
+ * lot à l'autre sans allocation. Le lot en devient propriétaire jusqu'à sa dernière
+ * utilisation : les {@code size} premières cases ne doivent plus être modifiées, sans quoi
+ * la validation du constructeur ne vaut plus (quantité négative, total de billets hors d'un
+ * int, jour hors de 1 à 7) et les résultats du calcul sont indéfinis. Un tableau peut être
+ * réécrit pour un nouveau lot une fois le calcul du précédent terminé.
+ */
+public final class OrderBatch {
+    private final int[][] counts; // counts[type.ordinal()][commande]
+    private final BitSet is3D;    // bit i = commande i en 3D
+    private final byte[] days;    // DayOfWeek.getValue() (1 = lundi ... 7 = dimanche)
+    private final int size;
+
+    /**
+     * Constructeur complet. Les colonnes sont validées puis conservées telles quelles
+     * (voir la propriété des tableaux dans la description de la classe).
+     *
+     * @param counts Une colonne de quantités par type de billet, indexée par {@link TicketType#ordinal()}
+     * @param is3D   Bit i positionné si la commande i est une séance 3D
+     * @param days   Jour de chaque commande, codé par {@link DayOfWeek#getValue()}
+     * @param size   Nombre de commandes du lot
+     * @throws IllegalArgumentException si une colonne est null ou trop courte, si une quantité
+     *                                  est négative, si le total de billets d'une commande
+     *                                  dépasse {@link Integer#MAX_VALUE} ou si un jour est invalide
+     */
+    public OrderBatch(int[][] counts, BitSet is3D, byte[] days, int size) {
+        if (counts == null || is3D == null || days == null) {
+            throw new IllegalArgumentException("Batch columns cannot be null");
+        }
+        if (size < 0) {
+            throw new IllegalArgumentException("Batch size cannot be negative: " + size);
+        }
+        if (counts.length != TicketType.values().length) {
+            throw new IllegalArgumentException(
+                "Batch must have one count column per TicketType, got " + counts.length);
+        }
+        for (int[] column : counts) {
+            if (column == null || column.length < size) {
+                throw new IllegalArgumentException("Count column shorter than batch size");
+            }
+        }
+        // Par commande, comme PricingEngine.validateCounts : le total de billets doit tenir dans un int
+        for (int i = 0; i < size; i++) {
+            int ticketCount = 0;
+            for (int[] column : counts) {
+                if (column[i] < 0) {
+                    throw new IllegalArgumentException("Negative count at order " + i);
+                }
+                ticketCount += column[i];
+                if (ticketCount < 0) {
+                    throw new IllegalArgumentException("Total ticket count overflows int at order " + i);
+                }
+            }
+        }
+        if (days.length < size) {
+            throw new IllegalArgumentException("Day column shorter than batch size");
+        }
+        for (int i = 0; i < size; i++) {
+            if (days[i] < 1 || days[i] > 7) {
+                throw new IllegalArgumentException("Invalid day value at order " + i + ": " + days[i]);
+            }
+        }
+        this.counts = counts;
+        this.is3D = is3D;
+        this.days = days;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int count(TicketType type, int order) {
+        return counts[type.ordinal()][order];
+    }
+
+    public boolean is3D(int order) {
+        return is3D.get(order);
+    }
+
+    public DayOfWeek day(int order) {
+        return DayOfWeek.of(days[order]);
+    }
+
+    int[][] countColumns() {
+        return counts;
+    }
+
+    BitSet threeDColumn() {
+        return is3D;
+    }
+
+    byte[] dayColumn() {
+        return days;
+    }
+}
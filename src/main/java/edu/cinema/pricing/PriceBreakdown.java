@@ -12,6 +12,7 @@ public final class PriceBreakdown {
     private final double threeDSurcharge;   // Supplément +2€ par billet si 3D
     private final double groupDiscount;     // Remise -10% si ≥4 billets
     private final double total;             // Total final arrondi
+    private final long tariffVersion;       // Version du tarif ayant produit ce calcul (0 = inconnue)
 
     /**
      * Constructeur complet.
@@ -25,11 +26,28 @@ public final class PriceBreakdown {
     public PriceBreakdown(double subtotal, double wednesdayDiscount, 
                           double threeDSurcharge, double groupDiscount, 
                           double total) {
+        this(subtotal, wednesdayDiscount, threeDSurcharge, groupDiscount, total, 0L);
+    }
+
+    /**
+     * Constructeur complet avec version du tarif.
+     * 
+     * @param subtotal          Sous-total avant remises/suppléments
+     * @param wednesdayDiscount Montant de la remise mercredi (positif)
+     * @param threeDSurcharge   Montant du supplément 3D (positif)
+     * @param groupDiscount     Montant de la remise groupe (positif)
+     * @param total             Total final après toutes les règles
+     * @param tariffVersion     Version du tarif utilisé (0 = inconnue)
+     */
+    public PriceBreakdown(double subtotal, double wednesdayDiscount, 
+                          double threeDSurcharge, double groupDiscount, 
+                          double total, long tariffVersion) {
         this.subtotal = subtotal;
         this.wednesdayDiscount = wednesdayDiscount;
         this.threeDSurcharge = threeDSurcharge;
         this.groupDiscount = groupDiscount;
         this.total = total;
+        this.tariffVersion = tariffVersion;
     }
 
     public double getSubtotal() {
@@ -52,6 +70,10 @@ public final class PriceBreakdown {
         return total;
     }
 
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
     @Override
     public String toString() {
         // Utilise Locale.US pour garantir un format avec point décimal
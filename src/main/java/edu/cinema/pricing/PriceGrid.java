@@ -0,0 +1,327 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Grille de prix précalculée pour les écrans du hall et le site : pour chaque séance
+ * du programme de la semaine, le prix d'un billet de chaque type et celui de quelques
+ * paniers types (famille, groupe…), en centimes.
+ * <p>
+ * Un prix ne dépend que du tarif, du jour et de la 3D : chaque séance est ramenée à son
+ * profil (jour, 2D/3D), 14 au plus, et la grille ne garde qu'une ligne par profil présent
+ * au programme. Une lecture coûte deux accès tableau, sans verrou, sans allocation et
+ * sans passer par le moteur ; {@link #rowCents} copie d'un coup toute la ligne d'une séance.
+ * <p>
+ * La grille est immuable et publiée par un champ volatile ; les écritures (rares) la
+ * recopient sous verrou. Un changement de programme ne calcule que les lignes des profils
+ * qui n'y figuraient pas encore. Après un rechargement du tarif du moteur
+ * ({@link PricingEngine#reloadTariff}), l'appelant du rechargement recalcule les lignes
+ * présentes par {@link #refresh()}. À défaut, la première lecture qui constate le changement
+ * de version confie ce calcul à un unique thread de fond ({@code price-grid-refresh}) et,
+ * comme toutes les lectures jusqu'à sa fin, sert l'instantané en place (l'ancien tarif) :
+ * une lecture ne prend jamais le verrou et ne calcule jamais.
+ */
+public final class PriceGrid {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    private static final int PROFILES = 2 * CompiledTariff.DAYS;
+
+    // Paniers par défaut : famille (2 adultes, 2 enfants) et groupe (10 adultes)
+    private static final int[][] DEFAULT_CARTS = new int[2][TICKET_TYPES.length];
+
+    // Un billet de chaque type, index = ordinal
+    private static final int[][] SINGLE_TICKETS = new int[TICKET_TYPES.length][TICKET_TYPES.length];
+
+    static {
+        DEFAULT_CARTS[0][TicketType.ADULT.ordinal()] = 2;
+        DEFAULT_CARTS[0][TicketType.CHILD.ordinal()] = 2;
+        DEFAULT_CARTS[1][TicketType.ADULT.ordinal()] = 10;
+        for (int t = 0; t < TICKET_TYPES.length; t++) {
+            SINGLE_TICKETS[t][t] = 1;
+        }
+    }
+
+    private final PricingEngine engine;
+    private final int[][] carts;
+    private final int[] cartSizes;
+    private final int width; // colonnes d'une ligne : un billet par type, puis les paniers
+
+    private final Object writeLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Grid grid;
+    private long computedCells; // sous writeLock
+
+    /**
+     * Instantané immuable de la grille.
+     */
+    private static final class Grid {
+        final long version;     // version du tarif des lignes calculées
+        final byte[] profiles;  // profil de chaque séance : jour (lundi = 0) × 2 + 3D
+        final int present;      // bit p : ligne du profil p calculée
+        final long[] cents;     // profil p, colonne c → [p * width + c]
+
+        Grid(long version, byte[] profiles, int present, long[] cents) {
+            this.version = version;
+            this.profiles = profiles;
+            this.present = present;
+            this.cents = cents;
+        }
+    }
+
+    /**
+     * Grille avec les paniers par défaut : famille (2 adultes, 2 enfants, colonne 0)
+     * et groupe (10 adultes, colonne 1). Le programme est vide.
+     *
+     * @param engine Moteur dont le tarif est appliqué
+     * @throws IllegalArgumentException si engine est null
+     */
+    public PriceGrid(PricingEngine engine) {
+        this(engine, DEFAULT_CARTS);
+    }
+
+    /**
+     * Grille avec des paniers types donnés. Le programme est vide.
+     *
+     * @param engine Moteur dont le tarif est appliqué
+     * @param carts  Paniers affichés, quantités indexées par {@link TicketType#ordinal()} ;
+     *               le panier i est lu par {@link #cartPriceCents(int, int) cartPriceCents(séance, i)}
+     * @throws IllegalArgumentException si engine ou carts est null, ou si un panier est invalide
+     */
+    public PriceGrid(PricingEngine engine, int[]... carts) {
+        if (engine == null || carts == null) {
+            throw new IllegalArgumentException("Engine and carts cannot be null");
+        }
+        this.carts = new int[carts.length][];
+        this.cartSizes = new int[carts.length];
+        for (int i = 0; i < carts.length; i++) {
+            cartSizes[i] = PricingEngine.validateCounts(carts[i]);
+            this.carts[i] = carts[i].clone();
+        }
+        this.engine = engine;
+        this.width = TICKET_TYPES.length + carts.length;
+        CompiledTariff tariff = engine.snapshot();
+        this.grid = new Grid(tariff.getVersion(), new byte[0], 0, new long[PROFILES * width]);
+    }
+
+    /**
+     * Remplace le programme de la semaine. Seules les lignes des profils absents du
+     * programme précédent sont calculées.
+     *
+     * @param days Jour de chaque séance ; l'index d'une séance est son rang dans ce tableau
+     * @param is3D 3D ou non, dans le même ordre
+     * @throws IllegalArgumentException si un tableau ou un jour est null, ou si les tableaux
+     *                                  n'ont pas la même longueur
+     */
+    public void setSchedule(DayOfWeek[] days, boolean[] is3D) {
+        if (days == null || is3D == null) {
+            throw new IllegalArgumentException("Days and 3D flags cannot be null");
+        }
+        if (days.length != is3D.length) {
+            throw new IllegalArgumentException(
+                "Days and 3D flags must have the same length: " + days.length + " != " + is3D.length);
+        }
+        byte[] profiles = new byte[days.length];
+        for (int i = 0; i < days.length; i++) {
+            profiles[i] = profile(days[i], is3D[i]);
+        }
+        synchronized (writeLock) {
+            publish(profiles);
+        }
+    }
+
+    /**
+     * Déplace une séance du programme (autre jour ou passage en 2D/3D). Si son nouveau
+     * profil est déjà au programme, rien n'est recalculé.
+     *
+     * @param showing Index de la séance
+     * @param day     Nouveau jour
+     * @param is3D    3D ou non
+     * @throws IllegalArgumentException si showing est hors du programme ou si day est null
+     */
+    public void setShowing(int showing, DayOfWeek day, boolean is3D) {
+        byte profile = profile(day, is3D);
+        synchronized (writeLock) {
+            byte[] current = grid.profiles;
+            checkShowing(showing, current.length);
+            byte[] profiles = current.clone();
+            profiles[showing] = profile;
+            publish(profiles);
+        }
+    }
+
+    /**
+     * Recalcule les lignes présentes si le tarif du moteur a changé depuis leur calcul.
+     * À appeler après {@link PricingEngine#reloadTariff} : les lectures suivantes voient
+     * aussitôt le nouveau tarif, sans attendre le recalcul de fond.
+     */
+    public void refresh() {
+        synchronized (writeLock) {
+            if (grid.version != engine.getTariffVersion()) {
+                publish(grid.profiles);
+            }
+        }
+    }
+
+    /**
+     * Publie un programme ; sous writeLock. Les lignes déjà calculées avec le tarif
+     * courant sont reprises, les autres calculées.
+     */
+    private void publish(byte[] profiles) {
+        Grid current = grid;
+        CompiledTariff tariff = engine.snapshot();
+        int wanted = 0;
+        for (byte profile : profiles) {
+            wanted |= 1 << profile;
+        }
+        int reused = tariff.getVersion() == current.version ? current.present & wanted : 0;
+        long[] cents = current.cents.clone();
+        for (int missing = wanted & ~reused; missing != 0; missing &= missing - 1) {
+            computeRow(tariff, Integer.numberOfTrailingZeros(missing), cents);
+        }
+        grid = new Grid(tariff.getVersion(), profiles, wanted, cents);
+    }
+
+    private void computeRow(CompiledTariff tariff, int profile, long[] cents) {
+        DayOfWeek day = DayOfWeek.of(1 + (profile >> 1));
+        boolean is3D = (profile & 1) != 0;
+        int row = profile * width;
+        for (int t = 0; t < TICKET_TYPES.length; t++) {
+            cents[row + t] = tariff.totalCents(SINGLE_TICKETS[t], 1, is3D, day);
+        }
+        for (int c = 0; c < carts.length; c++) {
+            cents[row + TICKET_TYPES.length + c] = tariff.totalCents(carts[c], cartSizes[c], is3D, day);
+        }
+        computedCells += width;
+    }
+
+    private static byte profile(DayOfWeek day, boolean is3D) {
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        return (byte) (day.ordinal() * 2 + (is3D ? 1 : 0));
+    }
+
+    private static void checkShowing(int showing, int showings) {
+        if (showing < 0 || showing >= showings) {
+            throw new IllegalArgumentException("Showing index out of range: " + showing + " (schedule has "
+                + showings + " showings)");
+        }
+    }
+
+    /**
+     * @return Instantané courant ; si le tarif du moteur a changé, le recalcul est lancé
+     *         en arrière-plan (un seul à la fois) et l'instantané en place est servi
+     */
+    private Grid current() {
+        Grid current = grid;
+        if (current.version != engine.getTariffVersion() && refreshing.compareAndSet(false, true)) {
+            Thread.ofPlatform().daemon().name("price-grid-refresh").start(this::refreshInBackground);
+        }
+        return current;
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresh();
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Prix d'un billet d'un type donné pour une séance, sans allocation.
+     *
+     * @param showing Index de la séance dans le programme
+     * @param type    Type de billet
+     * @return Prix en centimes, tel que {@link PricingEngine#computeTotalCents} le donne pour ce seul billet
+     * @throws IllegalArgumentException si showing est hors du programme ou si type est null
+     */
+    public long priceCents(int showing, TicketType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("TicketType cannot be null");
+        }
+        Grid current = current();
+        checkShowing(showing, current.profiles.length);
+        return current.cents[current.profiles[showing] * width + type.ordinal()];
+    }
+
+    /**
+     * Prix d'un panier type pour une séance, sans allocation.
+     *
+     * @param showing Index de la séance dans le programme
+     * @param cart    Index du panier, dans l'ordre du constructeur
+     * @return Prix en centimes, tel que {@link PricingEngine#computeTotalCents} le donne pour ce panier
+     * @throws IllegalArgumentException si showing ou cart est hors bornes
+     */
+    public long cartPriceCents(int showing, int cart) {
+        if (cart < 0 || cart >= carts.length) {
+            throw new IllegalArgumentException("Cart index out of range: " + cart);
+        }
+        Grid current = current();
+        checkShowing(showing, current.profiles.length);
+        return current.cents[current.profiles[showing] * width + TICKET_TYPES.length + cart];
+    }
+
+    /**
+     * Ligne complète d'une séance, sans allocation : un billet de chaque type (index =
+     * ordinal), puis les paniers dans l'ordre du constructeur. Toutes les cases viennent
+     * du même instantané, donc du même tarif, même pendant un rechargement.
+     *
+     * @param showing Index de la séance dans le programme
+     * @param out     Destination, au moins {@link #rowWidth()} cases
+     * @return out
+     * @throws IllegalArgumentException si showing est hors du programme, si out est null ou trop court
+     */
+    public long[] rowCents(int showing, long[] out) {
+        if (out == null || out.length < width) {
+            throw new IllegalArgumentException("Row buffer must hold " + width + " prices");
+        }
+        Grid current = current();
+        checkShowing(showing, current.profiles.length);
+        long[] cents = current.cents;
+        int row = current.profiles[showing] * width;
+        for (int c = 0; c < width; c++) {
+            out[c] = cents[row + c];
+        }
+        return out;
+    }
+
+    /**
+     * @return Cases d'une ligne : nombre de types de billets plus nombre de paniers
+     */
+    public int rowWidth() {
+        return width;
+    }
+
+    /**
+     * @return Nombre de séances du programme
+     */
+    public int showingCount() {
+        return grid.profiles.length;
+    }
+
+    /**
+     * @return Nombre de paniers types
+     */
+    public int cartCount() {
+        return carts.length;
+    }
+
+    /**
+     * @return Version du tarif des prix actuellement publiés
+     */
+    public long getTariffVersion() {
+        return grid.version;
+    }
+
+    /**
+     * @return Nombre de cases calculées depuis la construction (chaque ligne en compte une
+     *         par type de billet et une par panier)
+     */
+    public long computedCells() {
+        synchronized (writeLock) {
+            return computedCells;
+        }
+    }
+}
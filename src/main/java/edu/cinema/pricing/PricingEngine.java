@@ -1,29 +1,116 @@
 package edu.cinema.pricing;
 
+import edu.cinema.pricing.metrics.PricingMetrics;
+
 import java.time.DayOfWeek;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Moteur de tarification pour un cinéma.
- * Calcule le prix total d'une commande selon les règles métier.
+ * Calcule le prix total d'une commande selon les règles métier d'un {@link Tariff}
+ * (par défaut le tarif standard), évalué sous sa forme compilée.
+ * <p>
+ * Le tarif peut être rechargé à chaud par {@link #reloadTariff(Tariff)} : le nouvel
+ * instantané compilé est publié atomiquement, sans verrou. Chaque calcul lit
+ * l'instantané une seule fois et s'y tient jusqu'au bout ; le résultat porte la
+ * version du tarif qui l'a produit ({@link PriceBreakdown#getTariffVersion()}).
+ * <p>
+ * Un moteur peut être instrumenté ({@link PricingMetrics}) : les appels à
+ * {@code computeTotal} sont alors comptés et leur latence échantillonnée.
  */
 public class PricingEngine {
-    
-    // Constantes de prix
-    private static final double ADULT_PRICE = 10.00;
-    private static final double CHILD_PRICE = 6.00;
-    private static final double SENIOR_PRICE = 7.50;
-    private static final double STUDENT_PRICE = 8.00;
-    
-    // Constantes pour les règles
-    private static final double WEDNESDAY_DISCOUNT_RATE = 0.20; // 20%
-    private static final double THREE_D_SURCHARGE_PER_TICKET = 2.00;
-    private static final double GROUP_DISCOUNT_RATE = 0.10; // 10%
-    private static final int GROUP_THRESHOLD = 4; // ≥4 billets
+
+    // Types de billets, dans l'ordre des ordinaux (index des tableaux de quantités)
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final AtomicReference<CompiledTariff> tariff;
+    private final PricingMetrics metrics; // null : instrumentation désactivée
+
+    /**
+     * Moteur sur le tarif standard.
+     */
+    public PricingEngine() {
+        this(Tariff.standard());
+    }
+
+    /**
+     * Moteur sur un tarif donné, compilé une fois à la construction.
+     *
+     * @param tariff Tarif à appliquer
+     * @throws IllegalArgumentException si tariff est null
+     */
+    public PricingEngine(Tariff tariff) {
+        this(tariff, null);
+    }
+
+    /**
+     * Moteur instrumenté sur un tarif donné.
+     *
+     * @param tariff  Tarif à appliquer
+     * @param metrics Métriques alimentées par {@code computeTotal} (null : aucune)
+     * @throws IllegalArgumentException si tariff est null
+     */
+    public PricingEngine(Tariff tariff, PricingMetrics metrics) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("Tariff cannot be null");
+        }
+        this.tariff = new AtomicReference<>(tariff.compile());
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return Métriques de ce moteur, ou null s'il n'est pas instrumenté
+     */
+    public PricingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return Tarif actuellement appliqué par ce moteur
+     */
+    public Tariff getTariff() {
+        return tariff.get().getTariff();
+    }
+
+    /**
+     * @return Version du tarif actuellement appliqué (1 à la construction)
+     */
+    public long getTariffVersion() {
+        return tariff.get().getVersion();
+    }
+
+    /**
+     * Remplace le tarif sans bloquer les calculs en cours. Le tarif est compilé
+     * avant sa publication ; les calculs déjà commencés terminent sur l'ancien.
+     *
+     * @param newTariff Nouveau tarif
+     * @return Version attribuée au nouveau tarif
+     * @throws IllegalArgumentException si newTariff est null
+     */
+    public long reloadTariff(Tariff newTariff) {
+        if (newTariff == null) {
+            throw new IllegalArgumentException("Tariff cannot be null");
+        }
+        while (true) {
+            CompiledTariff current = tariff.get();
+            CompiledTariff next = newTariff.compile(current.getVersion() + 1);
+            if (tariff.compareAndSet(current, next)) {
+                return next.getVersion();
+            }
+        }
+    }
+
+    /**
+     * @return Instantané compilé courant, à utiliser pour toute une opération
+     */
+    CompiledTariff snapshot() {
+        return tariff.get();
+    }
 
     /**
      * Retourne le prix de base pour un type de billet.
-     * 
+     *
      * @param type Type de billet
      * @return Prix de base en euros
      * @throws IllegalArgumentException si type est null
@@ -32,25 +119,13 @@ public class PricingEngine {
         if (type == null) {
             throw new IllegalArgumentException("TicketType cannot be null");
         }
-        
-        switch (type) {
-            case ADULT:
-                return ADULT_PRICE;
-            case CHILD:
-                return CHILD_PRICE;
-            case SENIOR:
-                return SENIOR_PRICE;
-            case STUDENT:
-                return STUDENT_PRICE;
-            default:
-                throw new IllegalArgumentException("Unknown TicketType: " + type);
-        }
+        return tariff.get().basePrice(type);
     }
 
     /**
      * Calcule le prix total d'une commande avec toutes les règles appliquées.
-     * Ordre d'application : Mercredi → 3D → Groupe
-     * 
+     * Ordre d'application : celui des règles du tarif (standard : Mercredi → 3D → Groupe)
+     *
      * @param tickets Liste des types de billets
      * @param is3D    Séance 3D ou non
      * @param day     Jour de la séance
@@ -65,53 +140,243 @@ public class PricingEngine {
         if (day == null) {
             throw new IllegalArgumentException("Day cannot be null");
         }
+        PricingMetrics m = metrics;
+        long start = m == null ? 0L : m.startTimer();
 
-        // 1. Calcul du sous-total
+        // 1. Calcul du sous-total, sur un seul instantané du tarif
+        CompiledTariff snapshot = tariff.get();
         double subtotal = 0.0;
         for (TicketType ticket : tickets) {
-            subtotal += basePrice(ticket);
+            if (ticket == null) {
+                throw new IllegalArgumentException("TicketType cannot be null");
+            }
+            subtotal += snapshot.basePrice(ticket);
+        }
+
+        // 2. Règles du tarif puis arrondi au centime
+        PriceBreakdown result = snapshot.evaluate(subtotal, tickets.size(), is3D, day);
+        if (m != null) {
+            m.record(tickets, result, start);
+        }
+        return result;
+    }
+
+    /**
+     * Calcule le prix total d'une commande à partir des quantités par type de billet.
+     * Équivalent à {@link #computeTotal(List, boolean, DayOfWeek)} mais en temps
+     * constant quel que soit le nombre de billets (O(nombre de types)).
+     * Le résultat est identique au bit près dès que les prix de base sont exacts
+     * en binaire (c'est le cas du tarif standard).
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @return Détail complet du calcul
+     * @throws IllegalArgumentException si counts ou day est null, si counts n'a pas
+     *                                  une case par type ou contient une quantité négative
+     */
+    public PriceBreakdown computeTotal(int[] counts, boolean is3D, DayOfWeek day) {
+        // Préconditions
+        int ticketCount = validateCounts(counts);
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+
+        PricingMetrics m = metrics;
+        long start = m == null ? 0L : m.startTimer();
+
+        CompiledTariff snapshot = tariff.get();
+        PriceBreakdown result = snapshot.evaluate(snapshot.subtotal(counts), ticketCount, is3D, day);
+        if (m != null) {
+            m.record(counts, result, start);
         }
+        return result;
+    }
 
-        // Variables pour tracker les remises/suppléments
-        double wednesdayDiscount = 0.0;
-        double threeDSurcharge = 0.0;
-        double groupDiscount = 0.0;
-        
-        // Montant courant (qui sera modifié au fur et à mesure)
-        double currentAmount = subtotal;
+    /**
+     * Calcule une commande à partir des quantités, sans allocation : le détail est écrit
+     * dans un détenteur fourni et réutilisé par l'appelant. Mêmes valeurs que
+     * {@link #computeTotal(int[], boolean, DayOfWeek)}.
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @param out    Détenteur à remplir
+     * @return out
+     * @throws IllegalArgumentException si counts est invalide, day ou out est null
+     */
+    public MutablePriceBreakdown computeTotal(int[] counts, boolean is3D, DayOfWeek day,
+                                              MutablePriceBreakdown out) {
+        int ticketCount = validateCounts(counts);
+        if (day == null || out == null) {
+            throw new IllegalArgumentException("Day and result holder cannot be null");
+        }
 
-        // 2. Règle Mercredi : -20% sur tout le panier
-        if (day == DayOfWeek.WEDNESDAY) {
-            wednesdayDiscount = currentAmount * WEDNESDAY_DISCOUNT_RATE;
-            currentAmount -= wednesdayDiscount;
+        PricingMetrics m = metrics;
+        long start = m == null ? 0L : m.startTimer();
+
+        CompiledTariff snapshot = tariff.get();
+        snapshot.evaluate(snapshot.subtotal(counts), ticketCount, is3D, day, out);
+        if (m != null) {
+            m.record(counts, out, start);
         }
+        return out;
+    }
 
-        // 3. Règle 3D : +2€ par billet
-        if (is3D) {
-            threeDSurcharge = THREE_D_SURCHARGE_PER_TICKET * tickets.size();
-            currentAmount += threeDSurcharge;
+    /**
+     * Calcule une commande à partir d'un tableau de billets, sans allocation (ni itérateur
+     * ni résultat). Mêmes valeurs que {@link #computeTotal(List, boolean, DayOfWeek)}.
+     *
+     * @param tickets Billets de la commande
+     * @param is3D    Séance 3D ou non
+     * @param day     Jour de la séance
+     * @param out     Détenteur à remplir
+     * @return out
+     * @throws IllegalArgumentException si tickets, un billet, day ou out est null
+     */
+    public MutablePriceBreakdown computeTotal(TicketType[] tickets, boolean is3D, DayOfWeek day,
+                                              MutablePriceBreakdown out) {
+        if (tickets == null) {
+            throw new IllegalArgumentException("Tickets array cannot be null");
         }
+        if (day == null || out == null) {
+            throw new IllegalArgumentException("Day and result holder cannot be null");
+        }
+        PricingMetrics m = metrics;
+        long start = m == null ? 0L : m.startTimer();
 
-        // 4. Règle Groupe : -10% si ≥4 billets
-        if (tickets.size() >= GROUP_THRESHOLD) {
-            groupDiscount = currentAmount * GROUP_DISCOUNT_RATE;
-            currentAmount -= groupDiscount;
+        CompiledTariff snapshot = tariff.get();
+        double subtotal = 0.0;
+        for (int i = 0; i < tickets.length; i++) {
+            if (tickets[i] == null) {
+                throw new IllegalArgumentException("TicketType cannot be null");
+            }
+            subtotal += snapshot.basePrice(tickets[i]);
+        }
+        snapshot.evaluate(subtotal, tickets.length, is3D, day, out);
+        if (m != null) {
+            m.record(tickets, out, start);
         }
+        return out;
+    }
 
-        // 5. Arrondir au centime
-        double total = roundToCents(currentAmount);
+    /**
+     * Vérifie un tableau de quantités et retourne le nombre total de billets.
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()}
+     * @return Nombre total de billets
+     * @throws IllegalArgumentException si counts est null, n'a pas une case par type,
+     *                                  contient une quantité négative ou dépasse un int
+     */
+    static int validateCounts(int[] counts) {
+        if (counts == null) {
+            throw new IllegalArgumentException("Counts array cannot be null");
+        }
+        if (counts.length != TICKET_TYPES.length) {
+            throw new IllegalArgumentException(
+                "Counts array must have one entry per TicketType, got " + counts.length);
+        }
+        int ticketCount = 0;
+        for (TicketType type : TICKET_TYPES) {
+            int count = counts[type.ordinal()];
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count for " + type + ": " + count);
+            }
+            ticketCount += count;
+            if (ticketCount < 0) {
+                throw new IllegalArgumentException("Total ticket count overflows int");
+            }
+        }
+        return ticketCount;
+    }
 
-        return new PriceBreakdown(subtotal, wednesdayDiscount, threeDSurcharge, 
-                                  groupDiscount, total);
+    /**
+     * Retourne le prix de base en centimes pour un type de billet.
+     *
+     * @param type Type de billet
+     * @return Prix de base en centimes
+     * @throws IllegalArgumentException si type est null
+     */
+    public long basePriceCents(TicketType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("TicketType cannot be null");
+        }
+        return tariff.get().basePriceCents(type);
+    }
+
+    /**
+     * Calcule le total en centimes, en arithmétique entière exacte, sans allocation.
+     * Chaque règle arrondit son montant au centime (voir {@link #computeBreakdownCents}).
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @return Total en centimes
+     * @throws IllegalArgumentException si counts est invalide ou day est null
+     */
+    public long computeTotalCents(int[] counts, boolean is3D, DayOfWeek day) {
+        int ticketCount = validateCounts(counts);
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        return tariff.get().totalCents(counts, ticketCount, is3D, day);
+    }
+
+    /**
+     * Calcule le détail en centimes, en arithmétique entière exacte.
+     * Les règles sont appliquées dans l'ordre du tarif, chaque étape arrondie au centime :
+     * <ul>
+     *   <li>Remise jour (standard : Mercredi -20%) : montant × taux, arrondi au centime
+     *       le plus proche (demi vers le haut)</li>
+     *   <li>Supplément 3D (standard : 200 centimes) × nombre de billets (exact)</li>
+     *   <li>Remise quantité (standard : Groupe -10%) : montant × taux, arrondi au centime
+     *       le plus proche (demi vers le haut)</li>
+     * </ul>
+     * Avec le tarif standard aucune remise ne tombe sur un demi-centime : le total est
+     * celui du mode double, mais chaque montant du détail est exact au centime.
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @return Détail complet en centimes
+     * @throws IllegalArgumentException si counts est invalide ou day est null
+     */
+    public CentsBreakdown computeBreakdownCents(int[] counts, boolean is3D, DayOfWeek day) {
+        int ticketCount = validateCounts(counts);
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        return tariff.get().breakdownCents(counts, ticketCount, is3D, day);
     }
 
     /**
-     * Arrondit un montant au centime (2 décimales).
-     * 
-     * @param amount Montant à arrondir
-     * @return Montant arrondi
+     * Calcule le détail en centimes à partir d'une liste de billets.
+     *
+     * @see #computeBreakdownCents(int[], boolean, DayOfWeek)
+     * @throws IllegalArgumentException si tickets ou day est null
      */
-    private double roundToCents(double amount) {
-        return Math.round(amount * 100.0) / 100.0;
+    public CentsBreakdown computeBreakdownCents(List<TicketType> tickets, boolean is3D, DayOfWeek day) {
+        return computeBreakdownCents(countByType(tickets), is3D, day);
+    }
+
+    /**
+     * Compte les billets d'une liste par type.
+     *
+     * @param tickets Liste des types de billets
+     * @return Quantités indexées par {@link TicketType#ordinal()}
+     * @throws IllegalArgumentException si tickets est null ou contient null
+     */
+    public static int[] countByType(List<TicketType> tickets) {
+        if (tickets == null) {
+            throw new IllegalArgumentException("Tickets list cannot be null");
+        }
+        int[] counts = new int[TICKET_TYPES.length];
+        for (TicketType ticket : tickets) {
+            if (ticket == null) {
+                throw new IllegalArgumentException("TicketType cannot be null");
+            }
+            counts[ticket.ordinal()]++;
+        }
+        return counts;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+
+/**
+ * Devis incrémental d'un panier en cours de composition (sélection de places).
+ * <p>
+ * La session garde les quantités par type, le nombre de billets et le sous-total ;
+ * ajouter ou retirer un billet, changer la 3D ou le jour met le détail à jour en
+ * temps constant (un passage sur les types puis sur les règles du tarif), quelle
+ * que soit la taille du panier. Le seuil de la remise groupe est réévalué à chaque
+ * changement, dans les deux sens. Le détail est identique au bit près à
+ * {@link PricingEngine#computeTotal(int[], boolean, DayOfWeek)} sur le même panier.
+ * <p>
+ * Le sous-total est recalculé à partir des quantités et non cumulé billet par billet :
+ * une suite d'ajouts et de retraits ne peut pas accumuler d'erreur d'arrondi. Après un
+ * rechargement du tarif, la mise à jour suivante utilise le nouveau tarif.
+ * <p>
+ * Les devis d'une session ne sont pas comptés dans les métriques du moteur (ce ne
+ * sont pas des ventes). Non thread-safe : une session par panier.
+ */
+public final class PricingSession {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final PricingEngine engine;
+    private final int[] counts = new int[TICKET_TYPES.length];
+    private final MutablePriceBreakdown current = new MutablePriceBreakdown();
+    private int ticketCount;
+    private boolean is3D;
+    private DayOfWeek day;
+    private CompiledTariff tariff;
+    private double subtotal;
+
+    /**
+     * Ouvre une session sur un panier vide.
+     *
+     * @param engine Moteur dont le tarif est appliqué
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @throws IllegalArgumentException si engine ou day est null
+     */
+    public PricingSession(PricingEngine engine, boolean is3D, DayOfWeek day) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        this.engine = engine;
+        this.is3D = is3D;
+        this.day = day;
+        this.tariff = engine.snapshot();
+        update(true);
+    }
+
+    // ==================== MODIFICATIONS ====================
+
+    /**
+     * Ajoute un billet au panier.
+     *
+     * @return Cette session
+     * @throws IllegalArgumentException si type est null ou si le panier déborde
+     */
+    public PricingSession add(TicketType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("TicketType cannot be null");
+        }
+        if (ticketCount == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total ticket count overflows int");
+        }
+        counts[type.ordinal()]++;
+        ticketCount++;
+        update(true);
+        return this;
+    }
+
+    /**
+     * Retire un billet du panier.
+     *
+     * @return Cette session
+     * @throws IllegalArgumentException si type est null ou absent du panier
+     */
+    public PricingSession remove(TicketType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("TicketType cannot be null");
+        }
+        if (counts[type.ordinal()] == 0) {
+            throw new IllegalArgumentException("No " + type + " ticket in cart");
+        }
+        counts[type.ordinal()]--;
+        ticketCount--;
+        update(true);
+        return this;
+    }
+
+    /**
+     * @return Cette session
+     */
+    public PricingSession setThreeD(boolean is3D) {
+        this.is3D = is3D;
+        update(false);
+        return this;
+    }
+
+    /**
+     * @return Cette session
+     * @throws IllegalArgumentException si day est null
+     */
+    public PricingSession setDay(DayOfWeek day) {
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        this.day = day;
+        update(false);
+        return this;
+    }
+
+    /**
+     * Recalcule le détail ; le sous-total n'est recalculé que si le panier ou le tarif a changé.
+     */
+    private void update(boolean cartChanged) {
+        CompiledTariff latest = engine.snapshot();
+        if (cartChanged || latest != tariff) {
+            tariff = latest;
+            subtotal = latest.subtotal(counts);
+        }
+        latest.evaluate(subtotal, ticketCount, is3D, day, current);
+    }
+
+    // ==================== LECTURE ====================
+
+    public int count(TicketType type) {
+        return counts[type.ordinal()];
+    }
+
+    public int ticketCount() {
+        return ticketCount;
+    }
+
+    public boolean is3D() {
+        return is3D;
+    }
+
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    /**
+     * @return Total courant du panier, sans allocation
+     */
+    public double getTotal() {
+        return current.getTotal();
+    }
+
+    /**
+     * @return Détail courant du panier (nouvel objet immuable)
+     */
+    public PriceBreakdown quote() {
+        return current.toPriceBreakdown();
+    }
+
+    /**
+     * Copie le détail courant dans un détenteur de l'appelant, sans allocation.
+     *
+     * @return out
+     * @throws IllegalArgumentException si out est null
+     */
+    public MutablePriceBreakdown quote(MutablePriceBreakdown out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Result holder cannot be null");
+        }
+        out.set(current.getSubtotal(), current.getWednesdayDiscount(), current.getThreeDSurcharge(),
+                current.getGroupDiscount(), current.getTotal(), current.getTariffVersion());
+        return out;
+    }
+}
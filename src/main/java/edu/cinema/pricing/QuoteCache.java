@@ -0,0 +1,285 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de devis borné et thread-safe devant {@link PricingEngine}.
+ * <p>
+ * Un résultat ne dépend que des quantités par type, de la 3D et du jour : la clé
+ * est empaquetée dans un {@code long} (14 bits par type, 3 bits pour le jour,
+ * 1 bit pour la 3D). Le cache est associatif par ensembles : chaque clé ne peut
+ * occuper qu'un des {@code ways} emplacements de son ensemble, et l'éviction
+ * suit l'algorithme de l'horloge (seconde chance, approximation de LRU).
+ * Une lecture réussie ne prend aucun verrou et n'alloue rien ; elle retourne
+ * le même {@link PriceBreakdown} immuable à tous les appelants.
+ * <p>
+ * Après un rechargement du tarif ({@link PricingEngine#reloadTariff}), les entrées
+ * d'une version antérieure sont traitées comme absentes puis remplacées.
+ */
+public class QuoteCache {
+
+    // Clé retournée par key() quand le panier ne tient pas dans 14 bits par type
+    public static final long NOT_CACHEABLE = -1L;
+
+    private static final int COUNT_BITS = 14;
+    private static final int MAX_COUNT = (1 << COUNT_BITS) - 1; // 16383 billets par type
+    private static final int DAY_SHIFT = COUNT_BITS * 4;        // 56
+    private static final int THREE_D_SHIFT = DAY_SHIFT + 3;     // 59
+    private static final int DEFAULT_WAYS = 8;
+    private static final int MAX_LOCK_STRIPES = 64;
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final PricingEngine engine;
+    private final Entry[] entries;  // sets × ways, l'ensemble s occupe [s*ways, (s+1)*ways)
+    private final int[] hands;      // aiguille de l'horloge par ensemble
+    private final Object[] locks;   // verrous d'écriture, l'ensemble s utilise locks[s & lockMask]
+    private final int lockMask;
+    private final int ways;
+    private final int setMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Entrée immuable (sauf le bit de référence, écrit sans synchronisation :
+     * une mise à jour perdue ne fait qu'avancer l'éviction de cette entrée).
+     */
+    private static final class Entry {
+        final long key;
+        final PriceBreakdown value;
+        boolean referenced;
+
+        Entry(long key, PriceBreakdown value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Cache de capacité donnée, associatif à 8 voies.
+     *
+     * @param engine   Moteur utilisé en cas d'absence
+     * @param capacity Nombre maximal d'entrées (arrondi à la puissance de 2 supérieure)
+     */
+    public QuoteCache(PricingEngine engine, int capacity) {
+        this(engine, capacity, DEFAULT_WAYS);
+    }
+
+    /**
+     * Constructeur complet.
+     *
+     * @param engine   Moteur utilisé en cas d'absence
+     * @param capacity Nombre maximal d'entrées (arrondi à la puissance de 2 supérieure)
+     * @param ways     Nombre d'entrées par ensemble (puissance de 2, ≤ capacity)
+     * @throws IllegalArgumentException si engine est null ou si capacity/ways sont invalides
+     */
+    public QuoteCache(PricingEngine engine, int capacity, int ways) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        if (ways < 1 || Integer.bitCount(ways) != 1) {
+            throw new IllegalArgumentException("Ways must be a positive power of two: " + ways);
+        }
+        if (capacity < ways || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between ways and 2^30: " + capacity);
+        }
+        int roundedCapacity = Integer.highestOneBit(capacity - 1) << 1;
+        int sets = Math.max(1, roundedCapacity / ways);
+        this.engine = engine;
+        this.ways = ways;
+        this.setMask = sets - 1;
+        this.entries = new Entry[sets * ways];
+        this.hands = new int[sets];
+        this.locks = new Object[Math.min(sets, MAX_LOCK_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        this.lockMask = locks.length - 1;
+    }
+
+    /**
+     * Empaquette un panier dans une clé de cache.
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @return Clé positive, ou {@link #NOT_CACHEABLE} si une quantité dépasse 16383
+     * @throws IllegalArgumentException si counts ou day est null, si counts n'a pas
+     *                                  une case par type ou contient une quantité négative
+     */
+    public static long key(int[] counts, boolean is3D, DayOfWeek day) {
+        if (counts == null || counts.length != TICKET_TYPES.length) {
+            throw new IllegalArgumentException("Counts array must have one entry per TicketType");
+        }
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        long key = 0;
+        for (int t = 0; t < TICKET_TYPES.length; t++) {
+            int count = counts[t];
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count for " + TICKET_TYPES[t] + ": " + count);
+            }
+            if (count > MAX_COUNT) {
+                return NOT_CACHEABLE;
+            }
+            key |= (long) count << (t * COUNT_BITS);
+        }
+        return withShowing(key, is3D, day);
+    }
+
+    private static long withShowing(long key, boolean is3D, DayOfWeek day) {
+        key |= (long) day.getValue() << DAY_SHIFT;
+        if (is3D) {
+            key |= 1L << THREE_D_SHIFT;
+        }
+        return key;
+    }
+
+    /**
+     * Retourne le devis d'une commande, depuis le cache si possible.
+     *
+     * @see PricingEngine#computeTotal(int[], boolean, DayOfWeek)
+     */
+    public PriceBreakdown computeTotal(int[] counts, boolean is3D, DayOfWeek day) {
+        long key = key(counts, is3D, day);
+        if (key == NOT_CACHEABLE) {
+            return engine.computeTotal(counts, is3D, day);
+        }
+        PriceBreakdown cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        return store(key, engine.computeTotal(counts, is3D, day));
+    }
+
+    /**
+     * Retourne le devis d'une commande, depuis le cache si possible.
+     * La clé est calculée en parcourant la liste, sans tableau intermédiaire.
+     *
+     * @see PricingEngine#computeTotal(List, boolean, DayOfWeek)
+     */
+    public PriceBreakdown computeTotal(List<TicketType> tickets, boolean is3D, DayOfWeek day) {
+        if (tickets == null) {
+            throw new IllegalArgumentException("Tickets list cannot be null");
+        }
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        if (tickets.size() > MAX_COUNT) {
+            return engine.computeTotal(tickets, is3D, day);
+        }
+        // Aucune quantité ne peut dépasser la taille de la liste : pas de débordement entre champs
+        long key = 0;
+        for (TicketType ticket : tickets) {
+            if (ticket == null) {
+                throw new IllegalArgumentException("TicketType cannot be null");
+            }
+            key += 1L << (ticket.ordinal() * COUNT_BITS);
+        }
+        key = withShowing(key, is3D, day);
+        PriceBreakdown cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        return store(key, engine.computeTotal(tickets, is3D, day));
+    }
+
+    private PriceBreakdown lookup(long key) {
+        long version = engine.getTariffVersion();
+        int base = setIndex(key) * ways;
+        for (int w = 0; w < ways; w++) {
+            Entry entry = entries[base + w];
+            if (entry != null && entry.key == key && entry.value.getTariffVersion() == version) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private PriceBreakdown store(long key, PriceBreakdown value) {
+        int set = setIndex(key);
+        int base = set * ways;
+        synchronized (locks[set & lockMask]) {
+            // Un autre thread a pu insérer la même clé entre-temps
+            for (int w = 0; w < ways; w++) {
+                Entry entry = entries[base + w];
+                if (entry == null) {
+                    entries[base + w] = new Entry(key, value);
+                    return value;
+                }
+                if (entry.key == key) {
+                    // Entrée d'une version antérieure du tarif : remplacée sur place
+                    if (entry.value.getTariffVersion() < value.getTariffVersion()) {
+                        entries[base + w] = new Entry(key, value);
+                        return value;
+                    }
+                    return entry.value;
+                }
+            }
+            // Horloge : on saute les entrées référencées en leur retirant leur seconde chance
+            // (un tour complet au plus, les lecteurs pouvant remettre le bit entre-temps)
+            int hand = hands[set];
+            for (int step = 0; step < ways && entries[base + hand].referenced; step++) {
+                entries[base + hand].referenced = false;
+                hand = (hand + 1) & (ways - 1);
+            }
+            entries[base + hand] = new Entry(key, value);
+            hands[set] = (hand + 1) & (ways - 1);
+            evictions.increment();
+            return value;
+        }
+    }
+
+    private int setIndex(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & setMask;
+    }
+
+    /**
+     * Vide le cache (les compteurs sont conservés).
+     */
+    public void clear() {
+        for (int set = 0; set < hands.length; set++) {
+            synchronized (locks[set & lockMask]) {
+                Arrays.fill(entries, set * ways, (set + 1) * ways, null);
+                hands[set] = 0;
+            }
+        }
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Proportion de lectures servies par le cache (0 si aucune lecture)
+     */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+}
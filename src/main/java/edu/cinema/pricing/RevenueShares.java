@@ -0,0 +1,55 @@
+package edu.cinema.pricing;
+
+/**
+ * Répartition du total d'une commande entre ses types de billets, partagée par
+ * {@link TariffSimulator} et {@code metrics.RevenueRollup} : les deux donnent donc
+ * le même chiffre d'affaires par type pour la même commande.
+ */
+public final class RevenueShares {
+
+    private static final int TYPES = TicketType.values().length;
+
+    private RevenueShares() {
+    }
+
+    /**
+     * Répartit un total au prorata des prix de base (du nombre de billets si la commande
+     * est gratuite à ces prix), au centime près : chaque part est arrondie à l'inférieur
+     * et le reste va au type de plus grande part. Poids entiers en centimes, sans allocation.
+     *
+     * @param counts          Quantités indexées par {@link TicketType#ordinal()}
+     * @param basePricesCents Prix de base en centimes, même indexation
+     * @param totalCents      Total à répartir
+     * @param shares          Parts écrites par type, même indexation (toutes nulles si la
+     *                        commande n'a aucun billet) ; leur somme vaut totalCents sinon
+     */
+    public static void attribute(int[] counts, long[] basePricesCents, long totalCents, long[] shares) {
+        long weightSum = 0;
+        long ticketCount = 0;
+        for (int t = 0; t < TYPES; t++) {
+            weightSum += counts[t] * basePricesCents[t];
+            ticketCount += counts[t];
+        }
+        if (ticketCount == 0) {
+            for (int t = 0; t < TYPES; t++) {
+                shares[t] = 0;
+            }
+            return;
+        }
+        boolean byPrice = weightSum > 0;
+        double sum = byPrice ? weightSum : ticketCount;
+        long assigned = 0;
+        int largest = 0;
+        long largestWeight = -1;
+        for (int t = 0; t < TYPES; t++) {
+            long weight = byPrice ? counts[t] * basePricesCents[t] : counts[t];
+            shares[t] = (long) Math.floor(totalCents * (weight / sum));
+            assigned += shares[t];
+            if (weight > largestWeight) {
+                largestWeight = weight;
+                largest = t;
+            }
+        }
+        shares[largest] += totalCents - assigned;
+    }
+}
@@ -0,0 +1,172 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+/**
+ * Résultat d'une simulation de {@link TariffSimulator} : chiffre d'affaires en centimes
+ * de chaque tarif, par jour et par type de billet, sur le même historique de commandes.
+ * <p>
+ * Le tarif d'index 0 est la référence (tarif actuel) ; les index suivants sont les
+ * candidats, dans l'ordre donné à la simulation. Le total d'une commande est réparti
+ * entre ses types de billets au prorata de leur prix de base dans ce tarif (quantité ×
+ * prix), au centime près : le reste de l'arrondi va au type de plus grande part, pas
+ * forcément le plus cher, et la somme des types redonne exactement le total (voir
+ * {@link RevenueShares}). Classe immuable.
+ */
+public final class SimulationReport {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    static final int DAYS = DayOfWeek.values().length;
+    static final int TYPES = TICKET_TYPES.length;
+    static final int CELLS_PER_TARIFF = DAYS * TYPES;
+
+    private final List<Tariff> tariffs;
+    private final long[] revenue;    // [tarif][jour][type] en centimes
+    private final long[] ordersByDay;
+
+    SimulationReport(List<Tariff> tariffs, long[] revenue, long[] ordersByDay) {
+        this.tariffs = tariffs;
+        this.revenue = revenue;
+        this.ordersByDay = ordersByDay;
+    }
+
+    static int cell(int tariff, int day, int type) {
+        return (tariff * DAYS + day) * TYPES + type;
+    }
+
+    /**
+     * @return Nombre de tarifs simulés, référence comprise
+     */
+    public int tariffCount() {
+        return tariffs.size();
+    }
+
+    /**
+     * @return Tarif d'index donné (0 = référence)
+     * @throws IllegalArgumentException si l'index est hors bornes
+     */
+    public Tariff getTariff(int tariff) {
+        return tariffs.get(check(tariff));
+    }
+
+    /**
+     * @return Nombre de commandes simulées
+     */
+    public long getOrders() {
+        long orders = 0;
+        for (long count : ordersByDay) {
+            orders += count;
+        }
+        return orders;
+    }
+
+    /**
+     * @return Nombre de commandes simulées pour un jour
+     */
+    public long getOrders(DayOfWeek day) {
+        return ordersByDay[day.ordinal()];
+    }
+
+    // ==================== CHIFFRE D'AFFAIRES ====================
+
+    /**
+     * @return Chiffre d'affaires du tarif, en centimes
+     */
+    public long revenueCents(int tariff) {
+        return sum(check(tariff), 0, DAYS, 0, TYPES);
+    }
+
+    /**
+     * @return Chiffre d'affaires du tarif pour un jour, en centimes
+     */
+    public long revenueCents(int tariff, DayOfWeek day) {
+        int d = day.ordinal();
+        return sum(check(tariff), d, d + 1, 0, TYPES);
+    }
+
+    /**
+     * @return Chiffre d'affaires du tarif attribué à un type de billet, en centimes
+     */
+    public long revenueCents(int tariff, TicketType type) {
+        int t = type.ordinal();
+        return sum(check(tariff), 0, DAYS, t, t + 1);
+    }
+
+    /**
+     * @return Chiffre d'affaires du tarif pour un jour et un type de billet, en centimes
+     */
+    public long revenueCents(int tariff, DayOfWeek day, TicketType type) {
+        return revenue[cell(check(tariff), day.ordinal(), type.ordinal())];
+    }
+
+    // ==================== ÉCARTS À LA RÉFÉRENCE ====================
+
+    /**
+     * @return Écart de chiffre d'affaires du tarif avec la référence, en centimes
+     */
+    public long differenceCents(int tariff) {
+        return revenueCents(tariff) - revenueCents(0);
+    }
+
+    /**
+     * @return Écart avec la référence pour un jour, en centimes
+     */
+    public long differenceCents(int tariff, DayOfWeek day) {
+        return revenueCents(tariff, day) - revenueCents(0, day);
+    }
+
+    /**
+     * @return Écart avec la référence pour un type de billet, en centimes
+     */
+    public long differenceCents(int tariff, TicketType type) {
+        return revenueCents(tariff, type) - revenueCents(0, type);
+    }
+
+    /**
+     * @return Écart avec la référence pour un jour et un type de billet, en centimes
+     */
+    public long differenceCents(int tariff, DayOfWeek day, TicketType type) {
+        return revenueCents(tariff, day, type) - revenueCents(0, day, type);
+    }
+
+    private int check(int tariff) {
+        if (tariff < 0 || tariff >= tariffs.size()) {
+            throw new IllegalArgumentException("No simulated tariff at index " + tariff);
+        }
+        return tariff;
+    }
+
+    private long sum(int tariff, int fromDay, int toDay, int fromType, int toType) {
+        long sum = 0;
+        for (int d = fromDay; d < toDay; d++) {
+            for (int t = fromType; t < toType; t++) {
+                sum += revenue[cell(tariff, d, t)];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return Tableau des écarts de chaque candidat avec la référence (centimes), par jour et par type
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("orders=").append(getOrders()).append('\n')
+            .append("tariff.0.revenueCents=").append(revenueCents(0)).append('\n');
+        for (int tariff = 1; tariff < tariffs.size(); tariff++) {
+            String prefix = "tariff." + tariff + ".";
+            sb.append(prefix).append("revenueCents=").append(revenueCents(tariff)).append('\n')
+              .append(prefix).append("differenceCents=").append(differenceCents(tariff)).append('\n');
+            for (DayOfWeek day : DayOfWeek.values()) {
+                sb.append(prefix).append("differenceCents.").append(day).append('=')
+                  .append(differenceCents(tariff, day)).append('\n');
+            }
+            for (TicketType type : TICKET_TYPES) {
+                sb.append(prefix).append("differenceCents.").append(type).append('=')
+                  .append(differenceCents(tariff, type)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Définition déclarative d'un tarif : prix de base par type de billet
+ * et liste ordonnée de règles. Classe immuable.
+ * <p>
+ * Un tarif est interprété une seule fois par {@link #compile()} ; le moteur
+ * n'évalue ensuite que la forme compilée.
+ */
+public final class Tariff {
+
+    // Tarif historique du cinéma
+    private static final double ADULT_PRICE = 10.00;
+    private static final double CHILD_PRICE = 6.00;
+    private static final double SENIOR_PRICE = 7.50;
+    private static final double STUDENT_PRICE = 8.00;
+    private static final double WEDNESDAY_DISCOUNT_RATE = 0.20; // 20%
+    private static final double THREE_D_SURCHARGE_PER_TICKET = 2.00;
+    private static final double GROUP_DISCOUNT_RATE = 0.10; // 10%
+    private static final int GROUP_THRESHOLD = 4; // ≥4 billets
+
+    private static final Tariff STANDARD = createStandard();
+
+    private final double[] basePrices; // indexé par TicketType.ordinal()
+    private final List<TariffRule> rules;
+
+    /**
+     * Constructeur complet.
+     *
+     * @param basePrices Prix de base de chaque type de billet (tous les types requis)
+     * @param rules      Règles, dans leur ordre d'application
+     * @throws IllegalArgumentException si un prix manque ou est négatif, ou si une règle est null
+     */
+    public Tariff(Map<TicketType, Double> basePrices, List<TariffRule> rules) {
+        if (basePrices == null || rules == null) {
+            throw new IllegalArgumentException("Base prices and rules cannot be null");
+        }
+        TicketType[] types = TicketType.values();
+        this.basePrices = new double[types.length];
+        for (TicketType type : types) {
+            Double price = basePrices.get(type);
+            if (price == null || !(price >= 0.0) || price.isInfinite()) {
+                throw new IllegalArgumentException("Missing or invalid base price for " + type + ": " + price);
+            }
+            this.basePrices[type.ordinal()] = price;
+        }
+        for (TariffRule rule : rules) {
+            if (rule == null) {
+                throw new IllegalArgumentException("Rule cannot be null");
+            }
+        }
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * Tarif standard : ADULT 10€, CHILD 6€, SENIOR 7.50€, STUDENT 8€,
+     * puis Mercredi -20% → 3D +2€/billet → Groupe -10% dès 4 billets.
+     */
+    public static Tariff standard() {
+        return STANDARD;
+    }
+
+    private static Tariff createStandard() {
+        Map<TicketType, Double> prices = new EnumMap<>(TicketType.class);
+        prices.put(TicketType.ADULT, ADULT_PRICE);
+        prices.put(TicketType.CHILD, CHILD_PRICE);
+        prices.put(TicketType.SENIOR, SENIOR_PRICE);
+        prices.put(TicketType.STUDENT, STUDENT_PRICE);
+        return new Tariff(prices, List.of(
+            TariffRule.dayDiscount(WEDNESDAY_DISCOUNT_RATE, DayOfWeek.WEDNESDAY),
+            TariffRule.threeDSurcharge(THREE_D_SURCHARGE_PER_TICKET),
+            TariffRule.quantityDiscount(GROUP_THRESHOLD, GROUP_DISCOUNT_RATE)
+        ));
+    }
+
+    /**
+     * Retourne le prix de base pour un type de billet.
+     *
+     * @throws IllegalArgumentException si type est null
+     */
+    public double basePrice(TicketType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("TicketType cannot be null");
+        }
+        return basePrices[type.ordinal()];
+    }
+
+    public List<TariffRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Compile le tarif en évaluateur à plat (tableaux de prix et de taux précalculés),
+     * en version 1.
+     */
+    public CompiledTariff compile() {
+        return compile(1L);
+    }
+
+    /**
+     * Compile le tarif sous une version donnée.
+     */
+    CompiledTariff compile(long version) {
+        return new CompiledTariff(this, version, basePrices.clone(), rules);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Tariff)) {
+            return false;
+        }
+        Tariff other = (Tariff) o;
+        return Arrays.equals(basePrices, other.basePrices) && rules.equals(other.rules);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(basePrices) + rules.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Tariff{basePrices=" + Arrays.toString(basePrices) + ", rules=" + rules + "}";
+    }
+}
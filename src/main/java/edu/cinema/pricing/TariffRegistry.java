@@ -0,0 +1,315 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tarifs de plusieurs cinémas, indexés par identifiant de salle ({@code int}).
+ * <p>
+ * Les tarifs égaux ({@link Tariff#equals}) sont internés : des milliers de salles
+ * partagent quelques tarifs compilés. La table est à adressage ouvert sur des
+ * tableaux {@code int[]} (clé et index du tarif), sans boxing : une recherche coûte
+ * un hachage et quelques comparaisons d'entiers, quel que soit le nombre de salles.
+ * Une case tient deux {@code int} (clé et index) et la table reste au plus à moitié
+ * pleine, avec une capacité en puissance de deux : au-delà de la capacité minimale,
+ * chaque salle coûte de quatre à huit {@code int} (16 à 32 octets).
+ * <p>
+ * Les lectures sont sans verrou : la table est immuable et publiée par un champ
+ * volatile. Chaque écriture la recopie entière sous verrou : enregistrer n salles une
+ * à une coûte O(n²). Pour un chargement en masse, {@link #registerAll} enregistre tout
+ * le lot en une seule recopie. Chaque tarif distinct reçoit
+ * une version croissante à son internement, reportée dans {@link PriceBreakdown#getTariffVersion()}.
+ */
+public final class TariffRegistry {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final Object writeLock = new Object();
+    private volatile Table table = Table.EMPTY;
+    private long lastVersion; // sous writeLock
+
+    /**
+     * Associe un tarif à une salle, en remplaçant son tarif précédent. Recopie la table :
+     * pour charger de nombreuses salles, utiliser {@link #registerAll}.
+     *
+     * @param venueId Identifiant de la salle (toute valeur int)
+     * @param tariff  Tarif de la salle
+     * @throws IllegalArgumentException si tariff est null
+     */
+    public void register(int venueId, Tariff tariff) {
+        registerAll(new int[] {venueId}, new Tariff[] {tariff});
+    }
+
+    /**
+     * Associe un tarif à chaque salle du lot, en une seule publication.
+     * Si un identifiant apparaît plusieurs fois, le dernier tarif l'emporte.
+     *
+     * @param venueIds Identifiants des salles
+     * @param tariffs  Tarifs, dans le même ordre
+     * @throws IllegalArgumentException si un tableau ou un tarif est null,
+     *                                  ou si les tableaux n'ont pas la même longueur
+     */
+    public void registerAll(int[] venueIds, Tariff[] tariffs) {
+        if (venueIds == null || tariffs == null) {
+            throw new IllegalArgumentException("Venue ids and tariffs cannot be null");
+        }
+        if (venueIds.length != tariffs.length) {
+            throw new IllegalArgumentException(
+                "Venue ids and tariffs must have the same length: " + venueIds.length + " != " + tariffs.length);
+        }
+        for (Tariff tariff : tariffs) {
+            if (tariff == null) {
+                throw new IllegalArgumentException("Tariff cannot be null");
+            }
+        }
+        synchronized (writeLock) {
+            Table current = table;
+            // Internement : tarifs déjà compilés, puis nouveaux tarifs distincts du lot
+            Map<Tariff, Integer> interned = new HashMap<>();
+            CompiledTariff[] compiled = Arrays.copyOf(current.tariffs, current.tariffs.length + tariffs.length);
+            int distinct = current.tariffs.length;
+            for (int i = 0; i < distinct; i++) {
+                interned.put(compiled[i].getTariff(), i);
+            }
+            int[] indexes = new int[tariffs.length];
+            for (int i = 0; i < tariffs.length; i++) {
+                Integer index = interned.get(tariffs[i]);
+                if (index == null) {
+                    index = distinct;
+                    compiled[distinct++] = tariffs[i].compile(++lastVersion);
+                    interned.put(tariffs[i], index);
+                }
+                indexes[i] = index;
+            }
+
+            Table next = new Table(capacityFor(current.size + venueIds.length), compiled);
+            current.copyInto(next, Integer.MIN_VALUE, false);
+            for (int i = 0; i < venueIds.length; i++) {
+                next.put(venueIds[i], indexes[i]);
+            }
+            table = next.compact(distinct);
+        }
+    }
+
+    /**
+     * Retire une salle ; son tarif est libéré s'il n'est plus utilisé par aucune salle.
+     *
+     * @param venueId Identifiant de la salle
+     * @return true si la salle était enregistrée
+     */
+    public boolean unregister(int venueId) {
+        synchronized (writeLock) {
+            Table current = table;
+            if (current.find(venueId) < 0) {
+                return false;
+            }
+            Table next = new Table(capacityFor(current.size - 1), current.tariffs);
+            current.copyInto(next, venueId, true);
+            table = next.compact(current.tariffs.length);
+            return true;
+        }
+    }
+
+    /**
+     * @return true si un tarif est associé à la salle
+     */
+    public boolean contains(int venueId) {
+        return table.find(venueId) >= 0;
+    }
+
+    /**
+     * @return Nombre de salles enregistrées
+     */
+    public int venueCount() {
+        return table.size;
+    }
+
+    /**
+     * @return Nombre de tarifs distincts partagés par les salles
+     */
+    public int distinctTariffCount() {
+        return table.tariffs.length;
+    }
+
+    /**
+     * @return Tarif de la salle
+     * @throws IllegalArgumentException si la salle est inconnue
+     */
+    public Tariff getTariff(int venueId) {
+        return lookup(venueId).getTariff();
+    }
+
+    /**
+     * @return Version du tarif de la salle (attribuée à son internement)
+     * @throws IllegalArgumentException si la salle est inconnue
+     */
+    public long getTariffVersion(int venueId) {
+        return lookup(venueId).getVersion();
+    }
+
+    /**
+     * Calcule une commande au tarif d'une salle. Mêmes valeurs que
+     * {@link PricingEngine#computeTotal(int[], boolean, DayOfWeek)} sur ce tarif.
+     *
+     * @param venueId Identifiant de la salle
+     * @param counts  Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D    Séance 3D ou non
+     * @param day     Jour de la séance
+     * @return Détail complet du calcul
+     * @throws IllegalArgumentException si la salle est inconnue, counts est invalide ou day est null
+     */
+    public PriceBreakdown computeTotal(int venueId, int[] counts, boolean is3D, DayOfWeek day) {
+        int ticketCount = PricingEngine.validateCounts(counts);
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        CompiledTariff tariff = lookup(venueId);
+        return tariff.evaluate(tariff.subtotal(counts), ticketCount, is3D, day);
+    }
+
+    /**
+     * Comme {@link #computeTotal(int, int[], boolean, DayOfWeek)}, sans allocation :
+     * le détail est écrit dans un détenteur réutilisé par l'appelant.
+     *
+     * @return out
+     * @throws IllegalArgumentException si la salle est inconnue, counts est invalide, day ou out est null
+     */
+    public MutablePriceBreakdown computeTotal(int venueId, int[] counts, boolean is3D, DayOfWeek day,
+                                              MutablePriceBreakdown out) {
+        int ticketCount = PricingEngine.validateCounts(counts);
+        if (day == null || out == null) {
+            throw new IllegalArgumentException("Day and result holder cannot be null");
+        }
+        CompiledTariff tariff = lookup(venueId);
+        tariff.evaluate(tariff.subtotal(counts), ticketCount, is3D, day, out);
+        return out;
+    }
+
+    /**
+     * Total en centimes au tarif d'une salle, sans allocation. Mêmes valeurs que
+     * {@link PricingEngine#computeTotalCents(int[], boolean, DayOfWeek)} sur ce tarif.
+     *
+     * @throws IllegalArgumentException si la salle est inconnue, counts est invalide ou day est null
+     */
+    public long computeTotalCents(int venueId, int[] counts, boolean is3D, DayOfWeek day) {
+        int ticketCount = PricingEngine.validateCounts(counts);
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        return lookup(venueId).totalCents(counts, ticketCount, is3D, day);
+    }
+
+    private CompiledTariff lookup(int venueId) {
+        Table t = table;
+        int slot = t.find(venueId);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Unknown venue: " + venueId);
+        }
+        return t.tariffs[t.indexes[slot]];
+    }
+
+    /**
+     * Plus petite puissance de deux gardant la table remplie au plus à moitié.
+     */
+    private static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Table immuable une fois publiée : clés et index de tarif côte à côte,
+     * sondage linéaire. Une case vide a l'index -1.
+     */
+    private static final class Table {
+
+        static final Table EMPTY = new Table(MIN_CAPACITY, new CompiledTariff[0]);
+
+        final int[] keys;
+        final int[] indexes;
+        final int mask;
+        CompiledTariff[] tariffs;
+        int size;
+
+        Table(int capacity, CompiledTariff[] tariffs) {
+            this.keys = new int[capacity];
+            this.indexes = new int[capacity];
+            Arrays.fill(indexes, -1);
+            this.mask = capacity - 1;
+            this.tariffs = tariffs;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * @return Case de la clé, ou -1 si elle est absente
+         */
+        int find(int key) {
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                if (indexes[slot] < 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+        }
+
+        void put(int key, int index) {
+            int slot = hash(key) & mask;
+            while (indexes[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (indexes[slot] < 0) {
+                size++;
+            }
+            keys[slot] = key;
+            indexes[slot] = index;
+        }
+
+        /**
+         * Recopie toutes les entrées dans target, sauf la clé exclue si skip est vrai.
+         */
+        void copyInto(Table target, int excluded, boolean skip) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (indexes[slot] >= 0 && !(skip && keys[slot] == excluded)) {
+                    target.put(keys[slot], indexes[slot]);
+                }
+            }
+        }
+
+        /**
+         * Ne garde que les tarifs encore utilisés parmi les count premiers et renumérote les index.
+         */
+        Table compact(int count) {
+            int[] remap = new int[count];
+            for (int index : indexes) {
+                if (index >= 0) {
+                    remap[index] = 1;
+                }
+            }
+            CompiledTariff[] used = new CompiledTariff[count];
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (remap[i] != 0) {
+                    used[distinct] = tariffs[i];
+                    remap[i] = distinct++;
+                }
+            }
+            for (int slot = 0; slot < indexes.length; slot++) {
+                if (indexes[slot] >= 0) {
+                    indexes[slot] = remap[indexes[slot]];
+                }
+            }
+            tariffs = Arrays.copyOf(used, distinct);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Règle de tarification déclarative, appliquée au montant courant du panier.
+ * Classe immuable, construite par les fabriques statiques.
+ */
+public final class TariffRule {
+
+    /**
+     * Nature de la règle et champ de {@link PriceBreakdown} qui en reçoit le montant.
+     */
+    public enum Kind {
+        /** Remise en pourcentage certains jours (champ wednesdayDiscount). */
+        DAY_DISCOUNT,
+        /** Supplément fixe par billet pour les séances 3D (champ threeDSurcharge). */
+        THREE_D_SURCHARGE,
+        /** Remise en pourcentage à partir d'un nombre de billets (champ groupDiscount). */
+        QUANTITY_DISCOUNT
+    }
+
+    private final Kind kind;
+    private final Set<DayOfWeek> days; // DAY_DISCOUNT uniquement
+    private final double rate;         // DAY_DISCOUNT et QUANTITY_DISCOUNT
+    private final double amount;       // THREE_D_SURCHARGE
+    private final int threshold;       // QUANTITY_DISCOUNT
+
+    private TariffRule(Kind kind, Set<DayOfWeek> days, double rate, double amount, int threshold) {
+        this.kind = kind;
+        this.days = days;
+        this.rate = rate;
+        this.amount = amount;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Remise en pourcentage sur tout le panier les jours donnés.
+     *
+     * @param rate Taux de remise entre 0 et 1
+     * @param days Jours concernés (au moins un)
+     * @throws IllegalArgumentException si rate est hors [0, 1] ou days est vide
+     */
+    public static TariffRule dayDiscount(double rate, DayOfWeek... days) {
+        checkRate(rate);
+        if (days == null || days.length == 0) {
+            throw new IllegalArgumentException("Day discount needs at least one day");
+        }
+        EnumSet<DayOfWeek> set = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : days) {
+            if (day == null) {
+                throw new IllegalArgumentException("Day cannot be null");
+            }
+            set.add(day);
+        }
+        return new TariffRule(Kind.DAY_DISCOUNT, Collections.unmodifiableSet(set), rate, 0.0, 0);
+    }
+
+    /**
+     * Supplément fixe par billet pour les séances 3D.
+     *
+     * @param amountPerTicket Montant par billet (positif)
+     * @throws IllegalArgumentException si amountPerTicket est négatif ou non fini
+     */
+    public static TariffRule threeDSurcharge(double amountPerTicket) {
+        if (!(amountPerTicket >= 0.0) || Double.isInfinite(amountPerTicket)) {
+            throw new IllegalArgumentException("Surcharge must be a non-negative amount: " + amountPerTicket);
+        }
+        return new TariffRule(Kind.THREE_D_SURCHARGE, Collections.emptySet(), 0.0, amountPerTicket, 0);
+    }
+
+    /**
+     * Remise en pourcentage dès que le panier atteint un nombre de billets.
+     *
+     * @param threshold Nombre de billets minimal (≥ 1)
+     * @param rate      Taux de remise entre 0 et 1
+     * @throws IllegalArgumentException si threshold < 1 ou rate hors [0, 1]
+     */
+    public static TariffRule quantityDiscount(int threshold, double rate) {
+        checkRate(rate);
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        return new TariffRule(Kind.QUANTITY_DISCOUNT, Collections.emptySet(), rate, 0.0, threshold);
+    }
+
+    private static void checkRate(double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("Rate must be between 0 and 1: " + rate);
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Set<DayOfWeek> getDays() {
+        return days;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TariffRule)) {
+            return false;
+        }
+        TariffRule other = (TariffRule) o;
+        return kind == other.kind
+            && days.equals(other.days)
+            && Double.compare(rate, other.rate) == 0
+            && Double.compare(amount, other.amount) == 0
+            && threshold == other.threshold;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, days, rate, amount, threshold);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case DAY_DISCOUNT:
+                return "DayDiscount{rate=" + rate + ", days=" + days + "}";
+            case THREE_D_SURCHARGE:
+                return "ThreeDSurcharge{amount=" + amount + "}";
+            default:
+                return "QuantityDiscount{threshold=" + threshold + ", rate=" + rate + "}";
+        }
+    }
+}
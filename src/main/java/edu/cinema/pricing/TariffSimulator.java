@@ -0,0 +1,262 @@
+package edu.cinema.pricing;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static edu.cinema.pricing.SimulationReport.CELLS_PER_TARIFF;
+import static edu.cinema.pricing.SimulationReport.DAYS;
+import static edu.cinema.pricing.SimulationReport.TYPES;
+
+/**
+ * Simulation « et si » : impact de plusieurs tarifs candidats sur un historique de ventes.
+ * <p>
+ * L'historique est lu une seule fois, en une passe parallèle sur un {@link ForkJoinPool},
+ * pour en compter les formes de commande (quantités par type, 3D, jour) ; chaque tarif
+ * est ensuite évalué une fois par forme distincte, et son total multiplié par le nombre
+ * de commandes de cette forme. Le coût par candidat ne dépend donc plus de la taille de
+ * l'historique. Les montants sont cumulés en centimes entiers : le rapport est exact et
+ * ne dépend pas du découpage.
+ */
+public class TariffSimulator {
+
+    private static final int DEFAULT_SPLIT_THRESHOLD = 4096;
+    private static final DayOfWeek[] DAY_VALUES = DayOfWeek.values();
+
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    /**
+     * Simulateur sur le pool commun.
+     */
+    public TariffSimulator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Constructeur complet.
+     *
+     * @param pool           Pool de la passe parallèle
+     * @param splitThreshold Taille de tranche minimale (≥ 1)
+     * @throws IllegalArgumentException si pool est null ou splitThreshold < 1
+     */
+    public TariffSimulator(ForkJoinPool pool, int splitThreshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("Split threshold must be positive: " + splitThreshold);
+        }
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    /**
+     * Recalcule l'historique sous le tarif de référence et sous chaque candidat.
+     *
+     * @param orders     Historique des commandes
+     * @param baseline   Tarif de référence (index 0 du rapport)
+     * @param candidates Tarifs candidats (index 1 et suivants du rapport)
+     * @return Chiffre d'affaires de chaque tarif et écarts avec la référence
+     * @throws IllegalArgumentException si un paramètre ou un candidat est null
+     */
+    public SimulationReport simulate(OrderBatch orders, Tariff baseline, List<Tariff> candidates) {
+        if (orders == null || baseline == null || candidates == null) {
+            throw new IllegalArgumentException("Orders, baseline and candidates cannot be null");
+        }
+        List<Tariff> tariffs = new ArrayList<>(candidates.size() + 1);
+        tariffs.add(baseline);
+        for (Tariff candidate : candidates) {
+            if (candidate == null) {
+                throw new IllegalArgumentException("Candidate tariff cannot be null");
+            }
+            tariffs.add(candidate);
+        }
+        CompiledTariff[] compiled = new CompiledTariff[tariffs.size()];
+        for (int c = 0; c < compiled.length; c++) {
+            compiled[c] = tariffs.get(c).compile();
+        }
+
+        Shapes shapes;
+        if (orders.size() <= splitThreshold) {
+            shapes = Shapes.of(orders, 0, orders.size());
+        } else {
+            shapes = pool.invoke(new RangeTask(orders, 0, orders.size()));
+        }
+        long[] revenue = new long[compiled.length * CELLS_PER_TARIFF];
+        long[] ordersByDay = new long[DAYS];
+        shapes.price(compiled, revenue, ordersByDay);
+        return new SimulationReport(List.copyOf(tariffs), revenue, ordersByDay);
+    }
+
+    /**
+     * Histogramme des formes de commande (quantités par type, 3D, jour) : l'historique
+     * d'un cinéma en compte quelques milliers au plus, quel que soit le nombre de commandes.
+     * Les quantités sont tassées sur 13 bits par type dans une clé long ; les commandes
+     * hors de ce format (rarissimes) sont gardées à part et tarifées une à une.
+     */
+    static final class Shapes {
+        private static final int COUNT_BITS = 13;
+        private static final int MAX_COUNT = (1 << COUNT_BITS) - 1;
+        private static final long USED = 1L << 63;
+
+        private long[] keys = new long[256];
+        private long[] multiplicities = new long[256];
+        private int size;
+        private final OrderBatch orders;
+        private final List<Integer> outliers = new ArrayList<>(); // index dans orders
+
+        private Shapes(OrderBatch orders) {
+            this.orders = orders;
+        }
+
+        /**
+         * Lit une seule fois les commandes [from, to).
+         */
+        static Shapes of(OrderBatch orders, int from, int to) {
+            int[][] countColumns = orders.countColumns();
+            byte[] days = orders.dayColumn();
+            Shapes shapes = new Shapes(orders);
+            for (int i = from; i < to; i++) {
+                long key = days[i] - 1;
+                key = key << 1 | (orders.is3D(i) ? 1 : 0);
+                boolean packed = true;
+                for (int t = 0; t < TYPES; t++) {
+                    int count = countColumns[t][i];
+                    packed &= count <= MAX_COUNT;
+                    key = key << COUNT_BITS | (count & MAX_COUNT);
+                }
+                if (packed) {
+                    shapes.add(key | USED, 1);
+                } else {
+                    shapes.outliers.add(i);
+                }
+            }
+            return shapes;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void add(long key, long multiplicity) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    multiplicities[slot] += multiplicity;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            multiplicities[slot] = multiplicity;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldMultiplicities = multiplicities;
+            keys = new long[oldKeys.length * 2];
+            multiplicities = new long[oldKeys.length * 2];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != 0) {
+                    add(oldKeys[slot], oldMultiplicities[slot]);
+                }
+            }
+        }
+
+        Shapes merge(Shapes other) {
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                if (other.keys[slot] != 0) {
+                    add(other.keys[slot], other.multiplicities[slot]);
+                }
+            }
+            outliers.addAll(other.outliers);
+            return this;
+        }
+
+        /**
+         * Tarifie chaque forme une fois par tarif et cumule total × multiplicité.
+         */
+        void price(CompiledTariff[] tariffs, long[] revenue, long[] ordersByDay) {
+            int[] counts = new int[TYPES];
+            long[] shares = new long[TYPES];
+            MutablePriceBreakdown breakdown = new MutablePriceBreakdown();
+            for (int slot = 0; slot < keys.length; slot++) {
+                long key = keys[slot];
+                if (key == 0) {
+                    continue;
+                }
+                for (int t = TYPES - 1; t >= 0; t--) {
+                    counts[t] = (int) (key & MAX_COUNT);
+                    key >>>= COUNT_BITS;
+                }
+                boolean is3D = (key & 1) != 0;
+                int day = (int) ((key >>> 1) & 0x7);
+                priceShape(tariffs, counts, is3D, day, multiplicities[slot], revenue, ordersByDay, shares, breakdown);
+            }
+            int[][] countColumns = orders.countColumns();
+            for (int i : outliers) {
+                for (int t = 0; t < TYPES; t++) {
+                    counts[t] = countColumns[t][i];
+                }
+                priceShape(tariffs, counts, orders.is3D(i), orders.dayColumn()[i] - 1, 1,
+                    revenue, ordersByDay, shares, breakdown);
+            }
+        }
+    }
+
+    private static void priceShape(CompiledTariff[] tariffs, int[] counts, boolean is3D, int day, long multiplicity,
+                                   long[] revenue, long[] ordersByDay, long[] shares, MutablePriceBreakdown breakdown) {
+        ordersByDay[day] += multiplicity;
+        int ticketCount = 0;
+        for (int count : counts) {
+            ticketCount += count;
+        }
+        for (int c = 0; c < tariffs.length; c++) {
+            CompiledTariff tariff = tariffs[c];
+            double subtotal = tariff.subtotal(counts);
+            tariff.evaluate(subtotal, ticketCount, is3D, DAY_VALUES[day], breakdown);
+            RevenueShares.attribute(counts, tariff.basePricesCents(), Math.round(breakdown.getTotal() * 100), shares);
+            int base = SimulationReport.cell(c, day, 0);
+            for (int t = 0; t < TYPES; t++) {
+                revenue[base + t] += shares[t] * multiplicity;
+            }
+        }
+    }
+
+    /**
+     * Tranche [from, to) des commandes, découpée en deux tant qu'elle dépasse le seuil.
+     * Vit le temps d'une simulation dans le pool, comme son simulateur englobant.
+     */
+    @SuppressWarnings("serial") // ForkJoinTask est Serializable, cette tâche ne l'est jamais
+    private final class RangeTask extends RecursiveTask<Shapes> {
+        private final OrderBatch orders;
+        private final int from;
+        private final int to;
+
+        RangeTask(OrderBatch orders, int from, int to) {
+            this.orders = orders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Shapes compute() {
+            if (to - from <= splitThreshold) {
+                return Shapes.of(orders, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask right = new RangeTask(orders, mid, to);
+            right.fork();
+            Shapes left = new RangeTask(orders, from, mid).compute();
+            return left.merge(right.join());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package edu.cinema.pricing;
+
+/**
+ * Calcul en masse vectorisé (SIMD) sur un seul cœur, avec l'API Vector du JDK.
+ * <p>
+ * Les lots au format colonnes sont calculés plusieurs commandes à la fois par
+ * instruction quand le module {@code jdk.incubator.vector} est présent
+ * ({@code java --add-modules jdk.incubator.vector ...}) ; sinon la boucle scalaire
+ * de {@link BatchPricingEngine} est utilisée. Dans les deux cas les résultats sont
+ * identiques au bit près au calcul commande par commande, et tout le lot est
+ * calculé sur un seul instantané du tarif.
+ */
+public final class VectorBatchPricer {
+
+    private static final BatchKernel KERNEL = selectKernel();
+
+    private final PricingEngine engine;
+    private final BatchKernel kernel;
+
+    /**
+     * @param engine Moteur dont le tarif est appliqué
+     * @throws IllegalArgumentException si engine est null
+     */
+    public VectorBatchPricer(PricingEngine engine) {
+        this(engine, KERNEL);
+    }
+
+    VectorBatchPricer(PricingEngine engine, BatchKernel kernel) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        this.engine = engine;
+        this.kernel = kernel;
+    }
+
+    private static BatchKernel selectKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                if (VectorKernel.lanes() >= 2) {
+                    return new VectorKernel();
+                }
+            } catch (LinkageError | RuntimeException e) {
+                // Plateforme sans forme vectorielle utilisable : boucle scalaire
+            }
+        }
+        return BatchKernel.SCALAR;
+    }
+
+    /**
+     * @return true si les lots sont calculés avec l'API Vector dans cette JVM
+     */
+    public static boolean isVectorized() {
+        return KERNEL != BatchKernel.SCALAR;
+    }
+
+    /**
+     * Calcule toutes les commandes du lot et écrit les résultats dans les colonnes.
+     *
+     * @param batch Lot de commandes
+     * @param out   Colonnes de sortie (capacité ≥ taille du lot)
+     * @return Version du tarif utilisé pour tout le lot
+     * @throws IllegalArgumentException si batch ou out est null, ou si out est trop petit
+     */
+    public long computeTotals(OrderBatch batch, BreakdownColumns out) {
+        if (batch == null || out == null) {
+            throw new IllegalArgumentException("Batch and result columns cannot be null");
+        }
+        if (out.capacity() < batch.size()) {
+            throw new IllegalArgumentException("Result columns too small for batch of " + batch.size());
+        }
+        CompiledTariff tariff = engine.snapshot();
+        kernel.evaluate(tariff, batch, out, 0, batch.size());
+        return tariff.getVersion();
+    }
+}
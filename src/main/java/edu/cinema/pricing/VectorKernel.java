@@ -0,0 +1,149 @@
+package edu.cinema.pricing;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Boucle de {@link CompiledTariff#evaluateRange} vectorisée avec {@code jdk.incubator.vector}.
+ * <p>
+ * Chaque voie du vecteur porte une commande. Les règles conditionnelles deviennent des
+ * masques : remise jour par sélection du taux de chaque voie selon son jour, supplément
+ * 3D ajouté aux seules voies 3D, remise quantité aux seules voies au-dessus du seuil.
+ * Chaque voie effectue exactement les opérations de la boucle scalaire, dans le même
+ * ordre : les résultats sont identiques au bit près. L'arrondi final au centime et la
+ * fin du lot (moins d'un vecteur) restent scalaires.
+ * <p>
+ * Ne charger que si le module est présent ({@code --add-modules jdk.incubator.vector}).
+ */
+final class VectorKernel implements BatchKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Autant de voies int que de voies double (moitié moins de bits)
+    private static final VectorSpecies<Integer> INTS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    /**
+     * @return Nombre de commandes calculées par vecteur
+     */
+    static int lanes() {
+        return DOUBLES.length();
+    }
+
+    @Override
+    public void evaluate(CompiledTariff tariff, OrderBatch batch, BreakdownColumns out, int from, int to) {
+        int lanes = DOUBLES.length();
+        int upper = from + DOUBLES.loopBound(to - from);
+        if (upper > from) {
+            evaluateVectors(tariff, batch, out, from, upper, lanes);
+        }
+        tariff.evaluateRange(batch, out, upper, to);
+    }
+
+    private static void evaluateVectors(CompiledTariff tariff, OrderBatch batch, BreakdownColumns out,
+                                        int from, int upper, int lanes) {
+        int[][] counts = batch.countColumns();
+        BitSet is3DColumn = batch.threeDColumn();
+        byte[] days = batch.dayColumn();
+        double[] basePrices = tariff.basePrices();
+        byte[] ops = tariff.ops();
+        double[] dayRates = tariff.dayRates();
+        double[] values = tariff.values();
+        int[] thresholds = tariff.thresholds();
+        double[] subtotals = out.getSubtotal();
+        double[] dayDiscounts = out.getWednesdayDiscount();
+        double[] threeDSurcharges = out.getThreeDSurcharge();
+        double[] quantityDiscounts = out.getGroupDiscount();
+        double[] totals = out.getTotal();
+
+        // Jours concernés par chaque remise jour (en général un seul)
+        int[][] activeDays = new int[ops.length][];
+        for (int r = 0; r < ops.length; r++) {
+            int n = 0;
+            int[] active = new int[CompiledTariff.DAYS];
+            for (int d = 0; d < CompiledTariff.DAYS; d++) {
+                if (ops[r] == CompiledTariff.DAY_DISCOUNT && dayRates[r * CompiledTariff.DAYS + d] != 0.0) {
+                    active[n++] = d;
+                }
+            }
+            activeDays[r] = Arrays.copyOf(active, n);
+        }
+        int[] dayLanes = new int[lanes];
+        int[] threeDLanes = new int[lanes];
+        DoubleVector zero = DoubleVector.zero(DOUBLES);
+
+        for (int i = from; i < upper; i += lanes) {
+            // Sous-total et nombre de billets : mêmes opérations que la boucle scalaire
+            IntVector ticketCount = IntVector.zero(INTS);
+            DoubleVector subtotal = zero;
+            for (int t = 0; t < TICKET_TYPES.length; t++) {
+                IntVector count = IntVector.fromArray(INTS, counts[t], i);
+                ticketCount = ticketCount.add(count);
+                subtotal = subtotal.add(toDoubles(count).mul(basePrices[t]));
+            }
+            for (int l = 0; l < lanes; l++) {
+                dayLanes[l] = days[i + l] - 1;
+                threeDLanes[l] = is3DColumn.get(i + l) ? 1 : 0;
+            }
+            IntVector day = IntVector.fromArray(INTS, dayLanes, 0);
+            VectorMask<Double> is3D = IntVector.fromArray(INTS, threeDLanes, 0)
+                .compare(VectorOperators.NE, 0).cast(DOUBLES);
+            DoubleVector tickets = toDoubles(ticketCount);
+
+            DoubleVector currentAmount = subtotal;
+            DoubleVector dayDiscount = zero;
+            DoubleVector threeDSurcharge = zero;
+            DoubleVector quantityDiscount = zero;
+            for (int r = 0; r < ops.length; r++) {
+                switch (ops[r]) {
+                    case CompiledTariff.DAY_DISCOUNT: {
+                        DoubleVector rate = zero;
+                        for (int d : activeDays[r]) {
+                            rate = rate.blend(dayRates[r * CompiledTariff.DAYS + d],
+                                              day.compare(VectorOperators.EQ, d).cast(DOUBLES));
+                        }
+                        DoubleVector discount = currentAmount.mul(rate);
+                        dayDiscount = dayDiscount.add(discount);
+                        currentAmount = currentAmount.sub(discount);
+                        break;
+                    }
+                    case CompiledTariff.THREE_D_SURCHARGE: {
+                        DoubleVector surcharge = tickets.mul(values[r]);
+                        threeDSurcharge = threeDSurcharge.add(surcharge, is3D);
+                        currentAmount = currentAmount.add(surcharge, is3D);
+                        break;
+                    }
+                    default: {
+                        VectorMask<Double> reached = ticketCount
+                            .compare(VectorOperators.GE, thresholds[r]).cast(DOUBLES);
+                        DoubleVector discount = currentAmount.mul(values[r]);
+                        quantityDiscount = quantityDiscount.add(discount, reached);
+                        currentAmount = currentAmount.sub(discount, reached);
+                        break;
+                    }
+                }
+            }
+
+            subtotal.intoArray(subtotals, i);
+            dayDiscount.intoArray(dayDiscounts, i);
+            threeDSurcharge.intoArray(threeDSurcharges, i);
+            quantityDiscount.intoArray(quantityDiscounts, i);
+            currentAmount.intoArray(totals, i);
+            for (int l = i; l < i + lanes; l++) {
+                totals[l] = CompiledTariff.roundToCents(totals[l]);
+            }
+        }
+    }
+
+    private static DoubleVector toDoubles(IntVector values) {
+        return (DoubleVector) values.convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+}
@@ -0,0 +1,317 @@
+package edu.cinema.pricing.inventory;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Plan de salle d'une séance, en mémoire et sans verrou : réservation et tarification
+ * en une seule étape.
+ * <p>
+ * Chaque rang est un mot de 64 bits (un bit par place, 1 = occupée) ; une réservation
+ * pose tous les bits de son bloc de places contiguës par un seul CAS sur le mot du rang.
+ * Deux acheteurs ne peuvent donc jamais obtenir la même place, et une commande a toutes
+ * ses places ou aucune. Les acheteurs sans préférence commencent leur recherche à un
+ * rang tiré au hasard : quand des milliers d'entre eux visent la même salle, les CAS se
+ * répartissent sur tous les rangs au lieu de se disputer le premier.
+ * <p>
+ * Une réservation est d'abord une option, valable pendant la durée donnée à la
+ * construction. Les options échues sont rendues par {@link #expireHolds()}, appelé
+ * aussi au fil des réservations et quand une recherche ne trouve plus de place ; comme toutes
+ * les options ont la même durée, la file des options est triée par échéance et le
+ * balayage s'arrête à la première option encore valable.
+ */
+public final class SeatMap {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final PricingEngine engine;
+    private final int rows;
+    private final int seatsPerRow;
+    private final long rowMask;
+    private final boolean is3D;
+    private final DayOfWeek day;
+    private final long holdNanos;
+    private final LongSupplier clock;
+    private final AtomicLongArray taken;
+    private final ConcurrentLinkedQueue<SeatReservation> holds = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * @param engine      Moteur qui tarifie chaque réservation
+     * @param rows        Nombre de rangs (≥ 1)
+     * @param seatsPerRow Places par rang, de 1 à 64
+     * @param is3D        Séance 3D ou non
+     * @param day         Jour de la séance
+     * @param holdTime    Durée d'une option avant expiration
+     * @throws IllegalArgumentException si un paramètre est null ou hors bornes
+     */
+    public SeatMap(PricingEngine engine, int rows, int seatsPerRow, boolean is3D, DayOfWeek day, Duration holdTime) {
+        this(engine, rows, seatsPerRow, is3D, day, holdTime, System::nanoTime);
+    }
+
+    SeatMap(PricingEngine engine, int rows, int seatsPerRow, boolean is3D, DayOfWeek day, Duration holdTime,
+            LongSupplier clock) {
+        if (engine == null || day == null || holdTime == null) {
+            throw new IllegalArgumentException("Engine, day and hold time cannot be null");
+        }
+        if (rows < 1 || seatsPerRow < 1 || seatsPerRow > Long.SIZE) {
+            throw new IllegalArgumentException("Need at least one row and 1 to 64 seats per row: "
+                + rows + " x " + seatsPerRow);
+        }
+        if (holdTime.isNegative() || holdTime.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive: " + holdTime);
+        }
+        this.engine = engine;
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.rowMask = seatsPerRow == Long.SIZE ? -1L : (1L << seatsPerRow) - 1;
+        this.is3D = is3D;
+        this.day = day;
+        this.holdNanos = holdTime.toNanos();
+        this.clock = clock;
+        this.taken = new AtomicLongArray(rows);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    // ==================== RÉSERVATION ====================
+
+    /**
+     * Réserve des places contiguës dans le premier rang qui en a, à partir d'un rang
+     * tiré au hasard, et tarifie la réservation.
+     *
+     * @param tickets Type de billet de chaque place (1 à seatsPerRow billets)
+     * @return Option sur les places, ou null si aucun rang n'a assez de places contiguës libres
+     * @throws IllegalArgumentException si tickets est null, vide, trop long ou contient null
+     */
+    public SeatReservation reserve(TicketType... tickets) {
+        List<TicketType> list = validate(tickets);
+        SeatReservation reservation = tryReserveAnywhere(list);
+        if (reservation == null && expireHolds() > 0) {
+            reservation = tryReserveAnywhere(list);
+        }
+        return reservation;
+    }
+
+    /**
+     * Réserve un bloc de places précis et le tarifie.
+     *
+     * @param row       Rang (à partir de 0)
+     * @param firstSeat Première place du bloc (à partir de 0)
+     * @param tickets   Type de billet de chaque place, dans l'ordre des places
+     * @return Option sur les places, ou null si une place du bloc est déjà prise
+     * @throws IllegalArgumentException si tickets est invalide ou si le bloc sort de la salle
+     */
+    public SeatReservation reserve(int row, int firstSeat, TicketType... tickets) {
+        List<TicketType> list = validate(tickets);
+        if (row < 0 || row >= rows || firstSeat < 0 || firstSeat + list.size() > seatsPerRow) {
+            throw new IllegalArgumentException("Seats out of the auditorium: row " + row + ", seats "
+                + firstSeat + ".." + (firstSeat + list.size() - 1));
+        }
+        long mask = block(list.size()) << firstSeat;
+        if (!claim(row, mask)) {
+            if (expireHolds() == 0 || !claim(row, mask)) {
+                return null;
+            }
+        }
+        return hold(row, firstSeat, list);
+    }
+
+    private List<TicketType> validate(TicketType[] tickets) {
+        if (tickets == null || tickets.length == 0 || tickets.length > seatsPerRow) {
+            throw new IllegalArgumentException("A reservation needs 1 to " + seatsPerRow + " tickets");
+        }
+        for (TicketType ticket : tickets) {
+            if (ticket == null) {
+                throw new IllegalArgumentException("TicketType cannot be null");
+            }
+        }
+        return List.of(tickets);
+    }
+
+    private SeatReservation tryReserveAnywhere(List<TicketType> tickets) {
+        int count = tickets.size();
+        int start = ThreadLocalRandom.current().nextInt(rows);
+        for (int r = 0; r < rows; r++) {
+            int row = start + r < rows ? start + r : start + r - rows;
+            while (true) {
+                long current = taken.get(row);
+                int seat = firstFit(~current & rowMask, count);
+                if (seat < 0) {
+                    break; // rang plein pour ce groupe : rang suivant
+                }
+                long mask = block(count) << seat;
+                if (taken.compareAndSet(row, current, current | mask)) {
+                    return hold(row, seat, tickets);
+                }
+                // CAS perdu : le rang a changé, on relit
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Première place d'un bloc de count places libres, ou -1
+     */
+    private static int firstFit(long free, int count) {
+        // Bit p de runs : places p à p + count - 1 toutes libres
+        long runs = free;
+        for (int i = 1; i < count && runs != 0; i++) {
+            runs &= free >>> i;
+        }
+        return runs == 0 ? -1 : Long.numberOfTrailingZeros(runs);
+    }
+
+    private static long block(int count) {
+        return count == Long.SIZE ? -1L : (1L << count) - 1;
+    }
+
+    private boolean claim(int row, long mask) {
+        while (true) {
+            long current = taken.get(row);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (taken.compareAndSet(row, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private void free(int row, long mask) {
+        while (true) {
+            long current = taken.get(row);
+            if (taken.compareAndSet(row, current, current & ~mask)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Places déjà acquises : tarification puis mise en option.
+     */
+    private SeatReservation hold(int row, int firstSeat, List<TicketType> tickets) {
+        int[] counts = new int[TICKET_TYPES.length];
+        for (TicketType ticket : tickets) {
+            counts[ticket.ordinal()]++;
+        }
+        PriceBreakdown price = engine.computeTotal(counts, is3D, day);
+        SeatReservation reservation = new SeatReservation(row, firstSeat, tickets, price, clock.getAsLong() + holdNanos);
+        holds.add(reservation);
+        // Balayage opportuniste : la file ne garde pas les options déjà réglées ou échues
+        SeatReservation head = holds.peek();
+        if (head != null && (!head.isHeld() || clock.getAsLong() - head.getExpiresAtNanos() >= 0)) {
+            expireHolds();
+        }
+        return reservation;
+    }
+
+    // ==================== CYCLE DE VIE ====================
+
+    /**
+     * Rend une option définitive, si elle n'a ni expiré ni été libérée.
+     *
+     * @return true si la réservation est confirmée (ou l'était déjà)
+     * @throws IllegalArgumentException si reservation est null
+     */
+    public boolean confirm(SeatReservation reservation) {
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reservation cannot be null");
+        }
+        if (reservation.isConfirmed()) {
+            return true;
+        }
+        if (clock.getAsLong() - reservation.getExpiresAtNanos() >= 0) {
+            // Échue : les places sont rendues sans attendre le balayage
+            release(reservation);
+            return false;
+        }
+        return reservation.transition(SeatReservation.HELD, SeatReservation.CONFIRMED);
+    }
+
+    /**
+     * Abandonne une option et rend ses places.
+     *
+     * @return true si les places ont été rendues par cet appel
+     * @throws IllegalArgumentException si reservation est null
+     */
+    public boolean release(SeatReservation reservation) {
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reservation cannot be null");
+        }
+        if (!reservation.transition(SeatReservation.HELD, SeatReservation.RELEASED)) {
+            return false;
+        }
+        free(reservation.getRow(), reservation.seatMask());
+        return true;
+    }
+
+    /**
+     * Rend les places des options échues. Sans effet si un autre thread balaye déjà.
+     *
+     * @return Nombre d'options expirées par cet appel
+     */
+    public int expireHolds() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long now = clock.getAsLong();
+            int expired = 0;
+            SeatReservation head;
+            while ((head = holds.peek()) != null) {
+                if (head.isHeld() && now - head.getExpiresAtNanos() < 0) {
+                    break; // les suivantes échoient plus tard
+                }
+                holds.poll();
+                if (head.transition(SeatReservation.HELD, SeatReservation.RELEASED)) {
+                    free(head.getRow(), head.seatMask());
+                    expired++;
+                }
+            }
+            return expired;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // ==================== ÉTAT ====================
+
+    /**
+     * @return true si la place est prise (option ou réservation définitive)
+     * @throws IllegalArgumentException si la place sort de la salle
+     */
+    public boolean isTaken(int row, int seat) {
+        if (row < 0 || row >= rows || seat < 0 || seat >= seatsPerRow) {
+            throw new IllegalArgumentException("Seat out of the auditorium: row " + row + ", seat " + seat);
+        }
+        return (taken.get(row) & (1L << seat)) != 0;
+    }
+
+    /**
+     * @return Nombre de places libres (instantané, rang par rang)
+     */
+    public int availableSeats() {
+        int available = 0;
+        for (int row = 0; row < rows; row++) {
+            available += Long.bitCount(~taken.get(row) & rowMask);
+        }
+        return available;
+    }
+}
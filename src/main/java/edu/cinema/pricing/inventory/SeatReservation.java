@@ -0,0 +1,121 @@
+package edu.cinema.pricing.inventory;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.TicketType;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Places contiguës d'un rang réservées par {@link SeatMap}, avec leurs types de billets
+ * et le prix de la réservation.
+ * <p>
+ * Une réservation est d'abord une option ({@link #isHeld()}) qui expire à son échéance ;
+ * elle devient définitive par {@link SeatMap#confirm}, ou libère ses places par
+ * {@link SeatMap#release} ou à l'expiration. Chaque transition se fait par un CAS sur
+ * l'état : une option confirmée ne peut plus expirer, une option expirée ne peut plus
+ * être confirmée.
+ */
+public final class SeatReservation {
+
+    static final int HELD = 0;
+    static final int CONFIRMED = 1;
+    static final int RELEASED = 2;
+
+    private final int row;
+    private final int firstSeat;
+    private final List<TicketType> tickets;
+    private final PriceBreakdown price;
+    private final long expiresAtNanos;
+    private final AtomicInteger state = new AtomicInteger(HELD);
+
+    SeatReservation(int row, int firstSeat, List<TicketType> tickets, PriceBreakdown price, long expiresAtNanos) {
+        this.row = row;
+        this.firstSeat = firstSeat;
+        this.tickets = tickets;
+        this.price = price;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @return Rang (à partir de 0)
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return Première place du bloc dans le rang (à partir de 0)
+     */
+    public int getFirstSeat() {
+        return firstSeat;
+    }
+
+    /**
+     * @return Nombre de places réservées
+     */
+    public int getSeatCount() {
+        return tickets.size();
+    }
+
+    /**
+     * @return Type de billet de chaque place, dans l'ordre des places
+     */
+    public List<TicketType> getTickets() {
+        return tickets;
+    }
+
+    /**
+     * @return Détail du prix de la réservation
+     */
+    public PriceBreakdown getPrice() {
+        return price;
+    }
+
+    /**
+     * @return Échéance de l'option (horloge de {@link System#nanoTime()})
+     */
+    public long getExpiresAtNanos() {
+        return expiresAtNanos;
+    }
+
+    /**
+     * @return true si la réservation est une option en cours (ni confirmée ni libérée)
+     */
+    public boolean isHeld() {
+        return state.get() == HELD;
+    }
+
+    /**
+     * @return true si la réservation est définitive
+     */
+    public boolean isConfirmed() {
+        return state.get() == CONFIRMED;
+    }
+
+    /**
+     * @return true si les places ont été rendues (libération ou expiration)
+     */
+    public boolean isReleased() {
+        return state.get() == RELEASED;
+    }
+
+    boolean transition(int from, int to) {
+        return state.compareAndSet(from, to);
+    }
+
+    /**
+     * @return Places du bloc dans le mot de bits du rang
+     */
+    long seatMask() {
+        int count = tickets.size();
+        return (count == Long.SIZE ? -1L : (1L << count) - 1) << firstSeat;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatReservation{row=" + row + ", seats=" + firstSeat + ".." + (firstSeat + tickets.size() - 1)
+            + ", tickets=" + tickets + ", total=" + price.getTotal()
+            + ", state=" + (isHeld() ? "HELD" : isConfirmed() ? "CONFIRMED" : "RELEASED") + "}";
+    }
+}
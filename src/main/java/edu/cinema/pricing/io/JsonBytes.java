@@ -0,0 +1,290 @@
+package edu.cinema.pricing.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON octet par octet, sans arbre ni chaîne intermédiaire : écriture ASCII dans un
+ * {@link ByteBuffer} (méthodes statiques) et lecture d'un objet plat par un curseur
+ * réutilisable (instance). Les nombres sont écrits chiffre par chiffre, sans passer par
+ * la locale : le point décimal est toujours un point, comme avec {@code Locale.US}.
+ */
+final class JsonBytes {
+
+    private ByteBuffer buffer;
+    private int position;
+    private int end;
+
+    // ==================== ÉCRITURE ====================
+
+    static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static byte[][] quotedNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = ascii('"' + values[i].name() + '"');
+        }
+        return names;
+    }
+
+    /**
+     * Montant en euros à deux décimales (arrondi au centime le plus proche).
+     */
+    static void putAmount(ByteBuffer out, double amount) {
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            out.put((byte) '-');
+        }
+        // En négatif pour couvrir Long.MIN_VALUE
+        long negative = cents < 0 ? cents : -cents;
+        putNegative(out, negative / 100);
+        long remainder = -(negative % 100);
+        out.put((byte) '.').put((byte) ('0' + remainder / 10)).put((byte) ('0' + remainder % 10));
+    }
+
+    static void putLong(ByteBuffer out, long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            putNegative(out, value);
+        } else {
+            putNegative(out, -value);
+        }
+    }
+
+    /**
+     * Écrit les chiffres de -negative (negative ≤ 0).
+     */
+    private static void putNegative(ByteBuffer out, long negative) {
+        int digits = 1;
+        for (long rest = negative / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int start = out.position();
+        if (out.remaining() < digits) {
+            throw new BufferOverflowException();
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            out.put(start + i, (byte) ('0' - negative % 10));
+            negative /= 10;
+        }
+        out.position(start + digits);
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * Place le curseur sur l'objet JSON [start, end) du tampon (lecture absolue).
+     */
+    void begin(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Consomme le caractère attendu, après les blancs éventuels.
+     *
+     * @throws IllegalArgumentException si le caractère suivant est différent
+     */
+    void expect(char c) {
+        if (!tryConsume(c)) {
+            throw new IllegalArgumentException("Expected '" + c + "' at offset " + position);
+        }
+    }
+
+    /**
+     * @return true si le caractère suivant (après les blancs) est c, consommé dans ce cas
+     */
+    boolean tryConsume(char c) {
+        skipWhitespace();
+        if (position < end && buffer.get(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vérifie qu'il ne reste que des blancs.
+     */
+    void expectEnd() {
+        skipWhitespace();
+        if (position != end) {
+            throw new IllegalArgumentException("Unexpected content after JSON object at offset " + position);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Lit une chaîne et la compare aux noms connus (entre guillemets, sans échappement).
+     *
+     * @return Index du nom reconnu
+     * @throws IllegalArgumentException si la chaîne est absente, non fermée avant la fin
+     *                                  de l'objet ou inconnue
+     */
+    int readName(byte[][] quotedNames, String what) {
+        skipWhitespace();
+        if (position >= end || buffer.get(position) != '"') {
+            throw new IllegalArgumentException("Expected " + what + " at offset " + position);
+        }
+        int close = position + 1;
+        while (close < end && buffer.get(close) != '"') {
+            close++;
+        }
+        if (close == end) {
+            throw new IllegalArgumentException("Unterminated " + what + " at offset " + position);
+        }
+        // Comparaison limitée à [position, close] : jamais au-delà de end
+        int length = close + 1 - position;
+        for (int n = 0; n < quotedNames.length; n++) {
+            byte[] name = quotedNames[n];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 1;
+            while (i < length && buffer.get(position + i) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                position = close + 1;
+                return n;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + what + " at offset " + position);
+    }
+
+    /**
+     * Lit un nombre décimal et le convertit en centimes (arrondi demi vers le haut au-delà
+     * de deux décimales). Les exposants ne sont pas acceptés.
+     */
+    long readCents() {
+        skipWhitespace();
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long cents = readDigits(16) * 100;
+        if (position < end && buffer.get(position) == '.') {
+            position++;
+            int fraction = 0;
+            int decimals = 0;
+            boolean roundUp = false;
+            int digitsStart = position;
+            while (position < end && isDigit(buffer.get(position))) {
+                int digit = buffer.get(position) - '0';
+                if (decimals < 2) {
+                    fraction = fraction * 10 + digit;
+                } else if (decimals == 2) {
+                    roundUp = digit >= 5;
+                }
+                decimals++;
+                position++;
+            }
+            if (position == digitsStart) {
+                throw new IllegalArgumentException("Expected digits after decimal point at offset " + position);
+            }
+            cents += (decimals == 1 ? fraction * 10 : fraction) + (roundUp ? 1 : 0);
+        }
+        if (position < end && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            throw new IllegalArgumentException("Exponents are not supported at offset " + position);
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Lit un entier positif ou nul.
+     */
+    long readLong() {
+        skipWhitespace();
+        return readDigits(19);
+    }
+
+    boolean readBoolean() {
+        skipWhitespace();
+        if (matches("true")) {
+            return true;
+        }
+        if (matches("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Expected true or false at offset " + position);
+    }
+
+    private boolean matches(String literal) {
+        if (end - position < literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (buffer.get(position + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        position += literal.length();
+        return true;
+    }
+
+    private long readDigits(int maxDigits) {
+        int start = position;
+        long value = 0;
+        while (position < end && isDigit(buffer.get(position))) {
+            int digit = buffer.get(position) - '0';
+            if (position - start == maxDigits || value > (Long.MAX_VALUE - digit) / 10) {
+                throw new IllegalArgumentException("Number too large at offset " + start);
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        if (position == start) {
+            throw new IllegalArgumentException("Expected a number at offset " + start);
+        }
+        return value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    // ==================== VARINTS ====================
+
+    /**
+     * Entier signé en varint zigzag (1 à 10 octets, petites valeurs absolues sur peu d'octets).
+     */
+    static void putVarLong(ByteBuffer out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    /**
+     * @throws IllegalArgumentException si le varint est tronqué ou trop long
+     */
+    static long getVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IllegalArgumentException("Truncated varint");
+            }
+            byte b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
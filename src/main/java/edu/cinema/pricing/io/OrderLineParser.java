@@ -0,0 +1,125 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.TicketType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+
+/**
+ * Analyseur d'une ligne de journal de ventes, directement sur les octets.
+ * <p>
+ * Format : {@code ADULT,ADULT,CHILD;3D;WEDNESDAY} — billets séparés par des virgules
+ * (liste éventuellement vide), {@code 3D} ou {@code 2D}, puis le jour en anglais.
+ * Aucune chaîne n'est créée : les jetons sont comparés octet par octet aux noms des
+ * énumérations. Une instance est réutilisable mais n'est pas thread-safe.
+ */
+public final class OrderLineParser {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+    private static final byte[][] TICKET_NAMES = names(TICKET_TYPES);
+    private static final byte[][] DAY_NAMES = names(DAYS);
+
+    private final int[] counts = new int[TICKET_TYPES.length];
+    private boolean is3D;
+    private DayOfWeek day;
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    /**
+     * Analyse la ligne [start, end) du tampon (sans le '\n' ; un '\r' final est ignoré).
+     *
+     * @param buffer Tampon source (lecture absolue, la position n'est pas modifiée)
+     * @param start  Premier octet de la ligne
+     * @param end    Fin de la ligne (exclue)
+     * @throws IllegalArgumentException si la ligne est mal formée
+     */
+    public void parse(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        Arrays.fill(counts, 0);
+
+        int firstSeparator = indexOf(buffer, start, end, (byte) ';');
+        int secondSeparator = firstSeparator < 0 ? -1 : indexOf(buffer, firstSeparator + 1, end, (byte) ';');
+        if (secondSeparator < 0) {
+            throw new IllegalArgumentException("Order line needs tickets;3D|2D;DAY");
+        }
+
+        // 1. Billets : liste vide, ou un jeton non vide après chaque virgule (",," et "," final rejetés)
+        if (firstSeparator > start) {
+            int tokenStart = start;
+            int comma;
+            do {
+                comma = indexOf(buffer, tokenStart, firstSeparator, (byte) ',');
+                int tokenEnd = comma < 0 ? firstSeparator : comma;
+                counts[match(buffer, tokenStart, tokenEnd, TICKET_NAMES, "ticket type")]++;
+                tokenStart = tokenEnd + 1;
+            } while (comma >= 0);
+        }
+
+        // 2. Format de projection
+        if (secondSeparator - firstSeparator != 3 || buffer.get(firstSeparator + 2) != 'D') {
+            throw new IllegalArgumentException("Expected 3D or 2D after tickets");
+        }
+        byte dimension = buffer.get(firstSeparator + 1);
+        if (dimension != '3' && dimension != '2') {
+            throw new IllegalArgumentException("Expected 3D or 2D after tickets");
+        }
+        is3D = dimension == '3';
+
+        // 3. Jour
+        day = DAYS[match(buffer, secondSeparator + 1, end, DAY_NAMES, "day")];
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int match(ByteBuffer buffer, int start, int end, byte[][] names, String what) {
+        int length = end - start;
+        for (int n = 0; n < names.length; n++) {
+            byte[] name = names[n];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && buffer.get(start + i) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                return n;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + what + " in order line");
+    }
+
+    /**
+     * @return Quantités de la dernière ligne, indexées par {@link TicketType#ordinal()}
+     *         (tableau interne réutilisé à chaque appel)
+     */
+    public int[] counts() {
+        return counts;
+    }
+
+    public boolean is3D() {
+        return is3D;
+    }
+
+    public DayOfWeek day() {
+        return day;
+    }
+}
@@ -0,0 +1,306 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.MutablePriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Recalcul en masse d'un journal de ventes (une commande par ligne, voir {@link OrderLineParser}).
+ * <p>
+ * Le fichier est découpé en tranches alignées sur les fins de ligne, chacune projetée
+ * en mémoire ({@link FileChannel#map}) et traitée en parallèle sur un {@link ForkJoinPool}.
+ * Les totaux sont écrits dans le fichier de sortie, une ligne par commande et dans l'ordre
+ * du journal (les lignes vides sont ignorées) ; les agrégats sont écrits à côté, dans
+ * {@code <sortie>.summary}. Seules quelques tranches sont en vol à la fois, la mémoire
+ * reste donc bornée quelle que soit la taille du journal.
+ */
+public class OrderLogRepricer {
+
+    // Taille nominale d'une tranche (la tranche s'étend jusqu'à la fin de ligne suivante)
+    private static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    private static final int PROBE_SIZE = 8192;
+
+    private final PricingEngine engine;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Recalcul sur le pool commun avec des tranches de 64 Mo.
+     */
+    public OrderLogRepricer(PricingEngine engine) {
+        this(engine, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructeur complet.
+     *
+     * @param engine    Moteur de tarification
+     * @param pool      Pool de traitement des tranches
+     * @param chunkSize Taille nominale d'une tranche en octets (≥ 1)
+     * @throws IllegalArgumentException si engine ou pool est null, ou chunkSize < 1
+     */
+    public OrderLogRepricer(PricingEngine engine, ForkJoinPool pool, int chunkSize) {
+        if (engine == null || pool == null) {
+            throw new IllegalArgumentException("Engine and pool cannot be null");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.engine = engine;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recalcule toutes les commandes du journal.
+     *
+     * @param input  Journal de ventes
+     * @param output Fichier des totaux (écrasé) ; les agrégats vont dans {@code <output>.summary}
+     * @return Agrégats du journal
+     * @throws IOException              en cas d'erreur de lecture ou d'écriture
+     * @throws IllegalArgumentException si une ligne est mal formée (avec sa position en octets)
+     */
+    public RepricingSummary reprice(Path input, Path output) throws IOException {
+        RepricingSummary summary = RepricingSummary.empty();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long[] bounds = chunkBounds(in);
+            int window = Math.max(2, pool.getParallelism() * 2);
+            Deque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+            int next = 0;
+            while (next < bounds.length - 1 || !inFlight.isEmpty()) {
+                while (next < bounds.length - 1 && inFlight.size() < window) {
+                    long start = bounds[next];
+                    long end = bounds[next + 1];
+                    inFlight.addLast(pool.submit(() -> processChunk(in, start, end)));
+                    next++;
+                }
+                ChunkResult result = await(inFlight.removeFirst());
+                ByteBuffer bytes = ByteBuffer.wrap(result.output, 0, result.length);
+                while (bytes.hasRemaining()) {
+                    out.write(bytes);
+                }
+                summary = summary.merge(result.summary);
+            }
+        }
+        Files.writeString(output.resolveSibling(output.getFileName() + ".summary"),
+                          summary.toString(), StandardCharsets.US_ASCII);
+        return summary;
+    }
+
+    private static ChunkResult await(ForkJoinTask<ChunkResult> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while repricing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Découpe le fichier en tranches d'environ chunkSize octets, chacune commençant
+     * en début de ligne.
+     *
+     * @return Bornes croissantes, de 0 à la taille du fichier
+     */
+    long[] chunkBounds(FileChannel channel) throws IOException {
+        long[] bounds = chunkBounds(channel, 0, channel.size(), chunkSize);
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] - bounds[i - 1] > Integer.MAX_VALUE) {
+                throw new IOException("Order line too long near byte " + bounds[i - 1]);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Découpe la plage [from, to) du fichier en tranches d'environ chunkSize octets,
+     * chacune commençant en début de ligne (from doit lui-même être un début de ligne).
+     *
+     * @return Bornes croissantes, de from à to
+     */
+    static long[] chunkBounds(FileChannel channel, long from, long to, long chunkSize) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(from);
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long position = from + chunkSize;
+        while (position < to) {
+            // Cherche depuis position - 1 : si cet octet est '\n', position est déjà un début de ligne
+            long newline = findNewline(channel, position - 1, to, probe);
+            if (newline < 0 || newline + 1 >= to) {
+                break;
+            }
+            bounds.add(newline + 1);
+            position = newline + 1 + chunkSize;
+        }
+        bounds.add(to);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static long findNewline(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    /**
+     * Traite une tranche [start, end) : analyse, calcul, formatage des totaux et agrégats.
+     */
+    private ChunkResult processChunk(FileChannel channel, long start, long end) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        OrderLineParser parser = new OrderLineParser();
+        ChunkResult result = new ChunkResult((int) Math.min(Integer.MAX_VALUE - 8, (end - start) / 2 + 16));
+        long orders = 0;
+        long[] tickets = new long[TicketType.values().length];
+        long subtotal = 0;
+        long wednesdayDiscount = 0;
+        long threeDSurcharge = 0;
+        long groupDiscount = 0;
+        long total = 0;
+        MutablePriceBreakdown breakdown = new MutablePriceBreakdown();
+
+        int limit = (int) (end - start);
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            boolean blank = lineEnd == lineStart || (lineEnd == lineStart + 1 && buffer.get(lineStart) == '\r');
+            if (!blank) {
+                try {
+                    parser.parse(buffer, lineStart, lineEnd);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                        "Malformed order line at byte " + (start + lineStart) + ": " + e.getMessage(), e);
+                }
+                int[] counts = parser.counts();
+                engine.computeTotal(counts, parser.is3D(), parser.day(), breakdown);
+                long totalCents = Math.round(breakdown.getTotal() * 100);
+                result.appendCents(totalCents);
+
+                orders++;
+                for (int t = 0; t < counts.length; t++) {
+                    tickets[t] += counts[t];
+                }
+                subtotal += Math.round(breakdown.getSubtotal() * 100);
+                wednesdayDiscount += Math.round(breakdown.getWednesdayDiscount() * 100);
+                threeDSurcharge += Math.round(breakdown.getThreeDSurcharge() * 100);
+                groupDiscount += Math.round(breakdown.getGroupDiscount() * 100);
+                total += totalCents;
+            }
+            lineStart = lineEnd + 1;
+        }
+        result.summary = new RepricingSummary(orders, tickets, subtotal, wednesdayDiscount,
+                                              threeDSurcharge, groupDiscount, total);
+        return result;
+    }
+
+    /**
+     * Sortie formatée d'une tranche (tampon extensible) et ses agrégats.
+     */
+    private static final class ChunkResult {
+        byte[] output;
+        int length;
+        RepricingSummary summary;
+
+        ChunkResult(int capacity) {
+            output = new byte[capacity];
+        }
+
+        /**
+         * Écrit un montant en centimes au format {@code 12.34\n}, sans passer par une chaîne.
+         */
+        void appendCents(long cents) {
+            if (output.length - length < 24) {
+                output = Arrays.copyOf(output, output.length * 2 + 24);
+            }
+            long euros = cents / 100;
+            int remainder = (int) (cents % 100);
+            if (euros == 0) {
+                output[length++] = '0';
+            } else {
+                int digitsStart = length;
+                while (euros > 0) {
+                    output[length++] = (byte) ('0' + euros % 10);
+                    euros /= 10;
+                }
+                for (int i = digitsStart, j = length - 1; i < j; i++, j--) {
+                    byte tmp = output[i];
+                    output[i] = output[j];
+                    output[j] = tmp;
+                }
+            }
+            output[length++] = '.';
+            output[length++] = (byte) ('0' + remainder / 10);
+            output[length++] = (byte) ('0' + remainder % 10);
+            output[length++] = '\n';
+        }
+    }
+
+    /**
+     * Usage : {@code OrderLogRepricer <journal> <totaux>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: OrderLogRepricer <order-log> <totals-output>");
+            System.exit(2);
+        }
+        long startNanos = System.nanoTime();
+        RepricingSummary summary = new OrderLogRepricer(new PricingEngine())
+            .reprice(Paths.get(args[0]), Paths.get(args[1]));
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.print(summary);
+        System.out.println("elapsedMillis=" + elapsedMillis);
+    }
+}
@@ -0,0 +1,233 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.TicketType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sérialisation d'une demande de devis (billets, 3D, jour) en JSON ou en binaire compact,
+ * écrite à la main : ni réflexion, ni arbre intermédiaire, ni boxing.
+ * <p>
+ * JSON : {@code {"tickets":["ADULT","CHILD"],"is3D":true,"day":"WEDNESDAY"}} ; à la
+ * lecture, les clés peuvent être dans n'importe quel ordre et toutes sont obligatoires.
+ * Binaire : un octet {@code jour << 1 | 3D} (jour selon {@link DayOfWeek#getValue()}) puis
+ * la quantité de chaque type en varint, dans l'ordre de {@link TicketType#ordinal()}.
+ * <p>
+ * Comme {@link OrderLineParser}, la lecture remplit les quantités par type, lues ensuite
+ * par {@link #counts()}, {@link #is3D()} et {@link #day()} : aucune liste n'est construite.
+ * Une instance est réutilisable mais n'est pas thread-safe.
+ */
+public final class OrderRequestCodec {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+    private static final byte[][] TICKET_NAMES = JsonBytes.quotedNames(TICKET_TYPES);
+    private static final byte[][] DAY_NAMES = JsonBytes.quotedNames(DAYS);
+
+    private static final byte[] TICKETS = JsonBytes.ascii("{\"tickets\":[");
+    private static final byte[] IS_3D = JsonBytes.ascii("],\"is3D\":");
+    private static final byte[] DAY = JsonBytes.ascii(",\"day\":");
+    private static final byte[] TRUE = JsonBytes.ascii("true");
+    private static final byte[] FALSE = JsonBytes.ascii("false");
+
+    private static final byte[][] KEYS = {
+        JsonBytes.ascii("\"tickets\""), JsonBytes.ascii("\"is3D\""), JsonBytes.ascii("\"day\"")
+    };
+    private static final int TICKETS_KEY = 0;
+    private static final int IS_3D_KEY = 1;
+
+    // Taille JSON hors billets, et taille maximale d'un billet ("STUDENT",)
+    private static final int JSON_OVERHEAD = 64;
+    private static final int MAX_TICKET_BYTES = maxLength(TICKET_NAMES) + 1;
+    /** Taille maximale d'une demande en binaire. */
+    public static final int MAX_BINARY_BYTES = 1 + TICKET_TYPES.length * 5;
+
+    private ByteBuffer scratch = ByteBuffer.allocate(JSON_OVERHEAD + 16 * MAX_TICKET_BYTES);
+    private final JsonBytes cursor = new JsonBytes();
+    private final int[] counts = new int[TICKET_TYPES.length];
+    private final int[] writeCounts = new int[TICKET_TYPES.length];
+    private boolean is3D;
+    private DayOfWeek day;
+
+    private static int maxLength(byte[][] names) {
+        int max = 0;
+        for (byte[] name : names) {
+            max = Math.max(max, name.length);
+        }
+        return max;
+    }
+
+    /**
+     * @return Taille maximale en JSON d'une demande de ticketCount billets
+     */
+    public static int maxJsonBytes(int ticketCount) {
+        return JSON_OVERHEAD + ticketCount * MAX_TICKET_BYTES;
+    }
+
+    // ==================== JSON ====================
+
+    /**
+     * Écrit la demande en JSON à la position du tampon.
+     *
+     * @throws IllegalArgumentException si tickets contient null, ou si tickets ou day est null
+     * @throws java.nio.BufferOverflowException si le tampon n'a pas assez de place
+     */
+    public void writeJson(List<TicketType> tickets, boolean is3D, DayOfWeek day, ByteBuffer out) {
+        validate(tickets, day);
+        out.put(TICKETS);
+        for (int i = 0; i < tickets.size(); i++) {
+            if (i > 0) {
+                out.put((byte) ',');
+            }
+            out.put(TICKET_NAMES[tickets.get(i).ordinal()]);
+        }
+        out.put(IS_3D).put(is3D ? TRUE : FALSE).put(DAY).put(DAY_NAMES[day.ordinal()]).put((byte) '}');
+    }
+
+    /**
+     * Écrit la demande en JSON dans le flux.
+     *
+     * @throws IllegalArgumentException si tickets contient null, ou si tickets ou day est null
+     * @throws IOException              en cas d'erreur d'écriture
+     */
+    public void writeJson(List<TicketType> tickets, boolean is3D, DayOfWeek day, OutputStream out)
+            throws IOException {
+        validate(tickets, day);
+        int needed = maxJsonBytes(tickets.size());
+        if (scratch.capacity() < needed) {
+            scratch = ByteBuffer.allocate(needed);
+        }
+        scratch.clear();
+        writeJson(tickets, is3D, day, scratch);
+        out.write(scratch.array(), 0, scratch.position());
+    }
+
+    /**
+     * Lit une demande JSON occupant les octets [start, end) du tampon (lecture absolue,
+     * la position n'est pas modifiée).
+     *
+     * @throws IllegalArgumentException si le JSON est mal formé, incomplet ou contient une clé inconnue
+     */
+    public void readJson(ByteBuffer in, int start, int end) {
+        Arrays.fill(counts, 0);
+        day = null;
+        cursor.begin(in, start, end);
+        int seen = 0;
+        cursor.expect('{');
+        if (!cursor.tryConsume('}')) {
+            do {
+                int key = cursor.readName(KEYS, "order request key");
+                cursor.expect(':');
+                if (key == TICKETS_KEY) {
+                    cursor.expect('[');
+                    if (!cursor.tryConsume(']')) {
+                        do {
+                            counts[cursor.readName(TICKET_NAMES, "ticket type")]++;
+                        } while (cursor.tryConsume(','));
+                        cursor.expect(']');
+                    }
+                } else if (key == IS_3D_KEY) {
+                    is3D = cursor.readBoolean();
+                } else {
+                    day = DAYS[cursor.readName(DAY_NAMES, "day")];
+                }
+                seen |= 1 << key;
+            } while (cursor.tryConsume(','));
+            cursor.expect('}');
+        }
+        cursor.expectEnd();
+        if (seen != (1 << KEYS.length) - 1) {
+            throw new IllegalArgumentException("Order request JSON needs tickets, is3D and day");
+        }
+    }
+
+    // ==================== BINAIRE ====================
+
+    /**
+     * Écrit la demande en binaire à la position du tampon.
+     *
+     * @throws IllegalArgumentException si tickets contient null, ou si tickets ou day est null
+     * @throws java.nio.BufferOverflowException si le tampon n'a pas assez de place
+     */
+    public void writeBinary(List<TicketType> tickets, boolean is3D, DayOfWeek day, ByteBuffer out) {
+        validate(tickets, day);
+        Arrays.fill(writeCounts, 0);
+        for (int i = 0; i < tickets.size(); i++) {
+            writeCounts[tickets.get(i).ordinal()]++;
+        }
+        out.put((byte) (day.getValue() << 1 | (is3D ? 1 : 0)));
+        for (int count : writeCounts) {
+            JsonBytes.putVarLong(out, count);
+        }
+    }
+
+    /**
+     * Écrit la demande en binaire dans le flux.
+     *
+     * @throws IllegalArgumentException si tickets contient null, ou si tickets ou day est null
+     * @throws IOException              en cas d'erreur d'écriture
+     */
+    public void writeBinary(List<TicketType> tickets, boolean is3D, DayOfWeek day, OutputStream out)
+            throws IOException {
+        scratch.clear();
+        writeBinary(tickets, is3D, day, scratch);
+        out.write(scratch.array(), 0, scratch.position());
+    }
+
+    /**
+     * Lit une demande binaire à la position du tampon et l'avance.
+     *
+     * @throws IllegalArgumentException si l'enregistrement est tronqué ou mal formé
+     */
+    public void readBinary(ByteBuffer in) {
+        if (!in.hasRemaining()) {
+            throw new IllegalArgumentException("Truncated order request");
+        }
+        int header = in.get() & 0xFF;
+        int dayValue = header >>> 1;
+        if (dayValue < 1 || dayValue > DAYS.length) {
+            throw new IllegalArgumentException("Invalid day in order request: " + dayValue);
+        }
+        for (int t = 0; t < counts.length; t++) {
+            long count = JsonBytes.getVarLong(in);
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid ticket count in order request: " + count);
+            }
+            counts[t] = (int) count;
+        }
+        is3D = (header & 1) != 0;
+        day = DAYS[dayValue - 1];
+    }
+
+    private static void validate(List<TicketType> tickets, DayOfWeek day) {
+        if (tickets == null || day == null) {
+            throw new IllegalArgumentException("Tickets and day cannot be null");
+        }
+        for (int i = 0; i < tickets.size(); i++) {
+            if (tickets.get(i) == null) {
+                throw new IllegalArgumentException("TicketType cannot be null");
+            }
+        }
+    }
+
+    /**
+     * @return Quantités de la dernière demande lue, indexées par {@link TicketType#ordinal()}
+     *         (tableau interne réutilisé à chaque appel)
+     */
+    public int[] counts() {
+        return counts;
+    }
+
+    public boolean is3D() {
+        return is3D;
+    }
+
+    public DayOfWeek day() {
+        return day;
+    }
+}
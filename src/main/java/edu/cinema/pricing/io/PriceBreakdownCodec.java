@@ -0,0 +1,169 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.PriceBreakdown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Sérialisation d'un {@link PriceBreakdown} en JSON ou en binaire compact, écrite à la
+ * main : ni réflexion, ni arbre intermédiaire, ni boxing.
+ * <p>
+ * JSON : {@code {"subtotal":22.00,"wednesdayDiscount":0.00,"threeDSurcharge":4.00,
+ * "groupDiscount":0.00,"total":26.00,"tariffVersion":1}} — montants à deux décimales avec
+ * un point, quelle que soit la locale. À la lecture, les clés peuvent être dans n'importe
+ * quel ordre, {@code tariffVersion} est facultative et les montants sont arrondis au centime.
+ * <p>
+ * Binaire : les cinq montants en centimes puis la version du tarif, en varints zigzag
+ * (une dizaine d'octets pour une commande courante, {@value #MAX_BINARY_BYTES} au plus).
+ * <p>
+ * Les écritures dans un {@link ByteBuffer} commencent à sa position et l'avancent ; celles
+ * dans un {@link OutputStream} passent par un tampon interne et un seul {@code write}.
+ * Une instance est réutilisable mais n'est pas thread-safe.
+ */
+public final class PriceBreakdownCodec {
+
+    /** Taille maximale d'un détail en JSON. */
+    public static final int MAX_JSON_BYTES = 256;
+    /** Taille maximale d'un détail en binaire. */
+    public static final int MAX_BINARY_BYTES = 60;
+
+    private static final byte[] SUBTOTAL = JsonBytes.ascii("{\"subtotal\":");
+    private static final byte[] WEDNESDAY_DISCOUNT = JsonBytes.ascii(",\"wednesdayDiscount\":");
+    private static final byte[] THREE_D_SURCHARGE = JsonBytes.ascii(",\"threeDSurcharge\":");
+    private static final byte[] GROUP_DISCOUNT = JsonBytes.ascii(",\"groupDiscount\":");
+    private static final byte[] TOTAL = JsonBytes.ascii(",\"total\":");
+    private static final byte[] TARIFF_VERSION = JsonBytes.ascii(",\"tariffVersion\":");
+
+    // Clés lues, dans l'ordre des champs
+    private static final byte[][] KEYS = {
+        JsonBytes.ascii("\"subtotal\""), JsonBytes.ascii("\"wednesdayDiscount\""),
+        JsonBytes.ascii("\"threeDSurcharge\""), JsonBytes.ascii("\"groupDiscount\""),
+        JsonBytes.ascii("\"total\""), JsonBytes.ascii("\"tariffVersion\"")
+    };
+    private static final int AMOUNTS = 5;
+    private static final int VERSION_KEY = 5;
+
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_JSON_BYTES);
+    private final JsonBytes cursor = new JsonBytes();
+    private final long[] cents = new long[AMOUNTS];
+
+    // ==================== JSON ====================
+
+    /**
+     * Écrit le détail en JSON à la position du tampon.
+     *
+     * @throws IllegalArgumentException si breakdown est null
+     * @throws java.nio.BufferOverflowException si le tampon n'a pas assez de place
+     */
+    public void writeJson(PriceBreakdown breakdown, ByteBuffer out) {
+        if (breakdown == null) {
+            throw new IllegalArgumentException("Breakdown cannot be null");
+        }
+        out.put(SUBTOTAL);
+        JsonBytes.putAmount(out, breakdown.getSubtotal());
+        out.put(WEDNESDAY_DISCOUNT);
+        JsonBytes.putAmount(out, breakdown.getWednesdayDiscount());
+        out.put(THREE_D_SURCHARGE);
+        JsonBytes.putAmount(out, breakdown.getThreeDSurcharge());
+        out.put(GROUP_DISCOUNT);
+        JsonBytes.putAmount(out, breakdown.getGroupDiscount());
+        out.put(TOTAL);
+        JsonBytes.putAmount(out, breakdown.getTotal());
+        out.put(TARIFF_VERSION);
+        JsonBytes.putLong(out, breakdown.getTariffVersion());
+        out.put((byte) '}');
+    }
+
+    /**
+     * Écrit le détail en JSON dans le flux.
+     *
+     * @throws IllegalArgumentException si breakdown est null
+     * @throws IOException              en cas d'erreur d'écriture
+     */
+    public void writeJson(PriceBreakdown breakdown, OutputStream out) throws IOException {
+        scratch.clear();
+        writeJson(breakdown, scratch);
+        out.write(scratch.array(), 0, scratch.position());
+    }
+
+    /**
+     * Lit un détail JSON occupant les octets [start, end) du tampon (lecture absolue,
+     * la position n'est pas modifiée).
+     *
+     * @throws IllegalArgumentException si le JSON est mal formé, incomplet ou contient une clé inconnue
+     */
+    public PriceBreakdown readJson(ByteBuffer in, int start, int end) {
+        cursor.begin(in, start, end);
+        int seen = 0;
+        long tariffVersion = 0L;
+        cursor.expect('{');
+        if (!cursor.tryConsume('}')) {
+            do {
+                int key = cursor.readName(KEYS, "price breakdown key");
+                cursor.expect(':');
+                if (key == VERSION_KEY) {
+                    tariffVersion = cursor.readLong();
+                } else {
+                    cents[key] = cursor.readCents();
+                    seen |= 1 << key;
+                }
+            } while (cursor.tryConsume(','));
+            cursor.expect('}');
+        }
+        cursor.expectEnd();
+        if (seen != (1 << AMOUNTS) - 1) {
+            throw new IllegalArgumentException("Price breakdown JSON needs subtotal, wednesdayDiscount, "
+                + "threeDSurcharge, groupDiscount and total");
+        }
+        return new PriceBreakdown(cents[0] / 100.0, cents[1] / 100.0, cents[2] / 100.0,
+            cents[3] / 100.0, cents[4] / 100.0, tariffVersion);
+    }
+
+    // ==================== BINAIRE ====================
+
+    /**
+     * Écrit le détail en binaire à la position du tampon.
+     *
+     * @throws IllegalArgumentException si breakdown est null
+     * @throws java.nio.BufferOverflowException si le tampon n'a pas assez de place
+     */
+    public void writeBinary(PriceBreakdown breakdown, ByteBuffer out) {
+        if (breakdown == null) {
+            throw new IllegalArgumentException("Breakdown cannot be null");
+        }
+        JsonBytes.putVarLong(out, Math.round(breakdown.getSubtotal() * 100));
+        JsonBytes.putVarLong(out, Math.round(breakdown.getWednesdayDiscount() * 100));
+        JsonBytes.putVarLong(out, Math.round(breakdown.getThreeDSurcharge() * 100));
+        JsonBytes.putVarLong(out, Math.round(breakdown.getGroupDiscount() * 100));
+        JsonBytes.putVarLong(out, Math.round(breakdown.getTotal() * 100));
+        JsonBytes.putVarLong(out, breakdown.getTariffVersion());
+    }
+
+    /**
+     * Écrit le détail en binaire dans le flux.
+     *
+     * @throws IllegalArgumentException si breakdown est null
+     * @throws IOException              en cas d'erreur d'écriture
+     */
+    public void writeBinary(PriceBreakdown breakdown, OutputStream out) throws IOException {
+        scratch.clear();
+        writeBinary(breakdown, scratch);
+        out.write(scratch.array(), 0, scratch.position());
+    }
+
+    /**
+     * Lit un détail binaire à la position du tampon et l'avance.
+     *
+     * @throws IllegalArgumentException si l'enregistrement est tronqué ou mal formé
+     */
+    public PriceBreakdown readBinary(ByteBuffer in) {
+        for (int i = 0; i < AMOUNTS; i++) {
+            cents[i] = JsonBytes.getVarLong(in);
+        }
+        long tariffVersion = JsonBytes.getVarLong(in);
+        return new PriceBreakdown(cents[0] / 100.0, cents[1] / 100.0, cents[2] / 100.0,
+            cents[3] / 100.0, cents[4] / 100.0, tariffVersion);
+    }
+}
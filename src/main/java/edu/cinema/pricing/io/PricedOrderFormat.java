@@ -0,0 +1,86 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.TicketType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Format binaire à largeur fixe des commandes tarifées (archives d'audit).
+ * <p>
+ * Un fichier commence par un en-tête de {@value #HEADER_SIZE} octets puis contient des
+ * enregistrements de {@value #RECORD_SIZE} octets, en petit-boutiste :
+ * <pre>
+ *  0  int       sous-total (centimes)
+ *  4  int       remise mercredi (centimes)
+ *  8  int       supplément 3D (centimes)
+ * 12  int       remise groupe (centimes)
+ * 16  int       total (centimes)
+ * 20  short[4]  quantités par type, non signées (ordre de {@link TicketType#ordinal()})
+ * 28  int       bits 0-23 : version du tarif ; bits 24-26 : jour
+ *               ({@link java.time.DayOfWeek#getValue()}, 1..7) ; bit 27 : 3D
+ * </pre>
+ * Chaque champ a la largeur de ce qu'il doit contenir : au plus {@value #MAX_COUNT} billets
+ * d'un type par commande, {@value #MAX_TARIFF_VERSION} rechargements de tarif, et des montants
+ * en int (un sous-total dépasse 65 535 centimes dès quelques billets). Les montants restent
+ * alignés sur 4 octets et la version, le jour et la 3D se lisent d'un seul accès.
+ * <p>
+ * L'en-tête contient la signature {@code CPR1}, la version du format et la taille
+ * d'enregistrement, vérifiées à la lecture.
+ */
+public final class PricedOrderFormat {
+
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 32;
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /** Quantité maximale d'un type de billet dans une commande. */
+    public static final int MAX_COUNT = 0xFFFF;
+    /** Version de tarif maximale enregistrable. */
+    public static final int MAX_TARIFF_VERSION = 0xFF_FFFF;
+
+    static final int MAGIC = 0x31525043; // "CPR1" lu en petit-boutiste
+    static final short FORMAT_VERSION = 2;
+
+    static final int SUBTOTAL = 0;
+    static final int WEDNESDAY_DISCOUNT = 4;
+    static final int THREE_D_SURCHARGE = 8;
+    static final int GROUP_DISCOUNT = 12;
+    static final int TOTAL = 16;
+    static final int COUNTS = 20;
+    static final int VERSION_DAY_3D = 28;
+
+    static final int DAY_SHIFT = 24;
+    static final int DAY_MASK = 0x7;
+    static final int FLAG_3D = 1 << 27;
+
+    static {
+        if (COUNTS + TicketType.values().length * Short.BYTES != VERSION_DAY_3D) {
+            throw new ExceptionInInitializerError("Record layout assumes 4 ticket types");
+        }
+    }
+
+    private PricedOrderFormat() {
+    }
+
+    /**
+     * Écrit l'en-tête à la position courante du tampon.
+     */
+    static void putHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) RECORD_SIZE).putLong(0L);
+    }
+
+    /**
+     * Vérifie l'en-tête au début du tampon.
+     *
+     * @throws IllegalArgumentException si la signature, la version ou la taille ne correspondent pas
+     */
+    static void checkHeader(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a priced order file");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION || buffer.getShort(6) != RECORD_SIZE) {
+            throw new IllegalArgumentException("Unsupported priced order format version " + buffer.getShort(4));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.CentsBreakdown;
+import edu.cinema.pricing.TicketType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+
+import static edu.cinema.pricing.io.PricedOrderFormat.*;
+
+/**
+ * Lecture en place d'un fichier de commandes tarifées (voir {@link PricedOrderFormat}).
+ * <p>
+ * Le fichier est projeté en mémoire par segments ; chaque accesseur lit directement le
+ * champ demandé de l'enregistrement, sans désérialiser la commande. Les lectures sont
+ * thread-safe (accès absolus uniquement).
+ */
+public final class PricedOrderReader implements Closeable {
+
+    // 2^24 enregistrements (512 Mo) par segment projeté, sous la limite de 2 Go d'un tampon
+    private static final int SEGMENT_SHIFT = 24;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private PricedOrderReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+        channel.read(header, 0);
+        header.flip();
+        checkHeader(header);
+        if ((fileSize - HEADER_SIZE) % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Truncated priced order file: " + fileSize + " bytes");
+        }
+        this.size = (fileSize - HEADER_SIZE) / RECORD_SIZE;
+        int segmentCount = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            long records = Math.min(size - first, 1L << SEGMENT_SHIFT);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE).order(BYTE_ORDER);
+        }
+    }
+
+    /**
+     * Ouvre un fichier de commandes tarifées en lecture.
+     *
+     * @param path Fichier écrit par {@link PricedOrderWriter}
+     * @return Lecteur sur tous les enregistrements du fichier
+     * @throws IOException              en cas d'erreur d'ouverture ou de projection
+     * @throws IllegalArgumentException si le fichier n'est pas au format attendu
+     */
+    public static PricedOrderReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new PricedOrderReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Nombre d'enregistrements
+     */
+    public long size() {
+        return size;
+    }
+
+    private ByteBuffer segment(long record) {
+        if (record < 0 || record >= size) {
+            throw new IndexOutOfBoundsException("Record " + record + " out of " + size);
+        }
+        return segments[(int) (record >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long record) {
+        return (int) (record & SEGMENT_MASK) * RECORD_SIZE;
+    }
+
+    public int count(long record, TicketType type) {
+        return Short.toUnsignedInt(segment(record).getShort(offset(record) + COUNTS + type.ordinal() * Short.BYTES));
+    }
+
+    /**
+     * @return Nombre total de billets de la commande
+     */
+    public int ticketCount(long record) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record) + COUNTS;
+        int sum = 0;
+        for (int t = 0; t < TICKET_TYPES.length; t++) {
+            sum += Short.toUnsignedInt(segment.getShort(base + t * Short.BYTES));
+        }
+        return sum;
+    }
+
+    public boolean is3D(long record) {
+        return (segment(record).getInt(offset(record) + VERSION_DAY_3D) & FLAG_3D) != 0;
+    }
+
+    public DayOfWeek day(long record) {
+        return DAYS[(segment(record).getInt(offset(record) + VERSION_DAY_3D) >>> DAY_SHIFT & DAY_MASK) - 1];
+    }
+
+    public long tariffVersion(long record) {
+        return segment(record).getInt(offset(record) + VERSION_DAY_3D) & MAX_TARIFF_VERSION;
+    }
+
+    public long subtotalCents(long record) {
+        return segment(record).getInt(offset(record) + SUBTOTAL);
+    }
+
+    public long wednesdayDiscountCents(long record) {
+        return segment(record).getInt(offset(record) + WEDNESDAY_DISCOUNT);
+    }
+
+    public long threeDSurchargeCents(long record) {
+        return segment(record).getInt(offset(record) + THREE_D_SURCHARGE);
+    }
+
+    public long groupDiscountCents(long record) {
+        return segment(record).getInt(offset(record) + GROUP_DISCOUNT);
+    }
+
+    public long totalCents(long record) {
+        return segment(record).getInt(offset(record) + TOTAL);
+    }
+
+    /**
+     * Copie les quantités de la commande dans un tableau fourni.
+     *
+     * @param record Indice de l'enregistrement
+     * @param counts Tableau de destination (une case par {@link TicketType})
+     * @return counts
+     */
+    public int[] counts(long record, int[] counts) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record) + COUNTS;
+        for (int t = 0; t < TICKET_TYPES.length; t++) {
+            counts[t] = Short.toUnsignedInt(segment.getShort(base + t * Short.BYTES));
+        }
+        return counts;
+    }
+
+    /**
+     * Reconstruit le détail du calcul (alloue un objet ; les accesseurs par champ n'allouent rien).
+     */
+    public CentsBreakdown breakdown(long record) {
+        return new CentsBreakdown(subtotalCents(record), wednesdayDiscountCents(record),
+            threeDSurchargeCents(record), groupDiscountCents(record), totalCents(record),
+            tariffVersion(record));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,133 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.CentsBreakdown;
+import edu.cinema.pricing.TicketType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+
+import static edu.cinema.pricing.io.PricedOrderFormat.*;
+
+/**
+ * Écriture séquentielle d'un fichier de commandes tarifées (voir {@link PricedOrderFormat}).
+ * <p>
+ * Les enregistrements sont assemblés dans un tampon direct puis écrits par blocs sur le
+ * {@link FileChannel} ; aucun objet n'est créé par commande. Classe non thread-safe.
+ */
+public final class PricedOrderWriter implements Closeable {
+
+    // Nombre d'enregistrements par bloc écrit (32 Ko)
+    private static final int RECORDS_PER_BLOCK = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long records;
+
+    private PricedOrderWriter(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(RECORDS_PER_BLOCK * RECORD_SIZE).order(BYTE_ORDER);
+        putHeader(buffer);
+        flush();
+    }
+
+    /**
+     * Crée (ou écrase) un fichier de commandes tarifées.
+     *
+     * @param path Fichier de sortie
+     * @return Écrivain positionné après l'en-tête
+     * @throws IOException en cas d'erreur d'ouverture ou d'écriture
+     */
+    public static PricedOrderWriter create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            return new PricedOrderWriter(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ajoute une commande tarifée.
+     *
+     * @param counts    Quantités par type, indexées par {@link TicketType#ordinal()}
+     * @param is3D      true si projection 3D
+     * @param day       Jour de la séance
+     * @param breakdown Détail du calcul en centimes
+     * @throws IllegalArgumentException si un paramètre est null ou invalide, ou si une quantité,
+     *                                  un montant ou la version du tarif dépasse la capacité
+     *                                  de son champ (voir {@link PricedOrderFormat})
+     * @throws IOException              en cas d'erreur d'écriture
+     */
+    public void write(int[] counts, boolean is3D, DayOfWeek day, CentsBreakdown breakdown) throws IOException {
+        if (counts == null || counts.length != TicketType.values().length) {
+            throw new IllegalArgumentException("Counts must have one entry per TicketType");
+        }
+        if (day == null || breakdown == null) {
+            throw new IllegalArgumentException("Day and breakdown cannot be null");
+        }
+        long tariffVersion = breakdown.getTariffVersion();
+        if (tariffVersion < 0 || tariffVersion > MAX_TARIFF_VERSION) {
+            throw new IllegalArgumentException("Tariff version too large for a priced order record: " + tariffVersion);
+        }
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        int base = buffer.position();
+        for (int t = 0; t < counts.length; t++) {
+            if (counts[t] < 0 || counts[t] > MAX_COUNT) {
+                throw new IllegalArgumentException("Counts must be between 0 and " + MAX_COUNT);
+            }
+            buffer.putShort(base + COUNTS + t * Short.BYTES, (short) counts[t]);
+        }
+        buffer.putInt(base + SUBTOTAL, amount(breakdown.getSubtotal()));
+        buffer.putInt(base + WEDNESDAY_DISCOUNT, amount(breakdown.getWednesdayDiscount()));
+        buffer.putInt(base + THREE_D_SURCHARGE, amount(breakdown.getThreeDSurcharge()));
+        buffer.putInt(base + GROUP_DISCOUNT, amount(breakdown.getGroupDiscount()));
+        buffer.putInt(base + TOTAL, amount(breakdown.getTotal()));
+        buffer.putInt(base + VERSION_DAY_3D,
+            (int) tariffVersion | day.getValue() << DAY_SHIFT | (is3D ? FLAG_3D : 0));
+        buffer.position(base + RECORD_SIZE);
+        records++;
+    }
+
+    private static int amount(long cents) {
+        if (cents < Integer.MIN_VALUE || cents > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount too large for a priced order record: " + cents);
+        }
+        return (int) cents;
+    }
+
+    /**
+     * @return Nombre d'enregistrements écrits depuis l'ouverture
+     */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Écrit les enregistrements en attente sur le canal.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
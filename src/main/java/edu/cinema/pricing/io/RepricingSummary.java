@@ -0,0 +1,134 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.TicketType;
+
+import java.util.Arrays;
+
+/**
+ * Agrégats d'un recalcul de journal : nombre de commandes et de billets,
+ * et sommes des montants en centimes (exactes, donc fusionnables dans n'importe quel ordre).
+ * Classe immuable.
+ */
+public final class RepricingSummary {
+    private final long orders;
+    private final long[] ticketsByType; // indexé par TicketType.ordinal()
+    private final long subtotalCents;
+    private final long wednesdayDiscountCents;
+    private final long threeDSurchargeCents;
+    private final long groupDiscountCents;
+    private final long totalCents;
+
+    /**
+     * Constructeur complet (montants en centimes).
+     */
+    public RepricingSummary(long orders, long[] ticketsByType, long subtotalCents,
+                            long wednesdayDiscountCents, long threeDSurchargeCents,
+                            long groupDiscountCents, long totalCents) {
+        if (ticketsByType == null || ticketsByType.length != TicketType.values().length) {
+            throw new IllegalArgumentException("Ticket counts must have one entry per TicketType");
+        }
+        this.orders = orders;
+        this.ticketsByType = ticketsByType.clone();
+        this.subtotalCents = subtotalCents;
+        this.wednesdayDiscountCents = wednesdayDiscountCents;
+        this.threeDSurchargeCents = threeDSurchargeCents;
+        this.groupDiscountCents = groupDiscountCents;
+        this.totalCents = totalCents;
+    }
+
+    /**
+     * @return Agrégats vides
+     */
+    public static RepricingSummary empty() {
+        return new RepricingSummary(0, new long[TicketType.values().length], 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Fusionne deux agrégats (somme champ par champ).
+     */
+    public RepricingSummary merge(RepricingSummary other) {
+        long[] tickets = ticketsByType.clone();
+        for (int t = 0; t < tickets.length; t++) {
+            tickets[t] += other.ticketsByType[t];
+        }
+        return new RepricingSummary(orders + other.orders, tickets,
+            subtotalCents + other.subtotalCents,
+            wednesdayDiscountCents + other.wednesdayDiscountCents,
+            threeDSurchargeCents + other.threeDSurchargeCents,
+            groupDiscountCents + other.groupDiscountCents,
+            totalCents + other.totalCents);
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getTickets(TicketType type) {
+        return ticketsByType[type.ordinal()];
+    }
+
+    public long getTickets() {
+        long sum = 0;
+        for (long count : ticketsByType) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    public long getWednesdayDiscountCents() {
+        return wednesdayDiscountCents;
+    }
+
+    public long getThreeDSurchargeCents() {
+        return threeDSurchargeCents;
+    }
+
+    public long getGroupDiscountCents() {
+        return groupDiscountCents;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RepricingSummary)) {
+            return false;
+        }
+        RepricingSummary other = (RepricingSummary) o;
+        return orders == other.orders
+            && Arrays.equals(ticketsByType, other.ticketsByType)
+            && subtotalCents == other.subtotalCents
+            && wednesdayDiscountCents == other.wednesdayDiscountCents
+            && threeDSurchargeCents == other.threeDSurchargeCents
+            && groupDiscountCents == other.groupDiscountCents
+            && totalCents == other.totalCents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(orders) * 31 + Long.hashCode(totalCents);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("orders=").append(orders).append('\n');
+        for (TicketType type : TicketType.values()) {
+            sb.append("tickets.").append(type).append('=').append(ticketsByType[type.ordinal()]).append('\n');
+        }
+        return sb.append("subtotalCents=").append(subtotalCents).append('\n')
+            .append("wednesdayDiscountCents=").append(wednesdayDiscountCents).append('\n')
+            .append("threeDSurchargeCents=").append(threeDSurchargeCents).append('\n')
+            .append("groupDiscountCents=").append(groupDiscountCents).append('\n')
+            .append("totalCents=").append(totalCents).append('\n')
+            .toString();
+    }
+}
@@ -0,0 +1,124 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.MutablePriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.metrics.RevenueRollup;
+import edu.cinema.pricing.metrics.RevenueSnapshot;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Processus de travail de {@link ShardedRepricer} : recalcule une plage du journal
+ * de ventes et écrit son agrégat partiel ({@link RevenueSnapshot#toBytes()}).
+ * <p>
+ * Le résultat est d'abord écrit dans un fichier temporaire puis renommé atomiquement :
+ * le fichier final n'existe que si le travail est allé jusqu'au bout. La plage est
+ * projetée en mémoire par tranches de 64 Mo, le tas du processus reste donc petit
+ * quelle que soit la taille de la plage.
+ * <p>
+ * Les commandes sont recalculées au tarif standard ({@link PricingEngine#PricingEngine()}) :
+ * la ligne de commande ne transmet pas de tarif, un journal vendu à un autre tarif se
+ * recalcule avec {@link OrderLogRepricer} et le moteur voulu.
+ */
+public final class ShardWorker {
+
+    // Code de sortie d'un travail abouti ; tout autre code est un échec
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+    // Ligne mal formée : le journal lui-même est en cause, une relance échouerait pareil
+    static final int EXIT_BAD_INPUT = 3;
+
+    private static final long CHUNK_SIZE = 64 << 20;
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Recalcule les commandes de la plage [start, end) du journal et écrit l'agrégat dans output.
+     *
+     * @param input  Journal de ventes
+     * @param start  Début de la plage (début de ligne)
+     * @param end    Fin de la plage (exclue)
+     * @param output Fichier de l'agrégat partiel, créé seulement en cas de succès
+     * @return Agrégat de la plage
+     * @throws IOException              en cas d'erreur de lecture ou d'écriture
+     * @throws IllegalArgumentException si une ligne est mal formée (avec sa position en octets)
+     */
+    static RevenueSnapshot run(Path input, long start, long end, Path output) throws IOException {
+        PricingEngine engine = new PricingEngine();
+        RevenueRollup rollup = new RevenueRollup(engine.getTariff(), 1);
+        OrderLineParser parser = new OrderLineParser();
+        MutablePriceBreakdown breakdown = new MutablePriceBreakdown();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long[] bounds = OrderLogRepricer.chunkBounds(channel, start, end, CHUNK_SIZE);
+            for (int c = 0; c < bounds.length - 1; c++) {
+                long chunkStart = bounds[c];
+                int limit = Math.toIntExact(bounds[c + 1] - chunkStart);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, limit);
+                int lineStart = 0;
+                while (lineStart < limit) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                        lineEnd++;
+                    }
+                    boolean blank = lineEnd == lineStart
+                        || (lineEnd == lineStart + 1 && buffer.get(lineStart) == '\r');
+                    if (!blank) {
+                        try {
+                            parser.parse(buffer, lineStart, lineEnd);
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException(
+                                "Malformed order line at byte " + (chunkStart + lineStart) + ": " + e.getMessage(), e);
+                        }
+                        engine.computeTotal(parser.counts(), parser.is3D(), parser.day(), breakdown);
+                        rollup.record(parser.counts(), parser.is3D(), parser.day(), breakdown);
+                    }
+                    lineStart = lineEnd + 1;
+                }
+            }
+        }
+        RevenueSnapshot snapshot = rollup.snapshot();
+        Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        Files.write(temporary, snapshot.toBytes());
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return snapshot;
+    }
+
+    /**
+     * Usage : {@code ShardWorker <journal> <début> <fin> <agrégat>}
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.err.println("Usage: ShardWorker <order-log> <start> <end> <partial-output>");
+            System.exit(EXIT_USAGE);
+        }
+        long start;
+        long end;
+        try {
+            start = Long.parseLong(args[1]);
+            end = Long.parseLong(args[2]);
+        } catch (NumberFormatException e) {
+            System.err.println(e);
+            System.exit(EXIT_USAGE);
+            return;
+        }
+        try {
+            run(Paths.get(args[0]), start, end, Paths.get(args[3]));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e);
+            System.exit(EXIT_BAD_INPUT);
+        } catch (IOException | RuntimeException e) {
+            System.err.println(e);
+            System.exit(EXIT_FAILED);
+        }
+        System.exit(EXIT_OK);
+    }
+}
@@ -0,0 +1,244 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.metrics.RevenueSnapshot;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recalcul d'un journal de ventes réparti sur plusieurs processus (JVM de travail
+ * sur la même machine, en attendant plusieurs nœuds).
+ * <p>
+ * Le journal est découpé en plages alignées sur les fins de ligne ; chaque plage est
+ * confiée à un {@link ShardWorker} lancé dans sa propre JVM, qui écrit un agrégat
+ * partiel compact ({@link RevenueSnapshot} : chiffre d'affaires, remises et billets
+ * par jour et par format). Le coordinateur fusionne les agrégats dans l'ordre des
+ * plages ; les montants sont des centimes entiers, le résultat ne dépend donc ni de
+ * l'ordre de fin des processus ni du nombre de plages.
+ * <p>
+ * Un processus qui meurt, dépasse son délai ou ne produit pas d'agrégat lisible est
+ * relancé sur la même plage. Chaque tentative écrit dans son propre fichier et seul
+ * l'agrégat de la tentative acceptée est fusionné : une plage n'est jamais comptée
+ * deux fois, même si une tentative abandonnée finit par écrire son résultat. Une ligne
+ * mal formée n'est pas relancée : le processus sort avec un code à part et le recalcul
+ * échoue aussitôt.
+ * <p>
+ * Le journal est recalculé au tarif standard, seul tarif que connaissent les processus
+ * de travail (voir {@link ShardWorker}).
+ */
+public class ShardedRepricer {
+
+    private static final int DEFAULT_ATTEMPTS = 3;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofHours(1);
+    // Tas d'un processus de travail : la plage est projetée hors tas
+    private static final String WORKER_HEAP = "-Xmx128m";
+
+    /**
+     * Lance le processus de travail d'une tentative.
+     */
+    @FunctionalInterface
+    interface WorkerLauncher {
+        Process launch(Path input, long start, long end, Path partial, Path log) throws IOException;
+    }
+
+    private final int shards;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration workerTimeout;
+    private final WorkerLauncher launcher;
+
+    /**
+     * Recalcul avec trois tentatives par plage et un délai d'une heure par processus.
+     *
+     * @param shards  Nombre de plages visé (moins si le journal a moins de lignes)
+     * @param workers Nombre maximal de processus simultanés
+     * @throws IllegalArgumentException si shards ou workers < 1
+     */
+    public ShardedRepricer(int shards, int workers) {
+        this(shards, workers, DEFAULT_ATTEMPTS, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructeur complet.
+     *
+     * @param shards        Nombre de plages visé (moins si le journal a moins de lignes)
+     * @param workers       Nombre maximal de processus simultanés
+     * @param maxAttempts   Nombre de lancements par plage avant abandon (≥ 1)
+     * @param workerTimeout Délai au-delà duquel un processus est tué et relancé
+     * @throws IllegalArgumentException si un nombre est < 1 ou si le délai est null, nul ou négatif
+     */
+    public ShardedRepricer(int shards, int workers, int maxAttempts, Duration workerTimeout) {
+        this(shards, workers, maxAttempts, workerTimeout, ShardedRepricer::launchJvm);
+    }
+
+    ShardedRepricer(int shards, int workers, int maxAttempts, Duration workerTimeout, WorkerLauncher launcher) {
+        if (shards < 1 || workers < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException(
+                "Shards, workers and attempts must be positive: " + shards + ", " + workers + ", " + maxAttempts);
+        }
+        if (workerTimeout == null || workerTimeout.isNegative() || workerTimeout.isZero()) {
+            throw new IllegalArgumentException("Worker timeout must be positive: " + workerTimeout);
+        }
+        this.shards = shards;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.workerTimeout = workerTimeout;
+        this.launcher = launcher;
+    }
+
+    /**
+     * Processus de travail : même JVM et même classpath que le coordinateur.
+     */
+    private static Process launchJvm(Path input, long start, long end, Path partial, Path log) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, WORKER_HEAP, "-cp", System.getProperty("java.class.path"),
+                                  ShardWorker.class.getName(), input.toString(), Long.toString(start),
+                                  Long.toString(end), partial.toString())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    }
+
+    /**
+     * Recalcule toutes les commandes du journal.
+     *
+     * @param input   Journal de ventes
+     * @param workDir Répertoire des agrégats partiels et des sorties des processus (créé si besoin)
+     * @return Agrégat de tout le journal
+     * @throws IOException              si une plage échoue à chaque tentative, ou en cas d'erreur d'E/S
+     * @throws IllegalArgumentException si input ou workDir est null, ou si une ligne est mal formée
+     *                                  (dès la première tentative, avec sa position en octets)
+     */
+    public RevenueSnapshot reprice(Path input, Path workDir) throws IOException {
+        if (input == null || workDir == null) {
+            throw new IllegalArgumentException("Input and work directory cannot be null");
+        }
+        Files.createDirectories(workDir);
+        long[] bounds;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            bounds = OrderLogRepricer.chunkBounds(channel, 0, size, Math.max(1, (size + shards - 1) / shards));
+        }
+
+        int count = bounds.length - 1;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, count));
+        try {
+            List<Future<RevenueSnapshot>> partials = new ArrayList<>(count);
+            for (int s = 0; s < count; s++) {
+                int shard = s;
+                partials.add(pool.submit(() -> runShard(input, workDir, shard, bounds[shard], bounds[shard + 1])));
+            }
+            // Fusion dans l'ordre des plages
+            RevenueSnapshot total = RevenueSnapshot.empty();
+            for (Future<RevenueSnapshot> partial : partials) {
+                total = total.merge(await(partial));
+            }
+            return total;
+        } finally {
+            // En cas d'échec, interrompt les attentes : les processus restants sont tués
+            pool.shutdownNow();
+        }
+    }
+
+    private static RevenueSnapshot await(Future<RevenueSnapshot> partial) throws IOException {
+        try {
+            return partial.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while repricing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Lance les tentatives d'une plage jusqu'à obtenir un agrégat lisible.
+     */
+    private RevenueSnapshot runShard(Path input, Path workDir, int shard, long start, long end)
+            throws IOException, InterruptedException {
+        String failure = null;
+        Path log = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            String name = "shard-" + shard + ".attempt-" + attempt;
+            Path partial = workDir.resolve(name + ".rev");
+            log = workDir.resolve(name + ".log");
+            Files.deleteIfExists(partial);
+
+            Process process = launcher.launch(input, start, end, partial, log);
+            try {
+                if (!process.waitFor(workerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    failure = "timed out after " + workerTimeout;
+                } else if (process.exitValue() == ShardWorker.EXIT_BAD_INPUT) {
+                    throw new IllegalArgumentException("Shard " + shard + " [" + start + ", " + end
+                        + ") has malformed input" + lastLine(log));
+                } else if (process.exitValue() != ShardWorker.EXIT_OK) {
+                    failure = "exit code " + process.exitValue();
+                } else if (!Files.exists(partial)) {
+                    failure = "no partial result";
+                } else {
+                    try {
+                        RevenueSnapshot snapshot = RevenueSnapshot.fromBytes(Files.readAllBytes(partial));
+                        Files.deleteIfExists(partial);
+                        Files.deleteIfExists(log);
+                        return snapshot;
+                    } catch (IllegalArgumentException e) {
+                        failure = "unreadable partial result";
+                    }
+                }
+            } finally {
+                process.destroyForcibly();
+            }
+            // Tentative rejetée : son agrégat, s'il apparaît, ne sera jamais lu
+            Files.deleteIfExists(partial);
+        }
+        throw new IOException("Shard " + shard + " [" + start + ", " + end + ") failed after " + maxAttempts
+            + " attempts: " + failure + lastLine(log));
+    }
+
+    private static String lastLine(Path log) {
+        try {
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            return lines.isEmpty() ? "" : " (" + lines.get(lines.size() - 1) + ")";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Usage : {@code ShardedRepricer <journal> <répertoire de travail> [plages] [processus]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Usage: ShardedRepricer <order-log> <work-dir> [shards] [workers]");
+            System.exit(2);
+        }
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : 4 * workers;
+        long startNanos = System.nanoTime();
+        RevenueSnapshot snapshot = new ShardedRepricer(shards, workers)
+            .reprice(Paths.get(args[0]), Paths.get(args[1]));
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.print(snapshot);
+        System.out.println("elapsedMillis=" + elapsedMillis);
+    }
+}
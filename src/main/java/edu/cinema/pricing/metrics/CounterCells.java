@@ -0,0 +1,101 @@
+package edu.cinema.pricing.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Ensemble de compteurs répartis en bandes : chaque thread ajoute dans la bande
+ * désignée par le hachage de son identifiant, par une addition atomique sans verrou ;
+ * la lecture somme les bandes.
+ * <p>
+ * Le nombre de bandes est fixe (puissance de deux, deux par processeur par défaut) :
+ * un thread de plus, même un thread virtuel éphémère par requête, ne prend ni verrou
+ * ni mémoire. Deux threads ne se disputent une bande que s'ils tombent sur la même ;
+ * les bandes sont séparées par du rembourrage pour ne pas partager de ligne de cache.
+ * Une lecture concurrente peut manquer les derniers ajouts, jamais en inventer.
+ */
+final class CounterCells {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Rembourrage entre bandes : 128 octets, deux lignes de cache (préchargement par paires)
+    private static final int PADDING = 16;
+
+    private final int width;
+    private final int stride;            // longs par bande, rembourrage compris
+    private final int mask;
+    private final long[] cells;          // bande s, compteur i → [PADDING + s * stride + i]
+    private volatile long[] baseline;    // valeurs retenues par le dernier reset
+
+    /**
+     * Compteurs avec deux bandes par processeur disponible.
+     *
+     * @param width Nombre de compteurs
+     */
+    CounterCells(int width) {
+        this(width, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param width   Nombre de compteurs
+     * @param stripes Nombre de bandes, arrondi à la puissance de deux supérieure (≥ 1)
+     */
+    CounterCells(int width, int stripes) {
+        int size = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.width = width;
+        this.stride = width + PADDING;
+        this.mask = size - 1;
+        this.cells = new long[PADDING + size * stride];
+        this.baseline = new long[width];
+    }
+
+    /**
+     * @return Bande du thread courant, à passer à {@link #add}
+     */
+    int cell() {
+        long id = Thread.currentThread().threadId();
+        int stripe = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        return PADDING + ((stripe >>> 16) & mask) * stride;
+    }
+
+    /**
+     * Ajoute delta au compteur index d'une bande.
+     */
+    void add(int cell, int index, long delta) {
+        LONGS.getAndAdd(cells, cell + index, delta);
+    }
+
+    /**
+     * @return Somme du compteur index sur toutes les bandes depuis le dernier reset
+     */
+    long sum(int index) {
+        return raw(index) - baseline[index];
+    }
+
+    private long raw(int index) {
+        long sum = 0;
+        for (int cell = PADDING + index; cell < cells.length; cell += stride) {
+            sum += (long) LONGS.getOpaque(cells, cell);
+        }
+        return sum;
+    }
+
+    /**
+     * Remet les compteurs à zéro. Les bandes ne sont pas modifiées (des ajouts peuvent
+     * être en cours) : on retient seulement les valeurs courantes comme origine.
+     */
+    synchronized void reset() {
+        long[] next = new long[width];
+        for (int i = 0; i < width; i++) {
+            next[i] = raw(i);
+        }
+        baseline = next;
+    }
+
+    /**
+     * @return Nombre de bandes
+     */
+    int stripeCount() {
+        return mask + 1;
+    }
+}
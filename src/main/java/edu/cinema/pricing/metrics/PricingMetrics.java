@@ -0,0 +1,299 @@
+package edu.cinema.pricing.metrics;
+
+import edu.cinema.pricing.MutablePriceBreakdown;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.TicketType;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Instrumentation du chemin critique de {@link edu.cinema.pricing.PricingEngine}.
+ * <p>
+ * Un moteur construit sans métriques ne paie qu'un test de nullité par appel. Avec
+ * métriques, les compteurs sont répartis en bandes ({@link CounterCells}) : un calcul
+ * ne fait que des additions atomiques dans la bande de son thread, sans verrou ni
+ * contention tant que deux threads actifs ne tombent pas sur la même. La latence n'est mesurée que sur un appel sur
+ * {@code latencySampleRate}, pour ne pas doubler le coût d'un calcul avec deux
+ * appels à {@link System#nanoTime()}.
+ * <p>
+ * Les métriques se publient en MBean sur le serveur de la plateforme par
+ * {@link #register(String)}.
+ */
+public final class PricingMetrics implements PricingMetricsMXBean {
+
+    // Domaine JMX des MBeans du moteur
+    public static final String JMX_DOMAIN = "edu.cinema.pricing";
+
+    // Un appel sur 64 mesuré par défaut
+    private static final int DEFAULT_LATENCY_SAMPLE_RATE = 64;
+
+    // Valeur de startTimer() pour un appel non échantillonné
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    // Index des compteurs dans une cellule ; billets par type à partir de TICKETS
+    private static final int ORDERS = 0;
+    private static final int WEDNESDAY_DISCOUNTS = 1;
+    private static final int THREE_D_SURCHARGES = 2;
+    private static final int GROUP_DISCOUNTS = 3;
+    private static final int DISCOUNT_CENTS = 4;
+    private static final int TICKETS = 5;
+
+    private final int sampleMask;
+    private final CounterCells counters = new CounterCells(TICKETS + TICKET_TYPES.length);
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Métriques avec une mesure de latence sur 64 appels.
+     */
+    public PricingMetrics() {
+        this(DEFAULT_LATENCY_SAMPLE_RATE);
+    }
+
+    /**
+     * @param latencySampleRate Une mesure de latence tous les latencySampleRate appels
+     *                          (puissance de deux ; 1 = tous les appels)
+     * @throws IllegalArgumentException si latencySampleRate n'est pas une puissance de deux positive
+     */
+    public PricingMetrics(int latencySampleRate) {
+        if (latencySampleRate < 1 || Integer.bitCount(latencySampleRate) != 1) {
+            throw new IllegalArgumentException("Latency sample rate must be a positive power of two: "
+                + latencySampleRate);
+        }
+        this.sampleMask = latencySampleRate - 1;
+    }
+
+    // ==================== ENREGISTREMENT ====================
+
+    /**
+     * Début d'un appel : lit l'horloge si l'appel fait partie de l'échantillon.
+     *
+     * @return Jeton à repasser à {@code record}
+     */
+    public long startTimer() {
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Enregistre un calcul fait à partir des quantités par type.
+     *
+     * @param counts     Quantités indexées par {@link TicketType#ordinal()}
+     * @param result     Résultat du calcul
+     * @param startNanos Jeton retourné par {@link #startTimer()}
+     */
+    public void record(int[] counts, PriceBreakdown result, long startNanos) {
+        recordResult(recordCounts(counts), result.getWednesdayDiscount(), result.getThreeDSurcharge(),
+                     result.getGroupDiscount(), startNanos);
+    }
+
+    /**
+     * Enregistre un calcul sans allocation fait à partir des quantités par type.
+     *
+     * @param counts     Quantités indexées par {@link TicketType#ordinal()}
+     * @param result     Détenteur rempli par le calcul
+     * @param startNanos Jeton retourné par {@link #startTimer()}
+     */
+    public void record(int[] counts, MutablePriceBreakdown result, long startNanos) {
+        recordResult(recordCounts(counts), result.getWednesdayDiscount(), result.getThreeDSurcharge(),
+                     result.getGroupDiscount(), startNanos);
+    }
+
+    /**
+     * Enregistre un calcul fait à partir d'une liste de billets.
+     *
+     * @param tickets    Billets de la commande
+     * @param result     Résultat du calcul
+     * @param startNanos Jeton retourné par {@link #startTimer()}
+     */
+    public void record(List<TicketType> tickets, PriceBreakdown result, long startNanos) {
+        int cell = counters.cell();
+        for (TicketType ticket : tickets) {
+            // Bande du thread, rarement partagée : un ajout par billet reste bon marché
+            counters.add(cell, TICKETS + ticket.ordinal(), 1);
+        }
+        recordResult(cell, result.getWednesdayDiscount(), result.getThreeDSurcharge(),
+                     result.getGroupDiscount(), startNanos);
+    }
+
+    /**
+     * Enregistre un calcul sans allocation fait à partir d'un tableau de billets.
+     *
+     * @param tickets    Billets de la commande
+     * @param result     Détenteur rempli par le calcul
+     * @param startNanos Jeton retourné par {@link #startTimer()}
+     */
+    public void record(TicketType[] tickets, MutablePriceBreakdown result, long startNanos) {
+        int cell = counters.cell();
+        for (int i = 0; i < tickets.length; i++) {
+            counters.add(cell, TICKETS + tickets[i].ordinal(), 1);
+        }
+        recordResult(cell, result.getWednesdayDiscount(), result.getThreeDSurcharge(),
+                     result.getGroupDiscount(), startNanos);
+    }
+
+    private int recordCounts(int[] counts) {
+        int cell = counters.cell();
+        for (int t = 0; t < counts.length; t++) {
+            if (counts[t] != 0) {
+                counters.add(cell, TICKETS + t, counts[t]);
+            }
+        }
+        return cell;
+    }
+
+    private void recordResult(int cell, double wednesdayDiscount, double threeDSurcharge,
+                              double groupDiscount, long startNanos) {
+        if (startNanos != NOT_SAMPLED) {
+            latency.record(System.nanoTime() - startNanos);
+        }
+        counters.add(cell, ORDERS, 1);
+        long discount = 0;
+        if (wednesdayDiscount > 0) {
+            counters.add(cell, WEDNESDAY_DISCOUNTS, 1);
+            discount += Math.round(wednesdayDiscount * 100);
+        }
+        if (threeDSurcharge > 0) {
+            counters.add(cell, THREE_D_SURCHARGES, 1);
+        }
+        if (groupDiscount > 0) {
+            counters.add(cell, GROUP_DISCOUNTS, 1);
+            discount += Math.round(groupDiscount * 100);
+        }
+        if (discount != 0) {
+            counters.add(cell, DISCOUNT_CENTS, discount);
+        }
+    }
+
+    // ==================== JMX ====================
+
+    /**
+     * Nom JMX des métriques d'un moteur : {@code edu.cinema.pricing:type=PricingMetrics,name=<name>}.
+     *
+     * @throws IllegalArgumentException si name n'est pas utilisable dans un nom JMX
+     */
+    public static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(JMX_DOMAIN + ":type=PricingMetrics,name=" + ObjectName.quote(name));
+        } catch (MalformedObjectNameException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid metrics name: " + name, e);
+        }
+    }
+
+    /**
+     * Publie ces métriques sur le serveur MBean de la plateforme.
+     *
+     * @param name Nom distinguant ce moteur (ex. nom de la salle)
+     * @return Nom JMX enregistré
+     * @throws JMException si un MBean porte déjà ce nom
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = objectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Retire du serveur MBean de la plateforme les métriques publiées sous ce nom.
+     *
+     * @throws JMException si aucun MBean ne porte ce nom
+     */
+    public static void unregister(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+    }
+
+    // ==================== LECTURE ====================
+
+    @Override
+    public long getOrdersPriced() {
+        return counters.sum(ORDERS);
+    }
+
+    @Override
+    public long getTicketsPriced() {
+        long sum = 0;
+        for (TicketType type : TICKET_TYPES) {
+            sum += getTickets(type);
+        }
+        return sum;
+    }
+
+    public long getTickets(TicketType type) {
+        return counters.sum(TICKETS + type.ordinal());
+    }
+
+    @Override
+    public Map<String, Long> getTicketsByType() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (TicketType type : TICKET_TYPES) {
+            result.put(type.name(), getTickets(type));
+        }
+        return result;
+    }
+
+    @Override
+    public long getWednesdayDiscountsApplied() {
+        return counters.sum(WEDNESDAY_DISCOUNTS);
+    }
+
+    @Override
+    public long getThreeDSurchargesApplied() {
+        return counters.sum(THREE_D_SURCHARGES);
+    }
+
+    @Override
+    public long getGroupDiscountsApplied() {
+        return counters.sum(GROUP_DISCOUNTS);
+    }
+
+    @Override
+    public long getDiscountGivenCents() {
+        return counters.sum(DISCOUNT_CENTS);
+    }
+
+    @Override
+    public long getLatencySamples() {
+        return latency.count();
+    }
+
+    @Override
+    public double getLatencyMeanNanos() {
+        return latency.mean();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return latency.percentile(0.50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return latency.percentile(0.99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return latency.percentile(0.999);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return latency.max();
+    }
+
+    @Override
+    public void reset() {
+        counters.reset();
+        latency.reset();
+    }
+}
@@ -0,0 +1,50 @@
+package edu.cinema.pricing.metrics;
+
+import java.util.Map;
+
+/**
+ * Vue JMX des métriques d'un {@link edu.cinema.pricing.PricingEngine}.
+ * Les montants sont en centimes, les latences en nanosecondes.
+ */
+public interface PricingMetricsMXBean {
+
+    long getOrdersPriced();
+
+    long getTicketsPriced();
+
+    /**
+     * @return Billets calculés par type (nom du {@link edu.cinema.pricing.TicketType})
+     */
+    Map<String, Long> getTicketsByType();
+
+    long getWednesdayDiscountsApplied();
+
+    long getThreeDSurchargesApplied();
+
+    long getGroupDiscountsApplied();
+
+    /**
+     * @return Somme des remises accordées (mercredi + groupe), en centimes
+     */
+    long getDiscountGivenCents();
+
+    /**
+     * @return Nombre d'appels dont la latence a été mesurée (échantillon)
+     */
+    long getLatencySamples();
+
+    double getLatencyMeanNanos();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    long getLatencyMaxNanos();
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    void reset();
+}
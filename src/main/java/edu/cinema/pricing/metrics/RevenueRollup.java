@@ -0,0 +1,252 @@
+package edu.cinema.pricing.metrics;
+
+import edu.cinema.pricing.CentsBreakdown;
+import edu.cinema.pricing.MutablePriceBreakdown;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.RevenueShares;
+import edu.cinema.pricing.Tariff;
+import edu.cinema.pricing.TicketType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.DayOfWeek;
+
+import static edu.cinema.pricing.metrics.RevenueSnapshot.CELLS;
+import static edu.cinema.pricing.metrics.RevenueSnapshot.REVENUE;
+import static edu.cinema.pricing.metrics.RevenueSnapshot.TICKETS;
+
+/**
+ * Cumul en direct du chiffre d'affaires par jour, par format (2D/3D), par type de
+ * billet et par règle appliquée, alimenté par de nombreux threads de tarification.
+ * <p>
+ * Le cube est pré-dimensionné et réparti en bandes ; chaque bande est protégée par
+ * un compteur de séquence (seqlock) : un enregistrement réserve une bande libre par
+ * une seule instruction CAS (sans verrou ni table associative), écrit ses cellules
+ * puis publie la nouvelle séquence. Si la bande attendue est occupée, on essaie la
+ * suivante. Un {@link #snapshot()} relit chaque bande jusqu'à obtenir une séquence
+ * stable : aucune commande n'y figure à moitié.
+ * <p>
+ * Le chiffre d'affaires par type de billet répartit le total de chaque commande entre
+ * ses types au prorata des prix de base du tarif d'attribution (comme
+ * {@code TariffSimulator}), au centime près : le reste de l'arrondi va au type de plus
+ * grande part, et les parts d'une commande somment exactement son total.
+ */
+public final class RevenueRollup {
+
+    private static final VarHandle SEQUENCE;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(Stripe.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int TYPES = TicketType.values().length;
+
+    /**
+     * Bande du cube ; séquence impaire pendant une écriture.
+     */
+    private static final class Stripe {
+        volatile long sequence;
+        final long[] cells = new long[CELLS];
+        final long[] shares = new long[TYPES]; // répartition de la commande en cours d'écriture
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private volatile long[] basePricesCents; // tarif d'attribution, indexé par ordinal
+
+    /**
+     * Cumul avec deux bandes par processeur disponible, attribution au tarif standard.
+     */
+    public RevenueRollup() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Cumul avec attribution au tarif standard.
+     *
+     * @param stripes Nombre de bandes, arrondi à la puissance de deux supérieure (≥ 1)
+     * @throws IllegalArgumentException si stripes < 1
+     */
+    public RevenueRollup(int stripes) {
+        this(Tariff.standard(), stripes);
+    }
+
+    /**
+     * @param tariff  Tarif dont les prix de base répartissent le total d'une commande entre ses types
+     * @param stripes Nombre de bandes, arrondi à la puissance de deux supérieure (≥ 1)
+     * @throws IllegalArgumentException si tariff est null ou si stripes < 1
+     */
+    public RevenueRollup(Tariff tariff, int stripes) {
+        if (stripes < 1 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("Stripe count must be in [1, 65536]: " + stripes);
+        }
+        setTariff(tariff);
+        int size = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.stripes = new Stripe[size];
+        for (int s = 0; s < size; s++) {
+            this.stripes[s] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Change le tarif d'attribution, par exemple après un rechargement du tarif du moteur.
+     * Les commandes déjà enregistrées gardent leur répartition.
+     *
+     * @throws IllegalArgumentException si tariff est null
+     */
+    public void setTariff(Tariff tariff) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("Tariff cannot be null");
+        }
+        long[] prices = new long[TYPES];
+        for (TicketType type : TicketType.values()) {
+            prices[type.ordinal()] = Math.round(tariff.basePrice(type) * 100);
+        }
+        this.basePricesCents = prices;
+    }
+
+    /**
+     * @return Nombre de bandes
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    // ==================== ENREGISTREMENT ====================
+
+    /**
+     * Enregistre une commande calculée par {@code computeTotal} (montants arrondis au centime).
+     *
+     * @throws IllegalArgumentException si un paramètre est null ou counts mal dimensionné
+     */
+    public void record(int[] counts, boolean is3D, DayOfWeek day, PriceBreakdown breakdown) {
+        if (breakdown == null) {
+            throw new IllegalArgumentException("Breakdown cannot be null");
+        }
+        record(counts, is3D, day, Math.round(breakdown.getSubtotal() * 100),
+               Math.round(breakdown.getWednesdayDiscount() * 100),
+               Math.round(breakdown.getThreeDSurcharge() * 100),
+               Math.round(breakdown.getGroupDiscount() * 100),
+               Math.round(breakdown.getTotal() * 100));
+    }
+
+    /**
+     * Enregistre une commande calculée dans un détenteur réutilisé (montants arrondis au centime).
+     *
+     * @throws IllegalArgumentException si un paramètre est null ou counts mal dimensionné
+     */
+    public void record(int[] counts, boolean is3D, DayOfWeek day, MutablePriceBreakdown breakdown) {
+        if (breakdown == null) {
+            throw new IllegalArgumentException("Breakdown cannot be null");
+        }
+        record(counts, is3D, day, Math.round(breakdown.getSubtotal() * 100),
+               Math.round(breakdown.getWednesdayDiscount() * 100),
+               Math.round(breakdown.getThreeDSurcharge() * 100),
+               Math.round(breakdown.getGroupDiscount() * 100),
+               Math.round(breakdown.getTotal() * 100));
+    }
+
+    /**
+     * Enregistre une commande calculée en centimes.
+     *
+     * @throws IllegalArgumentException si un paramètre est null ou counts mal dimensionné
+     */
+    public void record(int[] counts, boolean is3D, DayOfWeek day, CentsBreakdown breakdown) {
+        if (breakdown == null) {
+            throw new IllegalArgumentException("Breakdown cannot be null");
+        }
+        record(counts, is3D, day, breakdown.getSubtotal(), breakdown.getWednesdayDiscount(),
+               breakdown.getThreeDSurcharge(), breakdown.getGroupDiscount(), breakdown.getTotal());
+    }
+
+    private void record(int[] counts, boolean is3D, DayOfWeek day, long subtotal, long wednesday,
+                        long threeD, long group, long total) {
+        if (counts == null || counts.length != TYPES || day == null) {
+            throw new IllegalArgumentException("Counts must have one entry per TicketType and day cannot be null");
+        }
+        int base = RevenueSnapshot.offset(day, is3D);
+        long[] prices = basePricesCents;
+        Stripe stripe = acquire();
+        long[] cells = stripe.cells;
+        add(cells, base + RevenueSnapshot.Measure.ORDERS.ordinal(), 1);
+        add(cells, base + RevenueSnapshot.Measure.SUBTOTAL.ordinal(), subtotal);
+        add(cells, base + RevenueSnapshot.Measure.WEDNESDAY_DISCOUNT.ordinal(), wednesday);
+        add(cells, base + RevenueSnapshot.Measure.THREE_D_SURCHARGE.ordinal(), threeD);
+        add(cells, base + RevenueSnapshot.Measure.GROUP_DISCOUNT.ordinal(), group);
+        add(cells, base + RevenueSnapshot.Measure.TOTAL.ordinal(), total);
+        for (int t = 0; t < TYPES; t++) {
+            add(cells, base + TICKETS + t, counts[t]);
+        }
+        long[] shares = stripe.shares;
+        RevenueShares.attribute(counts, prices, total, shares);
+        for (int t = 0; t < TYPES; t++) {
+            if (shares[t] != 0) {
+                add(cells, base + REVENUE + t, shares[t]);
+            }
+        }
+        // Séquence paire : écriture terminée, visible avec ses cellules
+        SEQUENCE.setRelease(stripe, stripe.sequence + 1);
+    }
+
+    /**
+     * Réserve une bande (séquence rendue impaire), en partant de celle du thread courant.
+     */
+    private Stripe acquire() {
+        long id = Thread.currentThread().threadId();
+        int index = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        for (int attempt = 0; ; attempt++) {
+            Stripe stripe = stripes[(index + attempt) & mask];
+            long sequence = stripe.sequence;
+            if ((sequence & 1) == 0 && SEQUENCE.compareAndSet(stripe, sequence, sequence + 1)) {
+                return stripe;
+            }
+            if (attempt > mask) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void add(long[] cells, int index, long delta) {
+        LONGS.setOpaque(cells, index, cells[index] + delta);
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * @return Cumul de toutes les commandes enregistrées, chacune entièrement ou pas du tout
+     */
+    public RevenueSnapshot snapshot() {
+        long[] sum = new long[CELLS];
+        long[] copy = new long[CELLS];
+        for (Stripe stripe : stripes) {
+            readStable(stripe, copy);
+            for (int i = 0; i < CELLS; i++) {
+                sum[i] += copy[i];
+            }
+        }
+        return new RevenueSnapshot(sum);
+    }
+
+    private static void readStable(Stripe stripe, long[] copy) {
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(stripe);
+            if ((before & 1) == 0) {
+                for (int i = 0; i < CELLS; i++) {
+                    copy[i] = (long) LONGS.getOpaque(stripe.cells, i);
+                }
+                // Les lectures de cellules ne doivent pas passer après la relecture de la séquence
+                VarHandle.acquireFence();
+                if (stripe.sequence == before) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
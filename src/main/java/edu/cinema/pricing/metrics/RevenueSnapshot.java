@@ -0,0 +1,210 @@
+package edu.cinema.pricing.metrics;
+
+import edu.cinema.pricing.TicketType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+
+/**
+ * État figé des agrégats de {@link RevenueRollup} (montants en centimes).
+ * <p>
+ * Le cube a trois dimensions : jour de la semaine, 2D/3D, et mesure (commandes,
+ * billets et chiffre d'affaires par type, montants de chaque règle). Chaque commande y figure entièrement
+ * ou pas du tout. Deux instantanés, par exemple de deux nœuds, se fusionnent par
+ * {@link #merge(RevenueSnapshot)} ; {@link #toBytes()} et {@link #fromBytes(byte[])}
+ * servent à les transmettre. Classe immuable.
+ */
+public final class RevenueSnapshot {
+
+    /**
+     * Mesures monétaires et nombre de commandes.
+     */
+    public enum Measure {
+        ORDERS, SUBTOTAL, WEDNESDAY_DISCOUNT, THREE_D_SURCHARGE, GROUP_DISCOUNT, TOTAL
+    }
+
+    static final int DAYS = DayOfWeek.values().length;
+    static final int FORMATS = 2;                    // 0 = 2D, 1 = 3D
+    static final int TICKETS = Measure.values().length; // billets par type après les mesures
+    static final int REVENUE = TICKETS + TicketType.values().length; // puis chiffre d'affaires par type
+    static final int FIELDS = REVENUE + TicketType.values().length;
+    static final int CELLS = DAYS * FORMATS * FIELDS;
+
+    // En-tête de la forme binaire : "REV2" puis le nombre de cellules
+    private static final int MAGIC = 0x32564552;
+    private static final RevenueSnapshot EMPTY = new RevenueSnapshot(new long[CELLS]);
+
+    private final long[] cells;
+
+    RevenueSnapshot(long[] cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * @return Instantané sans aucune commande
+     */
+    public static RevenueSnapshot empty() {
+        return EMPTY;
+    }
+
+    static int offset(DayOfWeek day, boolean is3D) {
+        return ((day.getValue() - 1) * FORMATS + (is3D ? 1 : 0)) * FIELDS;
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * @return Valeur de la mesure, tous jours et formats confondus
+     */
+    public long get(Measure measure) {
+        return sum(measure.ordinal(), 0, DAYS, 0, FORMATS);
+    }
+
+    /**
+     * @return Valeur de la mesure pour un jour, 2D et 3D confondus
+     */
+    public long get(Measure measure, DayOfWeek day) {
+        int d = day.getValue() - 1;
+        return sum(measure.ordinal(), d, d + 1, 0, FORMATS);
+    }
+
+    /**
+     * @return Valeur de la mesure pour un format, tous jours confondus
+     */
+    public long get(Measure measure, boolean is3D) {
+        int f = is3D ? 1 : 0;
+        return sum(measure.ordinal(), 0, DAYS, f, f + 1);
+    }
+
+    /**
+     * @return Valeur de la mesure pour un jour et un format
+     */
+    public long get(Measure measure, DayOfWeek day, boolean is3D) {
+        return cells[offset(day, is3D) + measure.ordinal()];
+    }
+
+    /**
+     * @return Billets vendus du type donné, tous jours et formats confondus
+     */
+    public long tickets(TicketType type) {
+        return sum(TICKETS + type.ordinal(), 0, DAYS, 0, FORMATS);
+    }
+
+    /**
+     * @return Billets vendus du type donné pour un jour et un format
+     */
+    public long tickets(TicketType type, DayOfWeek day, boolean is3D) {
+        return cells[offset(day, is3D) + TICKETS + type.ordinal()];
+    }
+
+    /**
+     * @return Chiffre d'affaires attribué au type donné, tous jours et formats confondus (centimes)
+     */
+    public long revenue(TicketType type) {
+        return sum(REVENUE + type.ordinal(), 0, DAYS, 0, FORMATS);
+    }
+
+    /**
+     * @return Chiffre d'affaires attribué au type donné pour un jour, 2D et 3D confondus (centimes)
+     */
+    public long revenue(TicketType type, DayOfWeek day) {
+        int d = day.getValue() - 1;
+        return sum(REVENUE + type.ordinal(), d, d + 1, 0, FORMATS);
+    }
+
+    /**
+     * @return Chiffre d'affaires attribué au type donné pour un jour et un format (centimes)
+     */
+    public long revenue(TicketType type, DayOfWeek day, boolean is3D) {
+        return cells[offset(day, is3D) + REVENUE + type.ordinal()];
+    }
+
+    private long sum(int field, int fromDay, int toDay, int fromFormat, int toFormat) {
+        long sum = 0;
+        for (int d = fromDay; d < toDay; d++) {
+            for (int f = fromFormat; f < toFormat; f++) {
+                sum += cells[(d * FORMATS + f) * FIELDS + field];
+            }
+        }
+        return sum;
+    }
+
+    // ==================== FUSION ET TRANSPORT ====================
+
+    /**
+     * @return Nouvel instantané cumulant celui-ci et other
+     * @throws IllegalArgumentException si other est null
+     */
+    public RevenueSnapshot merge(RevenueSnapshot other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        long[] merged = cells.clone();
+        for (int i = 0; i < CELLS; i++) {
+            merged[i] += other.cells[i];
+        }
+        return new RevenueSnapshot(merged);
+    }
+
+    /**
+     * @return Forme binaire (petit-boutiste) : en-tête puis une valeur de 8 octets par cellule
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + CELLS * Long.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(CELLS);
+        for (long cell : cells) {
+            buffer.putLong(cell);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Relit un instantané produit par {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException si bytes est null ou n'est pas un instantané valide
+     */
+    public static RevenueSnapshot fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 2 * Integer.BYTES + CELLS * Long.BYTES) {
+            throw new IllegalArgumentException("Not a revenue snapshot");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != CELLS) {
+            throw new IllegalArgumentException("Not a revenue snapshot");
+        }
+        long[] cells = new long[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            cells[i] = buffer.getLong();
+        }
+        return new RevenueSnapshot(cells);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RevenueSnapshot other && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(cells);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("orders=").append(get(Measure.ORDERS)).append('\n');
+        for (TicketType type : TicketType.values()) {
+            sb.append("tickets.").append(type).append('=').append(tickets(type)).append('\n');
+        }
+        for (TicketType type : TicketType.values()) {
+            sb.append("revenueCents.").append(type).append('=').append(revenue(type)).append('\n');
+        }
+        return sb.append("subtotalCents=").append(get(Measure.SUBTOTAL)).append('\n')
+            .append("wednesdayDiscountCents=").append(get(Measure.WEDNESDAY_DISCOUNT)).append('\n')
+            .append("threeDSurchargeCents=").append(get(Measure.THREE_D_SURCHARGE)).append('\n')
+            .append("groupDiscountCents=").append(get(Measure.GROUP_DISCOUNT)).append('\n')
+            .append("totalCents=").append(get(Measure.TOTAL)).append('\n')
+            .toString();
+    }
+}
@@ -0,0 +1,244 @@
+package edu.cinema.pricing.server;
+
+import edu.cinema.pricing.MutablePriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import edu.cinema.pricing.metrics.PricingMetrics;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Chauffe du moteur avant de recevoir du trafic : un échantillon de commandes réalistes
+ * ({@link WarmupMix}) est rejoué par tous les points d'entrée de {@link PricingEngine}
+ * jusqu'à ce que la compilation JIT se stabilise.
+ * <p>
+ * Le code compilé appartient aux méthodes, pas aux instances : la chauffe passe par un
+ * moteur jumeau (même tarif, métriques jetables si le moteur est instrumenté) et laisse
+ * intactes les métriques du moteur servi. La compilation est jugée stable après
+ * {@value #STABLE_ROUNDS} tours consécutifs et au moins 200 ms sans temps de compilation
+ * supplémentaire ({@link CompilationMXBean}, qui ne compte une compilation qu'une fois
+ * terminée : le délai laisse finir celles de C2 encore en file) ; sans ce compteur, après
+ * autant de tours et de temps à durée de tour stable à 10 % près. Au-delà de la durée
+ * maximale, la chauffe s'arrête quand même et le bilan l'indique ({@link WarmupReport#isSettled()}).
+ * <p>
+ * {@link #isWarm()} indique une chauffe réussie. Une chauffe qui échoue laisse le moteur
+ * servi intact, seulement froid : l'erreur est retenue ({@link #getFailure()}) et
+ * {@link #isDone()} devient vrai, pour qu'une sonde de disponibilité ne reste pas bloquée.
+ */
+public final class EngineWarmup {
+
+    public static final Duration DEFAULT_MAX_DURATION = Duration.ofSeconds(30);
+
+    static final int MIN_ROUNDS = 5;
+    static final int STABLE_ROUNDS = 3;
+    static final Duration QUIET_TIME = Duration.ofMillis(200);
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final PricingEngine twin;
+    private final WarmupMix mix;
+    private final long maxNanos;
+    private final long quietNanos;
+    private final LongSupplier compilationMillis;
+    private final MutablePriceBreakdown holder = new MutablePriceBreakdown();
+    private final TicketType[][] ticketArrays;
+
+    private volatile WarmupReport report;
+    private volatile Throwable failure;
+    // Somme des résultats : ils sont consommés, le JIT ne peut pas supprimer les appels
+    private volatile double sink;
+
+    /**
+     * Chauffe sur le mélange intégré, 30 secondes au plus.
+     *
+     * @throws IllegalArgumentException si engine est null
+     */
+    public EngineWarmup(PricingEngine engine) {
+        this(engine, WarmupMix.builtIn(), DEFAULT_MAX_DURATION);
+    }
+
+    /**
+     * @param engine      Moteur à chauffer
+     * @param mix         Échantillon rejoué
+     * @param maxDuration Durée maximale de la chauffe
+     * @throws IllegalArgumentException si un paramètre est null ou si maxDuration n'est pas positive
+     */
+    public EngineWarmup(PricingEngine engine, WarmupMix mix, Duration maxDuration) {
+        this(engine, mix, maxDuration, QUIET_TIME, compilationTime());
+    }
+
+    EngineWarmup(PricingEngine engine, WarmupMix mix, Duration maxDuration, Duration quietTime,
+                 LongSupplier compilationMillis) {
+        if (engine == null || mix == null || maxDuration == null) {
+            throw new IllegalArgumentException("Engine, mix and max duration cannot be null");
+        }
+        if (maxDuration.isNegative() || maxDuration.isZero()) {
+            throw new IllegalArgumentException("Max duration must be positive: " + maxDuration);
+        }
+        this.twin = new PricingEngine(engine.getTariff(), engine.getMetrics() == null ? null : new PricingMetrics());
+        this.mix = mix;
+        this.maxNanos = maxDuration.toNanos();
+        this.quietNanos = quietTime.toNanos();
+        this.compilationMillis = compilationMillis;
+        this.ticketArrays = new TicketType[mix.size()][];
+        for (int i = 0; i < ticketArrays.length; i++) {
+            ticketArrays[i] = mix.tickets(i).toArray(new TicketType[0]);
+        }
+    }
+
+    /**
+     * @return Temps de compilation JIT cumulé de la JVM, ou -1 s'il n'est pas mesuré
+     */
+    private static LongSupplier compilationTime() {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        if (compiler == null || !compiler.isCompilationTimeMonitoringSupported()) {
+            return () -> -1L;
+        }
+        return compiler::getTotalCompilationTime;
+    }
+
+    /**
+     * @return true une fois la chauffe terminée
+     */
+    public boolean isWarm() {
+        return report != null;
+    }
+
+    /**
+     * @return true une fois la chauffe terminée, réussie ou non
+     */
+    public boolean isDone() {
+        return report != null || failure != null;
+    }
+
+    /**
+     * @return Erreur qui a interrompu la dernière chauffe, ou null si elle a réussi ou n'est pas terminée
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return Bilan de la dernière chauffe réussie, ou null si aucune n'est terminée
+     */
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    /**
+     * Chauffe le moteur dans un thread démon ({@code pricing-warmup}).
+     *
+     * @return Bilan, disponible à la fin de la chauffe
+     */
+    public CompletableFuture<WarmupReport> start() {
+        CompletableFuture<WarmupReport> result = new CompletableFuture<>();
+        Thread.ofPlatform().daemon().name("pricing-warmup").start(() -> {
+            try {
+                result.complete(run());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Chauffe le moteur dans le thread appelant. Une exception du rejeu est retenue
+     * ({@link #getFailure()}) puis relancée.
+     *
+     * @return Bilan de la chauffe
+     */
+    public WarmupReport run() {
+        try {
+            WarmupReport done = replayUntilSettled();
+            failure = null;
+            report = done;
+            return done;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    private WarmupReport replayUntilSettled() {
+        long start = System.nanoTime();
+        long compilationStart = compilationMillis.getAsLong();
+        long lastCompilation = compilationStart;
+        long previousRoundNanos = -1L;
+        int stableRounds = 0;
+        long stableSince = start;
+        int rounds = 0;
+        long calls = 0;
+        boolean settled = false;
+        long elapsed;
+        while (true) {
+            long roundStart = System.nanoTime();
+            calls += replay();
+            long roundNanos = System.nanoTime() - roundStart;
+            rounds++;
+
+            boolean stable;
+            long compilation = compilationMillis.getAsLong();
+            if (compilation >= 0) {
+                stable = compilation == lastCompilation;
+                lastCompilation = compilation;
+            } else {
+                stable = previousRoundNanos > 0 && Math.abs(roundNanos - previousRoundNanos) <= previousRoundNanos / 10;
+            }
+            previousRoundNanos = roundNanos;
+            long now = System.nanoTime();
+            if (!stable) {
+                stableRounds = 0;
+                stableSince = now;
+            } else {
+                stableRounds++;
+            }
+
+            elapsed = now - start;
+            if (rounds >= MIN_ROUNDS && stableRounds >= STABLE_ROUNDS && now - stableSince >= quietNanos) {
+                settled = true;
+                break;
+            }
+            if (elapsed >= maxNanos) {
+                break;
+            }
+        }
+        long compiled = compilationStart < 0 ? -1L : lastCompilation - compilationStart;
+        // Régime atteint à la fin du dernier tour instable ; la période calme qui le confirme n'en fait pas partie
+        long toSteadyState = settled ? stableSince - start : elapsed;
+        return new WarmupReport(settled, rounds, calls, Duration.ofNanos(toSteadyState), Duration.ofNanos(elapsed),
+                                compiled);
+    }
+
+    /**
+     * Un tour : chaque commande de l'échantillon par chaque point d'entrée du moteur.
+     *
+     * @return Nombre d'appels
+     */
+    private long replay() {
+        double sum = 0.0;
+        long calls = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            List<TicketType> tickets = mix.tickets(i);
+            int[] counts = mix.counts(i);
+            boolean is3D = mix.is3D(i);
+            sum += twin.computeTotal(tickets, is3D, mix.day(i)).getTotal();
+            sum += twin.computeTotal(counts, is3D, mix.day(i)).getTotal();
+            sum += twin.computeTotal(counts, is3D, mix.day(i), holder).getTotal();
+            sum += twin.computeTotal(ticketArrays[i], is3D, mix.day(i), holder).getTotal();
+            sum += twin.computeTotalCents(counts, is3D, mix.day(i));
+            sum += twin.computeBreakdownCents(counts, is3D, mix.day(i)).getTotal();
+            sum += twin.computeBreakdownCents(tickets, is3D, mix.day(i)).getTotal();
+            TicketType type = TICKET_TYPES[i % TICKET_TYPES.length];
+            sum += twin.basePrice(type) + twin.basePriceCents(type);
+            calls += 9;
+        }
+        sink += sum;
+        return calls;
+    }
+}
@@ -0,0 +1,189 @@
+package edu.cinema.pricing.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Générateur de charge local pour {@link PricingServer}.
+ * <p>
+ * Lance {@code concurrency} clients (threads virtuels) qui envoient la même commande
+ * en boucle fermée pendant la durée demandée, puis rapporte le débit et les centiles
+ * de latence des réponses réussies. Les refus (503) sont comptés à part.
+ */
+public final class LoadGenerator {
+
+    // Commande envoyée par défaut : mercredi, 3D, remise groupe
+    static final String DEFAULT_ORDER = "ADULT,ADULT,CHILD,SENIOR;3D;WEDNESDAY\n";
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * Résultat d'une campagne de charge (latences en microsecondes).
+     */
+    public static final class Result {
+        private final long requests;
+        private final long shed;
+        private final long errors;
+        private final double seconds;
+        private final long[] sortedMicros;
+
+        Result(long requests, long shed, long errors, double seconds, long[] sortedMicros) {
+            this.requests = requests;
+            this.shed = shed;
+            this.errors = errors;
+            this.seconds = seconds;
+            this.sortedMicros = sortedMicros;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getShed() {
+            return shed;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return seconds == 0 ? 0.0 : requests / seconds;
+        }
+
+        /**
+         * @param quantile Quantile dans [0, 1]
+         * @return Latence en microsecondes (0 sans réponse réussie)
+         */
+        public long percentileMicros(double quantile) {
+            if (sortedMicros.length == 0) {
+                return 0L;
+            }
+            int rank = (int) Math.ceil(quantile * sortedMicros.length) - 1;
+            return sortedMicros[Math.max(0, Math.min(rank, sortedMicros.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d shed=%d errors=%d throughput=%.0f req/s "
+                                 + "p50=%dus p99=%dus p99.9=%dus max=%dus",
+                requests, shed, errors, getThroughput(), percentileMicros(0.50),
+                percentileMicros(0.99), percentileMicros(0.999), percentileMicros(1.0));
+        }
+    }
+
+    /**
+     * Envoie des requêtes en boucle fermée.
+     *
+     * @param target      URL de {@code /quote}
+     * @param concurrency Nombre de clients simultanés (≥ 1)
+     * @param duration    Durée de la campagne
+     * @param body        Corps envoyé (une ou plusieurs commandes)
+     * @return Débit et latences observés
+     * @throws IllegalArgumentException si un paramètre est null ou concurrency < 1
+     */
+    public static Result run(URI target, int concurrency, Duration duration, String body)
+            throws InterruptedException {
+        if (target == null || duration == null || body == null) {
+            throw new IllegalArgumentException("Target, duration and body cannot be null");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        HttpRequest request = HttpRequest.newBuilder(target)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor)
+                 .version(HttpClient.Version.HTTP_1_1).build()) {
+            for (int c = 0; c < concurrency; c++) {
+                futures.add(executor.submit(() -> new Worker().run(client, request, deadline)));
+            }
+            long requests = 0;
+            long shed = 0;
+            long errors = 0;
+            long[] micros = new long[0];
+            for (Future<Worker> future : futures) {
+                Worker worker;
+                try {
+                    worker = future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+                requests += worker.count;
+                shed += worker.shed;
+                errors += worker.errors;
+                int offset = micros.length;
+                micros = Arrays.copyOf(micros, offset + worker.count);
+                System.arraycopy(worker.micros, 0, micros, offset, worker.count);
+            }
+            Arrays.sort(micros);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(requests, shed, errors, seconds, micros);
+        }
+    }
+
+    /**
+     * Client en boucle fermée ; latences des réponses 200 en microsecondes.
+     */
+    private static final class Worker {
+        long[] micros = new long[1024];
+        int count;
+        long shed;
+        long errors;
+
+        Worker run(HttpClient client, HttpRequest request, long deadline) {
+            while (System.nanoTime() < deadline) {
+                long begin = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        if (count == micros.length) {
+                            micros = Arrays.copyOf(micros, count * 2);
+                        }
+                        micros[count++] = (System.nanoTime() - begin) / 1_000;
+                    } else if (response.statusCode() == 503) {
+                        shed++;
+                    } else {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Usage : {@code LoadGenerator <url> [concurrency] [seconds]}
+     * (par défaut 256 clients pendant 10 s).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadGenerator <quote-url> [concurrency] [seconds]");
+            System.exit(2);
+        }
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        System.out.println(run(URI.create(args[0]), concurrency, Duration.ofSeconds(seconds), DEFAULT_ORDER));
+    }
+}
@@ -0,0 +1,314 @@
+package edu.cinema.pricing.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.io.OrderLineParser;
+import edu.cinema.pricing.io.PriceBreakdownCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service HTTP de tarification embarqué (serveur HTTP du JDK, threads virtuels).
+ * <p>
+ * {@code POST /quote} : une commande par ligne, au format du journal de ventes
+ * ({@code ADULT,CHILD;3D;WEDNESDAY}, voir {@link OrderLineParser}). La réponse contient
+ * un objet JSON par commande, dans le même ordre ({@link PriceBreakdownCodec}). {@code GET /health} répond {@code ok}.
+ * {@code GET /ready} répond 503 tant que la chauffe lancée par {@link #warmUp(WarmupMix)} n'est pas
+ * terminée, puis 200 avec le bilan de la chauffe ; si la chauffe échoue, 200 avec l'erreur : le moteur
+ * reste correct, seulement froid.
+ * <p>
+ * Chaque requête a son thread virtuel ; les devis de toutes les requêtes concurrentes
+ * sont regroupés en lots ({@link QuoteBatcher}). Deux limites, en unités distinctes :
+ * au-delà de maxInFlightRequests requêtes en cours, ou si la file du regroupeur contient
+ * déjà maxQueuedQuotes devis (une requête en porte autant que de lignes), les nouvelles
+ * sont refusées immédiatement (503 et {@code Retry-After}) plutôt que mises en attente :
+ * la latence des requêtes acceptées reste bornée. Un devis en
+ * erreur répond 400 (commande invalide) ou 500, jamais 503 : seul un refus faute de
+ * capacité invite le client à réessayer.
+ */
+public final class PricingServer implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH = 64;
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 10_000;
+    public static final int DEFAULT_MAX_QUEUED_QUOTES = 65_536;
+
+    // Taille maximale d'un corps de requête
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    // Attente maximale d'un devis en file
+    private static final long QUOTE_TIMEOUT_MILLIS = 5_000;
+
+    private final PricingEngine engine;
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final QuoteBatcher batcher;
+    final Semaphore inFlight;
+    private final LongAdder shed = new LongAdder();
+    private volatile EngineWarmup warmup; // null : aucune chauffe demandée
+
+    private PricingServer(PricingEngine engine, InetSocketAddress address,
+                          int maxBatch, int maxInFlightRequests, int maxQueuedQuotes) throws IOException {
+        if (maxInFlightRequests < 1) {
+            throw new IllegalArgumentException("In-flight request limit must be positive");
+        }
+        this.engine = engine;
+        this.batcher = new QuoteBatcher(engine, maxBatch, maxQueuedQuotes);
+        this.inFlight = new Semaphore(maxInFlightRequests);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            this.http = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            batcher.close();
+            executor.close();
+            throw e;
+        }
+        http.createContext("/quote", this::handleQuote);
+        http.createContext("/health", exchange -> respond(exchange, 200, "ok\n"));
+        http.createContext("/ready", this::handleReady);
+        http.setExecutor(executor);
+        http.start();
+    }
+
+    /**
+     * Démarre un serveur avec les réglages par défaut.
+     *
+     * @param engine  Moteur de tarification
+     * @param address Adresse d'écoute (port 0 : port libre quelconque)
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public static PricingServer start(PricingEngine engine, InetSocketAddress address) throws IOException {
+        return start(engine, address, DEFAULT_MAX_BATCH, DEFAULT_MAX_IN_FLIGHT_REQUESTS, DEFAULT_MAX_QUEUED_QUOTES);
+    }
+
+    /**
+     * Démarre un serveur.
+     *
+     * @param engine              Moteur de tarification
+     * @param address             Adresse d'écoute (port 0 : port libre quelconque)
+     * @param maxBatch            Nombre maximal de devis calculés ensemble
+     * @param maxInFlightRequests Nombre de requêtes en cours au-delà duquel on refuse (503)
+     * @param maxQueuedQuotes     Nombre de devis en file, toutes requêtes confondues, au-delà
+     *                            duquel on refuse (503)
+     * @throws IOException              si le port ne peut pas être ouvert
+     * @throws IllegalArgumentException si engine ou address est null, ou une limite < 1
+     */
+    public static PricingServer start(PricingEngine engine, InetSocketAddress address, int maxBatch,
+                                      int maxInFlightRequests, int maxQueuedQuotes) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        return new PricingServer(engine, address, maxBatch, maxInFlightRequests, maxQueuedQuotes);
+    }
+
+    /**
+     * @return Port d'écoute effectif
+     */
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * @return Nombre de requêtes refusées faute de capacité
+     */
+    public long shedRequests() {
+        return shed.sum();
+    }
+
+    /**
+     * Chauffe le moteur en arrière-plan ; {@code GET /ready} répond 503 jusqu'à la fin.
+     *
+     * @param mix Échantillon de commandes rejoué
+     * @return Bilan, disponible à la fin de la chauffe ; terminé en erreur si la chauffe échoue
+     * @throws IllegalArgumentException si mix est null
+     */
+    public CompletableFuture<WarmupReport> warmUp(WarmupMix mix) {
+        return warmUp(new EngineWarmup(engine, mix, EngineWarmup.DEFAULT_MAX_DURATION));
+    }
+
+    CompletableFuture<WarmupReport> warmUp(EngineWarmup started) {
+        warmup = started;
+        return started.start();
+    }
+
+    /**
+     * @return true si aucune chauffe n'est en cours (terminée, réussie ou non, ou jamais demandée)
+     */
+    public boolean isReady() {
+        EngineWarmup current = warmup;
+        return current == null || current.isDone();
+    }
+
+    private void handleReady(HttpExchange exchange) throws IOException {
+        EngineWarmup current = warmup;
+        if (current == null) {
+            respond(exchange, 200, "ready\n");
+        } else if (!current.isDone()) {
+            respond(exchange, 503, "warming up\n");
+        } else if (current.getFailure() != null) {
+            respond(exchange, 200, "ready\nwarm-up failed: " + current.getFailure() + "\n");
+        } else {
+            respond(exchange, 200, "ready\n" + current.getReport());
+        }
+    }
+
+    private void handleQuote(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, 405, "POST only\n");
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            shed(exchange);
+            return;
+        }
+        try {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readNBytes(MAX_BODY_BYTES + 1);
+            }
+            if (body.length > MAX_BODY_BYTES) {
+                respond(exchange, 413, "Request body too large\n");
+                return;
+            }
+            List<CompletableFuture<PriceBreakdown>> quotes;
+            try {
+                quotes = submitLines(body);
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, e.getMessage() + "\n");
+                return;
+            } catch (RejectedExecutionException e) {
+                shed(exchange);
+                return;
+            }
+            PriceBreakdownCodec codec = new PriceBreakdownCodec();
+            ByteBuffer response = ByteBuffer.allocate(quotes.size() * (PriceBreakdownCodec.MAX_JSON_BYTES + 1));
+            for (CompletableFuture<PriceBreakdown> quote : quotes) {
+                codec.writeJson(quote.get(QUOTE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), response);
+                response.put((byte) '\n');
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            respond(exchange, 200, response.array(), response.position());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "Interrupted\n");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            switch (failureStatus(cause)) {
+                case 400 -> respond(exchange, 400, cause.getMessage() + "\n");
+                case 500 -> respond(exchange, 500, "Internal error\n");
+                default -> shed(exchange);
+            }
+        } catch (TimeoutException e) {
+            shed(exchange);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private List<CompletableFuture<PriceBreakdown>> submitLines(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        OrderLineParser parser = new OrderLineParser();
+        List<CompletableFuture<PriceBreakdown>> quotes = new ArrayList<>();
+        int lineStart = 0;
+        while (lineStart < body.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < body.length && body[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            boolean blank = lineEnd == lineStart || (lineEnd == lineStart + 1 && body[lineStart] == '\r');
+            if (!blank) {
+                parser.parse(buffer, lineStart, lineEnd);
+                quotes.add(batcher.submit(parser.counts().clone(), parser.is3D(), parser.day()));
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (quotes.isEmpty()) {
+            throw new IllegalArgumentException("Request contains no order line");
+        }
+        return quotes;
+    }
+
+    /**
+     * Statut d'un devis calculé en erreur : 503 s'il a été refusé (regroupeur fermé),
+     * 400 si la commande est invalide, 500 sinon. Ni l'un ni l'autre de ces deux derniers
+     * n'est une surcharge : les réessayer ne changerait rien.
+     */
+    static int failureStatus(Throwable cause) {
+        if (cause instanceof RejectedExecutionException) {
+            return 503;
+        }
+        return cause instanceof IllegalArgumentException ? 400 : 500;
+    }
+
+    private void shed(HttpExchange exchange) throws IOException {
+        shed.increment();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respond(exchange, 503, "Overloaded\n");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        respond(exchange, status, bytes, bytes.length);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body, int length) throws IOException {
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body, 0, length);
+        }
+    }
+
+    /**
+     * Arrête d'accepter des requêtes, refuse les devis en file puis attend la fin des requêtes en cours.
+     */
+    @Override
+    public void close() {
+        http.stop(0);
+        batcher.close();
+        executor.close();
+    }
+
+    /**
+     * Usage : {@code PricingServer [port] [échantillon]} (8080 par défaut). Le moteur est chauffé
+     * au démarrage, sur l'échantillon enregistré s'il est donné, sinon sur le mélange intégré.
+     * Active {@code sun.net.httpserver.nodelay} sauf si la ligne de commande la fixe déjà.
+     */
+    public static void main(String[] args) throws IOException {
+        // Sans TCP_NODELAY, l'en-tête et le corps de chaque réponse partent en deux segments
+        // et le second attend l'acquittement différé du client (~40 ms par requête). Propriété
+        // globale à la JVM, lue au chargement du serveur HTTP du JDK : posée ici seulement, une
+        // application qui embarque le serveur la passe au lancement (voir le README).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        WarmupMix mix = args.length > 1 ? WarmupMix.load(Path.of(args[1])) : WarmupMix.builtIn();
+        PricingServer server = start(new PricingEngine(), new InetSocketAddress(port));
+        System.out.println("Pricing server listening on port " + server.port());
+        server.warmUp(mix).whenComplete((report, failure) -> {
+            if (failure != null) {
+                System.err.println("Pricing engine warm-up failed, serving cold: " + failure);
+            } else {
+                System.out.print("Pricing engine warm\n" + report);
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package edu.cinema.pricing.server;
+
+import edu.cinema.pricing.BatchPricingEngine;
+import edu.cinema.pricing.BreakdownColumns;
+import edu.cinema.pricing.OrderBatch;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Regroupe les devis demandés en parallèle en petits lots calculés ensemble.
+ * <p>
+ * Un thread unique vide la file : il prend tout ce qui est arrivé pendant le lot
+ * précédent (au plus maxBatch devis), sans attente artificielle, et le calcule en
+ * une passe colonnes sur un seul instantané du tarif. Sous faible charge un lot
+ * contient un devis ; sous forte charge les lots grossissent et le coût par devis
+ * baisse. La file est bornée : au-delà, {@link #submit} refuse le devis.
+ */
+final class QuoteBatcher implements AutoCloseable {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final BatchPricingEngine batchEngine;
+    private final BlockingQueue<PendingQuote> queue;
+    private final int maxBatch;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    // Colonnes réutilisées d'un lot à l'autre (seul le thread de répartition y touche)
+    private final int[][] counts;
+    private final BitSet is3D;
+    private final byte[] days;
+    private final BreakdownColumns out;
+
+    /**
+     * Devis en attente de calcul.
+     */
+    private static final class PendingQuote {
+        final int[] counts;
+        final boolean is3D;
+        final DayOfWeek day;
+        final CompletableFuture<PriceBreakdown> result = new CompletableFuture<>();
+
+        PendingQuote(int[] counts, boolean is3D, DayOfWeek day) {
+            this.counts = counts;
+            this.is3D = is3D;
+            this.day = day;
+        }
+    }
+
+    /**
+     * @param engine        Moteur de tarification
+     * @param maxBatch      Taille maximale d'un lot (≥ 1)
+     * @param queueCapacity Devis en attente au-delà desquels on refuse (≥ 1)
+     * @throws IllegalArgumentException si engine est null ou une taille < 1
+     */
+    QuoteBatcher(PricingEngine engine, int maxBatch, int queueCapacity) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        if (maxBatch < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+        }
+        // Lots plus petits que le seuil : calculés sur le thread de répartition, sans découpe
+        this.batchEngine = new BatchPricingEngine(engine, ForkJoinPool.commonPool(), maxBatch);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.counts = new int[TICKET_TYPES.length][maxBatch];
+        this.is3D = new BitSet(maxBatch);
+        this.days = new byte[maxBatch];
+        this.out = new BreakdownColumns(maxBatch);
+        this.dispatcher = new Thread(this::dispatch, "quote-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Met un devis en file.
+     *
+     * @param counts Quantités indexées par {@link TicketType#ordinal()} (non modifiées ensuite)
+     * @param is3D   Séance 3D ou non
+     * @param day    Jour de la séance
+     * @return Résultat, complété par le thread de répartition
+     * @throws RejectedExecutionException si la file est pleine ou le regroupeur fermé
+     */
+    CompletableFuture<PriceBreakdown> submit(int[] counts, boolean is3D, DayOfWeek day) {
+        PendingQuote quote = new PendingQuote(counts, is3D, day);
+        if (!running || !queue.offer(quote)) {
+            throw new RejectedExecutionException("Quote queue full");
+        }
+        // Fermeture concurrente : close() a pu vider la file avant notre ajout
+        if (!running && queue.remove(quote)) {
+            throw new RejectedExecutionException("Quote batcher closed");
+        }
+        return quote.result;
+    }
+
+    private void dispatch() {
+        List<PendingQuote> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            evaluate(batch);
+            batch.clear();
+        }
+    }
+
+    private void evaluate(List<PendingQuote> batch) {
+        int size = batch.size();
+        is3D.clear();
+        for (int i = 0; i < size; i++) {
+            PendingQuote quote = batch.get(i);
+            for (int t = 0; t < TICKET_TYPES.length; t++) {
+                counts[t][i] = quote.counts[t];
+            }
+            is3D.set(i, quote.is3D);
+            days[i] = (byte) quote.day.getValue();
+        }
+        long version;
+        try {
+            version = batchEngine.computeTotals(new OrderBatch(counts, is3D, days, size), out);
+        } catch (RuntimeException e) {
+            for (PendingQuote quote : batch) {
+                quote.result.completeExceptionally(e);
+            }
+            return;
+        }
+        double[] subtotal = out.getSubtotal();
+        double[] wednesdayDiscount = out.getWednesdayDiscount();
+        double[] threeDSurcharge = out.getThreeDSurcharge();
+        double[] groupDiscount = out.getGroupDiscount();
+        double[] total = out.getTotal();
+        for (int i = 0; i < size; i++) {
+            batch.get(i).result.complete(new PriceBreakdown(subtotal[i], wednesdayDiscount[i],
+                threeDSurcharge[i], groupDiscount[i], total[i], version));
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Les devis restants ne seront jamais calculés
+        List<PendingQuote> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingQuote quote : remaining) {
+            quote.result.completeExceptionally(new RejectedExecutionException("Quote batcher closed"));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package edu.cinema.pricing.server;
+
+import edu.cinema.pricing.TicketType;
+import edu.cinema.pricing.io.OrderLineParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Échantillon de commandes rejoué par {@link EngineWarmup} : formes de panier, jours et
+ * séances 3D dans les proportions du trafic réel.
+ * <p>
+ * L'échantillon vient d'un enregistrement (une commande par ligne, au format du journal de
+ * ventes, voir {@link OrderLineParser} ; lignes vides et commentaires {@code #} ignorés) ou
+ * du mélange intégré {@link #builtIn()}. Classe immuable.
+ */
+public final class WarmupMix {
+
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+    private static final int BUILT_IN_SIZE = 1024;
+
+    // Mélange intégré : billets par commande (1 à 8), types et jours, en poids relatifs
+    private static final int[] SIZE_WEIGHTS = {25, 35, 15, 15, 4, 3, 2, 1};
+    private static final int[] TYPE_WEIGHTS = {55, 20, 10, 15};          // ADULT, CHILD, SENIOR, STUDENT
+    private static final int[] DAY_WEIGHTS = {8, 9, 16, 10, 17, 22, 18}; // lundi → dimanche
+    private static final int THREE_D_PERCENT = 30;
+
+    private final List<List<TicketType>> tickets;
+    private final int[][] counts;
+    private final boolean[] is3D;
+    private final DayOfWeek[] days;
+
+    private WarmupMix(List<List<TicketType>> tickets, boolean[] is3D, DayOfWeek[] days) {
+        this.tickets = tickets;
+        this.is3D = is3D;
+        this.days = days;
+        this.counts = new int[tickets.size()][];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new int[TICKET_TYPES.length];
+            for (TicketType ticket : tickets.get(i)) {
+                counts[i][ticket.ordinal()]++;
+            }
+        }
+    }
+
+    /**
+     * Mélange intégré, toujours le même : paniers de 1 à 8 billets, surtout des adultes,
+     * week-end plus chargé, 30 % de séances 3D.
+     */
+    public static WarmupMix builtIn() {
+        Random random = new Random(20_240_601L);
+        List<List<TicketType>> tickets = new ArrayList<>(BUILT_IN_SIZE);
+        boolean[] is3D = new boolean[BUILT_IN_SIZE];
+        DayOfWeek[] days = new DayOfWeek[BUILT_IN_SIZE];
+        for (int i = 0; i < BUILT_IN_SIZE; i++) {
+            int size = 1 + pick(random, SIZE_WEIGHTS);
+            TicketType[] cart = new TicketType[size];
+            for (int t = 0; t < size; t++) {
+                cart[t] = TICKET_TYPES[pick(random, TYPE_WEIGHTS)];
+            }
+            tickets.add(List.of(cart));
+            is3D[i] = random.nextInt(100) < THREE_D_PERCENT;
+            days[i] = DayOfWeek.of(1 + pick(random, DAY_WEIGHTS));
+        }
+        return new WarmupMix(Collections.unmodifiableList(tickets), is3D, days);
+    }
+
+    private static int pick(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int draw = random.nextInt(total);
+        int index = 0;
+        while (draw >= weights[index]) {
+            draw -= weights[index++];
+        }
+        return index;
+    }
+
+    /**
+     * Charge un échantillon enregistré.
+     *
+     * @param path Fichier de commandes, une par ligne
+     * @throws IOException              en cas d'erreur de lecture
+     * @throws IllegalArgumentException si une ligne est mal formée (avec son numéro) ou si le fichier
+     *                                  ne contient aucune commande
+     */
+    public static WarmupMix load(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        OrderLineParser parser = new OrderLineParser();
+        List<List<TicketType>> tickets = new ArrayList<>();
+        List<Boolean> is3D = new ArrayList<>();
+        List<DayOfWeek> days = new ArrayList<>();
+        int lineStart = 0;
+        int lineNumber = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            lineNumber++;
+            boolean blank = lineEnd == lineStart || (lineEnd == lineStart + 1 && bytes[lineStart] == '\r');
+            if (!blank && bytes[lineStart] != '#') {
+                try {
+                    parser.parse(buffer, lineStart, lineEnd);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+                List<TicketType> cart = new ArrayList<>();
+                int[] counts = parser.counts();
+                for (int t = 0; t < counts.length; t++) {
+                    cart.addAll(Collections.nCopies(counts[t], TICKET_TYPES[t]));
+                }
+                tickets.add(List.copyOf(cart));
+                is3D.add(parser.is3D());
+                days.add(parser.day());
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (tickets.isEmpty()) {
+            throw new IllegalArgumentException("Warm-up mix contains no order: " + path);
+        }
+        boolean[] flags = new boolean[is3D.size()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = is3D.get(i);
+        }
+        return new WarmupMix(Collections.unmodifiableList(tickets), flags, days.toArray(new DayOfWeek[0]));
+    }
+
+    /**
+     * @return Nombre de commandes de l'échantillon
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    List<TicketType> tickets(int i) {
+        return tickets.get(i);
+    }
+
+    /**
+     * @return Quantités par type de la commande i (tableau interne, à ne pas modifier)
+     */
+    int[] counts(int i) {
+        return counts[i];
+    }
+
+    boolean is3D(int i) {
+        return is3D[i];
+    }
+
+    DayOfWeek day(int i) {
+        return days[i];
+    }
+}
@@ -0,0 +1,77 @@
+package edu.cinema.pricing.server;
+
+import java.time.Duration;
+
+/**
+ * Bilan d'une chauffe du moteur ({@link EngineWarmup}). Classe immuable.
+ * <p>
+ * {@link #toString()} donne une ligne {@code clé=valeur} par champ, à archiver avec
+ * chaque version pour suivre le temps de mise en régime d'une livraison à l'autre.
+ */
+public final class WarmupReport {
+    private final boolean settled;
+    private final int rounds;
+    private final long calls;
+    private final Duration timeToSteadyState;
+    private final Duration elapsed;
+    private final long compilationMillis;
+
+    /**
+     * @param settled           true si la compilation s'est stabilisée avant la durée maximale
+     * @param rounds            Nombre de tours de l'échantillon rejoués
+     * @param calls             Nombre d'appels au moteur
+     * @param timeToSteadyState Durée jusqu'au dernier tour instable, après lequel le moteur est en
+     *                          régime (jusqu'à l'abandon si la chauffe ne s'est pas stabilisée)
+     * @param elapsed           Durée totale de la chauffe, période calme de confirmation comprise
+     * @param compilationMillis Temps de compilation JIT pendant la chauffe (-1 : non mesuré)
+     */
+    public WarmupReport(boolean settled, int rounds, long calls, Duration timeToSteadyState, Duration elapsed,
+                        long compilationMillis) {
+        if (timeToSteadyState == null || elapsed == null) {
+            throw new IllegalArgumentException("Durations cannot be null");
+        }
+        this.settled = settled;
+        this.rounds = rounds;
+        this.calls = calls;
+        this.timeToSteadyState = timeToSteadyState;
+        this.elapsed = elapsed;
+        this.compilationMillis = compilationMillis;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public Duration getTimeToSteadyState() {
+        return timeToSteadyState;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return Temps de compilation JIT pendant la chauffe, en millisecondes (-1 : non mesuré)
+     */
+    public long getCompilationMillis() {
+        return compilationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "settled=" + settled + '\n'
+            + "rounds=" + rounds + '\n'
+            + "calls=" + calls + '\n'
+            + "timeToSteadyStateMillis=" + timeToSteadyState.toMillis() + '\n'
+            + "elapsedMillis=" + elapsed.toMillis() + '\n'
+            + "compilationMillis=" + compilationMillis + '\n';
+    }
+}
@@ -0,0 +1,76 @@
+package edu.cinema.pricing.stream;
+
+import edu.cinema.pricing.TicketType;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+
+/**
+ * Commande reçue du flux de ventes, rattachée à une séance.
+ * Classe immuable : les quantités sont copiées à la construction.
+ */
+public final class OrderEvent {
+    private final String showingId;
+    private final int[] counts;
+    private final boolean is3D;
+    private final DayOfWeek day;
+
+    /**
+     * @param showingId Identifiant de la séance (l'ordre est garanti par séance)
+     * @param counts    Quantités indexées par {@link TicketType#ordinal()}
+     * @param is3D      Séance 3D ou non
+     * @param day       Jour de la séance
+     * @throws IllegalArgumentException si un paramètre est null, si counts n'a pas
+     *                                  une case par type ou contient une quantité négative
+     */
+    public OrderEvent(String showingId, int[] counts, boolean is3D, DayOfWeek day) {
+        if (showingId == null || counts == null || day == null) {
+            throw new IllegalArgumentException("Showing, counts and day cannot be null");
+        }
+        if (counts.length != TicketType.values().length) {
+            throw new IllegalArgumentException("Counts must have one entry per TicketType");
+        }
+        for (int count : counts) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Counts cannot be negative");
+            }
+        }
+        this.showingId = showingId;
+        this.counts = counts.clone();
+        this.is3D = is3D;
+        this.day = day;
+    }
+
+    public String getShowingId() {
+        return showingId;
+    }
+
+    public int count(TicketType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * @return Copie des quantités
+     */
+    public int[] getCounts() {
+        return counts.clone();
+    }
+
+    int[] counts() {
+        return counts;
+    }
+
+    public boolean is3D() {
+        return is3D;
+    }
+
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderEvent{showing=%s, counts=%s, is3D=%b, day=%s}",
+                             showingId, Arrays.toString(counts), is3D, day);
+    }
+}
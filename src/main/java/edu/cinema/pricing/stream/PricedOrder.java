@@ -0,0 +1,30 @@
+package edu.cinema.pricing.stream;
+
+import edu.cinema.pricing.PriceBreakdown;
+
+/**
+ * Commande du flux accompagnée de son calcul.
+ * Classe immuable.
+ */
+public final class PricedOrder {
+    private final OrderEvent order;
+    private final PriceBreakdown breakdown;
+
+    public PricedOrder(OrderEvent order, PriceBreakdown breakdown) {
+        this.order = order;
+        this.breakdown = breakdown;
+    }
+
+    public OrderEvent getOrder() {
+        return order;
+    }
+
+    public PriceBreakdown getBreakdown() {
+        return breakdown;
+    }
+
+    @Override
+    public String toString() {
+        return "PricedOrder{" + order + ", " + breakdown + "}";
+    }
+}
@@ -0,0 +1,341 @@
+package edu.cinema.pricing.stream;
+
+import edu.cinema.pricing.BatchPricingEngine;
+import edu.cinema.pricing.BreakdownColumns;
+import edu.cinema.pricing.OrderBatch;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+
+import java.util.BitSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Étape de tarification d'un flux de commandes ({@link Flow.Processor}).
+ * <p>
+ * Les commandes sont réparties en {@code parallelism} voies selon leur séance ; chaque
+ * voie est traitée en série sur l'{@link Executor} fourni (aucun thread par commande),
+ * ce qui conserve l'ordre des commandes d'une même séance. Une voie prend jusqu'à
+ * {@code batchSize} commandes à la fois et les calcule en un lot, sur un seul
+ * instantané du tarif.
+ * <p>
+ * Contre-pression : au plus {@code capacity} commandes sont demandées en amont et pas
+ * encore remises à l'abonné ; une nouvelle commande n'est demandée en amont qu'après la
+ * remise d'un résultat, et un résultat n'est remis que sur demande de l'abonné. Rien
+ * ne bloque : un abonné lent laisse simplement les résultats en attente (au plus
+ * {@code capacity}) et le flux amont s'arrête faute de demande.
+ * <p>
+ * Un seul abonné est accepté. Les résultats produits avant son inscription l'attendent.
+ */
+public class PricingProcessor implements Flow.Processor<OrderEvent, PricedOrder> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int DEFAULT_BATCH_SIZE = 16;
+    private static final TicketType[] TICKET_TYPES = TicketType.values();
+
+    private final PricingEngine engine;
+    private final BatchPricingEngine batchEngine;
+    private final Executor executor;
+    private final Lane[] lanes;
+    private final int capacity;
+    private final int batchSize;
+
+    // Amont
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    // Les appels à la souscription amont doivent être sérialisés (règle 2.7 de Reactive Streams)
+    private final Object upstreamLock = new Object();
+    private final AtomicLong pending = new AtomicLong(); // reçues, pas encore remises
+    private volatile boolean upstreamCompleted;
+
+    // Aval
+    private final AtomicReference<Flow.Subscriber<? super PricedOrder>> downstream = new AtomicReference<>();
+    private final Queue<PricedOrder> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger drainWip = new AtomicInteger();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private boolean terminated; // signal terminal émis (lu et écrit dans drain uniquement)
+
+    /**
+     * Processeur sur le pool commun : une voie par thread du pool, 1024 commandes
+     * en vol au plus, lots de 16.
+     */
+    public PricingProcessor(PricingEngine engine) {
+        this(engine, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(),
+             DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructeur complet.
+     *
+     * @param engine      Moteur de tarification
+     * @param executor    Exécuteur des voies
+     * @param parallelism Nombre de voies (≥ 1)
+     * @param capacity    Commandes demandées en amont et non remises à l'abonné, au plus (≥ 1)
+     * @param batchSize   Commandes calculées ensemble par une voie, au plus (≥ 1)
+     * @throws IllegalArgumentException si engine ou executor est null, ou une taille < 1
+     */
+    public PricingProcessor(PricingEngine engine, Executor executor, int parallelism,
+                            int capacity, int batchSize) {
+        if (engine == null || executor == null) {
+            throw new IllegalArgumentException("Engine and executor cannot be null");
+        }
+        if (parallelism < 1 || capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism, capacity and batch size must be positive");
+        }
+        this.engine = engine;
+        this.batchEngine = new BatchPricingEngine(engine, ForkJoinPool.commonPool(), batchSize);
+        this.executor = executor;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.lanes = new Lane[parallelism];
+        for (int l = 0; l < parallelism; l++) {
+            lanes[l] = new Lane();
+        }
+    }
+
+    // ==================== AMONT ====================
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        synchronized (upstreamLock) {
+            subscription.request(capacity);
+        }
+    }
+
+    @Override
+    public void onNext(OrderEvent order) {
+        if (order == null) {
+            throw new NullPointerException("Order event cannot be null");
+        }
+        if (cancelled || error.get() != null) {
+            return;
+        }
+        pending.incrementAndGet();
+        int hash = order.getShowingId().hashCode();
+        lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)].enqueue(order);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error.compareAndSet(null, throwable);
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamCompleted = true;
+        drain();
+    }
+
+    private void fail(Throwable throwable) {
+        if (error.compareAndSet(null, throwable)) {
+            cancelUpstream();
+        }
+        drain();
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription != null) {
+            synchronized (upstreamLock) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    // ==================== AVAL ====================
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super PricedOrder> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("PricingProcessor accepts a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Demand must be positive: " + n));
+                    return;
+                }
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+        drain();
+    }
+
+    /**
+     * Remet les résultats prêts à l'abonné selon sa demande, puis le signal terminal.
+     * Exécuté en série : un seul thread à la fois, les appels concurrents sont repris
+     * par le thread en cours (compteur drainWip).
+     */
+    private void drain() {
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super PricedOrder> subscriber = downstream.get();
+            if (subscriber != null && !terminated) {
+                if (cancelled) {
+                    outbox.clear();
+                } else {
+                    deliver(subscriber);
+                }
+            }
+            missed = drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliver(Flow.Subscriber<? super PricedOrder> subscriber) {
+        Throwable failure = error.get();
+        if (failure != null) {
+            terminated = true;
+            outbox.clear();
+            subscriber.onError(failure);
+            return;
+        }
+        long delivered = 0;
+        PricedOrder result;
+        while (delivered < demand.get() && (result = outbox.poll()) != null) {
+            subscriber.onNext(result);
+            delivered++;
+        }
+        if (delivered > 0) {
+            demand.addAndGet(-delivered);
+            long remaining = pending.addAndGet(-delivered);
+            if (!upstreamCompleted) {
+                Flow.Subscription subscription = upstream.get();
+                synchronized (upstreamLock) {
+                    subscription.request(delivered);
+                }
+            } else if (remaining == 0) {
+                terminated = true;
+                subscriber.onComplete();
+            }
+        } else if (upstreamCompleted && pending.get() == 0) {
+            terminated = true;
+            subscriber.onComplete();
+        }
+    }
+
+    // ==================== VOIES ====================
+
+    /**
+     * Voie de traitement en série ; n'est jamais exécutée par deux threads à la fois.
+     */
+    private final class Lane implements Runnable {
+        private final Queue<OrderEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Lot réutilisé d'une exécution à l'autre (publié par scheduled)
+        private final OrderEvent[] events = new OrderEvent[batchSize];
+        private final int[][] counts = new int[TICKET_TYPES.length][batchSize];
+        private final BitSet is3D = new BitSet(batchSize);
+        private final byte[] days = new byte[batchSize];
+        private final BreakdownColumns out = new BreakdownColumns(batchSize);
+
+        void enqueue(OrderEvent order) {
+            queue.add(order);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    fail(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int n = 0;
+            OrderEvent order;
+            while (n < batchSize && (order = queue.poll()) != null) {
+                events[n++] = order;
+            }
+            try {
+                if (n > 0 && !cancelled && error.get() == null) {
+                    price(n);
+                    drain();
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                for (int i = 0; i < n; i++) {
+                    events[i] = null;
+                }
+                scheduled.set(false);
+            }
+            // Une seule tranche par exécution : les autres voies ont leur tour
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void price(int n) {
+            if (n == 1) {
+                OrderEvent single = events[0];
+                outbox.add(new PricedOrder(single,
+                    engine.computeTotal(single.counts(), single.is3D(), single.getDay())));
+                return;
+            }
+            is3D.clear();
+            for (int i = 0; i < n; i++) {
+                int[] orderCounts = events[i].counts();
+                for (int t = 0; t < TICKET_TYPES.length; t++) {
+                    counts[t][i] = orderCounts[t];
+                }
+                is3D.set(i, events[i].is3D());
+                days[i] = (byte) events[i].getDay().getValue();
+            }
+            long version = batchEngine.computeTotals(new OrderBatch(counts, is3D, days, n), out);
+            for (int i = 0; i < n; i++) {
+                outbox.add(new PricedOrder(events[i], new PriceBreakdown(out.getSubtotal()[i],
+                    out.getWednesdayDiscount()[i], out.getThreeDSurcharge()[i],
+                    out.getGroupDiscount()[i], out.getTotal()[i], version)));
+            }
+        }
+    }
+}
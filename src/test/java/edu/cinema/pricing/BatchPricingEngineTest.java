@@ -0,0 +1,141 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du calcul en masse au format colonnes.
+ */
+@DisplayName("Batch Pricing Engine Tests")
+class BatchPricingEngineTest {
+
+    private static final int TYPES = TicketType.values().length;
+
+    /**
+     * Lot pseudo-aléatoire reproductible (paniers de 0 à 11 billets).
+     */
+    static OrderBatch randomBatch(int size, long seed) {
+        Random random = new Random(seed);
+        int[][] counts = new int[TYPES][size];
+        BitSet is3D = new BitSet(size);
+        byte[] days = new byte[size];
+        for (int i = 0; i < size; i++) {
+            for (int t = 0; t < TYPES; t++) {
+                counts[t][i] = random.nextInt(3);
+            }
+            is3D.set(i, random.nextBoolean());
+            days[i] = (byte) (1 + random.nextInt(7));
+        }
+        return new OrderBatch(counts, is3D, days, size);
+    }
+
+    static void assertMatchesScalar(PricingEngine engine, OrderBatch batch, BreakdownColumns out) {
+        int[] counts = new int[TYPES];
+        for (int i = 0; i < batch.size(); i++) {
+            for (TicketType type : TicketType.values()) {
+                counts[type.ordinal()] = batch.count(type, i);
+            }
+            PriceBreakdown expected = engine.computeTotal(counts, batch.is3D(i), batch.day(i));
+
+            assertEquals(expected.getSubtotal(), out.getSubtotal()[i]);
+            assertEquals(expected.getWednesdayDiscount(), out.getWednesdayDiscount()[i]);
+            assertEquals(expected.getThreeDSurcharge(), out.getThreeDSurcharge()[i]);
+            assertEquals(expected.getGroupDiscount(), out.getGroupDiscount()[i]);
+            assertEquals(expected.getTotal(), out.getTotal()[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("computeTotals: Petit lot identique au calcul scalaire")
+    void computeTotals_SmallBatch_MatchesScalar() {
+        PricingEngine engine = new PricingEngine();
+        OrderBatch batch = randomBatch(500, 42L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+
+        new BatchPricingEngine().computeTotals(batch, out);
+
+        assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("computeTotals: Lot découpé sur plusieurs threads identique au calcul scalaire")
+    void computeTotals_SplitBatch_MatchesScalar() {
+        PricingEngine engine = new PricingEngine();
+        OrderBatch batch = randomBatch(20_000, 7L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new BatchPricingEngine(engine, pool, 64).computeTotals(batch, out);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("computeTotals: 4 ADULT mercredi 3D = 36.00€")
+    void computeTotals_KnownOrder() {
+        int[][] counts = new int[TYPES][1];
+        counts[TicketType.ADULT.ordinal()][0] = 4;
+        BitSet is3D = new BitSet();
+        is3D.set(0);
+        OrderBatch batch = new OrderBatch(counts, is3D,
+            new byte[] {(byte) DayOfWeek.WEDNESDAY.getValue()}, 1);
+        BreakdownColumns out = new BreakdownColumns(1);
+
+        new BatchPricingEngine().computeTotals(batch, out);
+
+        assertEquals(36.00, out.getTotal()[0], 0.001);
+        assertEquals(36.00, out.get(0).getTotal(), 0.001);
+    }
+
+    @Test
+    @DisplayName("OrderBatch: Colonnes invalides devraient lever IllegalArgumentException")
+    void orderBatch_InvalidColumns() {
+        BitSet is3D = new BitSet();
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderBatch(null, is3D, new byte[] {1}, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderBatch(new int[3][1], is3D, new byte[] {1}, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderBatch(new int[TYPES][0], is3D, new byte[] {1}, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderBatch(new int[TYPES][1], is3D, new byte[] {0}, 1));
+        int[][] negative = new int[TYPES][1];
+        negative[0][0] = -1;
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderBatch(negative, is3D, new byte[] {1}, 1));
+
+        // Total par commande, comme validateCounts : la commande 1 déborde, pas la colonne
+        int[][] overflow = new int[TYPES][2];
+        overflow[0][0] = Integer.MAX_VALUE;
+        overflow[0][1] = Integer.MAX_VALUE;
+        overflow[1][1] = 1;
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new OrderBatch(overflow, is3D, new byte[] {1, 1}, 2));
+        assertEquals("Total ticket count overflows int at order 1", e.getMessage());
+        assertEquals(1, new OrderBatch(overflow, is3D, new byte[] {1, 1}, 1).size());
+    }
+
+    @Test
+    @DisplayName("computeTotals: Colonnes de sortie trop petites devraient lever IllegalArgumentException")
+    void computeTotals_OutputTooSmall() {
+        OrderBatch batch = randomBatch(10, 1L);
+        BatchPricingEngine batchEngine = new BatchPricingEngine();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> batchEngine.computeTotals(batch, new BreakdownColumns(5)));
+        assertThrows(IllegalArgumentException.class,
+            () -> batchEngine.computeTotals(null, new BreakdownColumns(5)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new BreakdownColumns(new double[2], new double[2], new double[2], new double[2], new double[1]));
+    }
+}
@@ -0,0 +1,138 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du stockage en colonnes hors du tas.
+ */
+@DisplayName("Breakdown Store Tests")
+class BreakdownStoreTest {
+
+    // ==================== AJOUT ET LECTURE ====================
+
+    @Test
+    @DisplayName("append: Lecture par champ, par vue et reconstruction identiques")
+    void append_RandomAccess() {
+        PricingEngine engine = new PricingEngine();
+        BreakdownStore store = new BreakdownStore();
+        PriceBreakdown[] expected = new PriceBreakdown[1_000];
+        for (int i = 0; i < expected.length; i++) {
+            int[] counts = {i % 4, i % 3, i % 2, i % 5};
+            expected[i] = engine.computeTotal(counts, i % 2 == 0, DayOfWeek.of(1 + i % 7));
+            assertEquals(i, store.append(expected[i]));
+        }
+
+        assertEquals(expected.length, store.size());
+        BreakdownStore.View view = store.view();
+        for (int i = expected.length - 1; i >= 0; i--) {
+            view.moveTo(i);
+            assertEquals(i, view.index());
+            assertEquals(expected[i].getSubtotal(), view.getSubtotal());
+            assertEquals(expected[i].getWednesdayDiscount(), view.getWednesdayDiscount());
+            assertEquals(expected[i].getThreeDSurcharge(), view.getThreeDSurcharge());
+            assertEquals(expected[i].getGroupDiscount(), view.getGroupDiscount());
+            assertEquals(expected[i].getTotal(), view.getTotal());
+            assertEquals(1, view.getTariffVersion());
+            assertEquals(expected[i].getTotal(), store.getTotal(i));
+            assertEquals(expected[i].getGroupDiscount(), store.get(BreakdownStore.Column.GROUP_DISCOUNT, i));
+            assertEquals(1.0, store.get(BreakdownStore.Column.TARIFF_VERSION, i));
+            assertEquals(expected[i].toString(), store.toBreakdown(i).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("appendAll: Résultats d'un lot sur plusieurs blocs, parcours de colonnes")
+    void appendAll_SpansChunks() {
+        PricingEngine engine = new PricingEngine();
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(50_000, 7L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+        long version = new BatchPricingEngine(engine, ForkJoinPool.commonPool(), 4096).computeTotals(batch, out);
+        BreakdownStore store = new BreakdownStore();
+
+        store.appendAll(out, batch.size(), version);
+        store.appendAll(out, batch.size(), version); // 100 000 commandes : deux blocs
+
+        assertEquals(100_000, store.size());
+        assertEquals(2L * 6 * 8 * BreakdownStore.CHUNK_SIZE, store.offHeapBytes());
+        double expectedTotal = 0.0;
+        for (double total : out.getTotal()) {
+            expectedTotal += total;
+        }
+        assertEquals(2 * expectedTotal, store.sum(BreakdownStore.Column.TOTAL), 1e-6);
+        double[] scanned = {0.0};
+        long[] visited = {0};
+        store.forEach(BreakdownStore.Column.SUBTOTAL, value -> {
+            scanned[0] += value;
+            visited[0]++;
+        });
+        assertEquals(store.size(), visited[0]);
+        assertEquals(store.sum(BreakdownStore.Column.SUBTOTAL), scanned[0], 1e-6);
+        store.forEach(BreakdownStore.Column.TARIFF_VERSION, value -> assertEquals(version, (long) value));
+        assertEquals(out.getTotal()[123], store.getTotal(50_123));
+    }
+
+    @Test
+    @DisplayName("clear: Réutilise les blocs déjà alloués")
+    void clear_ReusesChunks() {
+        BreakdownStore store = new BreakdownStore();
+        for (int i = 0; i < 10; i++) {
+            store.append(10.0 * i, 0.0, 0.0, 0.0, 10.0 * i, 3L);
+        }
+        long bytes = store.offHeapBytes();
+
+        store.clear();
+        store.append(5.0, 0.0, 0.0, 0.0, 5.0, 4L);
+
+        assertEquals(1, store.size());
+        assertEquals(bytes, store.offHeapBytes());
+        assertEquals(5.0, store.sum(BreakdownStore.Column.TOTAL));
+        assertEquals(4L, store.getTariffVersion(0));
+    }
+
+    @Test
+    @DisplayName("view: Parcours complet sans allocation sur le tas")
+    void view_ScanDoesNotAllocate() {
+        BreakdownStore store = new BreakdownStore();
+        for (int i = 0; i < 200_000; i++) {
+            store.append(i, 0.0, 0.0, 0.0, i, 1L);
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        BreakdownStore.View view = store.view();
+        long thread = Thread.currentThread().threadId();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        double sum = 0.0;
+        for (long i = 0; i < store.size(); i++) {
+            sum += view.moveTo(i).getTotal();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertEquals(199_999.0 * 200_000 / 2, sum);
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        BreakdownStore store = new BreakdownStore();
+        assertThrows(IllegalArgumentException.class, () -> store.append(null));
+        assertThrows(IllegalArgumentException.class, () -> store.appendAll(null, 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> store.appendAll(new BreakdownColumns(2), 3, 1L));
+        assertThrows(IllegalArgumentException.class, () -> store.forEach(BreakdownStore.Column.TOTAL, null));
+        assertThrows(IllegalArgumentException.class, () -> store.sum(BreakdownStore.Column.TARIFF_VERSION));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getTotal(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.view().moveTo(-1));
+        assertEquals(0.0, store.sum(BreakdownStore.Column.TOTAL));
+        assertEquals(0, store.offHeapBytes());
+    }
+}
@@ -0,0 +1,132 @@
+package edu.cinema.pricing;
+
+import edu.cinema.pricing.metrics.PricingMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du calcul sans allocation dans un détenteur réutilisé.
+ */
+@DisplayName("Mutable Price Breakdown Tests")
+class MutablePriceBreakdownTest {
+
+    private static final TicketType[] TYPES = TicketType.values();
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    // ==================== RÉSULTATS ====================
+
+    @Test
+    @DisplayName("computeTotal(out): Valeurs identiques au calcul qui alloue")
+    void computeTotal_MatchesAllocatingVariant() {
+        PricingEngine engine = new PricingEngine();
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+        Random random = new Random(17L);
+        for (int i = 0; i < 2_000; i++) {
+            int[] counts = {random.nextInt(4), random.nextInt(4), random.nextInt(3), random.nextInt(3)};
+            boolean is3D = random.nextBoolean();
+            DayOfWeek day = DayOfWeek.of(1 + random.nextInt(7));
+            TicketType[] tickets = new TicketType[counts[0] + counts[1] + counts[2] + counts[3]];
+            int n = 0;
+            for (TicketType type : TYPES) {
+                for (int c = 0; c < counts[type.ordinal()]; c++) {
+                    tickets[n++] = type;
+                }
+            }
+
+            PriceBreakdown expected = engine.computeTotal(counts, is3D, day);
+            assertSame(out, engine.computeTotal(counts, is3D, day, out));
+            assertEquals(expected.getSubtotal(), out.getSubtotal());
+            assertEquals(expected.getWednesdayDiscount(), out.getWednesdayDiscount());
+            assertEquals(expected.getThreeDSurcharge(), out.getThreeDSurcharge());
+            assertEquals(expected.getGroupDiscount(), out.getGroupDiscount());
+            assertEquals(expected.getTotal(), out.getTotal());
+            assertEquals(expected.getTariffVersion(), out.getTariffVersion());
+
+            PriceBreakdown fromList = engine.computeTotal(Arrays.asList(tickets), is3D, day);
+            engine.computeTotal(tickets, is3D, day, out);
+            assertEquals(fromList.toString(), out.toString());
+            assertEquals(fromList.getTotal(), out.toPriceBreakdown().getTotal());
+        }
+    }
+
+    @Test
+    @DisplayName("computeTotal(out): Métriques enregistrées comme pour le calcul qui alloue")
+    void computeTotal_RecordsMetrics() {
+        PricingMetrics metrics = new PricingMetrics(1);
+        PricingEngine engine = new PricingEngine(Tariff.standard(), metrics);
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+
+        engine.computeTotal(new int[] {2, 1, 1, 0}, true, DayOfWeek.WEDNESDAY, out);
+        engine.computeTotal(new TicketType[] {TicketType.STUDENT, TicketType.STUDENT}, false, DayOfWeek.MONDAY, out);
+
+        assertEquals(2, metrics.getOrdersPriced());
+        assertEquals(6, metrics.getTicketsPriced());
+        assertEquals(2, metrics.getTickets(TicketType.STUDENT));
+        assertEquals(1, metrics.getWednesdayDiscountsApplied());
+        assertEquals(1, metrics.getGroupDiscountsApplied());
+        assertEquals(670 + 348, metrics.getDiscountGivenCents());
+    }
+
+    // ==================== ALLOCATIONS ====================
+
+    @Test
+    @DisplayName("computeTotal(out): Zéro octet alloué par appel en régime établi")
+    void computeTotal_AllocatesNothing() {
+        PricingEngine engine = new PricingEngine();
+        PricingEngine instrumented = new PricingEngine(Tariff.standard(), new PricingMetrics());
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+        int[][] orders = {{2, 1, 1, 0}, {0, 0, 0, 2}, {1, 1, 1, 1}, {5, 0, 0, 0}};
+        TicketType[] tickets = {TicketType.ADULT, TicketType.CHILD, TicketType.SENIOR, TicketType.STUDENT};
+        DayOfWeek[] days = DayOfWeek.values();
+        int calls = 200_000;
+        double checksum = 0.0;
+
+        for (int round = 0; round < 3; round++) { // le premier tour sert de mise en route
+            long before = allocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                int[] counts = orders[i & 3];
+                DayOfWeek day = days[i % 7];
+                checksum += engine.computeTotal(counts, (i & 1) == 0, day, out).getTotal();
+                checksum += instrumented.computeTotal(counts, (i & 2) == 0, day, out).getTotal();
+                checksum += engine.computeTotal(tickets, (i & 1) == 0, day, out).getTotal();
+            }
+            long allocated = allocatedBytes() - before;
+            if (round > 0) {
+                // Quelques octets tolérés pour la mesure elle-même, bien moins d'un par appel
+                assertTrue(allocated < 4_096, "allocated " + allocated + " bytes for " + 3 * calls + " calls");
+            }
+        }
+        assertTrue(checksum > 0);
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        PricingEngine engine = new PricingEngine();
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.computeTotal(new int[4], false, DayOfWeek.MONDAY, null));
+        assertThrows(IllegalArgumentException.class, () -> engine.computeTotal(new int[4], false, null, out));
+        assertThrows(IllegalArgumentException.class, () -> engine.computeTotal(new int[3], false, DayOfWeek.MONDAY, out));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal((TicketType[]) null, false, DayOfWeek.MONDAY, out));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal(new TicketType[] {null}, false, DayOfWeek.MONDAY, out));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal(new TicketType[0], false, DayOfWeek.MONDAY, null));
+        assertEquals(0.0, engine.computeTotal(new TicketType[0], true, DayOfWeek.MONDAY, out).getTotal());
+    }
+}
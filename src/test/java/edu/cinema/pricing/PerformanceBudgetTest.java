@@ -0,0 +1,310 @@
+package edu.cinema.pricing;
+
+import edu.cinema.pricing.io.OrderRequestCodec;
+import edu.cinema.pricing.io.PriceBreakdownCodec;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garde-fou de performance : octets alloués et temps CPU par appel des chemins de calcul,
+ * comparés aux budgets de {@code perf-budgets.properties}.
+ * <p>
+ * Exclu du build par défaut ; lancé par {@code ./mvnw -Pperf-gate test}, sans JaCoCo.
+ * Les mesures viennent de {@link com.sun.management.ThreadMXBean} pour le seul thread
+ * de test, après une chauffe qui laisse le JIT compiler les chemins mesurés ; chaque
+ * scénario garde le meilleur de plusieurs tours pour écarter les pauses ponctuelles.
+ * <p>
+ * Les octets sont comparés tels quels : à code compilé égal, ils ne dépendent pas de la
+ * machine. Le temps CPU, lui, en dépend : il est comparé à celui d'un calcul de référence
+ * fixe ({@link #referenceWork}), mesuré en alternance avec le scénario, tour par tour,
+ * pour que la vitesse et la charge de la machine de build s'annulent dans le rapport. Le
+ * budget est ce rapport, avec une marge d'environ 3 fois la mesure de référence : le bruit
+ * passe, une régression d'un ordre de grandeur échoue. Toutes les mesures sont relevées dans
+ * le fichier désigné par la propriété système {@code perf.report} (posée par le profil).
+ */
+@Tag("perf")
+@DisplayName("Performance Budget Tests")
+class PerformanceBudgetTest {
+
+    private static final String BUDGETS = "/perf-budgets.properties";
+    private static final String REPORT = "perf.report";
+    private static final int WARMUP_CALLS = 300_000;
+    private static final int MEASURED_CALLS = 200_000;
+    private static final int ROUNDS = 10;
+
+    // Pondérations du calcul de référence : quelques multiplications dépendantes, sans allocation
+    private static final double[] REFERENCE_WEIGHTS = {10.0, 6.5, 7.0, 8.0, 1.5, 0.8, 0.9, 2.0};
+
+    // Paniers fixes : le même travail à chaque exécution
+    private static final int[][] CARTS = {
+        {1, 0, 0, 0}, {2, 2, 0, 0}, {0, 1, 1, 1}, {4, 1, 2, 3}, {1, 1, 1, 1}, {0, 0, 3, 0}, {6, 0, 0, 2}
+    };
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    private static Properties budgets;
+    private static com.sun.management.ThreadMXBean threads;
+    private static final Properties measures = new Properties();
+
+    // Résultat du dernier appel : il s'échappe, le JIT ne peut donc ni supprimer l'appel
+    // ni remplacer le résultat par des scalaires, et les octets comptés sont stables
+    private static Object escaped;
+
+    /**
+     * Un appel du chemin mesuré, qui retourne son résultat.
+     */
+    @FunctionalInterface
+    private interface Call {
+        Object run(int i);
+    }
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = PerformanceBudgetTest.class.getResourceAsStream(BUDGETS)) {
+            assertNotNull(in, "Missing " + BUDGETS);
+            budgets.load(in);
+        }
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters not supported");
+        assertTrue(threads.isCurrentThreadCpuTimeSupported(), "Thread CPU time not supported");
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        String report = System.getProperty(REPORT);
+        if (report == null) {
+            return;
+        }
+        Path path = Path.of(report);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            measures.store(out, "Mesures du perf-gate (meilleur tour)");
+        }
+    }
+
+    private static String budget(String key) {
+        String value = budgets.getProperty(key);
+        assertNotNull(value, "Missing budget " + key + " in " + BUDGETS);
+        return value.trim();
+    }
+
+    /**
+     * Calcul de référence du budget CPU : même forme que le chemin de calcul (boucle courte
+     * de multiplications sur des doubles, arrondi au centime), travail identique à chaque version.
+     */
+    private static long referenceWork(int i) {
+        double amount = 0.0;
+        for (int k = 0; k < REFERENCE_WEIGHTS.length; k++) {
+            amount = amount * 0.9 + REFERENCE_WEIGHTS[k] * ((i + k) & 7);
+        }
+        return Math.round(amount * 100.0);
+    }
+
+    /**
+     * Mesure le scénario, relève ses mesures et échoue si un budget est dépassé.
+     */
+    private static void assertWithinBudget(String scenario, Call call) {
+        long maxBytes = Long.parseLong(budget(scenario + ".bytesPerCall"));
+        double maxCpuRatio = Double.parseDouble(budget(scenario + ".cpuRatio"));
+        long[] result = new long[1];
+        // Chaque appel dépend du précédent : le JIT ne peut ni sauter ni regrouper les appels
+        Call reference = i -> {
+            result[0] = referenceWork(i ^ (int) result[0]);
+            return result;
+        };
+
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            escaped = call.run(i);
+            escaped = reference.run(i);
+        }
+        double bytesPerCall = Double.MAX_VALUE;
+        double nanosPerCall = Double.MAX_VALUE;
+        double referenceNanos = Double.MAX_VALUE;
+        long[] measured = new long[2];
+        for (int round = 0; round < ROUNDS; round++) {
+            measure(reference, measured);
+            referenceNanos = Math.min(referenceNanos, (double) measured[1] / MEASURED_CALLS);
+            measure(call, measured);
+            bytesPerCall = Math.min(bytesPerCall, (double) measured[0] / MEASURED_CALLS);
+            nanosPerCall = Math.min(nanosPerCall, (double) measured[1] / MEASURED_CALLS);
+        }
+        double cpuRatio = nanosPerCall / referenceNanos;
+
+        measures.setProperty(scenario + ".bytesPerCall", String.format(Locale.ROOT, "%.1f", bytesPerCall));
+        measures.setProperty(scenario + ".cpuNanosPerCall", String.format(Locale.ROOT, "%.1f", nanosPerCall));
+        measures.setProperty(scenario + ".cpuRatio", String.format(Locale.ROOT, "%.2f", cpuRatio));
+        // Moins d'un octet par appel en moyenne : compteurs de la JVM, pas le code mesuré
+        assertTrue(Math.floor(bytesPerCall) <= maxBytes,
+            scenario + " allocates " + bytesPerCall + " bytes per call, budget is " + maxBytes);
+        assertTrue(cpuRatio <= maxCpuRatio,
+            String.format(Locale.ROOT, "%s takes %.1f CPU ns per call, %.2f times the reference (%.1f ns), "
+                + "budget is %.2f", scenario, nanosPerCall, cpuRatio, referenceNanos, maxCpuRatio));
+    }
+
+    /**
+     * Un tour de MEASURED_CALLS appels : octets alloués dans measured[0], temps CPU dans measured[1].
+     */
+    private static void measure(Call call, long[] measured) {
+        long thread = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            escaped = call.run(i);
+        }
+        measured[1] = threads.getCurrentThreadCpuTime() - cpuBefore;
+        measured[0] = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+    }
+
+    private static int[] cart(int i) {
+        return CARTS[i % CARTS.length];
+    }
+
+    private static DayOfWeek day(int i) {
+        return DAYS[i % DAYS.length];
+    }
+
+    // ==================== MOTEUR ====================
+
+    @Test
+    @DisplayName("computeTotal(List): Budget respecté")
+    void computeTotalList() {
+        PricingEngine engine = new PricingEngine();
+        List<TicketType> tickets = Arrays.asList(TicketType.ADULT, TicketType.CHILD, TicketType.STUDENT,
+                                                 TicketType.ADULT);
+        assertWithinBudget("computeTotal.list",
+            i -> engine.computeTotal(tickets, (i & 1) == 0, day(i)));
+    }
+
+    @Test
+    @DisplayName("computeTotal(counts): Budget respecté")
+    void computeTotalCounts() {
+        PricingEngine engine = new PricingEngine();
+        assertWithinBudget("computeTotal.counts",
+            i -> engine.computeTotal(cart(i), (i & 1) == 0, day(i)));
+    }
+
+    @Test
+    @DisplayName("computeTotal(counts, out): Budget respecté")
+    void computeTotalHolder() {
+        PricingEngine engine = new PricingEngine();
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+        assertWithinBudget("computeTotal.holder",
+            i -> engine.computeTotal(cart(i), (i & 1) == 0, day(i), out));
+    }
+
+    @Test
+    @DisplayName("computeTotalCents: Budget respecté")
+    void computeTotalCents() {
+        PricingEngine engine = new PricingEngine();
+        long[] total = new long[1];
+        assertWithinBudget("computeTotalCents", i -> {
+            total[0] = engine.computeTotalCents(cart(i), (i & 1) == 0, day(i));
+            return total;
+        });
+    }
+
+    // ==================== AUTOUR DU MOTEUR ====================
+
+    @Test
+    @DisplayName("PricingSession.add/remove: Budget respecté")
+    void sessionUpdate() {
+        PricingSession session = new PricingSession(new PricingEngine(), false, DayOfWeek.WEDNESDAY);
+        session.add(TicketType.ADULT).add(TicketType.CHILD).add(TicketType.SENIOR);
+        TicketType[] types = TicketType.values();
+        assertWithinBudget("session.update", i -> {
+            TicketType type = types[i % types.length];
+            return session.add(type).remove(type);
+        });
+    }
+
+    @Test
+    @DisplayName("QuoteCache.computeTotal (succès): Budget respecté")
+    void quoteCacheHit() {
+        QuoteCache cache = new QuoteCache(new PricingEngine(), 1024);
+        assertWithinBudget("quoteCache.hit",
+            i -> cache.computeTotal(cart(i), (i & 1) == 0, day(i)));
+    }
+
+    @Test
+    @DisplayName("TariffRegistry.computeTotal(out): Budget respecté")
+    void registryLookup() {
+        TariffRegistry registry = new TariffRegistry();
+        int venues = 10_000;
+        int[] ids = new int[venues];
+        Tariff[] tariffs = new Tariff[venues];
+        for (int v = 0; v < venues; v++) {
+            ids[v] = v * 7919;
+            tariffs[v] = Tariff.standard();
+        }
+        registry.registerAll(ids, tariffs);
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+        assertWithinBudget("registry.holder",
+            i -> registry.computeTotal(ids[i % venues], cart(i), (i & 1) == 0, day(i), out));
+    }
+
+    @Test
+    @DisplayName("PriceGrid.rowCents: Budget respecté")
+    void priceGridRow() {
+        PriceGrid grid = new PriceGrid(new PricingEngine());
+        int showings = 200;
+        DayOfWeek[] days = new DayOfWeek[showings];
+        boolean[] is3D = new boolean[showings];
+        for (int s = 0; s < showings; s++) {
+            days[s] = day(s);
+            is3D[s] = s % 3 == 0;
+        }
+        grid.setSchedule(days, is3D);
+        long[] row = new long[grid.rowWidth()];
+        assertWithinBudget("priceGrid.row", i -> grid.rowCents(i % showings, row));
+    }
+
+    // ==================== SÉRIALISATION ====================
+
+    @Test
+    @DisplayName("PriceBreakdownCodec.writeJson: Budget respecté")
+    void codecWriteJson() {
+        PriceBreakdownCodec codec = new PriceBreakdownCodec();
+        PriceBreakdown[] breakdowns = new PriceBreakdown[CARTS.length];
+        for (int c = 0; c < CARTS.length; c++) {
+            breakdowns[c] = new PricingEngine().computeTotal(CARTS[c], (c & 1) == 0, day(c));
+        }
+        ByteBuffer out = ByteBuffer.allocate(PriceBreakdownCodec.MAX_JSON_BYTES);
+        assertWithinBudget("codec.writeJson", i -> {
+            out.clear();
+            codec.writeJson(breakdowns[i % breakdowns.length], out);
+            return out;
+        });
+    }
+
+    @Test
+    @DisplayName("OrderRequestCodec.readJson: Budget respecté")
+    void codecReadJson() {
+        OrderRequestCodec codec = new OrderRequestCodec();
+        byte[] json = "{\"tickets\":[\"ADULT\",\"CHILD\",\"STUDENT\",\"ADULT\"],\"is3D\":true,\"day\":\"WEDNESDAY\"}"
+            .getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer in = ByteBuffer.wrap(json);
+        assertWithinBudget("codec.readJson", i -> {
+            codec.readJson(in, 0, json.length);
+            return codec.counts();
+        });
+    }
+}
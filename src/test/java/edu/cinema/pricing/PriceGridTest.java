@@ -0,0 +1,234 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la grille de prix précalculée.
+ */
+@DisplayName("Price Grid Tests")
+class PriceGridTest {
+
+    // Programme : 2D et 3D chaque soir, avant-première 3D le mercredi
+    private static final DayOfWeek[] DAYS = {
+        DayOfWeek.MONDAY, DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.WEDNESDAY,
+        DayOfWeek.SATURDAY, DayOfWeek.SATURDAY
+    };
+    private static final boolean[] IS_3D = {false, true, false, true, true, false, true};
+
+    // Colonnes d'une ligne avec les paniers par défaut : 4 types + famille + groupe
+    private static final int WIDTH = TicketType.values().length + 2;
+
+    private PricingEngine engine;
+    private PriceGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        engine = new PricingEngine();
+        grid = new PriceGrid(engine);
+        grid.setSchedule(DAYS, IS_3D);
+    }
+
+    private static Tariff discountTariff() {
+        Map<TicketType, Double> prices = new EnumMap<>(TicketType.class);
+        prices.put(TicketType.ADULT, 12.00);
+        prices.put(TicketType.CHILD, 7.00);
+        prices.put(TicketType.SENIOR, 8.50);
+        prices.put(TicketType.STUDENT, 9.00);
+        return new Tariff(prices, List.of(
+            TariffRule.dayDiscount(0.50, DayOfWeek.MONDAY),
+            TariffRule.threeDSurcharge(3.00)));
+    }
+
+    private void assertMatchesEngine(PriceGrid grid, int[][] carts) {
+        for (int s = 0; s < grid.showingCount(); s++) {
+            for (TicketType type : TicketType.values()) {
+                int[] single = new int[TicketType.values().length];
+                single[type.ordinal()] = 1;
+                assertEquals(engine.computeTotalCents(single, IS_3D[s], DAYS[s]), grid.priceCents(s, type),
+                    "showing " + s + ", " + type);
+            }
+            for (int c = 0; c < carts.length; c++) {
+                assertEquals(engine.computeTotalCents(carts[c], IS_3D[s], DAYS[s]), grid.cartPriceCents(s, c),
+                    "showing " + s + ", cart " + c);
+            }
+        }
+    }
+
+    // ==================== LECTURE ====================
+
+    @Test
+    @DisplayName("priceCents/cartPriceCents: Prix identiques au moteur, paniers famille et groupe")
+    void read_MatchesEngine() {
+        assertMatchesEngine(grid, new int[][] {{2, 2, 0, 0}, {10, 0, 0, 0}});
+        assertEquals(7, grid.showingCount());
+        assertEquals(2, grid.cartCount());
+        // Mercredi : 10€ -20%, puis +2€ en 3D
+        assertEquals(800, grid.priceCents(2, TicketType.ADULT));
+        assertEquals(1000, grid.priceCents(3, TicketType.ADULT));
+        // Groupe de 10 adultes le samedi : 100€ -10%
+        assertEquals(9000, grid.cartPriceCents(5, 1));
+    }
+
+    @Test
+    @DisplayName("rowCents: Ligne complète d'une séance, billets puis paniers")
+    void rowCents_CopiesWholeRow() {
+        long[] row = new long[grid.rowWidth() + 1];
+        row[grid.rowWidth()] = -1;
+
+        assertSame(row, grid.rowCents(3, row));
+
+        for (TicketType type : TicketType.values()) {
+            assertEquals(grid.priceCents(3, type), row[type.ordinal()]);
+        }
+        assertEquals(grid.cartPriceCents(3, 0), row[4]);
+        assertEquals(grid.cartPriceCents(3, 1), row[5]);
+        assertEquals(-1, row[grid.rowWidth()]);
+        assertEquals(WIDTH, grid.rowWidth());
+    }
+
+    @Test
+    @DisplayName("Paniers donnés : copiés à la construction")
+    void customCarts_Copied() {
+        int[] couple = {2, 0, 0, 0};
+        int[] students = {0, 0, 0, 5};
+        PriceGrid custom = new PriceGrid(engine, couple, students);
+        custom.setSchedule(DAYS, IS_3D);
+        couple[0] = 99;
+
+        assertMatchesEngine(custom, new int[][] {{2, 0, 0, 0}, {0, 0, 0, 5}});
+    }
+
+    // ==================== RECALCUL ====================
+
+    @Test
+    @DisplayName("Programme : seules les lignes des profils nouveaux sont calculées")
+    void schedule_ComputesOnlyNewProfiles() {
+        // 6 profils au programme (lundi, mercredi et samedi, en 2D et en 3D) pour 7 séances
+        assertEquals(6 * WIDTH, grid.computedCells());
+
+        grid.setShowing(4, DayOfWeek.MONDAY, true);     // profil déjà présent
+        assertEquals(6 * WIDTH, grid.computedCells());
+        assertEquals(grid.priceCents(1, TicketType.CHILD), grid.priceCents(4, TicketType.CHILD));
+
+        grid.setShowing(4, DayOfWeek.SUNDAY, false);    // nouveau profil
+        assertEquals(7 * WIDTH, grid.computedCells());
+        assertEquals(engine.computeTotalCents(new int[] {2, 2, 0, 0}, false, DayOfWeek.SUNDAY),
+                     grid.cartPriceCents(4, 0));
+
+        grid.setSchedule(new DayOfWeek[] {DayOfWeek.FRIDAY, DayOfWeek.MONDAY}, new boolean[] {false, false});
+        assertEquals(8 * WIDTH, grid.computedCells());
+        assertEquals(2, grid.showingCount());
+    }
+
+    private static void awaitVersion(PriceGrid grid, long version) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (grid.getTariffVersion() != version) {
+            assertTrue(System.nanoTime() < deadline, "Grid not refreshed to version " + version);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Rechargement du tarif : lignes présentes recalculées par refresh ou en arrière-plan")
+    void reload_RecomputesPresentRows() throws InterruptedException {
+        long before = grid.computedCells();
+        long version = engine.reloadTariff(discountTariff());
+
+        grid.refresh();
+        assertEquals(version, grid.getTariffVersion());
+        assertEquals(before + 6 * WIDTH, grid.computedCells());
+        grid.refresh();
+        assertEquals(before + 6 * WIDTH, grid.computedCells());
+        assertMatchesEngine(grid, new int[][] {{2, 2, 0, 0}, {10, 0, 0, 0}});
+
+        // Sans refresh : la lecture sert encore l'ancien tarif et lance le recalcul de fond
+        engine.reloadTariff(Tariff.standard());
+        assertEquals(600, grid.priceCents(0, TicketType.ADULT));
+        awaitVersion(grid, version + 1);
+        assertEquals(1000, grid.priceCents(0, TicketType.ADULT));
+        assertEquals(before + 12 * WIDTH, grid.computedCells());
+    }
+
+    @Test
+    @DisplayName("Lectures concurrentes d'un rechargement : toujours un prix d'un des deux tarifs")
+    void concurrentReadsDuringReload() throws Exception {
+        long standard = grid.priceCents(5, TicketType.ADULT);
+        long other = new PricingEngine(discountTariff()).computeTotalCents(new int[] {1, 0, 0, 0}, false,
+                                                                           DayOfWeek.SATURDAY);
+        Set<Long> allowed = Set.of(standard, other);
+        long standardFamily = grid.cartPriceCents(5, 0);
+        long otherFamily = new PricingEngine(discountTariff()).computeTotalCents(new int[] {2, 2, 0, 0}, false,
+                                                                                 DayOfWeek.SATURDAY);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    long[] row = new long[grid.rowWidth()];
+                    for (int i = 0; i < 50_000; i++) {
+                        long price = grid.priceCents(5, TicketType.ADULT);
+                        assertTrue(allowed.contains(price), "Unexpected price " + price);
+                        // Une ligne vient d'un seul tarif : adulte et famille cohérents
+                        grid.rowCents(5, row);
+                        assertEquals(row[0] == standard ? standardFamily : otherFamily, row[4]);
+                    }
+                }));
+            }
+            // Rechargements tant que des lecteurs tournent
+            for (int i = 0; !readers.stream().allMatch(Future::isDone); i++) {
+                engine.reloadTariff(i % 2 == 0 ? discountTariff() : Tariff.standard());
+                if (i % 3 == 0) {
+                    grid.refresh();
+                }
+                Thread.yield();
+            }
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        engine.reloadTariff(Tariff.standard());
+        grid.refresh();
+        assertEquals(standard, grid.priceCents(5, TicketType.ADULT));
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PriceGrid(null));
+        assertThrows(IllegalArgumentException.class, () -> new PriceGrid(engine, (int[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> new PriceGrid(engine, new int[] {1, -1, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new PriceGrid(engine, new int[] {1}));
+        assertThrows(IllegalArgumentException.class, () -> grid.setSchedule(null, IS_3D));
+        assertThrows(IllegalArgumentException.class, () -> grid.setSchedule(DAYS, new boolean[1]));
+        assertThrows(IllegalArgumentException.class, () -> grid.setSchedule(new DayOfWeek[1], new boolean[1]));
+        assertThrows(IllegalArgumentException.class, () -> grid.setShowing(7, DayOfWeek.MONDAY, false));
+        assertThrows(IllegalArgumentException.class, () -> grid.setShowing(0, null, false));
+        assertThrows(IllegalArgumentException.class, () -> grid.priceCents(-1, TicketType.ADULT));
+        assertThrows(IllegalArgumentException.class, () -> grid.priceCents(0, null));
+        assertThrows(IllegalArgumentException.class, () -> grid.cartPriceCents(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> grid.cartPriceCents(7, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.rowCents(0, new long[WIDTH - 1]));
+        assertThrows(IllegalArgumentException.class, () -> grid.rowCents(0, null));
+        assertThrows(IllegalArgumentException.class, () -> grid.rowCents(7, new long[WIDTH]));
+        // Programme inchangé après les erreurs
+        assertEquals(7, grid.showingCount());
+    }
+}
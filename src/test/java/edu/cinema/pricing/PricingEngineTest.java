@@ -7,6 +7,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.time.DayOfWeek;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -347,7 +348,7 @@ class PricingEngineTest {
     @DisplayName("computeTotal: tickets null devrait lever IllegalArgumentException")
     void computeTotal_NullTickets() {
         assertThrows(IllegalArgumentException.class, 
-            () -> engine.computeTotal(null, false, DayOfWeek.MONDAY));
+            () -> engine.computeTotal((List<TicketType>) null, false, DayOfWeek.MONDAY));
     }
 
     @Test
@@ -469,4 +470,170 @@ class PricingEngineTest {
         assertEquals(8.48, result.getGroupDiscount(), 0.001);
         assertEquals(76.32, result.getTotal(), 0.001);
     }
-}
\ No newline at end of file
+
+    // =========================
+    // Tests computeTotal(int[]) - Quantités par type
+    // =========================
+
+    @Test
+    @DisplayName("computeTotal(counts): 4 ADULT mercredi 3D = 36.00€")
+    void computeTotalCounts_Wednesday_3D_Group() {
+        int[] counts = {4, 0, 0, 0};
+        PriceBreakdown result = engine.computeTotal(counts, true, DayOfWeek.WEDNESDAY);
+
+        assertEquals(40.00, result.getSubtotal(), 0.001);
+        assertEquals(8.00, result.getWednesdayDiscount(), 0.001);
+        assertEquals(8.00, result.getThreeDSurcharge(), 0.001);
+        assertEquals(4.00, result.getGroupDiscount(), 0.001);
+        assertEquals(36.00, result.getTotal(), 0.001);
+    }
+
+    @Test
+    @DisplayName("computeTotal(counts): Réservation scolaire de 300 billets")
+    void computeTotalCounts_LargeSchoolBooking() {
+        // 270 CHILD + 30 ADULT = 1620 + 300 = 1920.00, groupe -10% = 1728.00
+        int[] counts = new int[TicketType.values().length];
+        counts[TicketType.CHILD.ordinal()] = 270;
+        counts[TicketType.ADULT.ordinal()] = 30;
+        PriceBreakdown result = engine.computeTotal(counts, false, DayOfWeek.TUESDAY);
+
+        assertEquals(1920.00, result.getSubtotal(), 0.001);
+        assertEquals(192.00, result.getGroupDiscount(), 0.001);
+        assertEquals(1728.00, result.getTotal(), 0.001);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DayOfWeek.class)
+    @DisplayName("computeTotal(counts): Identique au calcul par liste pour tous les paniers")
+    void computeTotalCounts_MatchesListPath(DayOfWeek day) {
+        TicketType[] types = TicketType.values();
+        for (int size = 0; size <= 12; size++) {
+            for (int offset = 0; offset < types.length; offset++) {
+                List<TicketType> tickets = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    tickets.add(types[(i * (offset + 1) + offset) % types.length]);
+                }
+                int[] counts = PricingEngine.countByType(tickets);
+                for (boolean is3D : new boolean[] {false, true}) {
+                    PriceBreakdown expected = engine.computeTotal(tickets, is3D, day);
+                    PriceBreakdown actual = engine.computeTotal(counts, is3D, day);
+
+                    assertEquals(expected.getSubtotal(), actual.getSubtotal());
+                    assertEquals(expected.getWednesdayDiscount(), actual.getWednesdayDiscount());
+                    assertEquals(expected.getThreeDSurcharge(), actual.getThreeDSurcharge());
+                    assertEquals(expected.getGroupDiscount(), actual.getGroupDiscount());
+                    assertEquals(expected.getTotal(), actual.getTotal());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("countByType: Compte les billets par type")
+    void countByType_CountsEachType() {
+        int[] counts = PricingEngine.countByType(Arrays.asList(
+            TicketType.ADULT, TicketType.STUDENT, TicketType.ADULT, TicketType.SENIOR
+        ));
+
+        assertArrayEquals(new int[] {2, 0, 1, 1}, counts);
+    }
+
+    @Test
+    @DisplayName("countByType: null devrait lever IllegalArgumentException")
+    void countByType_Null() {
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.countByType(null));
+        assertThrows(IllegalArgumentException.class,
+            () -> PricingEngine.countByType(Arrays.asList(TicketType.ADULT, null)));
+    }
+
+    @Test
+    @DisplayName("computeTotal(counts): Entrées invalides devraient lever IllegalArgumentException")
+    void computeTotalCounts_InvalidInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal((int[]) null, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal(new int[] {1, 0, 0, 0}, false, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal(new int[] {1, 0, 0}, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal(new int[] {1, -1, 0, 0}, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotal(new int[] {Integer.MAX_VALUE, 1, 0, 0}, false, DayOfWeek.MONDAY));
+    }
+
+    // =========================
+    // Tests mode centimes (virgule fixe)
+    // =========================
+
+    @Test
+    @DisplayName("computeBreakdownCents: 7 STUDENT mercredi 3D = 5292 centimes")
+    void computeBreakdownCents_Complex() {
+        // 5600 → -1120 = 4480 → +1400 = 5880 → -588 = 5292
+        CentsBreakdown result = engine.computeBreakdownCents(new int[] {0, 0, 0, 7}, true, DayOfWeek.WEDNESDAY);
+
+        assertEquals(5600, result.getSubtotal());
+        assertEquals(1120, result.getWednesdayDiscount());
+        assertEquals(1400, result.getThreeDSurcharge());
+        assertEquals(588, result.getGroupDiscount());
+        assertEquals(5292, result.getTotal());
+        assertEquals(52.92, result.toPriceBreakdown().getTotal(), 0.0);
+    }
+
+    @Test
+    @DisplayName("computeBreakdownCents: Remise mercredi exacte (pas de dérive flottante)")
+    void computeBreakdownCents_ExactWednesdayDiscount() {
+        // 1 STUDENT = 8.00, -20% = 1.60 exactement
+        CentsBreakdown result = engine.computeBreakdownCents(
+            Arrays.asList(TicketType.STUDENT), false, DayOfWeek.WEDNESDAY);
+
+        assertEquals(160, result.getWednesdayDiscount());
+        assertEquals(1.60, result.toPriceBreakdown().getWednesdayDiscount(), 0.0);
+        assertEquals(640, result.getTotal());
+    }
+
+    @ParameterizedTest
+    @EnumSource(DayOfWeek.class)
+    @DisplayName("computeTotalCents: Même total que le mode double")
+    void computeTotalCents_MatchesDoubleTotal(DayOfWeek day) {
+        int[] counts = new int[TicketType.values().length];
+        for (int adults = 0; adults <= 5; adults++) {
+            for (int children = 0; children <= 5; children++) {
+                for (int seniors = 0; seniors <= 5; seniors++) {
+                    counts[0] = adults;
+                    counts[1] = children;
+                    counts[2] = seniors;
+                    counts[3] = (adults + seniors) % 3;
+                    for (boolean is3D : new boolean[] {false, true}) {
+                        long expected = Math.round(engine.computeTotal(counts, is3D, day).getTotal() * 100);
+
+                        assertEquals(expected, engine.computeTotalCents(counts, is3D, day));
+                        assertEquals(expected, engine.computeBreakdownCents(counts, is3D, day).getTotal());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("computeTotalCents: Entrées invalides devraient lever IllegalArgumentException")
+    void computeTotalCents_InvalidInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotalCents(null, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeTotalCents(new int[] {1, 0, 0, 0}, false, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeBreakdownCents(new int[] {1, 0, 0, 0}, false, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.computeBreakdownCents((List<TicketType>) null, false, DayOfWeek.MONDAY));
+    }
+
+    @Test
+    @DisplayName("CentsBreakdown: toString et basePriceCents")
+    void centsBreakdown_ToStringAndBasePrice() {
+        assertEquals(750, engine.basePriceCents(TicketType.SENIOR));
+        String result = new CentsBreakdown(1000, 200, 200, 100, 900).toString();
+
+        assertTrue(result.contains("subtotal=1000"));
+        assertTrue(result.contains("total=900"));
+    }
+}
@@ -0,0 +1,131 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du devis incrémental de panier.
+ */
+@DisplayName("Pricing Session Tests")
+class PricingSessionTest {
+
+    private static final TicketType[] TYPES = TicketType.values();
+
+    private static void assertMatchesFresh(PricingEngine engine, PricingSession session) {
+        int[] counts = new int[TYPES.length];
+        for (TicketType type : TYPES) {
+            counts[type.ordinal()] = session.count(type);
+        }
+        PriceBreakdown expected = engine.computeTotal(counts, session.is3D(), session.getDay());
+        PriceBreakdown actual = session.quote();
+        assertEquals(expected.getSubtotal(), actual.getSubtotal());
+        assertEquals(expected.getWednesdayDiscount(), actual.getWednesdayDiscount());
+        assertEquals(expected.getThreeDSurcharge(), actual.getThreeDSurcharge());
+        assertEquals(expected.getGroupDiscount(), actual.getGroupDiscount());
+        assertEquals(expected.getTotal(), actual.getTotal());
+        assertEquals(expected.getTariffVersion(), actual.getTariffVersion());
+        assertEquals(expected.getTotal(), session.getTotal());
+    }
+
+    // ==================== MISES À JOUR ====================
+
+    @Test
+    @DisplayName("Session: Seuil groupe franchi dans les deux sens")
+    void session_CrossesGroupThreshold() {
+        PricingEngine engine = new PricingEngine();
+        PricingSession session = new PricingSession(engine, false, DayOfWeek.MONDAY);
+        assertEquals(0.0, session.getTotal());
+
+        session.add(TicketType.STUDENT).add(TicketType.STUDENT).add(TicketType.STUDENT);
+        assertEquals(24.00, session.getTotal());
+        assertEquals(0.0, session.quote().getGroupDiscount());
+
+        session.add(TicketType.STUDENT);
+        assertEquals(28.80, session.getTotal());
+        assertEquals(4, session.ticketCount());
+        assertMatchesFresh(engine, session);
+
+        session.remove(TicketType.STUDENT);
+        assertEquals(24.00, session.getTotal());
+        assertEquals(0.0, session.quote().getGroupDiscount());
+    }
+
+    @Test
+    @DisplayName("Session: Changement de 3D et de jour")
+    void session_FlagsAndDay() {
+        PricingEngine engine = new PricingEngine();
+        PricingSession session = new PricingSession(engine, false, DayOfWeek.MONDAY)
+            .add(TicketType.ADULT).add(TicketType.CHILD);
+        assertEquals(16.00, session.getTotal());
+
+        session.setThreeD(true);
+        assertEquals(20.00, session.getTotal());
+        session.setDay(DayOfWeek.WEDNESDAY);
+        assertMatchesFresh(engine, session);
+        assertTrue(session.quote().getWednesdayDiscount() > 0);
+        session.setThreeD(false).setDay(DayOfWeek.SUNDAY);
+        assertEquals(16.00, session.getTotal());
+    }
+
+    @Test
+    @DisplayName("Session: Marche aléatoire identique au calcul complet à chaque étape")
+    void session_RandomWalkMatchesFreshComputation() {
+        PricingEngine engine = new PricingEngine();
+        PricingSession session = new PricingSession(engine, true, DayOfWeek.WEDNESDAY);
+        MutablePriceBreakdown out = new MutablePriceBreakdown();
+        Random random = new Random(23L);
+        for (int step = 0; step < 5_000; step++) {
+            int action = random.nextInt(10);
+            TicketType type = TYPES[random.nextInt(TYPES.length)];
+            if (action < 5 || session.count(type) == 0) {
+                session.add(type);
+            } else if (action < 8) {
+                session.remove(type);
+            } else if (action == 8) {
+                session.setThreeD(!session.is3D());
+            } else {
+                session.setDay(DayOfWeek.of(1 + random.nextInt(7)));
+            }
+            assertMatchesFresh(engine, session);
+        }
+        assertEquals(session.getTotal(), session.quote(out).getTotal());
+    }
+
+    @Test
+    @DisplayName("Session: Le tarif rechargé s'applique à la mise à jour suivante")
+    void session_PicksUpReloadedTariff() {
+        PricingEngine engine = new PricingEngine();
+        PricingSession session = new PricingSession(engine, false, DayOfWeek.MONDAY).add(TicketType.ADULT);
+        assertEquals(10.00, session.getTotal());
+
+        engine.reloadTariff(TariffReloadTest.doubledTariff());
+        session.setThreeD(false);
+
+        assertEquals(20.00, session.getTotal());
+        assertEquals(2, session.quote().getTariffVersion());
+        assertMatchesFresh(engine, session);
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        PricingEngine engine = new PricingEngine();
+        assertThrows(IllegalArgumentException.class, () -> new PricingSession(null, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class, () -> new PricingSession(engine, false, null));
+
+        PricingSession session = new PricingSession(engine, false, DayOfWeek.MONDAY);
+        assertThrows(IllegalArgumentException.class, () -> session.add(null));
+        assertThrows(IllegalArgumentException.class, () -> session.remove(null));
+        assertThrows(IllegalArgumentException.class, () -> session.remove(TicketType.ADULT));
+        assertThrows(IllegalArgumentException.class, () -> session.setDay(null));
+        assertThrows(IllegalArgumentException.class, () -> session.quote(null));
+        assertEquals(0, session.ticketCount());
+    }
+}
@@ -0,0 +1,156 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du cache de devis.
+ */
+@DisplayName("Quote Cache Tests")
+class QuoteCacheTest {
+
+    private PricingEngine engine;
+    private QuoteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        engine = new PricingEngine();
+        cache = new QuoteCache(engine, 64);
+    }
+
+    @Test
+    @DisplayName("computeTotal: Deuxième appel servi par le cache avec la même instance")
+    void computeTotal_SecondCallIsHit() {
+        int[] counts = {2, 2, 0, 0};
+        PriceBreakdown first = cache.computeTotal(counts, false, DayOfWeek.SATURDAY);
+        PriceBreakdown second = cache.computeTotal(counts, false, DayOfWeek.SATURDAY);
+
+        assertSame(first, second);
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0.5, cache.hitRate(), 0.0);
+        assertEquals(28.80, second.getTotal(), 0.001);
+    }
+
+    @Test
+    @DisplayName("computeTotal: Liste et quantités partagent la même clé")
+    void computeTotal_ListAndCountsShareKey() {
+        List<TicketType> tickets = Arrays.asList(TicketType.CHILD, TicketType.ADULT, TicketType.CHILD);
+        PriceBreakdown fromList = cache.computeTotal(tickets, true, DayOfWeek.WEDNESDAY);
+        PriceBreakdown fromCounts = cache.computeTotal(PricingEngine.countByType(tickets), true, DayOfWeek.WEDNESDAY);
+
+        assertSame(fromList, fromCounts);
+        assertEquals(engine.computeTotal(tickets, true, DayOfWeek.WEDNESDAY).getTotal(), fromList.getTotal());
+    }
+
+    @Test
+    @DisplayName("key: Le jour et la 3D distinguent les clés")
+    void key_DistinguishesShowing() {
+        int[] counts = {1, 0, 0, 0};
+        long monday = QuoteCache.key(counts, false, DayOfWeek.MONDAY);
+
+        assertNotEquals(monday, QuoteCache.key(counts, true, DayOfWeek.MONDAY));
+        assertNotEquals(monday, QuoteCache.key(counts, false, DayOfWeek.TUESDAY));
+        assertNotEquals(monday, QuoteCache.key(new int[] {0, 1, 0, 0}, false, DayOfWeek.MONDAY));
+        assertTrue(monday > 0);
+    }
+
+    @Test
+    @DisplayName("computeTotal: Paniers trop grands contournent le cache")
+    void computeTotal_LargeCartBypassesCache() {
+        int[] counts = {20_000, 0, 0, 0};
+        assertEquals(QuoteCache.NOT_CACHEABLE, QuoteCache.key(counts, false, DayOfWeek.MONDAY));
+
+        PriceBreakdown result = cache.computeTotal(counts, false, DayOfWeek.MONDAY);
+        PriceBreakdown fromList = cache.computeTotal(
+            Collections.nCopies(20_000, TicketType.ADULT), false, DayOfWeek.MONDAY);
+
+        assertEquals(180_000.00, result.getTotal(), 0.001);
+        assertEquals(result.getTotal(), fromList.getTotal());
+        assertEquals(0, cache.hits() + cache.misses());
+    }
+
+    @Test
+    @DisplayName("computeTotal: Éviction bornée, les entrées récemment lues survivent")
+    void computeTotal_EvictsUnreferencedEntries() {
+        QuoteCache small = new QuoteCache(engine, 4, 4);
+        for (int adults = 0; adults < 4; adults++) {
+            small.computeTotal(new int[] {adults, 0, 0, 0}, false, DayOfWeek.MONDAY);
+        }
+        // Relit le panier 0 : il gagne une seconde chance
+        PriceBreakdown kept = small.computeTotal(new int[] {0, 0, 0, 0}, false, DayOfWeek.MONDAY);
+        small.computeTotal(new int[] {10, 0, 0, 0}, false, DayOfWeek.MONDAY);
+
+        assertEquals(1, small.evictions());
+        assertSame(kept, small.computeTotal(new int[] {0, 0, 0, 0}, false, DayOfWeek.MONDAY));
+        assertEquals(4, small.capacity());
+    }
+
+    @Test
+    @DisplayName("clear: Vide le cache sans remettre les compteurs à zéro")
+    void clear_EmptiesCache() {
+        int[] counts = {1, 1, 0, 0};
+        cache.computeTotal(counts, false, DayOfWeek.MONDAY);
+        cache.clear();
+        cache.computeTotal(counts, false, DayOfWeek.MONDAY);
+
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    @DisplayName("computeTotal: Accès concurrents retournent les bons devis")
+    void computeTotal_Concurrent() throws Exception {
+        QuoteCache shared = new QuoteCache(engine, 16, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        int[] counts = {i % 7, i % 3, 0, i % 2};
+                        DayOfWeek day = DayOfWeek.of(1 + i % 7);
+                        boolean is3D = i % 5 == 0;
+                        assertEquals(engine.computeTotal(counts, is3D, day).getTotal(),
+                                     shared.computeTotal(counts, is3D, day).getTotal());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(80_000, shared.hits() + shared.misses());
+        assertTrue(shared.evictions() > 0);
+    }
+
+    @Test
+    @DisplayName("QuoteCache: Paramètres invalides devraient lever IllegalArgumentException")
+    void quoteCache_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new QuoteCache(null, 16));
+        assertThrows(IllegalArgumentException.class, () -> new QuoteCache(engine, 16, 3));
+        assertThrows(IllegalArgumentException.class, () -> new QuoteCache(engine, 2, 4));
+        assertThrows(IllegalArgumentException.class,
+            () -> QuoteCache.key(new int[] {-1, 0, 0, 0}, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.computeTotal(Arrays.asList(TicketType.ADULT, null), false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.computeTotal((List<TicketType>) null, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.computeTotal(new int[] {1, 0, 0, 0}, false, null));
+    }
+}
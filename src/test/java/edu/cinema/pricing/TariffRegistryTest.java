@@ -0,0 +1,175 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du registre de tarifs par salle.
+ */
+@DisplayName("Tariff Registry Tests")
+class TariffRegistryTest {
+
+    private static Tariff discountTariff() {
+        return new Tariff(TariffTest.prices(9.00, 5.00, 6.50, 7.00), List.of(
+            TariffRule.dayDiscount(0.30, DayOfWeek.MONDAY),
+            TariffRule.quantityDiscount(6, 0.15)));
+    }
+
+    // ==================== INTERNEMENT ====================
+
+    @Test
+    @DisplayName("registerAll: 10 000 salles partagent 2 tarifs compilés")
+    void registerAll_InternsEqualTariffs() {
+        TariffRegistry registry = new TariffRegistry();
+        int venues = 10_000;
+        int[] ids = new int[venues];
+        Tariff[] tariffs = new Tariff[venues];
+        for (int i = 0; i < venues; i++) {
+            ids[i] = i * 7919;
+            // Instances distinctes mais égales : internées
+            tariffs[i] = i % 3 == 0 ? discountTariff() : Tariff.standard();
+        }
+
+        registry.registerAll(ids, tariffs);
+
+        assertEquals(venues, registry.venueCount());
+        assertEquals(2, registry.distinctTariffCount());
+        assertEquals(registry.getTariffVersion(0), registry.getTariffVersion(3 * 7919));
+        assertNotEquals(registry.getTariffVersion(0), registry.getTariffVersion(7919));
+        for (int i = 0; i < venues; i++) {
+            assertEquals(tariffs[i], registry.getTariff(ids[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("register: Remplacer le dernier utilisateur d'un tarif le libère")
+    void register_ReplacementReleasesUnusedTariff() {
+        TariffRegistry registry = new TariffRegistry();
+        registry.register(1, Tariff.standard());
+        registry.register(2, discountTariff());
+        long version = registry.getTariffVersion(1);
+        assertEquals(2, registry.distinctTariffCount());
+
+        registry.register(2, Tariff.standard());
+
+        assertEquals(2, registry.venueCount());
+        assertEquals(1, registry.distinctTariffCount());
+        assertEquals(version, registry.getTariffVersion(2));
+
+        // Un tarif réinterné reçoit une nouvelle version
+        registry.register(2, discountTariff());
+        assertTrue(registry.getTariffVersion(2) > version);
+    }
+
+    @Test
+    @DisplayName("unregister: Retire la salle et libère son tarif")
+    void unregister_RemovesVenue() {
+        TariffRegistry registry = new TariffRegistry();
+        registry.registerAll(new int[] {0, -5, Integer.MIN_VALUE, Integer.MAX_VALUE},
+                             new Tariff[] {Tariff.standard(), Tariff.standard(), discountTariff(), Tariff.standard()});
+
+        assertTrue(registry.unregister(Integer.MIN_VALUE));
+        assertFalse(registry.unregister(Integer.MIN_VALUE));
+
+        assertEquals(3, registry.venueCount());
+        assertEquals(1, registry.distinctTariffCount());
+        assertFalse(registry.contains(Integer.MIN_VALUE));
+        assertTrue(registry.contains(0));
+        assertTrue(registry.contains(-5));
+        assertTrue(registry.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("registerAll: Identifiant répété, le dernier tarif l'emporte")
+    void registerAll_DuplicateIdLastWins() {
+        TariffRegistry registry = new TariffRegistry();
+
+        registry.registerAll(new int[] {42, 42}, new Tariff[] {Tariff.standard(), discountTariff()});
+
+        assertEquals(1, registry.venueCount());
+        assertEquals(1, registry.distinctTariffCount());
+        assertEquals(discountTariff(), registry.getTariff(42));
+    }
+
+    // ==================== CALCUL ====================
+
+    @Test
+    @DisplayName("computeTotal: Identique au moteur du tarif de la salle")
+    void computeTotal_MatchesEngine() {
+        TariffRegistry registry = new TariffRegistry();
+        registry.register(1, Tariff.standard());
+        registry.register(2, discountTariff());
+        PricingEngine standard = new PricingEngine();
+        PricingEngine discount = new PricingEngine(discountTariff());
+        MutablePriceBreakdown holder = new MutablePriceBreakdown();
+
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (int n = 0; n <= 8; n++) {
+                int[] counts = {n, n % 3, 1, n / 2};
+                for (boolean is3D : new boolean[] {false, true}) {
+                    PriceBreakdown expected = standard.computeTotal(counts, is3D, day);
+                    PriceBreakdown actual = registry.computeTotal(1, counts, is3D, day);
+                    assertEquals(expected.getSubtotal(), actual.getSubtotal());
+                    assertEquals(expected.getWednesdayDiscount(), actual.getWednesdayDiscount());
+                    assertEquals(expected.getThreeDSurcharge(), actual.getThreeDSurcharge());
+                    assertEquals(expected.getGroupDiscount(), actual.getGroupDiscount());
+                    assertEquals(expected.getTotal(), actual.getTotal());
+
+                    registry.computeTotal(2, counts, is3D, day, holder);
+                    assertEquals(discount.computeTotal(counts, is3D, day).getTotal(), holder.getTotal());
+                    assertEquals(discount.computeTotalCents(counts, is3D, day),
+                                 registry.computeTotalCents(2, counts, is3D, day));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("computeTotal: Le détail porte la version du tarif interné")
+    void computeTotal_CarriesTariffVersion() {
+        TariffRegistry registry = new TariffRegistry();
+        registry.register(1, discountTariff());
+        registry.register(7, Tariff.standard());
+
+        PriceBreakdown result = registry.computeTotal(7, new int[] {2, 0, 0, 0}, false, DayOfWeek.FRIDAY);
+
+        assertEquals(registry.getTariffVersion(7), result.getTariffVersion());
+        assertEquals(20.00, result.getTotal());
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides et salle inconnue")
+    void invalidArguments() {
+        TariffRegistry registry = new TariffRegistry();
+        registry.register(1, Tariff.standard());
+        int[] counts = {1, 0, 0, 0};
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(2, null));
+        assertThrows(IllegalArgumentException.class, () -> registry.registerAll(null, new Tariff[0]));
+        assertThrows(IllegalArgumentException.class, () -> registry.registerAll(new int[0], null));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.registerAll(new int[] {2}, new Tariff[0]));
+        assertThrows(IllegalArgumentException.class, () -> registry.getTariff(2));
+        assertThrows(IllegalArgumentException.class, () -> registry.getTariffVersion(2));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.computeTotal(2, counts, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.computeTotal(1, counts, false, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.computeTotal(1, new int[3], false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.computeTotal(1, counts, false, DayOfWeek.MONDAY, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.computeTotalCents(1, counts, false, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.computeTotalCents(2, counts, false, DayOfWeek.MONDAY));
+        assertEquals(1, registry.venueCount());
+    }
+}
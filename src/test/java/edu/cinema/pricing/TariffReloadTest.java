@@ -0,0 +1,135 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du rechargement à chaud des tarifs.
+ */
+@DisplayName("Tariff Reload Tests")
+class TariffReloadTest {
+
+    /**
+     * Tarif standard avec tous les prix de base doublés.
+     */
+    static Tariff doubledTariff() {
+        Tariff standard = Tariff.standard();
+        return new Tariff(TariffTest.prices(
+            2 * standard.basePrice(TicketType.ADULT), 2 * standard.basePrice(TicketType.CHILD),
+            2 * standard.basePrice(TicketType.SENIOR), 2 * standard.basePrice(TicketType.STUDENT)),
+            standard.getRules());
+    }
+
+    @Test
+    @DisplayName("reloadTariff: Nouvelle version appliquée et enregistrée dans le résultat")
+    void reloadTariff_AppliesNewVersion() {
+        PricingEngine engine = new PricingEngine();
+        List<TicketType> tickets = Arrays.asList(TicketType.ADULT);
+        PriceBreakdown before = engine.computeTotal(tickets, false, DayOfWeek.MONDAY);
+
+        long version = engine.reloadTariff(doubledTariff());
+        PriceBreakdown after = engine.computeTotal(tickets, false, DayOfWeek.MONDAY);
+
+        assertEquals(1, before.getTariffVersion());
+        assertEquals(2, version);
+        assertEquals(2, engine.getTariffVersion());
+        assertEquals(2, after.getTariffVersion());
+        assertEquals(10.00, before.getTotal(), 0.001);
+        assertEquals(20.00, after.getTotal(), 0.001);
+        assertEquals(20.00, engine.basePrice(TicketType.ADULT), 0.0);
+        assertEquals(2000, engine.computeTotalCents(new int[] {1, 0, 0, 0}, false, DayOfWeek.MONDAY));
+        assertEquals(2, engine.computeBreakdownCents(tickets, false, DayOfWeek.MONDAY).getTariffVersion());
+        assertEquals(doubledTariff(), engine.getTariff());
+    }
+
+    @Test
+    @DisplayName("reloadTariff: Le cache ne sert plus les devis de l'ancienne version")
+    void reloadTariff_InvalidatesQuoteCache() {
+        PricingEngine engine = new PricingEngine();
+        QuoteCache cache = new QuoteCache(engine, 16);
+        int[] counts = {1, 0, 0, 0};
+        PriceBreakdown before = cache.computeTotal(counts, false, DayOfWeek.MONDAY);
+
+        engine.reloadTariff(doubledTariff());
+        PriceBreakdown after = cache.computeTotal(counts, false, DayOfWeek.MONDAY);
+
+        assertNotSame(before, after);
+        assertEquals(20.00, after.getTotal(), 0.001);
+        assertSame(after, cache.computeTotal(counts, false, DayOfWeek.MONDAY));
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    @DisplayName("computeTotals: Le lot est calculé sur une seule version")
+    void computeTotals_ReportsVersion() {
+        PricingEngine engine = new PricingEngine();
+        engine.reloadTariff(doubledTariff());
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(100, 5L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+
+        long version = new BatchPricingEngine(engine, ForkJoinPool.commonPool(), 10)
+            .computeTotals(batch, out);
+
+        assertEquals(2, version);
+        BatchPricingEngineTest.assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("reloadTariff: Les calculs concurrents ne voient jamais un tarif à moitié publié")
+    void reloadTariff_ConcurrentReadersSeeConsistentSnapshots() throws Exception {
+        PricingEngine engine = new PricingEngine();
+        Tariff standard = Tariff.standard();
+        Tariff doubled = doubledTariff();
+        List<TicketType> tickets = Arrays.asList(
+            TicketType.ADULT, TicketType.CHILD, TicketType.SENIOR, TicketType.STUDENT);
+        double standardTotal = new PricingEngine(standard).computeTotal(tickets, true, DayOfWeek.WEDNESDAY).getTotal();
+        double doubledTotal = new PricingEngine(doubled).computeTotal(tickets, true, DayOfWeek.WEDNESDAY).getTotal();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        PriceBreakdown result = engine.computeTotal(tickets, true, DayOfWeek.WEDNESDAY);
+                        // Versions impaires : standard ; versions paires : doublé
+                        double expected = result.getTariffVersion() % 2 == 1 ? standardTotal : doubledTotal;
+                        assertEquals(expected, result.getTotal());
+                    }
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    engine.reloadTariff(i % 2 == 0 ? doubled : standard);
+                }
+            });
+            writer.get();
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2_001, engine.getTariffVersion());
+    }
+
+    @Test
+    @DisplayName("reloadTariff: null devrait lever IllegalArgumentException")
+    void reloadTariff_Null() {
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine().reloadTariff(null));
+    }
+}
@@ -0,0 +1,228 @@
+package edu.cinema.pricing;
+
+import edu.cinema.pricing.metrics.RevenueRollup;
+import edu.cinema.pricing.metrics.RevenueSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la simulation de tarifs candidats sur un historique.
+ */
+@DisplayName("Tariff Simulator Tests")
+class TariffSimulatorTest {
+
+    private static final int TYPES = TicketType.values().length;
+
+    private static Tariff mondayTariff() {
+        return new Tariff(TariffTest.prices(9.00, 5.00, 6.50, 7.00), List.of(
+            TariffRule.dayDiscount(0.30, DayOfWeek.MONDAY),
+            TariffRule.threeDSurcharge(2.50),
+            TariffRule.quantityDiscount(6, 0.15)));
+    }
+
+    private static Tariff freeTariff() {
+        return new Tariff(TariffTest.prices(0.00, 0.00, 0.00, 0.00), List.of(TariffRule.threeDSurcharge(1.00)));
+    }
+
+    /**
+     * Chiffre d'affaires attendu d'un tarif, commande par commande avec le moteur scalaire.
+     */
+    private static long[] expectedByDay(Tariff tariff, OrderBatch batch) {
+        PricingEngine engine = new PricingEngine(tariff);
+        long[] byDay = new long[7];
+        int[] counts = new int[TYPES];
+        for (int i = 0; i < batch.size(); i++) {
+            for (TicketType type : TicketType.values()) {
+                counts[type.ordinal()] = batch.count(type, i);
+            }
+            byDay[batch.day(i).ordinal()] += Math.round(engine.computeTotal(counts, batch.is3D(i), batch.day(i)).getTotal() * 100);
+        }
+        return byDay;
+    }
+
+    // ==================== SIMULATION ====================
+
+    @Test
+    @DisplayName("simulate: Chaque tarif identique au recalcul scalaire, jour par jour")
+    void simulate_MatchesScalarRepricing() {
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(20_000, 7L);
+        Tariff candidate = mondayTariff();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SimulationReport report = new TariffSimulator(pool, 1_000)
+                .simulate(batch, Tariff.standard(), List.of(candidate));
+
+            long[] baseline = expectedByDay(Tariff.standard(), batch);
+            long[] simulated = expectedByDay(candidate, batch);
+            assertEquals(2, report.tariffCount());
+            assertEquals(candidate, report.getTariff(1));
+            assertEquals(20_000, report.getOrders());
+            for (DayOfWeek day : DayOfWeek.values()) {
+                assertEquals(baseline[day.ordinal()], report.revenueCents(0, day));
+                assertEquals(simulated[day.ordinal()], report.revenueCents(1, day));
+                assertEquals(simulated[day.ordinal()] - baseline[day.ordinal()], report.differenceCents(1, day));
+            }
+            assertEquals(Arrays.stream(simulated).sum(), report.revenueCents(1));
+            assertEquals(Arrays.stream(simulated).sum() - Arrays.stream(baseline).sum(), report.differenceCents(1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("simulate: Rapport identique quel que soit le découpage")
+    void simulate_IndependentOfSplitting() {
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(10_000, 11L);
+        List<Tariff> candidates = List.of(mondayTariff(), freeTariff());
+
+        SimulationReport sequential = new TariffSimulator(ForkJoinPool.commonPool(), 1_000_000)
+            .simulate(batch, Tariff.standard(), candidates);
+        SimulationReport parallel = new TariffSimulator(ForkJoinPool.commonPool(), 37)
+            .simulate(batch, Tariff.standard(), candidates);
+
+        assertEquals(sequential.toString(), parallel.toString());
+        for (int tariff = 0; tariff < 3; tariff++) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                for (TicketType type : TicketType.values()) {
+                    assertEquals(sequential.revenueCents(tariff, day, type), parallel.revenueCents(tariff, day, type));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("simulate: Répartition par type au prorata des prix de base, au centime près")
+    void simulate_AttributesByTicketType() {
+        // Une commande : 1 adulte + 1 enfant, mercredi, 2D → (10.00 + 6.00) × 0.8 = 12.80
+        int[][] counts = new int[TYPES][1];
+        counts[TicketType.ADULT.ordinal()][0] = 1;
+        counts[TicketType.CHILD.ordinal()][0] = 1;
+        OrderBatch batch = new OrderBatch(counts, new BitSet(), new byte[] {3}, 1);
+
+        SimulationReport report = new TariffSimulator().simulate(batch, Tariff.standard(), List.of());
+
+        assertEquals(1280, report.revenueCents(0));
+        assertEquals(800, report.revenueCents(0, TicketType.ADULT));
+        assertEquals(480, report.revenueCents(0, DayOfWeek.WEDNESDAY, TicketType.CHILD));
+        assertEquals(0, report.revenueCents(0, TicketType.SENIOR));
+        assertEquals(1, report.getOrders(DayOfWeek.WEDNESDAY));
+        assertEquals(0, report.getOrders(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    @DisplayName("simulate: Même répartition par type que RevenueRollup, commande par commande")
+    void simulate_AttributesLikeRevenueRollup() {
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(5_000, 5L);
+        Tariff tariff = mondayTariff();
+        PricingEngine engine = new PricingEngine(tariff);
+        RevenueRollup rollup = new RevenueRollup(tariff, 1);
+        int[] counts = new int[TYPES];
+        for (int i = 0; i < batch.size(); i++) {
+            for (TicketType type : TicketType.values()) {
+                counts[type.ordinal()] = batch.count(type, i);
+            }
+            rollup.record(counts, batch.is3D(i), batch.day(i), engine.computeTotal(counts, batch.is3D(i), batch.day(i)));
+        }
+
+        SimulationReport report = new TariffSimulator().simulate(batch, tariff, List.of());
+        RevenueSnapshot snapshot = rollup.snapshot();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (TicketType type : TicketType.values()) {
+                assertEquals(snapshot.revenue(type, day), report.revenueCents(0, day, type));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("simulate: Somme des types égale au total, y compris pour un tarif gratuit")
+    void simulate_TypesSumToTotal() {
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(5_000, 3L);
+
+        SimulationReport report = new TariffSimulator()
+            .simulate(batch, Tariff.standard(), List.of(mondayTariff(), freeTariff()));
+
+        for (int tariff = 0; tariff < report.tariffCount(); tariff++) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                long byType = 0;
+                for (TicketType type : TicketType.values()) {
+                    byType += report.revenueCents(tariff, day, type);
+                }
+                assertEquals(report.revenueCents(tariff, day), byType);
+            }
+        }
+        long free = 0;
+        for (TicketType type : TicketType.values()) {
+            free += report.differenceCents(2, type) + report.revenueCents(0, type);
+            assertEquals(report.revenueCents(2, type) - report.revenueCents(0, type), report.differenceCents(2, type));
+            assertEquals(report.revenueCents(2, DayOfWeek.FRIDAY, type) - report.revenueCents(0, DayOfWeek.FRIDAY, type),
+                report.differenceCents(2, DayOfWeek.FRIDAY, type));
+        }
+        assertEquals(report.revenueCents(2), free);
+        assertTrue(report.toString().contains("tariff.2.differenceCents.ADULT="));
+    }
+
+    @Test
+    @DisplayName("Shapes: 100 000 commandes, quelques centaines de formes distinctes")
+    void shapes_CountsDistinctOrders() {
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(100_000, 5L);
+
+        TariffSimulator.Shapes shapes = TariffSimulator.Shapes.of(batch, 0, batch.size());
+
+        // Paniers de 0 à 2 billets par type : 3^4 × 2 × 7 formes au plus
+        assertTrue(shapes.size() <= 81 * 2 * 7, "shapes: " + shapes.size());
+    }
+
+    @Test
+    @DisplayName("simulate: Commandes hors format tarifées une à une")
+    void simulate_OversizedOrders() {
+        int[][] counts = new int[TYPES][3];
+        counts[TicketType.ADULT.ordinal()][0] = 10_000;
+        counts[TicketType.SENIOR.ordinal()][1] = 2;
+        counts[TicketType.STUDENT.ordinal()][2] = 9_000;
+        BitSet is3D = new BitSet();
+        is3D.set(2);
+        OrderBatch batch = new OrderBatch(counts, is3D, new byte[] {1, 5, 7}, 3);
+        Tariff candidate = mondayTariff();
+
+        SimulationReport report = new TariffSimulator(ForkJoinPool.commonPool(), 1)
+            .simulate(batch, Tariff.standard(), List.of(candidate));
+
+        long[] baseline = expectedByDay(Tariff.standard(), batch);
+        long[] simulated = expectedByDay(candidate, batch);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            assertEquals(baseline[day.ordinal()], report.revenueCents(0, day));
+            assertEquals(simulated[day.ordinal()], report.revenueCents(1, day));
+        }
+        assertEquals(report.revenueCents(1, DayOfWeek.MONDAY), report.revenueCents(1, DayOfWeek.MONDAY, TicketType.ADULT));
+        assertEquals(3, report.getOrders());
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        TariffSimulator simulator = new TariffSimulator();
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(10, 1L);
+        Tariff standard = Tariff.standard();
+        List<Tariff> withNull = Arrays.asList(standard, null);
+
+        assertThrows(IllegalArgumentException.class, () -> new TariffSimulator(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TariffSimulator(ForkJoinPool.commonPool(), 0));
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(null, standard, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(batch, null, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(batch, standard, null));
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(batch, standard, withNull));
+        SimulationReport report = simulator.simulate(batch, standard, List.of());
+        assertThrows(IllegalArgumentException.class, () -> report.revenueCents(1));
+        assertThrows(IllegalArgumentException.class, () -> report.getTariff(-1));
+    }
+}
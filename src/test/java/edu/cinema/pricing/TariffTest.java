@@ -0,0 +1,197 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des tarifs déclaratifs et de leur forme compilée.
+ */
+@DisplayName("Tariff Tests")
+class TariffTest {
+
+    static Map<TicketType, Double> prices(double adult, double child, double senior, double student) {
+        Map<TicketType, Double> prices = new EnumMap<>(TicketType.class);
+        prices.put(TicketType.ADULT, adult);
+        prices.put(TicketType.CHILD, child);
+        prices.put(TicketType.SENIOR, senior);
+        prices.put(TicketType.STUDENT, student);
+        return prices;
+    }
+
+    /**
+     * Tarif d'une autre salle : lundi et mardi -30%, groupe -15% dès 10 billets, 3D +3€.
+     */
+    static Tariff venueTariff() {
+        return new Tariff(prices(11.00, 7.00, 8.00, 9.00), List.of(
+            TariffRule.dayDiscount(0.30, DayOfWeek.MONDAY, DayOfWeek.TUESDAY),
+            TariffRule.quantityDiscount(10, 0.15),
+            TariffRule.threeDSurcharge(3.00)
+        ));
+    }
+
+    /**
+     * Tarif hors forme usuelle : 3D d'abord, deux remises jour et deux remises quantité à la suite.
+     */
+    static Tariff stackedTariff() {
+        return new Tariff(prices(12.00, 7.50, 8.50, 9.50), List.of(
+            TariffRule.threeDSurcharge(2.50),
+            TariffRule.dayDiscount(0.10, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+            TariffRule.dayDiscount(0.05, DayOfWeek.SUNDAY),
+            TariffRule.quantityDiscount(6, 0.05),
+            TariffRule.quantityDiscount(10, 0.10)
+        ));
+    }
+
+    /**
+     * Interprète naïvement les règles d'un tarif (référence pour la forme compilée).
+     */
+    static double interpretTotal(Tariff tariff, int[] counts, boolean is3D, DayOfWeek day) {
+        double amount = 0.0;
+        int ticketCount = 0;
+        for (TicketType type : TicketType.values()) {
+            amount += counts[type.ordinal()] * tariff.basePrice(type);
+            ticketCount += counts[type.ordinal()];
+        }
+        for (TariffRule rule : tariff.getRules()) {
+            switch (rule.getKind()) {
+                case DAY_DISCOUNT:
+                    if (rule.getDays().contains(day)) {
+                        amount -= amount * rule.getRate();
+                    }
+                    break;
+                case THREE_D_SURCHARGE:
+                    if (is3D) {
+                        amount += rule.getAmount() * ticketCount;
+                    }
+                    break;
+                default:
+                    if (ticketCount >= rule.getThreshold()) {
+                        amount -= amount * rule.getRate();
+                    }
+                    break;
+            }
+        }
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    @Test
+    @DisplayName("standard: Prix de base et règles du cinéma")
+    void standard_PricesAndRules() {
+        Tariff tariff = Tariff.standard();
+
+        assertEquals(10.00, tariff.basePrice(TicketType.ADULT), 0.0);
+        assertEquals(6.00, tariff.basePrice(TicketType.CHILD), 0.0);
+        assertEquals(7.50, tariff.basePrice(TicketType.SENIOR), 0.0);
+        assertEquals(8.00, tariff.basePrice(TicketType.STUDENT), 0.0);
+        assertEquals(List.of(
+            TariffRule.dayDiscount(0.20, DayOfWeek.WEDNESDAY),
+            TariffRule.threeDSurcharge(2.00),
+            TariffRule.quantityDiscount(4, 0.10)
+        ), tariff.getRules());
+        assertSame(tariff, new PricingEngine().getTariff());
+    }
+
+    @ParameterizedTest
+    @EnumSource(DayOfWeek.class)
+    @DisplayName("compile: Forme compilée identique à l'interprétation naïve")
+    void compile_MatchesInterpreter(DayOfWeek day) {
+        for (Tariff tariff : Arrays.asList(Tariff.standard(), venueTariff(), stackedTariff())) {
+            PricingEngine engine = new PricingEngine(tariff);
+            MutablePriceBreakdown out = new MutablePriceBreakdown();
+            for (int adults = 0; adults <= 12; adults += 3) {
+                for (int children = 0; children <= 6; children++) {
+                    int[] counts = {adults, children, children % 2, adults % 4};
+                    for (boolean is3D : new boolean[] {false, true}) {
+                        PriceBreakdown breakdown = engine.computeTotal(counts, is3D, day);
+                        assertEquals(interpretTotal(tariff, counts, is3D, day), breakdown.getTotal());
+                        engine.computeTotal(counts, is3D, day, out);
+                        assertEquals(breakdown.getWednesdayDiscount(), out.getWednesdayDiscount());
+                        assertEquals(breakdown.getThreeDSurcharge(), out.getThreeDSurcharge());
+                        assertEquals(breakdown.getGroupDiscount(), out.getGroupDiscount());
+                        assertEquals(breakdown.getTotal(), out.getTotal());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("computeTotal: Tarif de salle, lundi 3D groupe de 10")
+    void computeTotal_VenueTariff() {
+        // 10 ADULT = 110.00 → lundi -30% = 77.00 → groupe -15% = 65.45 → 3D +30 = 95.45
+        PricingEngine engine = new PricingEngine(venueTariff());
+        PriceBreakdown result = engine.computeTotal(new int[] {10, 0, 0, 0}, true, DayOfWeek.MONDAY);
+
+        assertEquals(110.00, result.getSubtotal(), 0.001);
+        assertEquals(33.00, result.getWednesdayDiscount(), 0.001);
+        assertEquals(11.55, result.getGroupDiscount(), 0.001);
+        assertEquals(30.00, result.getThreeDSurcharge(), 0.001);
+        assertEquals(95.45, result.getTotal(), 0.001);
+        assertEquals(9545, engine.computeTotalCents(new int[] {10, 0, 0, 0}, true, DayOfWeek.MONDAY));
+    }
+
+    @Test
+    @DisplayName("computeBreakdownCents: Remise arrondie au demi-centime supérieur")
+    void computeBreakdownCents_HalfCentRoundsUp() {
+        // 1 ADULT à 10.05 avec -10% dès 1 billet : remise 100.5 → 101 centimes
+        Tariff tariff = new Tariff(prices(10.05, 6.00, 7.50, 8.00),
+            List.of(TariffRule.quantityDiscount(1, 0.10)));
+        CentsBreakdown result = new PricingEngine(tariff)
+            .computeBreakdownCents(new int[] {1, 0, 0, 0}, false, DayOfWeek.FRIDAY);
+
+        assertEquals(101, result.getGroupDiscount());
+        assertEquals(904, result.getTotal());
+    }
+
+    @Test
+    @DisplayName("computeTotals: Calcul en masse sur un tarif de salle")
+    void computeTotals_VenueTariff() {
+        PricingEngine engine = new PricingEngine(venueTariff());
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(1_000, 3L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+
+        new BatchPricingEngine(engine, ForkJoinPool.commonPool(), 100)
+            .computeTotals(batch, out);
+
+        BatchPricingEngineTest.assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("Tariff: equals et hashCode portent sur les prix et les règles")
+    void tariff_EqualsAndHashCode() {
+        assertEquals(venueTariff(), venueTariff());
+        assertEquals(venueTariff().hashCode(), venueTariff().hashCode());
+        assertNotEquals(Tariff.standard(), venueTariff());
+        assertTrue(venueTariff().toString().contains("QuantityDiscount"));
+    }
+
+    @Test
+    @DisplayName("Tariff: Définitions invalides devraient lever IllegalArgumentException")
+    void tariff_InvalidDefinitions() {
+        Map<TicketType, Double> missing = prices(10, 6, 7.5, 8);
+        missing.remove(TicketType.STUDENT);
+
+        assertThrows(IllegalArgumentException.class, () -> new Tariff(missing, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Tariff(prices(-1, 6, 7.5, 8), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Tariff(null, List.of()));
+        assertThrows(IllegalArgumentException.class,
+            () -> new Tariff(prices(10, 6, 7.5, 8), Arrays.asList((TariffRule) null)));
+        assertThrows(IllegalArgumentException.class, () -> TariffRule.dayDiscount(1.5, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class, () -> TariffRule.dayDiscount(0.1));
+        assertThrows(IllegalArgumentException.class, () -> TariffRule.threeDSurcharge(-2.0));
+        assertThrows(IllegalArgumentException.class, () -> TariffRule.quantityDiscount(0, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine(null));
+        assertThrows(IllegalArgumentException.class, () -> Tariff.standard().basePrice(null));
+    }
+}
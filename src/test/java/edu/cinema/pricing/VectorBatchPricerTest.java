@@ -0,0 +1,104 @@
+package edu.cinema.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du calcul en masse vectorisé.
+ */
+@DisplayName("Vector Batch Pricer Tests")
+class VectorBatchPricerTest {
+
+    // ==================== RÉSULTATS ====================
+
+    @Test
+    @DisplayName("computeTotals: Module présent sous Maven, calcul vectorisé")
+    void computeTotals_VectorizedUnderTests() {
+        // surefire lance les tests avec --add-modules jdk.incubator.vector
+        assertTrue(VectorBatchPricer.isVectorized());
+    }
+
+    @Test
+    @DisplayName("computeTotals: Identique au bit près au calcul scalaire (lot non multiple des voies)")
+    void computeTotals_MatchesScalar() {
+        PricingEngine engine = new PricingEngine();
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(10_007, 99L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+
+        assertEquals(1, new VectorBatchPricer(engine).computeTotals(batch, out));
+
+        BatchPricingEngineTest.assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("computeTotals: Seuil groupe, mercredi et 3D sur toutes les voies")
+    void computeTotals_RuleEdges() {
+        PricingEngine engine = new PricingEngine();
+        int size = 7 * 2 * 8;
+        int[][] counts = new int[TicketType.values().length][size];
+        BitSet is3D = new BitSet(size);
+        byte[] days = new byte[size];
+        for (int i = 0; i < size; i++) {
+            counts[i % 4][i] = i % 8;     // 0 à 7 billets : de part et d'autre du seuil
+            counts[(i + 1) % 4][i] = i % 2;
+            is3D.set(i, (i / 8) % 2 == 1);
+            days[i] = (byte) (1 + i / 16);
+        }
+        OrderBatch batch = new OrderBatch(counts, is3D, days, size);
+        BreakdownColumns out = new BreakdownColumns(size);
+
+        new VectorBatchPricer(engine).computeTotals(batch, out);
+
+        BatchPricingEngineTest.assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("computeTotals: Tarif personnalisé (plusieurs jours, deux remises) identique au scalaire")
+    void computeTotals_CustomTariff() {
+        Tariff tariff = new Tariff(TariffTest.prices(9.90, 5.10, 6.35, 7.20), List.of(
+            TariffRule.dayDiscount(0.15, DayOfWeek.MONDAY, DayOfWeek.TUESDAY),
+            TariffRule.threeDSurcharge(2.50),
+            TariffRule.quantityDiscount(3, 0.05),
+            TariffRule.quantityDiscount(6, 0.10)));
+        PricingEngine engine = new PricingEngine(tariff);
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(3_001, 4L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+
+        new VectorBatchPricer(engine).computeTotals(batch, out);
+
+        BatchPricingEngineTest.assertMatchesScalar(engine, batch, out);
+    }
+
+    @Test
+    @DisplayName("computeTotals: Repli scalaire sans le module")
+    void computeTotals_ScalarFallback() {
+        PricingEngine engine = new PricingEngine();
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(1_000, 8L);
+        BreakdownColumns out = new BreakdownColumns(batch.size());
+
+        new VectorBatchPricer(engine, BatchKernel.SCALAR).computeTotals(batch, out);
+
+        BatchPricingEngineTest.assertMatchesScalar(engine, batch, out);
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        VectorBatchPricer pricer = new VectorBatchPricer(new PricingEngine());
+        OrderBatch batch = BatchPricingEngineTest.randomBatch(10, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> new VectorBatchPricer(null));
+        assertThrows(IllegalArgumentException.class, () -> pricer.computeTotals(null, new BreakdownColumns(10)));
+        assertThrows(IllegalArgumentException.class, () -> pricer.computeTotals(batch, null));
+        assertThrows(IllegalArgumentException.class, () -> pricer.computeTotals(batch, new BreakdownColumns(9)));
+        assertEquals(1, pricer.computeTotals(BatchPricingEngineTest.randomBatch(0, 1L), new BreakdownColumns(0)));
+    }
+}
@@ -0,0 +1,271 @@
+package edu.cinema.pricing.inventory;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static edu.cinema.pricing.TicketType.ADULT;
+import static edu.cinema.pricing.TicketType.CHILD;
+import static edu.cinema.pricing.TicketType.SENIOR;
+import static edu.cinema.pricing.TicketType.STUDENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du plan de salle avec réservation et tarification atomiques.
+ */
+@DisplayName("Seat Map Tests")
+class SeatMapTest {
+
+    private static final Duration HOLD = Duration.ofMinutes(10);
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    private SeatMap seatMap(int rows, int seatsPerRow) {
+        return new SeatMap(new PricingEngine(), rows, seatsPerRow, true, DayOfWeek.WEDNESDAY, HOLD, now::get);
+    }
+
+    // ==================== RÉSERVATION ====================
+
+    @Test
+    @DisplayName("reserve: Places contiguës et prix de la réservation en une étape")
+    void reserve_HoldsAndPrices() {
+        SeatMap map = seatMap(10, 20);
+
+        SeatReservation reservation = map.reserve(ADULT, ADULT, CHILD, STUDENT);
+
+        PriceBreakdown expected = new PricingEngine()
+            .computeTotal(List.of(ADULT, ADULT, CHILD, STUDENT), true, DayOfWeek.WEDNESDAY);
+        assertNotNull(reservation);
+        assertTrue(reservation.isHeld());
+        assertEquals(4, reservation.getSeatCount());
+        assertEquals(List.of(ADULT, ADULT, CHILD, STUDENT), reservation.getTickets());
+        assertEquals(expected.getTotal(), reservation.getPrice().getTotal());
+        assertEquals(expected.getGroupDiscount(), reservation.getPrice().getGroupDiscount());
+        assertEquals(1_000L + HOLD.toNanos(), reservation.getExpiresAtNanos());
+        for (int s = 0; s < 4; s++) {
+            assertTrue(map.isTaken(reservation.getRow(), reservation.getFirstSeat() + s));
+        }
+        assertEquals(10 * 20 - 4, map.availableSeats());
+        assertTrue(reservation.toString().contains("state=HELD"));
+    }
+
+    @Test
+    @DisplayName("reserve(row, seat): Bloc précis, refusé si une place est prise")
+    void reserveAt_RejectsOverlap() {
+        SeatMap map = seatMap(2, 10);
+
+        SeatReservation first = map.reserve(0, 3, ADULT, SENIOR);
+
+        assertNotNull(first);
+        assertEquals(0, first.getRow());
+        assertEquals(3, first.getFirstSeat());
+        assertNull(map.reserve(0, 4, ADULT, ADULT));
+        assertNull(map.reserve(0, 0, CHILD, CHILD, CHILD, CHILD));
+        assertNotNull(map.reserve(0, 0, CHILD, CHILD, CHILD));
+        assertNotNull(map.reserve(0, 5, ADULT));
+        assertFalse(map.isTaken(0, 6));
+    }
+
+    @Test
+    @DisplayName("reserve: Groupe placé dans un rang qui a assez de places contiguës")
+    void reserve_FindsContiguousBlock() {
+        SeatMap map = seatMap(3, 6);
+        // Rangs 0 et 1 : plus de bloc de 4 places libres
+        map.reserve(0, 2, ADULT);
+        map.reserve(1, 3, ADULT);
+
+        SeatReservation group = map.reserve(ADULT, ADULT, ADULT, ADULT);
+
+        assertEquals(2, group.getRow());
+        assertNull(map.reserve(ADULT, ADULT, ADULT, ADULT));
+        assertNotNull(map.reserve(ADULT, ADULT, ADULT));
+    }
+
+    @Test
+    @DisplayName("reserve: Rang complet de 64 places")
+    void reserve_FullWordRow() {
+        SeatMap map = seatMap(1, 64);
+        TicketType[] row = new TicketType[64];
+        Arrays.fill(row, STUDENT);
+
+        SeatReservation reservation = map.reserve(row);
+
+        assertEquals(0, reservation.getFirstSeat());
+        assertEquals(0, map.availableSeats());
+        assertNull(map.reserve(STUDENT));
+        assertTrue(map.release(reservation));
+        assertEquals(64, map.availableSeats());
+    }
+
+    // ==================== CYCLE DE VIE ====================
+
+    @Test
+    @DisplayName("confirm / release: Transitions uniques")
+    void confirmAndRelease() {
+        SeatMap map = seatMap(1, 4);
+        SeatReservation kept = map.reserve(0, 0, ADULT, ADULT);
+        SeatReservation dropped = map.reserve(0, 2, CHILD);
+
+        assertTrue(map.confirm(kept));
+        assertTrue(map.confirm(kept));
+        assertFalse(map.release(kept));
+        assertTrue(kept.isConfirmed());
+
+        assertTrue(map.release(dropped));
+        assertFalse(map.release(dropped));
+        assertFalse(map.confirm(dropped));
+        assertTrue(dropped.isReleased());
+        assertEquals(2, map.availableSeats());
+    }
+
+    @Test
+    @DisplayName("expireHolds: Options échues rendues, options confirmées conservées")
+    void expireHolds_ReleasesExpired() {
+        SeatMap map = seatMap(1, 10);
+        SeatReservation confirmed = map.reserve(0, 0, ADULT, ADULT);
+        map.confirm(confirmed);
+        SeatReservation early = map.reserve(0, 2, CHILD);
+        now.addAndGet(HOLD.toNanos() / 2);
+        SeatReservation late = map.reserve(0, 3, SENIOR);
+
+        assertEquals(0, map.expireHolds());
+        now.addAndGet(HOLD.toNanos() / 2);
+        assertEquals(1, map.expireHolds());
+
+        assertTrue(early.isReleased());
+        assertTrue(late.isHeld());
+        assertTrue(confirmed.isConfirmed());
+        assertFalse(map.isTaken(0, 2));
+        assertTrue(map.isTaken(0, 3));
+        assertFalse(map.confirm(early));
+    }
+
+    @Test
+    @DisplayName("confirm: Option échue refusée et places rendues aussitôt")
+    void confirm_ExpiredHoldRejected() {
+        SeatMap map = seatMap(1, 2);
+        SeatReservation reservation = map.reserve(ADULT, ADULT);
+        now.addAndGet(HOLD.toNanos());
+
+        assertFalse(map.confirm(reservation));
+
+        assertTrue(reservation.isReleased());
+        assertEquals(2, map.availableSeats());
+    }
+
+    @Test
+    @DisplayName("reserve: Salle pleine, les options échues sont rendues avant d'abandonner")
+    void reserve_ExpiresHoldsWhenFull() {
+        SeatMap map = seatMap(1, 3);
+        SeatReservation stale = map.reserve(ADULT, ADULT, ADULT);
+        assertNull(map.reserve(0, 0, ADULT));
+        now.addAndGet(HOLD.toNanos());
+
+        SeatReservation fresh = map.reserve(CHILD, CHILD);
+        SeatReservation exact = map.reserve(0, 2, STUDENT);
+
+        assertTrue(stale.isReleased());
+        assertNotNull(fresh);
+        assertNotNull(exact);
+        assertEquals(0, map.availableSeats());
+    }
+
+    // ==================== CONCURRENCE ====================
+
+    @Test
+    @DisplayName("reserve: Acheteurs concurrents, chaque place vendue une seule fois")
+    void reserve_ConcurrentBuyersNeverOverlap() throws InterruptedException {
+        int rows = 20;
+        int seatsPerRow = 30;
+        SeatMap map = new SeatMap(new PricingEngine(), rows, seatsPerRow, false, DayOfWeek.SATURDAY, HOLD);
+        int threads = 8;
+        ConcurrentLinkedQueue<SeatReservation> sold = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> buyers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int size = 1 + t % 4;
+            buyers.add(Thread.ofPlatform().start(() -> {
+                TicketType[] tickets = new TicketType[size];
+                Arrays.fill(tickets, ADULT);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    SeatReservation reservation = map.reserve(tickets);
+                    if (reservation == null) {
+                        break;
+                    }
+                    // Une commande sur trois est abandonnée : les places reviennent dans le stock
+                    if (i % 3 == 0) {
+                        map.release(reservation);
+                    } else {
+                        map.confirm(reservation);
+                        sold.add(reservation);
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread buyer : buyers) {
+            buyer.join();
+        }
+
+        long[] owned = new long[rows];
+        int seats = 0;
+        for (SeatReservation reservation : sold) {
+            long mask = reservation.seatMask();
+            assertEquals(0, owned[reservation.getRow()] & mask, "seat sold twice: " + reservation);
+            owned[reservation.getRow()] |= mask;
+            seats += reservation.getSeatCount();
+        }
+        assertEquals(rows * seatsPerRow - seats, map.availableSeats());
+        for (int row = 0; row < rows; row++) {
+            for (int seat = 0; seat < seatsPerRow; seat++) {
+                assertEquals((owned[row] & (1L << seat)) != 0, map.isTaken(row, seat));
+            }
+        }
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        PricingEngine engine = new PricingEngine();
+        SeatMap map = seatMap(2, 4);
+
+        assertEquals(2, map.getRows());
+        assertEquals(4, map.getSeatsPerRow());
+        assertThrows(IllegalArgumentException.class, () -> new SeatMap(null, 1, 1, false, DayOfWeek.MONDAY, HOLD));
+        assertThrows(IllegalArgumentException.class, () -> new SeatMap(engine, 1, 1, false, null, HOLD));
+        assertThrows(IllegalArgumentException.class, () -> new SeatMap(engine, 1, 1, false, DayOfWeek.MONDAY, null));
+        assertThrows(IllegalArgumentException.class, () -> new SeatMap(engine, 0, 1, false, DayOfWeek.MONDAY, HOLD));
+        assertThrows(IllegalArgumentException.class, () -> new SeatMap(engine, 1, 65, false, DayOfWeek.MONDAY, HOLD));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SeatMap(engine, 1, 1, false, DayOfWeek.MONDAY, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> map.reserve());
+        assertThrows(IllegalArgumentException.class, () -> map.reserve((TicketType[]) null));
+        assertThrows(IllegalArgumentException.class, () -> map.reserve(ADULT, null));
+        assertThrows(IllegalArgumentException.class, () -> map.reserve(ADULT, ADULT, ADULT, ADULT, ADULT));
+        assertThrows(IllegalArgumentException.class, () -> map.reserve(2, 0, ADULT));
+        assertThrows(IllegalArgumentException.class, () -> map.reserve(0, 3, ADULT, ADULT));
+        assertThrows(IllegalArgumentException.class, () -> map.reserve(-1, 0, ADULT));
+        assertThrows(IllegalArgumentException.class, () -> map.confirm(null));
+        assertThrows(IllegalArgumentException.class, () -> map.release(null));
+        assertThrows(IllegalArgumentException.class, () -> map.isTaken(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> map.isTaken(2, 0));
+    }
+}
@@ -0,0 +1,204 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du recalcul en masse des journaux de ventes.
+ */
+@DisplayName("Order Log Repricer Tests")
+class OrderLogRepricerTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Journal aléatoire de n commandes (jusqu'à 8 billets chacune).
+     */
+    static List<String> randomLog(int orders, long seed) {
+        Random random = new Random(seed);
+        TicketType[] types = TicketType.values();
+        DayOfWeek[] days = DayOfWeek.values();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            StringBuilder line = new StringBuilder();
+            int tickets = random.nextInt(9);
+            for (int t = 0; t < tickets; t++) {
+                if (t > 0) {
+                    line.append(',');
+                }
+                line.append(types[random.nextInt(types.length)]);
+            }
+            line.append(random.nextBoolean() ? ";3D;" : ";2D;").append(days[random.nextInt(days.length)]);
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static PriceBreakdown expected(PricingEngine engine, String line) {
+        OrderLineParser parser = new OrderLineParser();
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+        parser.parse(buffer, 0, buffer.limit());
+        return engine.computeTotal(parser.counts(), parser.is3D(), parser.day());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("orders.log"), content, StandardCharsets.US_ASCII);
+    }
+
+    // ==================== ANALYSE DES LIGNES ====================
+
+    @Test
+    @DisplayName("parse: Billets, format et jour")
+    void parse_ReadsAllFields() {
+        OrderLineParser parser = new OrderLineParser();
+        byte[] line = "xxADULT,CHILD,ADULT;3D;WEDNESDAY\r".getBytes(StandardCharsets.US_ASCII);
+
+        parser.parse(ByteBuffer.wrap(line), 2, line.length);
+
+        assertArrayEquals(new int[] {2, 1, 0, 0}, parser.counts());
+        assertTrue(parser.is3D());
+        assertEquals(DayOfWeek.WEDNESDAY, parser.day());
+    }
+
+    @Test
+    @DisplayName("parse: Commande sans billet")
+    void parse_EmptyTicketList() {
+        OrderLineParser parser = new OrderLineParser();
+        byte[] line = ";2D;SUNDAY".getBytes(StandardCharsets.US_ASCII);
+
+        parser.parse(ByteBuffer.wrap(line), 0, line.length);
+
+        assertArrayEquals(new int[] {0, 0, 0, 0}, parser.counts());
+        assertFalse(parser.is3D());
+        assertEquals(DayOfWeek.SUNDAY, parser.day());
+    }
+
+    @Test
+    @DisplayName("parse: Lignes mal formées rejetées")
+    void parse_Malformed() {
+        OrderLineParser parser = new OrderLineParser();
+        for (String line : new String[] {"ADULT;3D", "ADULT;4D;MONDAY", "ADULT;3D;MONDAYS",
+                                         "ADULT,,CHILD;2D;MONDAY", "ADULT,;3D;MONDAY", ",ADULT;2D;MONDAY",
+                                         ",;2D;MONDAY", "adult;2D;MONDAY", "ADULT;3DX;MONDAY"}) {
+            byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+            assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length), line);
+        }
+    }
+
+    // ==================== RECALCUL ====================
+
+    @Test
+    @DisplayName("reprice: Totaux dans l'ordre du journal, sur de nombreuses tranches")
+    void reprice_ManyChunksMatchScalar() throws IOException {
+        PricingEngine engine = new PricingEngine();
+        List<String> lines = randomLog(2_000, 42L);
+        Path input = write(String.join("\n", lines) + "\n");
+        Path output = dir.resolve("totals.txt");
+
+        // Tranches de 100 octets : chaque tranche ne contient que quelques lignes
+        RepricingSummary summary = new OrderLogRepricer(engine, new ForkJoinPool(4), 100)
+            .reprice(input, output);
+
+        List<String> totals = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals(lines.size(), totals.size());
+        long totalCents = 0;
+        long tickets = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            PriceBreakdown breakdown = expected(engine, lines.get(i));
+            long cents = Math.round(breakdown.getTotal() * 100);
+            assertEquals(String.format("%d.%02d", cents / 100, cents % 100), totals.get(i), lines.get(i));
+            totalCents += cents;
+            String ticketList = lines.get(i).substring(0, lines.get(i).indexOf(';'));
+            tickets += ticketList.isEmpty() ? 0 : ticketList.split(",").length;
+        }
+        assertEquals(lines.size(), summary.getOrders());
+        assertEquals(tickets, summary.getTickets());
+        assertEquals(totalCents, summary.getTotalCents());
+        assertEquals(summary.getTotalCents(), summary.getSubtotalCents() - summary.getWednesdayDiscountCents()
+            + summary.getThreeDSurchargeCents() - summary.getGroupDiscountCents());
+        assertEquals(summary.toString(),
+            Files.readString(dir.resolve("totals.txt.summary"), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("reprice: Même résultat quelle que soit la taille de tranche")
+    void reprice_ChunkSizeDoesNotMatter() throws IOException {
+        PricingEngine engine = new PricingEngine();
+        Path input = write(String.join("\n", randomLog(500, 7L)));
+
+        RepricingSummary single = new OrderLogRepricer(engine).reprice(input, dir.resolve("a.txt"));
+        RepricingSummary chunked = new OrderLogRepricer(engine, ForkJoinPool.commonPool(), 1)
+            .reprice(input, dir.resolve("b.txt"));
+
+        assertEquals(single, chunked);
+        assertEquals(Files.readString(dir.resolve("a.txt")), Files.readString(dir.resolve("b.txt")));
+    }
+
+    @Test
+    @DisplayName("reprice: Fins de ligne CRLF et lignes vides")
+    void reprice_CrlfAndBlankLines() throws IOException {
+        Path input = write("ADULT,ADULT,CHILD,SENIOR;3D;WEDNESDAY\r\n\r\n\nADULT;2D;MONDAY\r\n");
+        Path output = dir.resolve("totals.txt");
+
+        RepricingSummary summary = new OrderLogRepricer(new PricingEngine()).reprice(input, output);
+
+        // (20 + 6 + 7.5 = 33.5) - 6.70 + 8.00 - 3.48 = 31.32 ; puis 10.00
+        assertEquals(List.of("31.32", "10.00"), Files.readAllLines(output));
+        assertEquals(2, summary.getOrders());
+        assertEquals(3, summary.getTickets(TicketType.ADULT));
+        assertEquals(4132, summary.getTotalCents());
+    }
+
+    @Test
+    @DisplayName("reprice: Journal vide")
+    void reprice_EmptyLog() throws IOException {
+        Path output = dir.resolve("totals.txt");
+
+        RepricingSummary summary = new OrderLogRepricer(new PricingEngine()).reprice(write(""), output);
+
+        assertEquals(RepricingSummary.empty(), summary);
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    @DisplayName("reprice: Ligne mal formée signalée avec sa position")
+    void reprice_MalformedLineReportsOffset() throws IOException {
+        Path input = write("ADULT;2D;MONDAY\nADULT;2D;MONDAY\nCHILD;5D;MONDAY\n");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new OrderLogRepricer(new PricingEngine(), ForkJoinPool.commonPool(), 8)
+                .reprice(input, dir.resolve("totals.txt")));
+
+        assertTrue(e.getMessage().contains("byte 32"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("OrderLogRepricer: Paramètres invalides")
+    void constructor_InvalidArguments() {
+        PricingEngine engine = new PricingEngine();
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderLogRepricer(null, ForkJoinPool.commonPool(), 10));
+        assertThrows(IllegalArgumentException.class, () -> new OrderLogRepricer(engine, null, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderLogRepricer(engine, ForkJoinPool.commonPool(), 0));
+    }
+}
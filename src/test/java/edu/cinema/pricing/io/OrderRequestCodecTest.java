@@ -0,0 +1,173 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static edu.cinema.pricing.TicketType.ADULT;
+import static edu.cinema.pricing.TicketType.CHILD;
+import static edu.cinema.pricing.TicketType.STUDENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la sérialisation JSON et binaire des demandes de devis.
+ */
+@DisplayName("Order Request Codec Tests")
+class OrderRequestCodecTest {
+
+    private final OrderRequestCodec codec = new OrderRequestCodec();
+
+    private static int[] countsOf(List<TicketType> tickets) {
+        int[] counts = new int[TicketType.values().length];
+        for (TicketType ticket : tickets) {
+            counts[ticket.ordinal()]++;
+        }
+        return counts;
+    }
+
+    private void readJson(String text) {
+        codec.readJson(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)), 0, text.length());
+    }
+
+    // ==================== JSON ====================
+
+    @Test
+    @DisplayName("writeJson: Billets, 3D et jour")
+    void writeJson_Format() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        codec.writeJson(List.of(ADULT, CHILD, ADULT), true, DayOfWeek.WEDNESDAY, stream);
+        codec.writeJson(List.of(), false, DayOfWeek.SUNDAY, stream);
+
+        assertEquals("{\"tickets\":[\"ADULT\",\"CHILD\",\"ADULT\"],\"is3D\":true,\"day\":\"WEDNESDAY\"}"
+                + "{\"tickets\":[],\"is3D\":false,\"day\":\"SUNDAY\"}",
+            stream.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("writeJson/readJson: Aller-retour, y compris un tampon interne agrandi")
+    void json_RoundTrip() throws IOException {
+        Random random = new Random(9L);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int size : new int[] {0, 1, 4, 16, 200}) {
+            List<TicketType> tickets = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                tickets.add(TicketType.values()[random.nextInt(TicketType.values().length)]);
+            }
+            boolean is3D = size % 2 == 0;
+            DayOfWeek day = DayOfWeek.of(1 + size % 7);
+            stream.reset();
+            codec.writeJson(tickets, is3D, day, stream);
+            assertTrue(stream.size() <= OrderRequestCodec.maxJsonBytes(size));
+
+            readJson(stream.toString(StandardCharsets.US_ASCII));
+
+            assertArrayEquals(countsOf(tickets), codec.counts());
+            assertEquals(is3D, codec.is3D());
+            assertEquals(day, codec.day());
+        }
+    }
+
+    @Test
+    @DisplayName("readJson: Clés dans le désordre et blancs acceptés")
+    void readJson_AnyKeyOrder() {
+        readJson(" {\"day\" : \"FRIDAY\",\n\"is3D\":false, \"tickets\" : [ \"STUDENT\" , \"STUDENT\" ] } ");
+
+        assertArrayEquals(countsOf(List.of(STUDENT, STUDENT)), codec.counts());
+        assertFalse(codec.is3D());
+        assertEquals(DayOfWeek.FRIDAY, codec.day());
+    }
+
+    @Test
+    @DisplayName("readJson: JSON mal formé, incomplet ou avec des valeurs inconnues refusé")
+    void readJson_Malformed() {
+        for (String text : List.of("", "{}", "{\"tickets\":[],\"is3D\":true}",
+                "{\"tickets\":[\"ADULT\"],\"is3D\":true,\"day\":\"FUNDAY\"}",
+                "{\"tickets\":[\"KID\"],\"is3D\":true,\"day\":\"MONDAY\"}",
+                "{\"tickets\":[\"ADULT\",],\"is3D\":true,\"day\":\"MONDAY\"}",
+                "{\"tickets\":[\"ADULT\"],\"is3D\":yes,\"day\":\"MONDAY\"}",
+                "{\"tickets\":[\"ADULT\"],\"is3D\":tru",
+                "{\"tickets\":\"ADULT\",\"is3D\":true,\"day\":\"MONDAY\"}",
+                "{\"tickets\":[],\"is3D\":true,\"day\":\"MONDAY\",\"seat\":1}",
+                "{\"tickets\":[\"ADULT", "{\"tickets\":[\"", "{\"tick", "{\"")) {
+            assertThrows(IllegalArgumentException.class, () -> readJson(text), text);
+        }
+    }
+
+    @Test
+    @DisplayName("readJson: Chaîne coupée par la fin de la tranche, octets suivants jamais lus")
+    void readJson_TruncatedSlice() {
+        String text = "{\"tickets\":[\"ADULT\"],\"is3D\":true,\"day\":\"MONDAY\"}";
+        ByteBuffer in = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+
+        // Coupé dans "ADULT", puis dans "day" : la suite du tampon compléterait la chaîne
+        for (int end : new int[] {text.indexOf("ULT"), text.indexOf("ay\"")}) {
+            assertThrows(IllegalArgumentException.class, () -> codec.readJson(in, 0, end), text.substring(0, end));
+        }
+    }
+
+    // ==================== BINAIRE ====================
+
+    @Test
+    @DisplayName("writeBinary/readBinary: Quantités, 3D et jour en quelques octets")
+    void binary_RoundTrip() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        List<TicketType> crowd = Collections.nCopies(300, CHILD);
+
+        codec.writeBinary(List.of(ADULT, STUDENT, ADULT), true, DayOfWeek.MONDAY, stream);
+        codec.writeBinary(crowd, false, DayOfWeek.SUNDAY, stream);
+        ByteBuffer in = ByteBuffer.wrap(stream.toByteArray());
+
+        assertEquals(5 + 6, stream.size());
+        codec.readBinary(in);
+        assertArrayEquals(countsOf(List.of(ADULT, STUDENT, ADULT)), codec.counts());
+        assertTrue(codec.is3D());
+        assertEquals(DayOfWeek.MONDAY, codec.day());
+        codec.readBinary(in);
+        assertArrayEquals(countsOf(crowd), codec.counts());
+        assertFalse(codec.is3D());
+        assertEquals(DayOfWeek.SUNDAY, codec.day());
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("readBinary: Enregistrement tronqué, jour ou quantité invalide refusé")
+    void readBinary_Malformed() {
+        byte[] negative = {2, 1, 0, 0, 0};   // zigzag 1 = -1
+        byte[] hugeCount = new byte[] {2, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10, 0, 0, 0};
+        for (byte[] bytes : List.of(new byte[0], new byte[] {0, 0, 0, 0, 0}, new byte[] {16, 0, 0, 0, 0},
+                new byte[] {2, 0, 0}, negative, hugeCount)) {
+            assertThrows(IllegalArgumentException.class, () -> codec.readBinary(ByteBuffer.wrap(bytes)),
+                Arrays.toString(bytes));
+        }
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        ByteBuffer out = ByteBuffer.allocate(OrderRequestCodec.maxJsonBytes(4));
+        List<TicketType> withNull = Arrays.asList(ADULT, null);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.writeJson(null, true, DayOfWeek.MONDAY, out));
+        assertThrows(IllegalArgumentException.class, () -> codec.writeJson(List.of(ADULT), true, null, out));
+        assertThrows(IllegalArgumentException.class, () -> codec.writeJson(withNull, true, DayOfWeek.MONDAY, out));
+        assertThrows(IllegalArgumentException.class, () -> codec.writeBinary(withNull, true, DayOfWeek.MONDAY, out));
+        assertThrows(IllegalArgumentException.class,
+            () -> codec.writeBinary(List.of(ADULT), true, null, new ByteArrayOutputStream()));
+        assertEquals(0, out.position());
+        assertEquals(1 + 4 * 5, OrderRequestCodec.MAX_BINARY_BYTES);
+    }
+}
@@ -0,0 +1,180 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la sérialisation JSON et binaire des détails de calcul.
+ */
+@DisplayName("Price Breakdown Codec Tests")
+class PriceBreakdownCodecTest {
+
+    private final PriceBreakdownCodec codec = new PriceBreakdownCodec();
+
+    private static ByteBuffer ascii(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String json(PriceBreakdown breakdown) {
+        ByteBuffer out = ByteBuffer.allocate(PriceBreakdownCodec.MAX_JSON_BYTES);
+        codec.writeJson(breakdown, out);
+        return new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII);
+    }
+
+    private static void assertSameCents(PriceBreakdown expected, PriceBreakdown actual) {
+        assertEquals(Math.round(expected.getSubtotal() * 100), Math.round(actual.getSubtotal() * 100));
+        assertEquals(Math.round(expected.getWednesdayDiscount() * 100), Math.round(actual.getWednesdayDiscount() * 100));
+        assertEquals(Math.round(expected.getThreeDSurcharge() * 100), Math.round(actual.getThreeDSurcharge() * 100));
+        assertEquals(Math.round(expected.getGroupDiscount() * 100), Math.round(actual.getGroupDiscount() * 100));
+        assertEquals(Math.round(expected.getTotal() * 100), Math.round(actual.getTotal() * 100));
+        assertEquals(expected.getTariffVersion(), actual.getTariffVersion());
+    }
+
+    // ==================== JSON ====================
+
+    @Test
+    @DisplayName("writeJson: Montants à deux décimales, point décimal quelle que soit la locale")
+    void writeJson_LocaleIndependent() {
+        PriceBreakdown breakdown = new PriceBreakdown(33.5, 6.7, 8.0, 3.48, 31.32, 7L);
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.FRANCE);
+            String french = json(breakdown);
+            Locale.setDefault(Locale.forLanguageTag("ar-EG"));
+            String arabic = json(breakdown);
+
+            assertEquals("{\"subtotal\":33.50,\"wednesdayDiscount\":6.70,\"threeDSurcharge\":8.00,"
+                + "\"groupDiscount\":3.48,\"total\":31.32,\"tariffVersion\":7}", french);
+            assertEquals(french, arabic);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("writeJson: Montants négatifs, nuls et très grands")
+    void writeJson_EdgeAmounts() {
+        assertEquals("{\"subtotal\":-0.05,\"wednesdayDiscount\":0.00,\"threeDSurcharge\":-12.30,"
+                + "\"groupDiscount\":1000000.01,\"total\":0.10,\"tariffVersion\":" + Long.MAX_VALUE + "}",
+            json(new PriceBreakdown(-0.05, 0.0, -12.3, 1_000_000.01, 0.1, Long.MAX_VALUE)));
+        assertTrue(json(new PriceBreakdown(Double.MAX_VALUE, 0, 0, 0, 0)).startsWith("{\"subtotal\":92233720368547758.07,"));
+        assertTrue(json(new PriceBreakdown(-Double.MAX_VALUE, 0, 0, 0, 0)).startsWith("{\"subtotal\":-92233720368547758.08,"));
+    }
+
+    @Test
+    @DisplayName("writeJson/readJson: Aller-retour de détails calculés par le moteur")
+    void json_RoundTrip() throws IOException {
+        PricingEngine engine = new PricingEngine();
+        Random random = new Random(5L);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < 500; i++) {
+            int[] counts = {random.nextInt(5), random.nextInt(5), random.nextInt(5), random.nextInt(5)};
+            PriceBreakdown expected = engine.computeTotal(counts, random.nextBoolean(), DayOfWeek.of(1 + random.nextInt(7)));
+            stream.reset();
+            codec.writeJson(expected, stream);
+            byte[] bytes = stream.toByteArray();
+
+            assertSameCents(expected, codec.readJson(ByteBuffer.wrap(bytes), 0, bytes.length));
+        }
+    }
+
+    @Test
+    @DisplayName("readJson: Clés dans le désordre, blancs, version facultative, arrondi au centime")
+    void readJson_Lenient() {
+        String text = "xx { \"total\" : 26.005 ,\n \"groupDiscount\":0, \"subtotal\":22.1,"
+            + "\"threeDSurcharge\":4.00,\"wednesdayDiscount\":-0.004 }\r\n";
+        ByteBuffer in = ascii(text);
+
+        PriceBreakdown breakdown = codec.readJson(in, 2, text.length());
+
+        assertEquals(26.01, breakdown.getTotal());
+        assertEquals(22.10, breakdown.getSubtotal());
+        assertEquals(0.0, breakdown.getGroupDiscount());
+        assertEquals(0.0, breakdown.getWednesdayDiscount());
+        assertEquals(0L, breakdown.getTariffVersion());
+        assertEquals(0, in.position());
+    }
+
+    @Test
+    @DisplayName("readJson: JSON mal formé ou incomplet refusé")
+    void readJson_Malformed() {
+        String complete = "\"subtotal\":1,\"wednesdayDiscount\":0,\"threeDSurcharge\":0,\"groupDiscount\":0,\"total\":1";
+        for (String text : List.of("", "{}", "[]", "{" + complete, "{" + complete + "}}",
+                "{" + complete + ",\"bonus\":1}", "{" + complete + ",\"tariffVersion\":-1}",
+                "{" + complete + ",\"tariffVersion\":99999999999999999999}",
+                "{\"subtotal\":1e3}", "{\"subtotal\":1.}", "{\"subtotal\":-}", "{\"subtotal\":\"1\"}",
+                "{\"subtotal:1}", "{\"subtotal\" 1}", "{\"total", "{\"subtotal\":1,\"", "{\"")) {
+            ByteBuffer in = ascii(text);
+            assertThrows(IllegalArgumentException.class, () -> codec.readJson(in, 0, text.length()), text);
+        }
+    }
+
+    // ==================== BINAIRE ====================
+
+    @Test
+    @DisplayName("writeBinary/readBinary: Aller-retour compact, enregistrements consécutifs")
+    void binary_RoundTrip() throws IOException {
+        PricingEngine engine = new PricingEngine();
+        List<PriceBreakdown> breakdowns = List.of(
+            engine.computeTotal(List.of(TicketType.ADULT, TicketType.CHILD), true, DayOfWeek.WEDNESDAY),
+            engine.computeTotal(List.of(TicketType.SENIOR), false, DayOfWeek.SUNDAY),
+            new PriceBreakdown(-1.5, 0, 0, 0, -1.5, Long.MAX_VALUE),
+            new PriceBreakdown(Double.MAX_VALUE, 0, 0, 0, 0, 0));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (PriceBreakdown breakdown : breakdowns) {
+            codec.writeBinary(breakdown, stream);
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(PriceBreakdownCodec.MAX_BINARY_BYTES);
+        codec.writeBinary(breakdowns.get(3), direct);
+
+        ByteBuffer in = ByteBuffer.wrap(stream.toByteArray());
+        for (PriceBreakdown breakdown : breakdowns) {
+            assertSameCents(breakdown, codec.readBinary(in));
+        }
+        assertFalse(in.hasRemaining());
+        assertTrue(stream.size() < breakdowns.size() * PriceBreakdownCodec.MAX_BINARY_BYTES);
+        // Sous-total saturé à Long.MAX_VALUE centimes : 10 octets, puis 1 octet par champ nul
+        assertEquals(10 + 5, direct.position());
+    }
+
+    @Test
+    @DisplayName("readBinary: Enregistrement tronqué ou varint trop long refusé")
+    void readBinary_Malformed() {
+        ByteBuffer truncated = ByteBuffer.wrap(new byte[] {2, 4, (byte) 0x80});
+        byte[] tooLong = new byte[11];
+        Arrays.fill(tooLong, (byte) 0xFF);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.readBinary(truncated));
+        assertThrows(IllegalArgumentException.class, () -> codec.readBinary(ByteBuffer.wrap(tooLong)));
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides et tampon trop petit")
+    void invalidArguments() {
+        PriceBreakdown breakdown = new PriceBreakdown(1, 0, 0, 0, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.writeJson(null, ByteBuffer.allocate(256)));
+        assertThrows(IllegalArgumentException.class, () -> codec.writeBinary(null, ByteBuffer.allocate(64)));
+        assertThrows(BufferOverflowException.class, () -> codec.writeJson(breakdown, ByteBuffer.allocate(20)));
+        assertThrows(BufferOverflowException.class, () -> codec.writeJson(breakdown, ByteBuffer.allocate(12)));
+        assertThrows(BufferOverflowException.class, () -> codec.writeBinary(breakdown, ByteBuffer.allocate(3)));
+    }
+}
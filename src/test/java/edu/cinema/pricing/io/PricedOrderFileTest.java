@@ -0,0 +1,156 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.CentsBreakdown;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du format binaire des commandes tarifées.
+ */
+@DisplayName("Priced Order File Tests")
+class PricedOrderFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("write/read: Aller-retour de commandes aléatoires, lues en place")
+    void roundTrip_RandomOrders() throws IOException {
+        PricingEngine engine = new PricingEngine();
+        Random random = new Random(11L);
+        int orders = 3_000; // plus d'un bloc d'écriture
+        int[][] counts = new int[orders][];
+        boolean[] is3D = new boolean[orders];
+        DayOfWeek[] days = new DayOfWeek[orders];
+        Path file = dir.resolve("orders.bin");
+
+        try (PricedOrderWriter writer = PricedOrderWriter.create(file)) {
+            for (int i = 0; i < orders; i++) {
+                counts[i] = new int[] {random.nextInt(5), random.nextInt(5), random.nextInt(3), random.nextInt(3)};
+                is3D[i] = random.nextBoolean();
+                days[i] = DayOfWeek.of(1 + random.nextInt(7));
+                writer.write(counts[i], is3D[i], days[i], engine.computeBreakdownCents(counts[i], is3D[i], days[i]));
+            }
+            assertEquals(orders, writer.records());
+        }
+
+        assertEquals(PricedOrderFormat.HEADER_SIZE + (long) orders * PricedOrderFormat.RECORD_SIZE, Files.size(file));
+        try (PricedOrderReader reader = PricedOrderReader.open(file)) {
+            assertEquals(orders, reader.size());
+            int[] scratch = new int[TicketType.values().length];
+            for (int i = 0; i < orders; i++) {
+                CentsBreakdown expected = engine.computeBreakdownCents(counts[i], is3D[i], days[i]);
+                assertArrayEquals(counts[i], reader.counts(i, scratch));
+                assertEquals(counts[i][TicketType.SENIOR.ordinal()], reader.count(i, TicketType.SENIOR));
+                assertEquals(counts[i][0] + counts[i][1] + counts[i][2] + counts[i][3], reader.ticketCount(i));
+                assertEquals(is3D[i], reader.is3D(i));
+                assertEquals(days[i], reader.day(i));
+                assertEquals(expected.getTotal(), reader.totalCents(i));
+                assertEquals(expected.toString(), reader.breakdown(i).toString());
+                assertEquals(1, reader.tariffVersion(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("write/read: Champs étroits lus à leurs bornes")
+    void roundTrip_FieldLimits() throws IOException {
+        Path file = dir.resolve("limits.bin");
+        int max = PricedOrderFormat.MAX_COUNT;
+        int[] counts = {max, 0, max, 1};
+        CentsBreakdown breakdown = new CentsBreakdown(Integer.MAX_VALUE, 0, 0, 0, Integer.MAX_VALUE,
+                                                      PricedOrderFormat.MAX_TARIFF_VERSION);
+        try (PricedOrderWriter writer = PricedOrderWriter.create(file)) {
+            writer.write(counts, true, DayOfWeek.SUNDAY, breakdown);
+            writer.write(new int[4], false, DayOfWeek.MONDAY, new CentsBreakdown(0, 0, 0, 0, 0));
+        }
+
+        try (PricedOrderReader reader = PricedOrderReader.open(file)) {
+            assertArrayEquals(counts, reader.counts(0, new int[4]));
+            assertEquals(2 * max + 1, reader.ticketCount(0));
+            assertTrue(reader.is3D(0));
+            assertEquals(DayOfWeek.SUNDAY, reader.day(0));
+            assertEquals(PricedOrderFormat.MAX_TARIFF_VERSION, reader.tariffVersion(0));
+            assertEquals(Integer.MAX_VALUE, reader.totalCents(0));
+            assertFalse(reader.is3D(1));
+            assertEquals(DayOfWeek.MONDAY, reader.day(1));
+            assertEquals(0, reader.tariffVersion(1));
+        }
+    }
+
+    @Test
+    @DisplayName("write: Bien plus compact que le texte de PriceBreakdown.toString()")
+    void record_SmallerThanText() {
+        PriceBreakdown breakdown = new PricingEngine().computeTotal(new int[] {2, 1, 1, 0}, true, DayOfWeek.WEDNESDAY);
+
+        assertEquals(32, PricedOrderFormat.RECORD_SIZE);
+        assertTrue(PricedOrderFormat.RECORD_SIZE * 3
+            < breakdown.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    @DisplayName("open: Fichier vide de commandes")
+    void open_EmptyFile() throws IOException {
+        Path file = dir.resolve("empty.bin");
+        PricedOrderWriter.create(file).close();
+
+        try (PricedOrderReader reader = PricedOrderReader.open(file)) {
+            assertEquals(0, reader.size());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.totalCents(0));
+        }
+    }
+
+    @Test
+    @DisplayName("open: Fichiers invalides rejetés")
+    void open_InvalidFiles() throws IOException {
+        Path text = Files.writeString(dir.resolve("orders.txt"), "ADULT;2D;MONDAY\nADULT;2D;MONDAY\n");
+        assertThrows(IllegalArgumentException.class, () -> PricedOrderReader.open(text));
+
+        Path truncated = dir.resolve("truncated.bin");
+        try (PricedOrderWriter writer = PricedOrderWriter.create(truncated)) {
+            int[] counts = {1, 0, 0, 0};
+            writer.write(counts, false, DayOfWeek.MONDAY,
+                new PricingEngine().computeBreakdownCents(counts, false, DayOfWeek.MONDAY));
+        }
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> PricedOrderReader.open(truncated));
+    }
+
+    @Test
+    @DisplayName("write: Paramètres invalides")
+    void write_InvalidArguments() throws IOException {
+        CentsBreakdown breakdown = new CentsBreakdown(1000, 0, 0, 0, 1000);
+        try (PricedOrderWriter writer = PricedOrderWriter.create(dir.resolve("bad.bin"))) {
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new int[3], false, DayOfWeek.MONDAY, breakdown));
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new int[4], false, null, breakdown));
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new int[] {-1, 0, 0, 0}, false, DayOfWeek.MONDAY, breakdown));
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new int[4], false, DayOfWeek.MONDAY,
+                    new CentsBreakdown(1L << 40, 0, 0, 0, 1L << 40)));
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new int[] {PricedOrderFormat.MAX_COUNT + 1, 0, 0, 0}, false, DayOfWeek.MONDAY, breakdown));
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new int[4], false, DayOfWeek.MONDAY,
+                    new CentsBreakdown(1000, 0, 0, 0, 1000, PricedOrderFormat.MAX_TARIFF_VERSION + 1L)));
+            assertEquals(0, writer.records());
+        }
+    }
+}
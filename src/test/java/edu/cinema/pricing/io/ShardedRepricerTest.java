@@ -0,0 +1,264 @@
+package edu.cinema.pricing.io;
+
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import edu.cinema.pricing.metrics.RevenueSnapshot;
+import edu.cinema.pricing.metrics.RevenueSnapshot.Measure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du recalcul réparti sur plusieurs processus.
+ */
+@DisplayName("Sharded Repricer Tests")
+class ShardedRepricerTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @TempDir
+    Path dir;
+
+    private Path writeLog(int orders, long seed) throws IOException {
+        return Files.write(dir.resolve("orders.log"), OrderLogRepricerTest.randomLog(orders, seed),
+                           StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Processus de travail réel, compté par plage.
+     */
+    private static class CountingLauncher implements ShardedRepricer.WorkerLauncher {
+        final AtomicInteger launches = new AtomicInteger();
+        final ConcurrentHashMap<Long, AtomicInteger> attemptsByStart = new ConcurrentHashMap<>();
+
+        int attempt(long start) {
+            launches.incrementAndGet();
+            return attemptsByStart.computeIfAbsent(start, s -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Override
+        public Process launch(Path input, long start, long end, Path partial, Path log) throws IOException {
+            attempt(start);
+            return worker(input, start, end, partial, log);
+        }
+    }
+
+    private static Process worker(Path input, long start, long end, Path partial, Path log) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                  ShardWorker.class.getName(), input.toString(), Long.toString(start),
+                                  Long.toString(end), partial.toString())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    }
+
+    // ==================== RÉSULTATS ====================
+
+    @Test
+    @DisplayName("reprice: Agrégat identique au recalcul dans un seul processus")
+    void reprice_MatchesSingleProcess() throws IOException {
+        Path log = writeLog(20_000, 5L);
+        RevenueSnapshot single = ShardWorker.run(log, 0, Files.size(log), dir.resolve("single.rev"));
+        RepricingSummary summary = new OrderLogRepricer(new PricingEngine(), ForkJoinPool.commonPool(), 4096)
+            .reprice(log, dir.resolve("totals.txt"));
+
+        RevenueSnapshot sharded = new ShardedRepricer(6, 3).reprice(log, dir.resolve("work"));
+
+        assertEquals(single, sharded);
+        assertEquals(20_000, sharded.get(Measure.ORDERS));
+        assertEquals(summary.getTotalCents(), sharded.get(Measure.TOTAL));
+        assertEquals(summary.getSubtotalCents(), sharded.get(Measure.SUBTOTAL));
+        assertEquals(summary.getWednesdayDiscountCents(), sharded.get(Measure.WEDNESDAY_DISCOUNT));
+        assertEquals(summary.getThreeDSurchargeCents(), sharded.get(Measure.THREE_D_SURCHARGE));
+        assertEquals(summary.getGroupDiscountCents(), sharded.get(Measure.GROUP_DISCOUNT));
+        for (TicketType type : TicketType.values()) {
+            assertEquals(summary.getTickets(type), sharded.tickets(type));
+        }
+        // Agrégats partiels et sorties des processus supprimés après fusion
+        try (Stream<Path> files = Files.list(dir.resolve("work"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("reprice: Même agrégat quel que soit le nombre de plages")
+    void reprice_IndependentOfShardCount() throws IOException {
+        Path log = writeLog(3_000, 6L);
+        CountingLauncher launcher = new CountingLauncher();
+
+        RevenueSnapshot one = new ShardedRepricer(1, 1, 1, TIMEOUT, launcher).reprice(log, dir.resolve("a"));
+        RevenueSnapshot many = new ShardedRepricer(5, 2, 1, TIMEOUT, launcher).reprice(log, dir.resolve("b"));
+
+        assertEquals(one, many);
+        assertEquals(6, launcher.launches.get());
+    }
+
+    @Test
+    @DisplayName("reprice: Journal vide, agrégat vide")
+    void reprice_EmptyLog() throws IOException {
+        Path log = Files.write(dir.resolve("empty.log"), new byte[0]);
+
+        assertEquals(RevenueSnapshot.empty(), new ShardedRepricer(4, 2).reprice(log, dir.resolve("work")));
+    }
+
+    // ==================== PANNES ====================
+
+    @Test
+    @DisplayName("reprice: Processus tués relancés, sans double comptage")
+    void reprice_KilledWorkersRetried() throws IOException {
+        Path log = writeLog(5_000, 7L);
+        RevenueSnapshot expected = ShardWorker.run(log, 0, Files.size(log), dir.resolve("single.rev"));
+        CountingLauncher launcher = new CountingLauncher() {
+            @Override
+            public Process launch(Path input, long start, long end, Path partial, Path log) throws IOException {
+                Process process = worker(input, start, end, partial, log);
+                if (attempt(start) == 1) {
+                    process.destroyForcibly();
+                }
+                return process;
+            }
+        };
+
+        RevenueSnapshot result = new ShardedRepricer(4, 2, 2, TIMEOUT, launcher).reprice(log, dir.resolve("work"));
+
+        assertEquals(expected, result);
+        assertEquals(8, launcher.launches.get());
+    }
+
+    @Test
+    @DisplayName("reprice: Tentative abandonnée qui écrit quand même son agrégat, ignorée")
+    void reprice_AbandonedAttemptIgnored() throws IOException {
+        Path log = writeLog(2_000, 8L);
+        RevenueSnapshot expected = ShardWorker.run(log, 0, Files.size(log), dir.resolve("single.rev"));
+        CountingLauncher launcher = new CountingLauncher() {
+            @Override
+            public Process launch(Path input, long start, long end, Path partial, Path log) throws IOException {
+                if (attempt(start) == 1) {
+                    // Le processus meurt (code 137) après avoir écrit un agrégat complet
+                    ShardWorker.run(input, start, end, partial);
+                    return exitWith(137, log);
+                }
+                return worker(input, start, end, partial, log);
+            }
+        };
+
+        RevenueSnapshot result = new ShardedRepricer(3, 3, 2, TIMEOUT, launcher).reprice(log, dir.resolve("work"));
+
+        assertEquals(expected, result);
+        assertEquals(6, launcher.launches.get());
+    }
+
+    @Test
+    @DisplayName("reprice: Processus sans agrégat (code 0) relancé")
+    void reprice_MissingPartialRetried() throws IOException {
+        Path log = writeLog(1_000, 9L);
+        RevenueSnapshot expected = ShardWorker.run(log, 0, Files.size(log), dir.resolve("single.rev"));
+        CountingLauncher launcher = new CountingLauncher() {
+            @Override
+            public Process launch(Path input, long start, long end, Path partial, Path log) throws IOException {
+                if (attempt(start) == 1) {
+                    return exitWith(0, log);
+                }
+                return worker(input, start, end, partial, log);
+            }
+        };
+
+        assertEquals(expected, new ShardedRepricer(2, 2, 2, TIMEOUT, launcher).reprice(log, dir.resolve("work")));
+    }
+
+    @Test
+    @DisplayName("reprice: Processus bloqué tué au délai puis relancé")
+    void reprice_HungWorkerRetried() throws IOException {
+        Path log = writeLog(500, 10L);
+        RevenueSnapshot expected = ShardWorker.run(log, 0, Files.size(log), dir.resolve("single.rev"));
+        CountingLauncher launcher = new CountingLauncher() {
+            @Override
+            public Process launch(Path input, long start, long end, Path partial, Path log) throws IOException {
+                if (attempt(start) == 1) {
+                    return new ProcessBuilder("sleep", "60").redirectOutput(log.toFile()).start();
+                }
+                return worker(input, start, end, partial, log);
+            }
+        };
+
+        // Délai assez large pour le démarrage de la JVM du second essai, même machine chargée
+        RevenueSnapshot result = new ShardedRepricer(1, 1, 2, Duration.ofSeconds(3), launcher)
+            .reprice(log, dir.resolve("work"));
+
+        assertEquals(expected, result);
+        assertEquals(2, launcher.launches.get());
+    }
+
+    @Test
+    @DisplayName("reprice: Ligne mal formée, échec dès la première tentative")
+    void reprice_MalformedLineFails() throws IOException {
+        Path log = Files.writeString(dir.resolve("bad.log"), "ADULT;2D;MONDAY\nADULT;4D;MONDAY\n",
+                                     StandardCharsets.US_ASCII);
+        CountingLauncher launcher = new CountingLauncher();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new ShardedRepricer(1, 1, 3, TIMEOUT, launcher).reprice(log, dir.resolve("work")));
+
+        assertTrue(e.getMessage().contains("has malformed input"), e.getMessage());
+        assertTrue(e.getMessage().contains("Malformed order line at byte 16"), e.getMessage());
+        assertEquals(1, launcher.launches.get());
+    }
+
+    @Test
+    @DisplayName("reprice: Processus en échec (hors entrée) relancé jusqu'au nombre de tentatives")
+    void reprice_CrashedWorkerRetried() {
+        CountingLauncher launcher = new CountingLauncher() {
+            @Override
+            public Process launch(Path input, long start, long end, Path partial, Path log) throws IOException {
+                attempt(start);
+                return exitWith(ShardWorker.EXIT_FAILED, log);
+            }
+        };
+
+        IOException e = assertThrows(IOException.class,
+            () -> new ShardedRepricer(1, 1, 2, TIMEOUT, launcher).reprice(writeLog(10, 1L), dir.resolve("work")));
+
+        assertTrue(e.getMessage().contains("failed after 2 attempts: exit code " + ShardWorker.EXIT_FAILED),
+                   e.getMessage());
+        assertEquals(2, launcher.launches.get());
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        ShardedRepricer repricer = new ShardedRepricer(1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new ShardedRepricer(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedRepricer(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedRepricer(1, 1, 0, TIMEOUT));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedRepricer(1, 1, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedRepricer(1, 1, 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> repricer.reprice(null, dir));
+        assertThrows(IllegalArgumentException.class, () -> repricer.reprice(dir.resolve("x"), null));
+        assertThrows(IOException.class, () -> repricer.reprice(dir.resolve("missing.log"), dir));
+    }
+
+    /**
+     * Processus qui se termine aussitôt avec le code donné.
+     */
+    private static Process exitWith(int code, Path log) throws IOException {
+        return new ProcessBuilder("sh", "-c", "exit " + code).redirectErrorStream(true)
+            .redirectOutput(log.toFile()).start();
+    }
+}
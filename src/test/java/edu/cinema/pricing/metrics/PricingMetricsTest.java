@@ -0,0 +1,171 @@
+package edu.cinema.pricing.metrics;
+
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.Tariff;
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'instrumentation du moteur.
+ */
+@DisplayName("Pricing Metrics Tests")
+class PricingMetricsTest {
+
+    @Test
+    @DisplayName("computeTotal: Commandes, billets, règles et remises comptés")
+    void computeTotal_RecordsCounters() {
+        PricingMetrics metrics = new PricingMetrics(1);
+        PricingEngine engine = new PricingEngine(Tariff.standard(), metrics);
+
+        // Mercredi + 3D + groupe : remises 6.70 et 3.48
+        engine.computeTotal(Arrays.asList(TicketType.ADULT, TicketType.ADULT, TicketType.CHILD, TicketType.SENIOR),
+                            true, DayOfWeek.WEDNESDAY);
+        // Lundi 2D, aucune règle
+        engine.computeTotal(new int[] {0, 0, 0, 2}, false, DayOfWeek.MONDAY);
+
+        assertEquals(2, metrics.getOrdersPriced());
+        assertEquals(6, metrics.getTicketsPriced());
+        assertEquals(2, metrics.getTickets(TicketType.ADULT));
+        assertEquals(2, metrics.getTickets(TicketType.STUDENT));
+        assertEquals(Map.of("ADULT", 2L, "CHILD", 1L, "SENIOR", 1L, "STUDENT", 2L), metrics.getTicketsByType());
+        assertEquals(1, metrics.getWednesdayDiscountsApplied());
+        assertEquals(1, metrics.getThreeDSurchargesApplied());
+        assertEquals(1, metrics.getGroupDiscountsApplied());
+        assertEquals(670 + 348, metrics.getDiscountGivenCents());
+        assertEquals(2, metrics.getLatencySamples());
+        assertTrue(metrics.getLatencyMaxNanos() > 0);
+        assertTrue(metrics.getLatencyP50Nanos() <= metrics.getLatencyP99Nanos());
+        assertTrue(metrics.getLatencyP99Nanos() <= metrics.getLatencyP999Nanos());
+        assertTrue(metrics.getLatencyMeanNanos() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.getOrdersPriced());
+        assertEquals(0, metrics.getTicketsPriced());
+        assertEquals(0, metrics.getDiscountGivenCents());
+        assertEquals(0, metrics.getLatencySamples());
+        assertEquals(0, metrics.getLatencyP99Nanos());
+    }
+
+    @Test
+    @DisplayName("computeTotal: Latence échantillonnée, compteurs exacts")
+    void computeTotal_SamplesLatency() {
+        PricingMetrics metrics = new PricingMetrics(64);
+        PricingEngine engine = new PricingEngine(Tariff.standard(), metrics);
+
+        for (int i = 0; i < 64_000; i++) {
+            engine.computeTotal(new int[] {1, 0, 0, 0}, false, DayOfWeek.MONDAY);
+        }
+
+        assertEquals(64_000, metrics.getOrdersPriced());
+        assertTrue(metrics.getLatencySamples() > 500 && metrics.getLatencySamples() < 1_500,
+                   "samples: " + metrics.getLatencySamples());
+    }
+
+    @Test
+    @DisplayName("PricingEngine: Pas de métriques par défaut")
+    void engine_UninstrumentedByDefault() {
+        assertNull(new PricingEngine().getMetrics());
+        assertNull(new PricingEngine(Tariff.standard()).getMetrics());
+    }
+
+    @Test
+    @DisplayName("computeTotal: Les comptes des threads terminés sont conservés")
+    void computeTotal_CountsFromFinishedThreads() throws InterruptedException {
+        PricingMetrics metrics = new PricingMetrics(1);
+        PricingEngine engine = new PricingEngine(Tariff.standard(), metrics);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < 1_000; n++) {
+                    engine.computeTotal(new int[] {1, 1, 0, 0}, false, DayOfWeek.WEDNESDAY);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8_000, metrics.getOrdersPriced());
+        assertEquals(16_000, metrics.getTicketsPriced());
+        assertEquals(8_000, metrics.getWednesdayDiscountsApplied());
+        assertEquals(8_000 * 320, metrics.getDiscountGivenCents());
+    }
+
+    @Test
+    @DisplayName("CounterCells: Nombre de bandes fixe quel que soit le nombre de threads, totaux intacts")
+    void counterCells_FixedStripes() throws InterruptedException {
+        CounterCells cells = new CounterCells(2, 3);
+        for (int i = 0; i < 200; i++) {
+            Thread thread = Thread.ofVirtual().start(() -> cells.add(cells.cell(), 0, 5));
+            thread.join();
+        }
+        cells.add(cells.cell(), 0, 1);
+        cells.add(cells.cell(), 1, 7);
+        assertEquals(1001, cells.sum(0));
+        assertEquals(7, cells.sum(1));
+        assertEquals(4, cells.stripeCount());
+
+        cells.reset();
+        cells.add(cells.cell(), 0, 2);
+        assertEquals(2, cells.sum(0));
+        assertEquals(0, cells.sum(1));
+    }
+
+    @Test
+    @DisplayName("LatencyHistogram: Centiles estimés par seaux en puissances de deux")
+    void histogram_Percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(10_000);
+        histogram.record(-5); // horloge non monotone : compté comme 0
+
+        assertEquals(101, histogram.count());
+        assertEquals(127, histogram.percentile(0.50));
+        assertEquals(16_383, histogram.percentile(0.999));
+        assertEquals(10_000, histogram.max());
+    }
+
+    @Test
+    @DisplayName("register: Attributs lisibles par JMX")
+    void register_PublishesMBean() throws Exception {
+        PricingMetrics metrics = new PricingMetrics(1);
+        PricingEngine engine = new PricingEngine(Tariff.standard(), metrics);
+        engine.computeTotal(new int[] {1, 1, 0, 0}, true, DayOfWeek.FRIDAY);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        ObjectName name = metrics.register("test-venue");
+        try {
+            assertEquals(PricingMetrics.objectName("test-venue"), name);
+            assertEquals(1L, server.getAttribute(name, "OrdersPriced"));
+            assertEquals(1L, server.getAttribute(name, "ThreeDSurchargesApplied"));
+            assertEquals(4, ((TabularData) server.getAttribute(name, "TicketsByType")).size());
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "OrdersPriced"));
+        } finally {
+            PricingMetrics.unregister("test-venue");
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    @DisplayName("PricingMetrics: Paramètres invalides")
+    void constructor_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PricingMetrics(0));
+        assertThrows(IllegalArgumentException.class, () -> new PricingMetrics(3));
+        assertThrows(IllegalArgumentException.class, () -> PricingMetrics.objectName(null));
+    }
+}
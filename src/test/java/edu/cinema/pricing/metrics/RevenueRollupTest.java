@@ -0,0 +1,245 @@
+package edu.cinema.pricing.metrics;
+
+import edu.cinema.pricing.CentsBreakdown;
+import edu.cinema.pricing.MutablePriceBreakdown;
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.Tariff;
+import edu.cinema.pricing.TicketType;
+import edu.cinema.pricing.metrics.RevenueSnapshot.Measure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du cumul de chiffre d'affaires.
+ */
+@DisplayName("Revenue Rollup Tests")
+class RevenueRollupTest {
+
+    // ==================== AGRÉGATS ====================
+
+    @Test
+    @DisplayName("record: Ventilation par jour, format, type de billet et règle")
+    void record_BreaksDownByDimension() {
+        PricingEngine engine = new PricingEngine();
+        RevenueRollup rollup = new RevenueRollup(4);
+        int[] group3D = {2, 1, 1, 0};
+        int[] pair2D = {0, 0, 0, 2};
+
+        rollup.record(group3D, true, DayOfWeek.WEDNESDAY, engine.computeTotal(group3D, true, DayOfWeek.WEDNESDAY));
+        rollup.record(pair2D, false, DayOfWeek.MONDAY, engine.computeBreakdownCents(pair2D, false, DayOfWeek.MONDAY));
+        RevenueSnapshot snapshot = rollup.snapshot();
+
+        CentsBreakdown wednesday = engine.computeBreakdownCents(group3D, true, DayOfWeek.WEDNESDAY);
+        CentsBreakdown monday = engine.computeBreakdownCents(pair2D, false, DayOfWeek.MONDAY);
+        assertEquals(2, snapshot.get(Measure.ORDERS));
+        assertEquals(1, snapshot.get(Measure.ORDERS, DayOfWeek.WEDNESDAY));
+        assertEquals(1, snapshot.get(Measure.ORDERS, true));
+        assertEquals(wednesday.getWednesdayDiscount(), snapshot.get(Measure.WEDNESDAY_DISCOUNT));
+        assertEquals(wednesday.getGroupDiscount(), snapshot.get(Measure.GROUP_DISCOUNT, DayOfWeek.WEDNESDAY, true));
+        assertEquals(0, snapshot.get(Measure.GROUP_DISCOUNT, DayOfWeek.WEDNESDAY, false));
+        assertEquals(wednesday.getThreeDSurcharge(), snapshot.get(Measure.THREE_D_SURCHARGE, true));
+        assertEquals(monday.getTotal(), snapshot.get(Measure.TOTAL, false));
+        assertEquals(wednesday.getTotal() + monday.getTotal(), snapshot.get(Measure.TOTAL));
+        assertEquals(2, snapshot.tickets(TicketType.ADULT));
+        assertEquals(2, snapshot.tickets(TicketType.STUDENT, DayOfWeek.MONDAY, false));
+        assertEquals(0, snapshot.tickets(TicketType.STUDENT, DayOfWeek.MONDAY, true));
+        assertTrue(snapshot.toString().contains("orders=2\n"));
+    }
+
+    @Test
+    @DisplayName("revenue: Total de chaque commande réparti entre ses types au prorata des prix de base")
+    void revenue_AttributedByBasePrice() {
+        PricingEngine engine = new PricingEngine();
+        RevenueRollup rollup = new RevenueRollup(2);
+        int[] family = {2, 2, 0, 0};      // 32€ de base, groupe -10% : 28.80€
+        int[] single3D = {0, 0, 1, 0};
+
+        rollup.record(family, false, DayOfWeek.SATURDAY,
+                      engine.computeBreakdownCents(family, false, DayOfWeek.SATURDAY));
+        rollup.record(single3D, true, DayOfWeek.SATURDAY,
+                      engine.computeBreakdownCents(single3D, true, DayOfWeek.SATURDAY));
+        RevenueSnapshot snapshot = rollup.snapshot();
+
+        // Adultes 20€ / 32€ et enfants 12€ / 32€ de 2880 centimes
+        assertEquals(1800, snapshot.revenue(TicketType.ADULT));
+        assertEquals(1080, snapshot.revenue(TicketType.CHILD, DayOfWeek.SATURDAY));
+        assertEquals(950, snapshot.revenue(TicketType.SENIOR, DayOfWeek.SATURDAY, true));
+        assertEquals(0, snapshot.revenue(TicketType.SENIOR, DayOfWeek.SATURDAY, false));
+        assertEquals(0, snapshot.revenue(TicketType.STUDENT));
+        assertTrue(snapshot.toString().contains("revenueCents.ADULT=1800\n"));
+    }
+
+    @Test
+    @DisplayName("revenue: Parts exactes au centime, tarif d'attribution remplaçable, commande gratuite")
+    void revenue_SumsToTotal() {
+        PricingEngine engine = new PricingEngine();
+        RevenueRollup rollup = new RevenueRollup(Tariff.standard(), 1);
+        Random random = new Random(5L);
+        for (int i = 0; i < 500; i++) {
+            int[] counts = {random.nextInt(4), random.nextInt(3), random.nextInt(3), random.nextInt(3)};
+            DayOfWeek day = DayOfWeek.of(1 + random.nextInt(7));
+            boolean is3D = random.nextBoolean();
+            rollup.record(counts, is3D, day, engine.computeTotal(counts, is3D, day));
+        }
+        RevenueSnapshot snapshot = rollup.snapshot();
+        long attributed = 0;
+        for (TicketType type : TicketType.values()) {
+            attributed += snapshot.revenue(type);
+        }
+        assertEquals(snapshot.get(Measure.TOTAL), attributed);
+
+        // Tarif gratuit : répartition au nombre de billets (1 adulte, 2 étudiants → 1/3, 2/3)
+        Map<TicketType, Double> free = new EnumMap<>(TicketType.class);
+        for (TicketType type : TicketType.values()) {
+            free.put(type, 0.0);
+        }
+        RevenueRollup other = new RevenueRollup(1);
+        other.setTariff(new Tariff(free, List.of()));
+        other.record(new int[] {1, 0, 0, 2}, true, DayOfWeek.MONDAY, new CentsBreakdown(0, 0, 600, 0, 600));
+        other.record(new int[4], false, DayOfWeek.MONDAY, new CentsBreakdown(0, 0, 0, 0, 0));
+        assertEquals(200, other.snapshot().revenue(TicketType.ADULT));
+        assertEquals(400, other.snapshot().revenue(TicketType.STUDENT));
+        assertThrows(IllegalArgumentException.class, () -> other.setTariff(null));
+        assertThrows(IllegalArgumentException.class, () -> new RevenueRollup(null, 1));
+    }
+
+    @Test
+    @DisplayName("record(holder): Mêmes cellules qu'avec le détail immuable")
+    void record_HolderMatchesBreakdown() {
+        PricingEngine engine = new PricingEngine();
+        RevenueRollup fromHolder = new RevenueRollup(1);
+        RevenueRollup fromBreakdown = new RevenueRollup(1);
+        MutablePriceBreakdown holder = new MutablePriceBreakdown();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int[] counts = {day.getValue() % 3, 1, 0, day.getValue() % 2};
+            boolean is3D = day.getValue() % 2 == 0;
+            fromHolder.record(counts, is3D, day, engine.computeTotal(counts, is3D, day, holder));
+            fromBreakdown.record(counts, is3D, day, engine.computeTotal(counts, is3D, day));
+        }
+
+        assertEquals(fromBreakdown.snapshot(), fromHolder.snapshot());
+        assertThrows(IllegalArgumentException.class,
+            () -> fromHolder.record(new int[4], false, DayOfWeek.MONDAY, (MutablePriceBreakdown) null));
+    }
+
+    @Test
+    @DisplayName("merge: Fusion d'instantanés de plusieurs nœuds, aller-retour binaire")
+    void merge_SnapshotsFromNodes() {
+        PricingEngine engine = new PricingEngine();
+        RevenueRollup nodeA = new RevenueRollup(2);
+        RevenueRollup nodeB = new RevenueRollup(2);
+        RevenueRollup single = new RevenueRollup(1);
+        Random random = new Random(5L);
+        for (int i = 0; i < 2_000; i++) {
+            int[] counts = {random.nextInt(4), random.nextInt(3), random.nextInt(3), random.nextInt(2)};
+            boolean is3D = random.nextBoolean();
+            DayOfWeek day = DayOfWeek.of(1 + random.nextInt(7));
+            CentsBreakdown breakdown = engine.computeBreakdownCents(counts, is3D, day);
+            (i % 2 == 0 ? nodeA : nodeB).record(counts, is3D, day, breakdown);
+            single.record(counts, is3D, day, breakdown);
+        }
+
+        RevenueSnapshot received = RevenueSnapshot.fromBytes(nodeB.snapshot().toBytes());
+        RevenueSnapshot merged = nodeA.snapshot().merge(received);
+
+        assertEquals(single.snapshot(), merged);
+        assertEquals(merged, RevenueSnapshot.empty().merge(merged));
+        assertEquals(2_000, merged.get(Measure.ORDERS));
+        assertEquals(0, RevenueSnapshot.empty().get(Measure.TOTAL));
+    }
+
+    // ==================== CONCURRENCE ====================
+
+    @Test
+    @DisplayName("record: Threads concurrents, aucun enregistrement perdu ni vu à moitié")
+    void record_ConcurrentWritersAndConsistentSnapshots() throws Exception {
+        RevenueRollup rollup = new RevenueRollup(2); // moins de bandes que de threads : conflits
+        int threads = 4;
+        int perThread = 50_000;
+        int[] counts = {1, 0, 0, 1};
+        CentsBreakdown breakdown = new CentsBreakdown(1_000, 200, 0, 0, 800);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            DayOfWeek day = DayOfWeek.of(1 + t);
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    rollup.record(counts, i % 2 == 0, day, breakdown);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<String> inconsistencies = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                RevenueSnapshot snapshot = rollup.snapshot();
+                long orders = snapshot.get(Measure.ORDERS);
+                if (snapshot.get(Measure.SUBTOTAL) != 1_000 * orders
+                        || snapshot.get(Measure.TOTAL) != 800 * orders
+                        || snapshot.tickets(TicketType.STUDENT) != orders) {
+                    inconsistencies.add(snapshot.toString());
+                }
+            }
+        });
+        reader.start();
+
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        running.set(false);
+        reader.join();
+
+        RevenueSnapshot snapshot = rollup.snapshot();
+        assertEquals(List.of(), inconsistencies);
+        assertEquals((long) threads * perThread, snapshot.get(Measure.ORDERS));
+        assertEquals(200L * threads * perThread, snapshot.get(Measure.WEDNESDAY_DISCOUNT));
+        assertEquals(perThread, snapshot.get(Measure.ORDERS, DayOfWeek.TUESDAY));
+        assertEquals((long) threads * perThread / 2, snapshot.get(Measure.ORDERS, true));
+        assertEquals((long) threads * perThread, snapshot.tickets(TicketType.ADULT));
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        RevenueRollup rollup = new RevenueRollup(3);
+        CentsBreakdown breakdown = new CentsBreakdown(1_000, 0, 0, 0, 1_000);
+
+        assertEquals(4, rollup.stripeCount());
+        assertTrue(new RevenueRollup().stripeCount() >= 2);
+        assertThrows(IllegalArgumentException.class, () -> new RevenueRollup(0));
+        assertThrows(IllegalArgumentException.class, () -> rollup.record(new int[3], false, DayOfWeek.MONDAY, breakdown));
+        assertThrows(IllegalArgumentException.class, () -> rollup.record(new int[4], false, null, breakdown));
+        assertThrows(IllegalArgumentException.class,
+            () -> rollup.record(new int[4], false, DayOfWeek.MONDAY, (CentsBreakdown) null));
+        assertThrows(IllegalArgumentException.class,
+            () -> rollup.record(new int[4], false, DayOfWeek.MONDAY, (PriceBreakdown) null));
+        assertThrows(IllegalArgumentException.class, () -> RevenueSnapshot.fromBytes(new byte[8]));
+        assertThrows(IllegalArgumentException.class, () -> RevenueSnapshot.empty().merge(null));
+        byte[] bytes = RevenueSnapshot.empty().toBytes();
+        bytes[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> RevenueSnapshot.fromBytes(bytes));
+        assertEquals(RevenueSnapshot.empty(), rollup.snapshot());
+    }
+}
@@ -0,0 +1,203 @@
+package edu.cinema.pricing.server;
+
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.Tariff;
+import edu.cinema.pricing.TicketType;
+import edu.cinema.pricing.metrics.PricingMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la chauffe du moteur et de ses échantillons de commandes.
+ */
+@DisplayName("Engine Warmup Tests")
+class EngineWarmupTest {
+
+    private static final Duration MAX = Duration.ofSeconds(20);
+
+    @TempDir
+    Path dir;
+
+    // ==================== ÉCHANTILLONS ====================
+
+    @Test
+    @DisplayName("builtIn: Mélange reproductible couvrant jours, 3D et groupes")
+    void builtIn_CoversAllRules() {
+        WarmupMix mix = WarmupMix.builtIn();
+        WarmupMix again = WarmupMix.builtIn();
+
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        int threeD = 0;
+        int groups = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            assertEquals(mix.tickets(i), again.tickets(i));
+            days.add(mix.day(i));
+            threeD += mix.is3D(i) ? 1 : 0;
+            groups += mix.tickets(i).size() >= 4 ? 1 : 0;
+            assertEquals(mix.tickets(i).size(), Arrays.stream(mix.counts(i)).sum());
+        }
+        assertEquals(1024, mix.size());
+        assertEquals(EnumSet.allOf(DayOfWeek.class), days);
+        assertTrue(threeD > mix.size() / 5 && threeD < mix.size() / 2, "3D orders: " + threeD);
+        assertTrue(groups > 0);
+    }
+
+    @Test
+    @DisplayName("load: Échantillon enregistré, lignes vides et commentaires ignorés")
+    void load_RecordedMix() throws IOException {
+        Path file = dir.resolve("mix.log");
+        Files.writeString(file, "# samedi soir\r\nADULT,ADULT,CHILD;3D;SATURDAY\r\n\nSTUDENT;2D;WEDNESDAY\n;2D;MONDAY");
+
+        WarmupMix mix = WarmupMix.load(file);
+
+        assertEquals(3, mix.size());
+        assertEquals(List.of(TicketType.ADULT, TicketType.ADULT, TicketType.CHILD), mix.tickets(0));
+        assertArrayEquals(new int[] {2, 1, 0, 0}, mix.counts(0));
+        assertTrue(mix.is3D(0));
+        assertEquals(DayOfWeek.WEDNESDAY, mix.day(1));
+        assertEquals(List.of(), mix.tickets(2));
+    }
+
+    @Test
+    @DisplayName("load: Ligne mal formée signalée avec son numéro, fichier vide refusé")
+    void load_Malformed() throws IOException {
+        Path bad = dir.resolve("bad.log");
+        Files.writeString(bad, "ADULT;2D;MONDAY\nADULT;4D;MONDAY\n");
+        Path empty = dir.resolve("empty.log");
+        Files.writeString(empty, "# rien\n\n");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> WarmupMix.load(bad));
+        assertTrue(e.getMessage().contains("bad.log:2:"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> WarmupMix.load(empty));
+        assertThrows(IllegalArgumentException.class, () -> WarmupMix.load(null));
+    }
+
+    // ==================== CHAUFFE ====================
+
+    @Test
+    @DisplayName("run: Compilation stable, chauffe terminée après le nombre minimal de tours")
+    void run_SettlesWhenCompilationStops() {
+        PricingMetrics metrics = new PricingMetrics();
+        PricingEngine engine = new PricingEngine(Tariff.standard(), metrics);
+        AtomicLong compilation = new AtomicLong(1_000);
+        // Compilation active pendant les deux premiers tours, puis plus rien
+        EngineWarmup warmup = new EngineWarmup(engine, WarmupMix.builtIn(), MAX, Duration.ZERO,
+            () -> compilation.get() < 1_002 ? compilation.getAndIncrement() : compilation.get());
+        assertFalse(warmup.isWarm());
+        assertNull(warmup.getReport());
+
+        WarmupReport report = warmup.run();
+
+        assertTrue(warmup.isWarm());
+        assertSame(report, warmup.getReport());
+        assertTrue(report.isSettled());
+        assertEquals(EngineWarmup.MIN_ROUNDS, report.getRounds());
+        assertEquals(EngineWarmup.MIN_ROUNDS * 1024L * 9, report.getCalls());
+        assertEquals(2, report.getCompilationMillis());
+        assertTrue(report.toString().contains("settled=true\nrounds=5\n"));
+        // Régime atteint au deuxième tour, bien avant la fin des tours minimaux
+        assertTrue(report.getTimeToSteadyState().compareTo(report.getElapsed()) < 0);
+        assertTrue(report.toString().contains("elapsedMillis=" + report.getElapsed().toMillis() + "\n"));
+        // Chauffe sur un moteur jumeau : les métriques servies restent vides
+        assertEquals(0, metrics.getOrdersPriced());
+    }
+
+    @Test
+    @DisplayName("run: Compilation incessante, arrêt à la durée maximale sans stabilisation")
+    void run_GivesUpAfterMaxDuration() {
+        AtomicLong compilation = new AtomicLong();
+        EngineWarmup warmup = new EngineWarmup(new PricingEngine(), WarmupMix.builtIn(), Duration.ofMillis(50),
+            Duration.ZERO, compilation::incrementAndGet);
+
+        WarmupReport report = warmup.run();
+
+        assertFalse(report.isSettled());
+        assertTrue(warmup.isWarm());
+        assertTrue(report.getTimeToSteadyState().toMillis() >= 50);
+        assertEquals(report.getElapsed(), report.getTimeToSteadyState());
+        assertEquals(report.getRounds(), report.getCompilationMillis());
+    }
+
+    @Test
+    @DisplayName("start: Sans compteur de compilation, stabilisation jugée sur la durée des tours")
+    void start_FallsBackToRoundTimes() throws Exception {
+        EngineWarmup warmup = new EngineWarmup(new PricingEngine(), WarmupMix.builtIn(), MAX,
+            EngineWarmup.QUIET_TIME, () -> -1L);
+
+        WarmupReport report = warmup.start().get();
+
+        assertTrue(report.getRounds() >= EngineWarmup.MIN_ROUNDS || !report.isSettled());
+        assertEquals(-1, report.getCompilationMillis());
+        assertTrue(warmup.isWarm());
+    }
+
+    @Test
+    @DisplayName("Chauffe réelle : compteur de compilation de la JVM")
+    void run_RealCompiler() {
+        WarmupReport report = new EngineWarmup(new PricingEngine()).run();
+
+        assertTrue(report.getRounds() >= EngineWarmup.MIN_ROUNDS || !report.isSettled());
+        assertTrue(report.getCalls() > 0);
+        // Stabilisée : la période calme s'ajoute au temps de mise en régime, sans en faire partie
+        assertTrue(!report.isSettled()
+            || report.getElapsed().minus(report.getTimeToSteadyState()).compareTo(EngineWarmup.QUIET_TIME) >= 0);
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("start: Tour de chauffe en échec, erreur retenue et chauffe terminée")
+    void start_FailureRecorded() {
+        AtomicLong calls = new AtomicLong();
+        IllegalStateException boom = new IllegalStateException("boom");
+        // Échec à la fin du deuxième tour
+        EngineWarmup warmup = new EngineWarmup(new PricingEngine(), WarmupMix.builtIn(), MAX, Duration.ZERO, () -> {
+            if (calls.incrementAndGet() == 3) {
+                throw boom;
+            }
+            return 0L;
+        });
+        assertFalse(warmup.isDone());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> warmup.start().get());
+
+        assertSame(boom, e.getCause());
+        assertSame(boom, warmup.getFailure());
+        assertTrue(warmup.isDone());
+        assertFalse(warmup.isWarm());
+        assertNull(warmup.getReport());
+        // Une nouvelle chauffe réussie efface l'échec
+        assertTrue(warmup.run().isSettled());
+        assertNull(warmup.getFailure());
+        assertTrue(warmup.isWarm());
+    }
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        PricingEngine engine = new PricingEngine();
+        WarmupMix mix = WarmupMix.builtIn();
+
+        assertThrows(IllegalArgumentException.class, () -> new EngineWarmup(null));
+        assertThrows(IllegalArgumentException.class, () -> new EngineWarmup(engine, null, MAX));
+        assertThrows(IllegalArgumentException.class, () -> new EngineWarmup(engine, mix, null));
+        assertThrows(IllegalArgumentException.class, () -> new EngineWarmup(engine, mix, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new WarmupReport(true, 1, 1, null, Duration.ZERO, 0));
+        assertThrows(IllegalArgumentException.class, () -> new WarmupReport(true, 1, 1, Duration.ZERO, null, 0));
+    }
+}
@@ -0,0 +1,235 @@
+package edu.cinema.pricing.server;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.io.PriceBreakdownCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du service HTTP de tarification.
+ */
+@DisplayName("Pricing Server Tests")
+class PricingServerTest {
+
+    private PricingEngine engine;
+    private PricingServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new PricingEngine();
+        server = PricingServer.start(engine, new InetSocketAddress("127.0.0.1", 0), 16, 4, 64);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.port() + path);
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri("/quote")).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                           HttpResponse.BodyHandlers.ofString());
+    }
+
+    // ==================== REQUÊTES ====================
+
+    @Test
+    @DisplayName("POST /quote: Un détail JSON par commande, dans l'ordre")
+    void quote_ReturnsBreakdowns() throws Exception {
+        HttpResponse<String> response = post("ADULT,ADULT,CHILD,SENIOR;3D;WEDNESDAY\r\n\nSTUDENT;2D;MONDAY\n");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(
+            "{\"subtotal\":33.50,\"wednesdayDiscount\":6.70,\"threeDSurcharge\":8.00,"
+                + "\"groupDiscount\":3.48,\"total\":31.32,\"tariffVersion\":1}",
+            "{\"subtotal\":8.00,\"wednesdayDiscount\":0.00,\"threeDSurcharge\":0.00,"
+                + "\"groupDiscount\":0.00,\"total\":8.00,\"tariffVersion\":1}"),
+            response.body().lines().toList());
+    }
+
+    @Test
+    @DisplayName("POST /quote: Requêtes concurrentes regroupées, résultats identiques au calcul direct")
+    void quote_ConcurrentRequestsMatchEngine() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String body = "ADULT" + ",CHILD".repeat(i % 6) + (i % 2 == 0 ? ";3D;" : ";2D;") + DayOfWeek.of(1 + i % 7);
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri("/quote"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString()));
+        }
+        int ok = 0;
+        for (int i = 0; i < responses.size(); i++) {
+            HttpResponse<String> response = responses.get(i).get();
+            if (response.statusCode() == 503) {
+                continue; // limite de 4 requêtes en cours
+            }
+            assertEquals(200, response.statusCode());
+            PriceBreakdown expected = engine.computeTotal(new int[] {1, i % 6, 0, 0}, i % 2 == 0, DayOfWeek.of(1 + i % 7));
+            ByteBuffer json = ByteBuffer.allocate(PriceBreakdownCodec.MAX_JSON_BYTES);
+            new PriceBreakdownCodec().writeJson(expected, json);
+            assertEquals(new String(json.array(), 0, json.position(), StandardCharsets.US_ASCII), response.body().trim());
+            ok++;
+        }
+        assertTrue(ok > 0);
+        assertEquals(responses.size() - ok, server.shedRequests());
+    }
+
+    @Test
+    @DisplayName("POST /quote: Refus immédiat au-delà de la limite de requêtes en cours")
+    void quote_ShedsLoad() throws Exception {
+        server.inFlight.acquire(4);
+        try {
+            HttpResponse<String> response = post("ADULT;2D;MONDAY");
+            assertEquals(503, response.statusCode());
+            assertEquals("1", response.headers().firstValue("Retry-After").orElse(""));
+            assertEquals(1, server.shedRequests());
+        } finally {
+            server.inFlight.release(4);
+        }
+        assertEquals(200, post("ADULT;2D;MONDAY").statusCode());
+    }
+
+    @Test
+    @DisplayName("POST /quote: Commandes mal formées, corps vide ou trop gros")
+    void quote_BadRequests() throws Exception {
+        assertEquals(400, post("ADULT;4D;MONDAY").statusCode());
+        assertEquals(400, post("\n\n").statusCode());
+        assertEquals(413, post("ADULT,".repeat(20_000) + "ADULT;2D;MONDAY").statusCode());
+    }
+
+    @Test
+    @DisplayName("GET: /quote refusé, /health disponible")
+    void get_Endpoints() throws Exception {
+        HttpResponse<String> quote = client.send(HttpRequest.newBuilder(uri("/quote")).GET().build(),
+                                                 HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> health = client.send(HttpRequest.newBuilder(uri("/health")).GET().build(),
+                                                  HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(405, quote.statusCode());
+        assertEquals(200, health.statusCode());
+        assertEquals("ok", health.body().trim());
+    }
+
+    @Test
+    @DisplayName("GET /ready: Disponible sans chauffe, puis avec le bilan après la chauffe")
+    void ready_GatesOnWarmup() throws Exception {
+        HttpResponse<String> before = client.send(HttpRequest.newBuilder(uri("/ready")).GET().build(),
+                                                  HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, before.statusCode());
+        assertTrue(server.isReady());
+
+        WarmupReport report = server.warmUp(WarmupMix.builtIn()).get();
+
+        HttpResponse<String> after = client.send(HttpRequest.newBuilder(uri("/ready")).GET().build(),
+                                                 HttpResponse.BodyHandlers.ofString());
+        assertTrue(server.isReady());
+        assertEquals(200, after.statusCode());
+        assertTrue(after.body().startsWith("ready\n"));
+        assertTrue(after.body().contains("timeToSteadyStateMillis=" + report.getTimeToSteadyState().toMillis()));
+    }
+
+    @Test
+    @DisplayName("GET /ready: Chauffe en échec, disponible avec l'erreur")
+    void ready_AfterFailedWarmup() throws Exception {
+        EngineWarmup failing = new EngineWarmup(engine, WarmupMix.builtIn(), Duration.ofSeconds(20), Duration.ZERO,
+            () -> {
+                throw new IllegalStateException("boom");
+            });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> server.warmUp(failing).get());
+
+        HttpResponse<String> after = client.send(HttpRequest.newBuilder(uri("/ready")).GET().build(),
+                                                 HttpResponse.BodyHandlers.ofString());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(server.isReady());
+        assertEquals(200, after.statusCode());
+        assertEquals("ready\nwarm-up failed: java.lang.IllegalStateException: boom\n", after.body());
+    }
+
+    // ==================== REGROUPEMENT ET CHARGE ====================
+
+    @Test
+    @DisplayName("QuoteBatcher: Devis refusés quand la file est pleine ou fermée")
+    void batcher_RejectsWhenClosed() throws Exception {
+        QuoteBatcher batcher = new QuoteBatcher(engine, 8, 8);
+        PriceBreakdown quote = batcher.submit(new int[] {2, 0, 0, 0}, false, DayOfWeek.MONDAY).get();
+        assertEquals(20.00, quote.getTotal(), 0.001);
+        assertEquals(1, quote.getTariffVersion());
+
+        batcher.close();
+        assertThrows(RejectedExecutionException.class,
+            () -> batcher.submit(new int[] {1, 0, 0, 0}, false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class, () -> new QuoteBatcher(engine, 0, 8));
+        assertThrows(IllegalArgumentException.class, () -> new QuoteBatcher(null, 8, 8));
+    }
+
+    @Test
+    @DisplayName("QuoteBatcher: Une commande invalide fait échouer son lot")
+    void batcher_FailsInvalidBatch() {
+        try (QuoteBatcher batcher = new QuoteBatcher(engine, 8, 8)) {
+            CompletableFuture<PriceBreakdown> result = batcher.submit(new int[] {-1, 0, 0, 0}, false, DayOfWeek.MONDAY);
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("failureStatus: Devis en erreur -> 400, 500, ou 503 seulement s'il a été refusé")
+    void failureStatus_SeparatesErrorsFromOverload() {
+        assertEquals(400, PricingServer.failureStatus(new IllegalArgumentException("Ticket count cannot be negative")));
+        assertEquals(500, PricingServer.failureStatus(new IllegalStateException("boom")));
+        assertEquals(503, PricingServer.failureStatus(new RejectedExecutionException("Quote batcher closed")));
+    }
+
+    @Test
+    @DisplayName("LoadGenerator: Débit et centiles mesurés sans erreur")
+    void loadGenerator_MeasuresLatency() throws Exception {
+        LoadGenerator.Result result = LoadGenerator.run(uri("/quote"), 2, Duration.ofMillis(500),
+                                                        LoadGenerator.DEFAULT_ORDER);
+
+        assertTrue(result.getRequests() > 0);
+        assertEquals(0, result.getErrors());
+        assertTrue(result.getThroughput() > 0);
+        assertTrue(result.percentileMicros(0.50) <= result.percentileMicros(0.99));
+        assertTrue(result.toString().contains("p99="));
+        assertThrows(IllegalArgumentException.class,
+            () -> LoadGenerator.run(uri("/quote"), 0, Duration.ofMillis(1), "x"));
+    }
+
+    @Test
+    @DisplayName("start: Paramètres invalides")
+    void start_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> PricingServer.start(engine, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> PricingServer.start(null, new InetSocketAddress(0)));
+        assertThrows(IllegalArgumentException.class,
+            () -> PricingServer.start(engine, new InetSocketAddress(0), 16, 0, 64));
+        assertThrows(IllegalArgumentException.class,
+            () -> PricingServer.start(engine, new InetSocketAddress(0), 16, 4, 0));
+    }
+}
@@ -0,0 +1,361 @@
+package edu.cinema.pricing.stream;
+
+import edu.cinema.pricing.PriceBreakdown;
+import edu.cinema.pricing.PricingEngine;
+import edu.cinema.pricing.TicketType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'étape de tarification en flux.
+ */
+@DisplayName("Pricing Processor Tests")
+class PricingProcessorTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static List<OrderEvent> randomEvents(int size, int showings, long seed) {
+        Random random = new Random(seed);
+        List<OrderEvent> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int[] counts = {random.nextInt(4), random.nextInt(4), random.nextInt(2), random.nextInt(2)};
+            events.add(new OrderEvent("showing-" + random.nextInt(showings), counts,
+                                      random.nextBoolean(), DayOfWeek.of(1 + random.nextInt(7))));
+        }
+        return events;
+    }
+
+    /**
+     * Souscription amont manuelle : mémorise la demande totale.
+     */
+    private static final class RecordingSubscription implements Flow.Subscription {
+        final AtomicLong requested = new AtomicLong();
+        volatile boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested.addAndGet(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Abonné aval sans limite de demande ; complète done à la fin du flux.
+     */
+    private static CompletableFuture<Void> collect(PricingProcessor processor, List<PricedOrder> results) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(PricedOrder item) {
+                results.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    // ==================== RÉSULTATS ET ORDRE ====================
+
+    @Test
+    @DisplayName("Flux: Résultats identiques au calcul direct, ordre conservé par séance")
+    void stream_MatchesEngineAndKeepsShowingOrder() throws Exception {
+        PricingEngine engine = new PricingEngine();
+        List<OrderEvent> events = randomEvents(5_000, 10, 3L);
+        PricingProcessor processor = new PricingProcessor(engine, pool, 4, 64, 8);
+        List<PricedOrder> results = new ArrayList<>();
+        CompletableFuture<Void> done = collect(processor, results);
+
+        try (SubmissionPublisher<OrderEvent> source = new SubmissionPublisher<>(pool, 256)) {
+            source.subscribe(processor);
+            events.forEach(source::submit);
+        }
+        done.get(30, TimeUnit.SECONDS);
+
+        assertEquals(events.size(), results.size());
+        Map<String, List<OrderEvent>> expectedByShowing = new HashMap<>();
+        Map<String, List<OrderEvent>> actualByShowing = new HashMap<>();
+        for (OrderEvent event : events) {
+            expectedByShowing.computeIfAbsent(event.getShowingId(), k -> new ArrayList<>()).add(event);
+        }
+        for (PricedOrder result : results) {
+            OrderEvent event = result.getOrder();
+            actualByShowing.computeIfAbsent(event.getShowingId(), k -> new ArrayList<>()).add(event);
+            PriceBreakdown expected = engine.computeTotal(event.getCounts(), event.is3D(), event.getDay());
+            assertEquals(expected.toString(), result.getBreakdown().toString());
+            assertEquals(1, result.getBreakdown().getTariffVersion());
+        }
+        for (Map.Entry<String, List<OrderEvent>> entry : expectedByShowing.entrySet()) {
+            List<OrderEvent> actual = actualByShowing.get(entry.getKey());
+            assertEquals(entry.getValue().size(), actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertSame(entry.getValue().get(i), actual.get(i), "order of " + entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Flux: Sans lots (batchSize = 1), résultats identiques")
+    void stream_UnbatchedLane() throws Exception {
+        PricingEngine engine = new PricingEngine();
+        List<OrderEvent> events = randomEvents(500, 3, 9L);
+        PricingProcessor processor = new PricingProcessor(engine, pool, 2, 16, 1);
+        List<PricedOrder> results = new ArrayList<>();
+        CompletableFuture<Void> done = collect(processor, results);
+
+        try (SubmissionPublisher<OrderEvent> source = new SubmissionPublisher<>(pool, 16)) {
+            source.subscribe(processor);
+            events.forEach(source::submit);
+        }
+        done.get(30, TimeUnit.SECONDS);
+
+        assertEquals(events.size(), results.size());
+        for (PricedOrder result : results) {
+            OrderEvent event = result.getOrder();
+            assertEquals(engine.computeTotal(event.getCounts(), event.is3D(), event.getDay()).getTotal(),
+                         result.getBreakdown().getTotal());
+        }
+    }
+
+    // ==================== CONTRE-PRESSION ====================
+
+    @Test
+    @DisplayName("Contre-pression: Demande amont bornée tant que l'abonné ne consomme pas")
+    void backpressure_BoundsUpstreamDemand() throws Exception {
+        int capacity = 8;
+        PricingProcessor processor = new PricingProcessor(new PricingEngine(), pool, 2, capacity, 4);
+        AtomicReference<Flow.Subscription> downstream = new AtomicReference<>();
+        ConcurrentLinkedQueue<PricedOrder> received = new ConcurrentLinkedQueue<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                downstream.set(subscription); // aucune demande pour l'instant
+            }
+
+            @Override
+            public void onNext(PricedOrder item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.onSubscribe(upstream);
+        List<OrderEvent> events = randomEvents(1_000, 4, 21L);
+
+        // Envoie tout ce que la demande permet, jusqu'à stabilisation
+        int sent = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (sent < upstream.requested.get() && sent < events.size()) {
+                processor.onNext(events.get(sent++));
+            } else {
+                Thread.sleep(1);
+            }
+        }
+        assertTrue(sent < events.size());
+        // Rien n'est remis, donc rien n'est redemandé au-delà de la capacité
+        assertEquals(capacity, upstream.requested.get());
+        assertEquals(capacity, sent);
+        assertTrue(received.isEmpty());
+
+        // L'abonné consomme : le reste du flux passe
+        downstream.get().request(Long.MAX_VALUE);
+        while (sent < events.size()) {
+            if (sent < upstream.requested.get()) {
+                processor.onNext(events.get(sent++));
+            } else {
+                Thread.sleep(1);
+            }
+        }
+        processor.onComplete();
+        completed.get(30, TimeUnit.SECONDS);
+        assertEquals(events.size(), received.size());
+        assertFalse(upstream.cancelled);
+    }
+
+    @Test
+    @DisplayName("Contre-pression: Remise limitée à la demande de l'abonné")
+    void backpressure_DeliversOnlyRequested() throws Exception {
+        PricingProcessor processor = new PricingProcessor(new PricingEngine(), pool, 2, 16, 4);
+        AtomicReference<Flow.Subscription> downstream = new AtomicReference<>();
+        ConcurrentLinkedQueue<PricedOrder> received = new ConcurrentLinkedQueue<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                downstream.set(subscription);
+                subscription.request(5);
+            }
+
+            @Override
+            public void onNext(PricedOrder item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.onSubscribe(upstream);
+        randomEvents(10, 2, 5L).forEach(processor::onNext);
+        processor.onComplete();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        assertEquals(5, received.size());
+        assertFalse(completed.isDone());
+
+        downstream.get().request(5);
+        completed.get(10, TimeUnit.SECONDS);
+        assertEquals(10, received.size());
+    }
+
+    // ==================== ERREURS ====================
+
+    @Test
+    @DisplayName("Erreurs: Erreur amont transmise aux abonnés")
+    void errors_UpstreamErrorPropagates() {
+        PricingProcessor processor = new PricingProcessor(new PricingEngine(), pool, 2, 8, 4);
+        CompletableFuture<Void> done = collect(processor, new ArrayList<>());
+        processor.onSubscribe(new RecordingSubscription());
+
+        processor.onError(new IllegalStateException("gateway down"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> done.get(5, TimeUnit.SECONDS));
+        assertEquals("gateway down", e.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Erreurs: Seconde souscription amont annulée")
+    void errors_SecondSubscriptionCancelled() {
+        PricingProcessor processor = new PricingProcessor(new PricingEngine(), pool, 1, 8, 4);
+        RecordingSubscription first = new RecordingSubscription();
+        RecordingSubscription second = new RecordingSubscription();
+
+        processor.onSubscribe(first);
+        processor.onSubscribe(second);
+
+        assertEquals(8, first.requested.get());
+        assertFalse(first.cancelled);
+        assertTrue(second.cancelled);
+        assertThrows(NullPointerException.class, () -> processor.onNext(null));
+    }
+
+    @Test
+    @DisplayName("Erreurs: Un seul abonné aval ; annulation propagée en amont")
+    void errors_SingleSubscriberAndCancel() {
+        PricingProcessor processor = new PricingProcessor(new PricingEngine(), pool, 1, 8, 4);
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.onSubscribe(upstream);
+        AtomicReference<Flow.Subscription> first = new AtomicReference<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                first.set(subscription);
+            }
+
+            @Override
+            public void onNext(PricedOrder item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        CompletableFuture<Void> second = collect(processor, new ArrayList<>());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        first.get().cancel();
+        assertTrue(upstream.cancelled);
+    }
+
+    @Test
+    @DisplayName("Paramètres invalides")
+    void invalidArguments() {
+        PricingEngine engine = new PricingEngine();
+        assertThrows(IllegalArgumentException.class, () -> new PricingProcessor(null));
+        assertThrows(IllegalArgumentException.class, () -> new PricingProcessor(engine, null, 1, 8, 4));
+        assertThrows(IllegalArgumentException.class, () -> new PricingProcessor(engine, pool, 0, 8, 4));
+        assertThrows(IllegalArgumentException.class, () -> new PricingProcessor(engine, pool, 1, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new PricingProcessor(engine, pool, 1, 8, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderEvent(null, new int[4], false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderEvent("s", new int[3], false, DayOfWeek.MONDAY));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrderEvent("s", new int[] {0, -1, 0, 0}, false, DayOfWeek.MONDAY));
+
+        int[] counts = {2, 0, 1, 0};
+        OrderEvent event = new OrderEvent("s", counts, true, DayOfWeek.FRIDAY);
+        counts[0] = 99;
+        assertEquals(2, event.count(TicketType.ADULT));
+        assertTrue(event.toString().contains("showing=s"));
+    }
+}